@@ -2,7 +2,6 @@ package com.pathprep;
 
 import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
 import io.github.resilience4j.timelimiter.TimeLimiterConfig;
-import org.modelmapper.ModelMapper;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
@@ -12,8 +11,8 @@ import org.springframework.cloud.client.circuitbreaker.Customizer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.data.mongodb.repository.config.EnableMongoRepositories;
-import org.springframework.retry.annotation.EnableRetry;
 import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 import java.time.Duration;
 
@@ -21,19 +20,14 @@ import java.time.Duration;
 @ConfigurationPropertiesScan("com.pathprep.config")
 @ComponentScan("com.pathprep")
 @EnableMongoRepositories("com.pathprep.repository")
-@EnableRetry
 @EnableAsync
+@EnableScheduling
 public class PathPrepBackendApplication {
 
     public static void main(String[] args) {
         SpringApplication.run(PathPrepBackendApplication.class, args);
     }
 
-    @Bean
-    public ModelMapper modelMapper() {
-        return new ModelMapper();
-    }
-    
     @Bean
     public Customizer<Resilience4JCircuitBreakerFactory> backendCustomizer() {
         return factory -> factory.configureDefault(id -> new Resilience4JConfigBuilder(id)
@@ -0,0 +1,55 @@
+package com.pathprep.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Settings for admission control of requests that need the LLM, per endpoint class.
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "pathprep.admission")
+public class AdmissionProperties {
+    /**
+     * When disabled every request that needs the LLM is let through.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Limits keyed by endpoint class: {@code questions}, {@code roadmaps} or {@code resources}.
+     * Classes without an entry use the defaults of {@link EndpointClass}.
+     */
+    private Map<String, EndpointClass> classes = new HashMap<>();
+
+    public EndpointClass forClass(String endpointClass) {
+        return classes.getOrDefault(endpointClass, new EndpointClass());
+    }
+
+    @Data
+    public static class EndpointClass {
+        /**
+         * Requests of the class generating at the same time.
+         */
+        private int maxConcurrent = 16;
+
+        /**
+         * Requests waiting for one of those slots; more are rejected immediately.
+         */
+        private int maxQueued = 32;
+
+        /**
+         * Longest a request waits for a slot before it is rejected.
+         */
+        private Duration maxWait = Duration.ofSeconds(2);
+
+        /**
+         * Sent as {@code Retry-After} with a rejection.
+         */
+        private Duration retryAfter = Duration.ofSeconds(10);
+    }
+}
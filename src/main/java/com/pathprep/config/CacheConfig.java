@@ -1,5 +1,9 @@
 package com.pathprep.config;
 
+import com.pathprep.diagnostics.CacheAccessEvent;
+import com.pathprep.util.ServerTimings;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.cache.concurrent.ConcurrentMapCache;
@@ -7,23 +11,130 @@ import org.springframework.cache.support.SimpleCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.ArrayDeque;
 import java.util.Arrays;
+import java.util.Queue;
 
 @Configuration
 @EnableCaching
 public class CacheConfig {
 
     @Bean
-    public CacheManager cacheManager() {
+    public CacheManager cacheManager(MeterRegistry meterRegistry, RenditionProperties renditionProperties) {
         SimpleCacheManager cacheManager = new SimpleCacheManager();
         cacheManager.setCaches(Arrays.asList(
-            new ConcurrentMapCache("roadmaps"),
-            new ConcurrentMapCache("roles"),
-            new ConcurrentMapCache("skills"),
-            new ConcurrentMapCache("interviewQuestions"),
-            new ConcurrentMapCache("skillResources"),
-            new ConcurrentMapCache("skillInterviewQuestions")
+            new MeteredConcurrentMapCache("roadmaps", meterRegistry),
+            new MeteredConcurrentMapCache("roles", meterRegistry),
+            new MeteredConcurrentMapCache("skills", meterRegistry),
+            new MeteredConcurrentMapCache("interviewQuestions", meterRegistry),
+            new MeteredConcurrentMapCache("skillResources", meterRegistry),
+            new MeteredConcurrentMapCache("skillInterviewQuestions", meterRegistry),
+            new MeteredConcurrentMapCache("renderedRoadmaps", renditionProperties.getCacheMaxEntries(), meterRegistry)
         ));
         return cacheManager;
     }
+
+    /**
+     * Counts hits and misses as {@code pathprep.cache.gets}. {@link ConcurrentMapCache} keeps no
+     * statistics of its own, and both {@code @Cacheable} paths, including the reactive
+     * {@code retrieve}, go through {@link #lookup}. Lookups and the loads stored after a miss
+     * are also recorded as {@link CacheAccessEvent}s while a flight recording runs.
+     *
+     * <p>With {@code maxEntries} set, the oldest entries are evicted first once the cache
+     * holds more than that many.</p>
+     */
+    static class MeteredConcurrentMapCache extends ConcurrentMapCache {
+
+        private final Counter hits;
+        private final Counter misses;
+        private final int maxEntries;
+        private final Queue<Object> insertionOrder = new ArrayDeque<>();
+
+        MeteredConcurrentMapCache(String name, MeterRegistry meterRegistry) {
+            this(name, 0, meterRegistry);
+        }
+
+        MeteredConcurrentMapCache(String name, int maxEntries, MeterRegistry meterRegistry) {
+            super(name);
+            this.maxEntries = maxEntries;
+            this.hits = counter(name, "hit", meterRegistry);
+            this.misses = counter(name, "miss", meterRegistry);
+        }
+
+        @Override
+        protected Object lookup(Object key) {
+            ServerTimings timings = ServerTimings.current();
+            long started = timings != null ? System.nanoTime() : 0L;
+            CacheAccessEvent event = new CacheAccessEvent();
+            event.begin();
+            Object value = super.lookup(key);
+            (value != null ? hits : misses).increment();
+            commit(event, CacheAccessEvent.OPERATION_LOOKUP, value != null);
+            if (timings != null) {
+                timings.record("cache", System.nanoTime() - started);
+            }
+            return value;
+        }
+
+        @Override
+        public void put(Object key, Object value) {
+            CacheAccessEvent event = new CacheAccessEvent();
+            event.begin();
+            if (maxEntries > 0) {
+                putBounded(key, value);
+            } else {
+                super.put(key, value);
+            }
+            commit(event, CacheAccessEvent.OPERATION_LOAD, false);
+        }
+
+        @Override
+        public void evict(Object key) {
+            if (maxEntries > 0) {
+                synchronized (insertionOrder) {
+                    super.evict(key);
+                    insertionOrder.remove(key);
+                }
+            } else {
+                super.evict(key);
+            }
+        }
+
+        @Override
+        public void clear() {
+            synchronized (insertionOrder) {
+                super.clear();
+                insertionOrder.clear();
+            }
+        }
+
+        private void putBounded(Object key, Object value) {
+            synchronized (insertionOrder) {
+                if (getNativeCache().put(key, toStoreValue(value)) == null) {
+                    insertionOrder.add(key);
+                }
+                while (getNativeCache().size() > maxEntries && !insertionOrder.isEmpty()) {
+                    super.evict(insertionOrder.poll());
+                }
+            }
+        }
+
+        private void commit(CacheAccessEvent event, String operation, boolean hit) {
+            event.end();
+            if (event.shouldCommit()) {
+                event.cache = getName();
+                event.operation = operation;
+                event.hit = hit;
+                event.commit();
+            }
+        }
+
+        private static Counter counter(String cache, String result, MeterRegistry meterRegistry) {
+            return Counter.builder("pathprep.cache.gets")
+                    .description("Cache lookups by result")
+                    .tag("cache", cache)
+                    .tag("result", result)
+                    .register(meterRegistry);
+        }
+    }
 }
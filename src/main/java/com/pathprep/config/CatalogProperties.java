@@ -0,0 +1,26 @@
+package com.pathprep.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Settings for the in-memory role and skill catalog.
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "pathprep.catalog")
+public class CatalogProperties {
+    /**
+     * Serve role and skill reads from an in-memory snapshot loaded at startup.
+     */
+    private boolean enabled = true;
+    /**
+     * Reload the snapshot when another instance changes the catalog. Requires MongoDB
+     * to run as a replica set; without it only writes made by this instance are seen.
+     */
+    private boolean followChanges = false;
+    private Duration changeStreamMaxBackoff = Duration.ofMinutes(1);
+}
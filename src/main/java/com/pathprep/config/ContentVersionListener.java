@@ -0,0 +1,21 @@
+package com.pathprep.config;
+
+import com.pathprep.model.ContentVersioned;
+import org.springframework.data.mongodb.core.mapping.event.AbstractMongoEventListener;
+import org.springframework.data.mongodb.core.mapping.event.BeforeConvertEvent;
+import org.springframework.stereotype.Component;
+
+/**
+ * Gives {@link ContentVersioned} documents a new version on every template or repository save.
+ * Writes through the write-behind queue are stamped when they are queued.
+ */
+@Component
+public class ContentVersionListener extends AbstractMongoEventListener<Object> {
+
+    @Override
+    public void onBeforeConvert(BeforeConvertEvent<Object> event) {
+        if (event.getSource() instanceof ContentVersioned versioned) {
+            versioned.setContentVersion(ContentVersioned.newVersion());
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.pathprep.config;
+
+import com.pathprep.util.Deadline;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.time.Duration;
+
+/**
+ * Binds a {@link Deadline} to every request when it arrives: the client's timeout header
+ * capped at the configured maximum, or else the default of the endpoint.
+ */
+@Component
+@RequiredArgsConstructor
+public class DeadlineInterceptor implements HandlerInterceptor {
+
+    private final DeadlineProperties properties;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        // Runs again on the async dispatch of reactive handlers; the deadline counts from the first
+        if (properties.isEnabled() && request.getAttribute(Deadline.ATTRIBUTE) == null) {
+            request.setAttribute(Deadline.ATTRIBUTE, Deadline.after(timeout(request)));
+        }
+        return true;
+    }
+
+    private Duration timeout(HttpServletRequest request) {
+        Duration requested = parseMillis(request.getHeader(properties.getRequestHeader()));
+        if (requested != null) {
+            return requested.compareTo(properties.getMaxTimeout()) < 0 ? requested : properties.getMaxTimeout();
+        }
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern != null
+                ? properties.getEndpointTimeouts().getOrDefault(pattern.toString(), properties.getDefaultTimeout())
+                : properties.getDefaultTimeout();
+    }
+
+    private static Duration parseMillis(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            long millis = Long.parseLong(value.trim());
+            return millis > 0 ? Duration.ofMillis(millis) : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.pathprep.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Settings for request deadlines, which bound database queries, LLM calls and retries.
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "pathprep.deadline")
+public class DeadlineProperties {
+    /**
+     * When disabled only the fixed per-operation timeouts apply.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Request header with the time in milliseconds the client is willing to wait.
+     */
+    private String requestHeader = "X-Request-Timeout";
+
+    /**
+     * Deadline of requests without the header whose endpoint has no entry in {@link #endpointTimeouts}.
+     */
+    private Duration defaultTimeout = Duration.ofSeconds(30);
+
+    /**
+     * Upper bound for deadlines asked for by clients.
+     */
+    private Duration maxTimeout = Duration.ofSeconds(60);
+
+    /**
+     * Deadline per endpoint for requests without the header, keyed by path pattern without the
+     * context path, for example {@code /roadmaps/detailed}.
+     */
+    private Map<String, Duration> endpointTimeouts = new HashMap<>();
+}
@@ -0,0 +1,30 @@
+package com.pathprep.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Bounds for recordings started through the {@code flightrecording} actuator endpoint.
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "pathprep.flight-recorder")
+public class FlightRecorderProperties {
+    /**
+     * JFR configuration the recording starts from, {@code default} or {@code profile}.
+     */
+    private String settings = "profile";
+
+    /**
+     * Longest a recording may run; it stops by itself after this.
+     */
+    private Duration maxDuration = Duration.ofMinutes(10);
+
+    /**
+     * Most data a recording keeps on disk before dropping its oldest chunks.
+     */
+    private long maxSizeBytes = 100L * 1024 * 1024;
+}
@@ -0,0 +1,44 @@
+package com.pathprep.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Settings for the adaptive limit on concurrent Groq calls, applied per model.
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "pathprep.llm-concurrency")
+public class LlmConcurrencyProperties {
+    /**
+     * When disabled every call goes out immediately.
+     */
+    private boolean enabled = true;
+
+    private int initialLimit = 4;
+    private int minLimit = 1;
+    private int maxLimit = 32;
+
+    /**
+     * How many times the lowest recent latency per completion token a call may take before the limit shrinks.
+     */
+    private double latencyTolerance = 2.0;
+
+    /**
+     * Calls after which the latency baseline is re-established.
+     */
+    private int window = 100;
+
+    /**
+     * Calls that may wait for a slot; more are rejected with a 503.
+     */
+    private int maxQueued = 200;
+
+    /**
+     * Longest a call waits for a slot before it is rejected with a 503.
+     */
+    private Duration maxQueueWait = Duration.ofSeconds(20);
+}
@@ -0,0 +1,45 @@
+package com.pathprep.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Settings for the journal of raw LLM calls kept for offline replay.
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "pathprep.llm-journal")
+public class LlmJournalProperties {
+    /**
+     * Off by default; prompts and completions are stored verbatim apart from redaction.
+     */
+    private boolean enabled = false;
+
+    private String directory = "./data/llm-journal";
+
+    /**
+     * Uncompressed bytes written to one file before a new one is started.
+     */
+    private long maxFileBytes = 64L * 1024 * 1024;
+
+    /**
+     * Files kept; the oldest are deleted once there are more.
+     */
+    private int maxFiles = 20;
+
+    /**
+     * How often queued calls are written out.
+     */
+    private long flushIntervalMs = 1000;
+
+    /**
+     * Calls queued between flushes beyond which new ones are dropped.
+     */
+    private int maxPending = 1000;
+
+    /**
+     * Mask e-mail addresses, phone numbers and credentials in prompts and completions.
+     */
+    private boolean redact = true;
+}
@@ -0,0 +1,44 @@
+package com.pathprep.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Settings for the LLM usage ledger and the daily token budgets.
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "pathprep.llm-usage")
+public class LlmUsageProperties {
+    /**
+     * When disabled LLM calls are not recorded and no budget is enforced.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Delay between two flushes of the per-minute aggregates, in milliseconds.
+     */
+    private long flushIntervalMs = 60_000;
+
+    /**
+     * Request header identifying the API client. Requests without it, or with anything but an
+     * identifier of up to 64 letters, digits and {@code ._:-}, are attributed to "anonymous".
+     */
+    private String clientHeader = "X-Client-Id";
+
+    /**
+     * Distinct clients per day and instance that get their own aggregates; usage of any
+     * further client is recorded under "other".
+     */
+    private int maxClientsPerDay = 1000;
+
+    /**
+     * Tokens each endpoint may use per day before it only serves stored content. Keyed by
+     * endpoint path, for example {@code /roadmaps/detailed}; missing or 0 means unlimited.
+     */
+    private Map<String, Long> dailyTokenBudgets = new HashMap<>();
+}
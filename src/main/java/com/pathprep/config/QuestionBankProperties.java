@@ -0,0 +1,30 @@
+package com.pathprep.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Settings for the in-memory question bank index.
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "pathprep.questions.bank")
+public class QuestionBankProperties {
+    /**
+     * Serve question sampling from memory. Requires MongoDB to run as a replica set
+     * so the index can follow changes through change streams.
+     */
+    private boolean enabled = false;
+    private int loadBatchSize = 1000;
+    private Duration changeStreamMaxBackoff = Duration.ofMinutes(1);
+
+    /**
+     * Change events are collected for up to this long, or up to {@code changeBatchSize}
+     * events, and applied together.
+     */
+    private Duration changeBatchWindow = Duration.ofMillis(200);
+    private int changeBatchSize = 1000;
+}
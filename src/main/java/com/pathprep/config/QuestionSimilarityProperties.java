@@ -0,0 +1,31 @@
+package com.pathprep.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Thresholds for near-duplicate question detection.
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "pathprep.questions.similarity")
+public class QuestionSimilarityProperties {
+    private boolean enabled = true;
+
+    /**
+     * Two questions whose 64-bit SimHash signatures differ in at most this
+     * many bits are treated as the same question (1-15).
+     */
+    private int maxHammingDistance = 6;
+
+    /**
+     * Cap on signatures kept per (role, experience, skill) partition.
+     */
+    private int maxIndexedPerPartition = 5000;
+
+    /**
+     * Cap on partitions kept in memory; the least recently used one is dropped beyond it.
+     */
+    private int maxPartitions = 1000;
+}
@@ -0,0 +1,18 @@
+package com.pathprep.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Settings for pre-rendered roadmap responses.
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "pathprep.renditions")
+public class RenditionProperties {
+    /**
+     * Renditions kept in memory; older ones are read back from MongoDB on demand.
+     */
+    private int cacheMaxEntries = 500;
+}
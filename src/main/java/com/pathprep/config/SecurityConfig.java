@@ -3,6 +3,7 @@ package com.pathprep.config;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.annotation.Order;
+import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
@@ -20,6 +21,32 @@ public class SecurityConfig {
         this.corsConfigurationSource = corsConfigurationSource;
     }
 
+    /**
+     * Admin surfaces sign in with basic auth. Kept in a chain of their own so the API's
+     * unauthenticated responses stay plain 403s without a {@code WWW-Authenticate} challenge.
+     */
+    @Bean
+    @Order(0)
+    public SecurityFilterChain adminSecurityFilterChain(HttpSecurity http) throws Exception {
+        http
+            .securityMatcher("/actuator/**", "/llm-usage/**")
+            .csrf(AbstractHttpConfigurer::disable)
+            .cors(cors -> cors.configurationSource(corsConfigurationSource))
+            .authorizeHttpRequests(auth -> auth
+                // Allow Prometheus to scrape metrics
+                .requestMatchers("/actuator/prometheus").permitAll()
+
+                // Flight recordings expose internals and usage reports name clients; admins only
+                .requestMatchers("/actuator/flightrecording/**", "/llm-usage/**").hasRole("ADMIN")
+
+                .anyRequest().authenticated()
+            )
+            .formLogin(AbstractHttpConfigurer::disable)
+            .httpBasic(Customizer.withDefaults());
+
+        return http.build();
+    }
+
     @Bean
     @Order(1)
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
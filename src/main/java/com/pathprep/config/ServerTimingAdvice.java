@@ -0,0 +1,63 @@
+package com.pathprep.config;
+
+import com.pathprep.util.ServerTimings;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Adds a {@code Server-Timing} header to responses of requests that ask for it.
+ *
+ * <p>As an interceptor it binds a {@link ServerTimings} to requests carrying the configured
+ * header; services pick it up while assembling their pipelines and carry it through the
+ * Reactor context. As a body advice it writes the header just before the body, which for
+ * reactive handlers happens once the result has been produced. Requests without the
+ * header pay for one header lookup.</p>
+ */
+@ControllerAdvice
+@RequiredArgsConstructor
+public class ServerTimingAdvice implements HandlerInterceptor, ResponseBodyAdvice<Object> {
+
+    public static final String HEADER = "Server-Timing";
+
+    private final ServerTimingProperties properties;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        // Runs again on the async dispatch of reactive handlers; keep the first instance
+        if (properties.isEnabled() && request.getAttribute(ServerTimings.ATTRIBUTE) == null
+                && isRequested(request.getHeader(properties.getRequestHeader()))) {
+            request.setAttribute(ServerTimings.ATTRIBUTE, new ServerTimings(System.nanoTime()));
+        }
+        return true;
+    }
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return properties.isEnabled();
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        if (request instanceof ServletServerHttpRequest servletRequest
+                && servletRequest.getServletRequest().getAttribute(ServerTimings.ATTRIBUTE) instanceof ServerTimings timings) {
+            response.getHeaders().set(HEADER, timings.toHeaderValue(System.nanoTime()));
+        }
+        return body;
+    }
+
+    private static boolean isRequested(String value) {
+        return value != null && ("true".equalsIgnoreCase(value.trim()) || "1".equals(value.trim()));
+    }
+}
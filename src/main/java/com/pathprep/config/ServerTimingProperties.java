@@ -0,0 +1,23 @@
+package com.pathprep.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Settings for the per-request {@code Server-Timing} breakdown.
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "pathprep.server-timing")
+public class ServerTimingProperties {
+    /**
+     * When disabled the request header is ignored and no timings are collected.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Request header that turns the breakdown on for one request when set to true or 1.
+     */
+    private String requestHeader = "X-Server-Timing";
+}
@@ -0,0 +1,40 @@
+package com.pathprep.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Settings for view counting and the time-decayed trending score.
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "pathprep.views")
+public class ViewCounterProperties {
+    /**
+     * When disabled views are not counted and trending scores stay as they are.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Delay between two flushes of the in-memory counters, in milliseconds.
+     */
+    private long flushIntervalMs = 5000;
+
+    /**
+     * Maximum number of documents updated in one bulkWrite call.
+     */
+    private int maxBatchSize = 1000;
+
+    /**
+     * Time after which a view counts half as much towards the trending score.
+     */
+    private Duration trendingHalfLife = Duration.ofDays(3);
+
+    /**
+     * Delay between two passes decaying the trending score of documents that got no views, in milliseconds.
+     */
+    private long decayIntervalMs = 3_600_000;
+}
@@ -0,0 +1,46 @@
+package com.pathprep.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Settings for the write-behind queue that persists AI-generated content
+ * after the response has been returned.
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "pathprep.write-behind")
+public class WriteBehindProperties {
+    /**
+     * When disabled every write goes straight to MongoDB on the request path.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Delay between two scheduled flushes, in milliseconds.
+     */
+    private long flushIntervalMs = 1000;
+
+    /**
+     * Maximum number of writes sent in one bulkWrite call.
+     */
+    private int maxBatchSize = 500;
+
+    /**
+     * Upper bound on queued writes. Submissions beyond it are rejected and
+     * callers fall back to a synchronous save.
+     */
+    private int maxPending = 10000;
+
+    /**
+     * Directory where unflushed writes are spilled on shutdown and replayed on startup.
+     */
+    private String spillDirectory = "./data/write-behind";
+
+    /**
+     * Times MongoDB may reject a write before it is moved to a dead-letter file in the spill
+     * directory. Those files are not replayed.
+     */
+    private int maxAttempts = 5;
+}
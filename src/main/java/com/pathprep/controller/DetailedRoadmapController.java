@@ -1,9 +1,18 @@
 package com.pathprep.controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.pathprep.dto.DetailedRoadmapRequest;
 import com.pathprep.dto.ApiResponse;
 import com.pathprep.dto.response.DetailedRoadmapResponse;
+import com.pathprep.exception.OverloadedException;
+import com.pathprep.exception.ServiceUnavailableException;
+import com.pathprep.model.RoadmapRendition;
+import com.pathprep.model.ViewTarget;
 import com.pathprep.service.DetailedRoadmapService;
+import com.pathprep.service.ViewCounterService;
+import com.pathprep.util.AcceptEncoding;
+import com.pathprep.util.ConditionalRequests;
+import com.pathprep.util.FieldSelection;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -13,11 +22,15 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import reactor.core.publisher.Mono;
 
+import java.util.Set;
+
 /**
  * REST controller for managing detailed learning roadmaps.
  * Provides endpoints for generating and retrieving comprehensive learning paths.
@@ -29,7 +42,12 @@ import reactor.core.publisher.Mono;
 @Tag(name = "Detailed Roadmap", description = "API for generating and managing detailed learning roadmaps")
 public class DetailedRoadmapController {
 
+    private static final Set<String> ROADMAP_FIELDS = Set.of("id", "role", "experienceLevel", "compositeKey",
+            "estimatedWeeks", "phases", "requiredSkills", "prerequisites", "metadata", "createdAt", "updatedAt",
+            "contentVersion");
+
     private final DetailedRoadmapService roadmapService;
+    private final ViewCounterService viewCounterService;
 
     @Operation(
         summary = "Generate or retrieve a detailed learning roadmap (GET)",
@@ -56,14 +74,27 @@ public class DetailedRoadmapController {
             @RequestParam String role,
             @RequestParam String experienceLevel,
             @Parameter(description = "Force regeneration of roadmap even if one exists", required = false)
-            @RequestParam(required = false, defaultValue = "false") boolean forceRegenerate) {
+            @RequestParam(required = false, defaultValue = "false") boolean forceRegenerate,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         
         DetailedRoadmapRequest request = DetailedRoadmapRequest.builder()
                 .role(role)
                 .experienceLevel(experienceLevel)
                 .forceRegenerate(forceRegenerate)
                 .build();
-        return generateOrGetRoadmap(request);
+        
+        // The validators and the 304 check both come from the (cached) roadmap the 200 would carry
+        return generateOrGetRoadmap(request)
+                .map(response -> {
+                    DetailedRoadmapResponse roadmap = response.getBody() != null ? response.getBody().getData() : null;
+                    if (!response.getStatusCode().is2xxSuccessful() || roadmap == null) {
+                        return response;
+                    }
+                    if (!forceRegenerate && ConditionalRequests.matches(ifNoneMatch, roadmap.getContentVersion())) {
+                        return ConditionalRequests.notModified(roadmap.getContentVersion(), roadmap.getUpdatedAt());
+                    }
+                    return ConditionalRequests.withValidators(response, roadmap.getContentVersion(), roadmap.getUpdatedAt());
+                });
     }
     
     @Operation(
@@ -93,6 +124,7 @@ public class DetailedRoadmapController {
                 request.getRole(), request.getExperienceLevel(), request.isForceRegenerate());
         
         return roadmapService.generateOrGetRoadmap(request)
+                .doOnNext(roadmap -> viewCounterService.recordView(ViewTarget.DETAILED_ROADMAP, roadmap.getId()))
                 .map(roadmap -> ResponseEntity.ok(
                         ApiResponse.<DetailedRoadmapResponse>builder()
                                 .success(true)
@@ -102,6 +134,12 @@ public class DetailedRoadmapController {
                                 .build()
                 ))
                 .onErrorResume(e -> {
+                    if (e instanceof ServiceUnavailableException) {
+                        return Mono.just(ResponseEntity
+                                .status(HttpStatus.SERVICE_UNAVAILABLE)
+                                .headers(OverloadedException.retryAfterHeaders(e))
+                                .body(ApiResponse.<DetailedRoadmapResponse>error(503, e.getMessage())));
+                    }
                     log.error("Error generating roadmap: {}", e.getMessage(), e);
                     return Mono.just(ResponseEntity
                             .status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -130,23 +168,69 @@ public class DetailedRoadmapController {
         )
     })
     @GetMapping("/detailed/{compositeKey}")
-    public Mono<ResponseEntity<ApiResponse<DetailedRoadmapResponse>>> getRoadmapByCompositeKey(
-            @PathVariable String compositeKey) {
+    public Mono<ResponseEntity<Object>> getRoadmapByCompositeKey(
+            @PathVariable String compositeKey,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @Parameter(description = "Comma separated fields to return, nested with dots; omit for the whole roadmap",
+                    example = "role,estimatedWeeks,phases.phaseName")
+            @RequestParam(required = false) String fields) {
         
         log.debug("Fetching roadmap with key: {}", compositeKey);
+        FieldSelection selection;
+        try {
+            selection = FieldSelection.parse(fields, ROADMAP_FIELDS, FieldSelection.ALL);
+        } catch (IllegalArgumentException e) {
+            return Mono.just(ResponseEntity.badRequest().<Object>body(ApiResponse.<DetailedRoadmapResponse>builder()
+                    .success(false)
+                    .message(e.getMessage())
+                    .statusCode(400)
+                    .build()));
+        }
+        if (!selection.isAll()) {
+            return sparseRoadmap(compositeKey, selection);
+        }
+        boolean gzip = AcceptEncoding.allowsGzip(acceptEncoding);
         
-        return roadmapService.getRoadmapByCompositeKey(compositeKey)
-                .map(roadmap -> ResponseEntity.ok(
-                        ApiResponse.<DetailedRoadmapResponse>builder()
-                                .success(true)
-                                .data(roadmap)
-                                .message("Roadmap retrieved successfully")
-                                .statusCode(200)
+        // The 304 and the 200's validators both come from the rendition the 200 would carry,
+        // which can be ahead of or behind the stored roadmap while a save is pending
+        return roadmapService.getRenderedRoadmap(compositeKey)
+                .map(rendition -> {
+                    String version = representationVersion(rendition.getContentVersion(), gzip);
+                    if (ConditionalRequests.matches(ifNoneMatch, version)) {
+                        return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                                .headers(ConditionalRequests.validators(version, rendition.getLastModified()))
+                                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                                .<Object>build();
+                    }
+                    viewCounterService.recordView(ViewTarget.DETAILED_ROADMAP, rendition.getRoadmapId());
+                    return renderedResponse(rendition, gzip);
+                })
+                .switchIfEmpty(Mono.just(ResponseEntity
+                        .status(HttpStatus.NOT_FOUND)
+                        .<Object>body(ApiResponse.<DetailedRoadmapResponse>builder()
+                                .success(false)
+                                .message("Roadmap not found with key: " + compositeKey)
+                                .statusCode(404)
                                 .build()
-                ))
+                        )));
+    }
+
+    /**
+     * Partial roadmaps skip the rendition and read only the selected fields from MongoDB.
+     */
+    private Mono<ResponseEntity<Object>> sparseRoadmap(String compositeKey, FieldSelection selection) {
+        return roadmapService.getRoadmapByCompositeKey(compositeKey, selection)
+                .doOnNext(roadmap -> viewCounterService.recordView(ViewTarget.DETAILED_ROADMAP, roadmap.getId()))
+                .map(roadmap -> ResponseEntity.ok().<Object>body(ApiResponse.<JsonNode>builder()
+                        .success(true)
+                        .data(selection.apply(roadmap))
+                        .message("Roadmap retrieved successfully")
+                        .statusCode(200)
+                        .build()))
                 .switchIfEmpty(Mono.just(ResponseEntity
                         .status(HttpStatus.NOT_FOUND)
-                        .body(ApiResponse.<DetailedRoadmapResponse>builder()
+                        .<Object>body(ApiResponse.<DetailedRoadmapResponse>builder()
                                 .success(false)
                                 .message("Roadmap not found with key: " + compositeKey)
                                 .statusCode(404)
@@ -154,6 +238,28 @@ public class DetailedRoadmapController {
                         )));
     }
 
+    /**
+     * Writes the stored bytes as-is; the rendition already holds the serialized ApiResponse.
+     */
+    private static ResponseEntity<Object> renderedResponse(RoadmapRendition rendition, boolean gzip) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .headers(ConditionalRequests.validators(
+                        representationVersion(rendition.getContentVersion(), gzip), rendition.getLastModified()))
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            builder.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return builder.body(gzip ? rendition.getGzip() : rendition.getJson());
+    }
+
+    /**
+     * Strong ETags must differ between the plain and gzip representations.
+     */
+    private static String representationVersion(String version, boolean gzip) {
+        return version == null || !gzip ? version : version + "-gzip";
+    }
+
     @Operation(
         summary = "Delete a roadmap by ID",
         description = "Deletes a detailed learning roadmap by its ID."
@@ -1,9 +1,19 @@
 package com.pathprep.controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.pathprep.dto.CursorPage;
 import com.pathprep.dto.GenerateQuestionsRequest;
 import com.pathprep.dto.InterviewQuestionResponse;
+import com.pathprep.dto.QuestionAnswersRequest;
+import com.pathprep.dto.QuestionAnswersResponse;
+import com.pathprep.dto.QuestionQuery;
+import com.pathprep.dto.QuestionSearchResult;
 import com.pathprep.dto.SkillQuestionsRequest;
+import com.pathprep.exception.ServiceUnavailableException;
+import com.pathprep.model.ViewTarget;
 import com.pathprep.service.InterviewQuestionService;
+import com.pathprep.service.ViewCounterService;
+import com.pathprep.util.FieldSelection;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -18,6 +28,8 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import reactor.core.publisher.Mono;
 
+import java.util.Set;
+
 @Slf4j
 @RestController
 @RequestMapping("/interview-questions")
@@ -25,7 +37,12 @@ import reactor.core.publisher.Mono;
 @Tag(name = "Interview Questions", description = "API for generating and retrieving interview questions")
 public class InterviewQuestionController {
 
+    private static final Set<String> QUESTION_FIELDS = Set.of("id", "question", "answer", "category", "difficulty");
+
+    private static final FieldSelection QUESTION_SUMMARY = FieldSelection.of("id", "question", "category", "difficulty");
+
     private final InterviewQuestionService interviewQuestionService;
+    private final ViewCounterService viewCounterService;
 
     @PostMapping
     @Operation(summary = "Generate interview questions", 
@@ -52,6 +69,10 @@ public class InterviewQuestionController {
         return interviewQuestionService.generateQuestions(request)
                 .map(ResponseEntity::ok)
                 .onErrorResume(e -> {
+                    if (e instanceof ServiceUnavailableException) {
+                        // GlobalExceptionHandler answers with an ApiResponse body and Retry-After
+                        return Mono.error(e);
+                    }
                     log.error("Error generating interview questions", e);
                     return Mono.just(ResponseEntity
                             .internalServerError()
@@ -79,9 +100,25 @@ public class InterviewQuestionController {
             @Parameter(description = "Number of questions to return", example = "10") 
             @RequestParam(defaultValue = "10") int count,
             @Parameter(description = "Force refresh the cache", example = "false")
-            @RequestParam(required = false, defaultValue = "false") boolean forceRefresh) {
+            @RequestParam(required = false, defaultValue = "false") boolean forceRefresh,
+            @Parameter(description = "Only return questions of this difficulty", example = "Medium")
+            @RequestParam(required = false) String difficulty,
+            @Parameter(description = "Only return questions in this category", example = "Spring Framework")
+            @RequestParam(required = false) String category,
+            @Parameter(description = "Include answers; set to false for list views and fetch answers separately", example = "true")
+            @RequestParam(required = false, defaultValue = "true") boolean includeAnswers) {
         
-        return interviewQuestionService.getQuestions(role, experienceLevel, count, forceRefresh)
+        QuestionQuery query = QuestionQuery.builder()
+                .role(role)
+                .experienceLevel(experienceLevel)
+                .count(count)
+                .forceRefresh(forceRefresh)
+                .difficulty(difficulty)
+                .category(category)
+                .includeAnswers(includeAnswers)
+                .build();
+        return interviewQuestionService.getQuestions(query)
+            .doOnNext(this::recordServed)
             .map(ResponseEntity::ok)
             .switchIfEmpty(Mono.just(ResponseEntity
                     .notFound()
@@ -93,6 +130,124 @@ public class InterviewQuestionController {
                             .notFound()
                             .build());
                 }
+                if (e instanceof ServiceUnavailableException) {
+                    // GlobalExceptionHandler answers with an ApiResponse body and Retry-After
+                    return Mono.error(e);
+                }
+                return Mono.just(ResponseEntity
+                        .internalServerError()
+                        .build());
+            });
+    }
+    
+    @GetMapping("/page")
+    @Operation(summary = "List stored interview questions", 
+               description = "Lists stored questions for a role and experience level in a stable order, one page at a time")
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "200", 
+            description = "Successfully listed interview questions"
+        ),
+        @ApiResponse(
+            responseCode = "400", 
+            description = "Invalid cursor"
+        )
+    })
+    public Mono<ResponseEntity<CursorPage<JsonNode>>> listQuestions(
+            @Parameter(description = "Job role", example = "Java Developer") @RequestParam String role,
+            @Parameter(description = "Experience level", example = "Mid") @RequestParam String experienceLevel,
+            @Parameter(description = "nextCursor of the previous page; omit for the first page")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Maximum number of questions in the page", example = "20")
+            @RequestParam(defaultValue = "20") int limit,
+            @Parameter(description = "Include answers", example = "false")
+            @RequestParam(required = false, defaultValue = "false") boolean includeAnswers,
+            @Parameter(description = "Comma separated fields to return; * for all", example = "id,question")
+            @RequestParam(required = false) String fields) {
+        
+        return Mono.fromSupplier(() -> {
+                    FieldSelection selection = FieldSelection.parse(fields, QUESTION_FIELDS, QUESTION_SUMMARY);
+                    return includeAnswers ? selection.with("answer") : selection;
+                })
+            .flatMap(selection -> interviewQuestionService.listQuestions(role, experienceLevel, cursor, limit, selection)
+                .map(page -> page.map(selection::apply)))
+            .map(ResponseEntity::ok)
+            .onErrorResume(e -> {
+                if (e instanceof IllegalArgumentException) {
+                    return Mono.just(ResponseEntity
+                            .badRequest()
+                            .build());
+                }
+                log.error("Error listing interview questions", e);
+                return Mono.just(ResponseEntity
+                        .internalServerError()
+                        .build());
+            });
+    }
+    
+    @GetMapping("/search")
+    @Operation(summary = "Search stored interview questions", 
+               description = "Full-text search over question text, tags and answers across roles, best matches first. "
+                       + "Use it to find existing questions before generating new ones")
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "200", 
+            description = "Successfully searched interview questions"
+        ),
+        @ApiResponse(
+            responseCode = "400", 
+            description = "Missing search terms or invalid cursor"
+        )
+    })
+    public Mono<ResponseEntity<CursorPage<QuestionSearchResult>>> searchQuestions(
+            @Parameter(description = "Search terms; quote phrases, prefix a term with - to exclude it",
+                       example = "garbage collection") @RequestParam String q,
+            @Parameter(description = "Job role", example = "Java Developer") @RequestParam(required = false) String role,
+            @Parameter(description = "Experience level", example = "Mid") @RequestParam(required = false) String experienceLevel,
+            @Parameter(description = "Difficulty", example = "Hard") @RequestParam(required = false) String difficulty,
+            @Parameter(description = "nextCursor of the previous page; omit for the first page")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Maximum number of questions in the page", example = "20")
+            @RequestParam(defaultValue = "20") int limit,
+            @Parameter(description = "Include answers", example = "false")
+            @RequestParam(required = false, defaultValue = "false") boolean includeAnswers) {
+        
+        return interviewQuestionService.searchQuestions(q, role, experienceLevel, difficulty, cursor, limit, includeAnswers)
+            .map(ResponseEntity::ok)
+            .onErrorResume(e -> {
+                if (e instanceof IllegalArgumentException) {
+                    return Mono.just(ResponseEntity
+                            .badRequest()
+                            .build());
+                }
+                log.error("Error searching interview questions", e);
+                return Mono.just(ResponseEntity
+                        .internalServerError()
+                        .build());
+            });
+    }
+    
+    @PostMapping("/answers")
+    @Operation(summary = "Get answers for questions", 
+               description = "Returns the answers of up to 100 questions previously listed with includeAnswers=false")
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "200", 
+            description = "Successfully retrieved answers",
+            content = @Content(schema = @Schema(implementation = QuestionAnswersResponse.class))
+        ),
+        @ApiResponse(
+            responseCode = "400", 
+            description = "Invalid request parameters"
+        )
+    })
+    public Mono<ResponseEntity<QuestionAnswersResponse>> getAnswers(
+            @Valid @RequestBody QuestionAnswersRequest request) {
+        
+        return interviewQuestionService.getAnswers(request.getIds())
+            .map(ResponseEntity::ok)
+            .onErrorResume(e -> {
+                log.error("Error fetching question answers", e);
                 return Mono.just(ResponseEntity
                         .internalServerError()
                         .build());
@@ -122,6 +277,10 @@ public class InterviewQuestionController {
             .map(ResponseEntity::ok)
             .onErrorResume(e -> {
                 log.error("Error generating skill questions", e);
+                if (e instanceof ServiceUnavailableException) {
+                    // GlobalExceptionHandler answers with an ApiResponse body and Retry-After
+                    return Mono.error(e);
+                }
                 if (e instanceof com.pathprep.exception.AIServiceException) {
                     return Mono.just(ResponseEntity
                             .internalServerError()
@@ -132,4 +291,10 @@ public class InterviewQuestionController {
                         .build());
             });
     }
+    
+    private void recordServed(InterviewQuestionResponse response) {
+        if (response.getQuestions() != null) {
+            response.getQuestions().forEach(item -> viewCounterService.recordView(ViewTarget.QUESTION, item.getId()));
+        }
+    }
 }
@@ -0,0 +1,61 @@
+package com.pathprep.controller;
+
+import com.pathprep.dto.ApiResponse;
+import com.pathprep.dto.LlmBudgetStatus;
+import com.pathprep.dto.LlmUsageSummary;
+import com.pathprep.service.LlmUsageService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/llm-usage")
+@Tag(name = "LLM Usage", description = "Token usage of AI generation and daily budgets")
+public class LlmUsageController {
+
+    private static final int MAX_LIMIT = 100;
+
+    private final LlmUsageService usageService;
+
+    @GetMapping("/top")
+    @Operation(summary = "Largest LLM consumers",
+               description = "Groups flushed usage by endpoint, model, role, experienceLevel or client and returns "
+                       + "the largest groups by total tokens. Usage is flushed about every minute.")
+    public Mono<ResponseEntity<ApiResponse<List<LlmUsageSummary>>>> getTopConsumers(
+            @Parameter(description = "Grouping dimension", example = "client")
+            @RequestParam(defaultValue = "endpoint") String by,
+            @Parameter(description = "Start of the period, inclusive; defaults to the start of today")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @Parameter(description = "End of the period, exclusive; defaults to now")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @Parameter(description = "Maximum number of groups, at most 100")
+            @RequestParam(defaultValue = "10") int limit) {
+        LocalDateTime start = from != null ? from : LocalDate.now().atStartOfDay();
+        LocalDateTime end = to != null ? to : LocalDateTime.now();
+        return usageService.getTopConsumers(by, start, end, Math.min(Math.max(limit, 1), MAX_LIMIT))
+                .map(summaries -> ResponseEntity.ok(ApiResponse.success("Usage retrieved successfully", summaries)))
+                .onErrorResume(IllegalArgumentException.class, e -> Mono.just(ResponseEntity.badRequest()
+                        .body(ApiResponse.error(400, e.getMessage()))));
+    }
+
+    @GetMapping("/budgets")
+    @Operation(summary = "Daily token budgets",
+               description = "Today's token usage per endpoint and whether it is limited to stored content")
+    public Mono<ResponseEntity<ApiResponse<List<LlmBudgetStatus>>>> getBudgets() {
+        return usageService.getBudgets()
+                .map(budgets -> ResponseEntity.ok(ApiResponse.success("Budgets retrieved successfully", budgets)));
+    }
+}
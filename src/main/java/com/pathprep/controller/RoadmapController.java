@@ -1,15 +1,23 @@
 package com.pathprep.controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.pathprep.dto.ApiResponse;
+import com.pathprep.dto.CursorPage;
 import com.pathprep.dto.GenerateRoadmapRequest;
 import com.pathprep.dto.GroqQueryRequest;
+import com.pathprep.dto.ResourceVersion;
 import com.pathprep.model.Roadmap;
 import com.pathprep.model.Role;
 import com.pathprep.model.Skill;
+import com.pathprep.model.ViewTarget;
 import com.pathprep.service.RoadmapService;
 import com.pathprep.service.RoleService;
 import com.pathprep.service.SkillService;
+import com.pathprep.service.ViewCounterService;
+import com.pathprep.util.ConditionalRequests;
+import com.pathprep.util.FieldSelection;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.ExampleObject;
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -17,26 +25,41 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.util.List;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/")
 @Tag(name = "Roadmap", description = "APIs for generating and managing learning roadmaps")
 public class RoadmapController {
 
+    private static final String FIELDS_DESCRIPTION =
+            "Comma separated fields to return, nested with dots; * for all. Defaults to a summary";
+
+    private static final Set<String> ROADMAP_FIELDS = Set.of("id", "role", "experience", "experienceLevel",
+            "skills", "timeline", "sections", "popularity", "trendingScore", "trendingAt", "commonQuestions",
+            "createdAt", "updatedAt", "contentVersion");
+
+    private static final FieldSelection ROADMAP_SUMMARY = FieldSelection.of("id", "role", "experience",
+            "experienceLevel", "skills", "timeline", "popularity", "createdAt", "updatedAt", "contentVersion");
+
     private final RoadmapService roadmapService;
     private final RoleService roleService;
     private final SkillService skillService;
+    private final ViewCounterService viewCounterService;
 
-    public RoadmapController(RoadmapService roadmapService, RoleService roleService, SkillService skillService) {
+    public RoadmapController(RoadmapService roadmapService, RoleService roleService, SkillService skillService,
+                             ViewCounterService viewCounterService) {
         this.roadmapService = roadmapService;
         this.roleService = roleService;
         this.skillService = skillService;
+        this.viewCounterService = viewCounterService;
     }
 
 //    @PostMapping("/ai/generate-roadmap")
@@ -61,68 +84,120 @@ public class RoadmapController {
 //                ))
 //                .switchIfEmpty(Mono.just(ResponseEntity.notFound().build()));
 //    }
-//
-//    @GetMapping("/roadmaps/recent")
-//    @Operation(summary = "Get most recently generated roadmaps")
-//    public Mono<ResponseEntity<ApiResponse<List<Roadmap>>>> getRecentRoadmaps(
-//            @RequestParam(defaultValue = "5") int limit) {
-//
-//        return roadmapService.getRecentRoadmaps(limit)
-//                .collectList()
-//                .map(roadmaps -> ResponseEntity.ok(
-//                        ApiResponse.success("Recent roadmaps retrieved successfully", roadmaps)
-//                ));
-//    }
-//
-//    @GetMapping("/roadmaps/trending")
-//    @Operation(summary = "Get trending roadmaps")
-//    public Mono<ResponseEntity<ApiResponse<List<Roadmap>>>> getTrendingRoadmaps(
-//            @RequestParam(defaultValue = "5") int limit) {
-//
-//        return roadmapService.getTrendingRoadmaps(limit)
-//                .collectList()
-//                .map(roadmaps -> ResponseEntity.ok(
-//                        ApiResponse.success("Trending roadmaps retrieved successfully", roadmaps)
-//                ));
-//    }
+
+    @GetMapping("/roadmaps/recent")
+    @Operation(summary = "Get most recently generated roadmaps, one page at a time")
+    public Mono<ResponseEntity<ApiResponse<CursorPage<JsonNode>>>> getRecentRoadmaps(
+            @Parameter(description = "nextCursor of the previous page; omit for the first page")
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit,
+            @Parameter(description = "Resolve the common questions of each roadmap")
+            @RequestParam(defaultValue = "false") boolean includeQuestions,
+            @Parameter(description = FIELDS_DESCRIPTION, example = "role,experience,popularity")
+            @RequestParam(required = false) String fields) {
+
+        return Mono.fromSupplier(() -> listFields(fields, includeQuestions))
+                .flatMap(selection -> roadmapService.getRecentRoadmaps(cursor, limit, selection)
+                        .map(page -> page.map(selection::apply)))
+                .map(page -> ResponseEntity.ok(
+                        ApiResponse.success("Recent roadmaps retrieved successfully", page)
+                ))
+                .onErrorResume(e -> Mono.just(ResponseEntity.badRequest()
+                        .body(ApiResponse.error(e.getMessage()))));
+    }
+
+    @GetMapping("/roadmaps/trending")
+    @Operation(summary = "Get trending roadmaps, one page at a time")
+    public Mono<ResponseEntity<ApiResponse<CursorPage<JsonNode>>>> getTrendingRoadmaps(
+            @Parameter(description = "nextCursor of the previous page; omit for the first page")
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit,
+            @Parameter(description = "Resolve the common questions of each roadmap")
+            @RequestParam(defaultValue = "false") boolean includeQuestions,
+            @Parameter(description = FIELDS_DESCRIPTION, example = "role,experience,popularity")
+            @RequestParam(required = false) String fields) {
+
+        return Mono.fromSupplier(() -> listFields(fields, includeQuestions))
+                .flatMap(selection -> roadmapService.getTrendingRoadmaps(cursor, limit, selection)
+                        .map(page -> page.map(selection::apply)))
+                .map(page -> ResponseEntity.ok(
+                        ApiResponse.success("Trending roadmaps retrieved successfully", page)
+                ))
+                .onErrorResume(e -> Mono.just(ResponseEntity.badRequest()
+                        .body(ApiResponse.error(e.getMessage()))));
+    }
 
     @GetMapping("/roadmap/{role}/{experienceLevel}")
     @Operation(summary = "Get a roadmap by role and experience level")
     public Mono<ResponseEntity<ApiResponse<Roadmap>>> getRoadmapByRoleAndExperience(
             @PathVariable String role,
-            @PathVariable String experienceLevel) {
+            @PathVariable String experienceLevel,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         
         // Convert URL-encoded path variables to proper format
         String formattedRole = role.replace("-", " ");
         String formattedExperience = experienceLevel.replace("-", " ").replace(" ", "-");
         
-        return roadmapService.getOrGenerateRoadmap(formattedRole, formattedExperience)
-                .map(roadmap -> ResponseEntity.ok(
-                        ApiResponse.success("Roadmap retrieved successfully", roadmap)
-                ))
+        // Revalidation only reads the version, never the roadmap itself
+        Mono<ResourceVersion> current = ifNoneMatch == null
+                ? Mono.empty()
+                : roadmapService.getRoadmapVersion(formattedRole, formattedExperience).onErrorResume(e -> Mono.empty());
+        
+        return current
+                .filter(version -> ConditionalRequests.matches(ifNoneMatch, version.getVersion()))
+                .map(version -> ConditionalRequests.<ApiResponse<Roadmap>>notModified(version.getVersion(), version.getLastModified()))
+                .switchIfEmpty(Mono.defer(() -> roadmapService.getOrGenerateRoadmap(formattedRole, formattedExperience)
+                        .doOnNext(roadmap -> viewCounterService.recordView(ViewTarget.ROADMAP, roadmap.getId()))
+                        .map(roadmap -> ResponseEntity.ok()
+                                .headers(ConditionalRequests.validators(roadmap.getContentVersion(), roadmap.getUpdatedAt()))
+                                .body(ApiResponse.success("Roadmap retrieved successfully", roadmap))
+                        )))
                 .onErrorResume(e -> Mono.just(ResponseEntity.badRequest()
                         .body(ApiResponse.error(e.getMessage()))));
     }
 
     @GetMapping("/roles")
     @Operation(summary = "Get all available roles")
-    public Mono<ResponseEntity<ApiResponse<List<Role>>>> getAllRoles() {
-        return roleService.findAllRoles()
+    public Mono<ResponseEntity<ApiResponse<List<Role>>>> getAllRoles(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        // Served from the catalog snapshot; the version changes whenever the snapshot is swapped
+        return roleService.getRolesVersion()
+                .defaultIfEmpty(new ResourceVersion(null, null))
+                .flatMap(version -> ConditionalRequests.matches(ifNoneMatch, version.getVersion())
+                        ? Mono.just(ConditionalRequests.<ApiResponse<List<Role>>>notModified(version.getVersion(), version.getLastModified()))
+                        : roleService.findAllRoles()
+                                .collectList()
+                                .map(roles -> ResponseEntity.ok()
+                                        .headers(ConditionalRequests.validators(version.getVersion(), version.getLastModified()))
+                                        .body(ApiResponse.success("Roles retrieved successfully", roles))
+                                ));
+    }
+
+    @GetMapping("/roles/search")
+    @Operation(summary = "Suggest roles by name prefix or substring")
+    public Mono<ResponseEntity<ApiResponse<List<Role>>>> searchRoles(
+            @RequestParam String query,
+            @Parameter(description = "Maximum number of suggestions, at most 50")
+            @RequestParam(defaultValue = "10") int limit) {
+        return roleService.searchRoles(query, limit)
                 .collectList()
                 .map(roles -> ResponseEntity.ok(
                         ApiResponse.success("Roles retrieved successfully", roles)
                 ));
     }
 
-//    @GetMapping("/skills/search")
-//    @Operation(summary = "Search for skills")
-//    public Mono<ResponseEntity<ApiResponse<List<Skill>>>> searchSkills(@RequestParam String query) {
-//        return skillService.searchSkills(query)
-//                .collectList()
-//                .map(skills -> ResponseEntity.ok(
-//                        ApiResponse.success("Skills retrieved successfully", skills)
-//                ));
-//    }
+    @GetMapping("/skills/search")
+    @Operation(summary = "Suggest skills by name prefix or substring, core and popular skills first")
+    public Mono<ResponseEntity<ApiResponse<List<Skill>>>> searchSkills(
+            @RequestParam String query,
+            @Parameter(description = "Maximum number of suggestions, at most 50")
+            @RequestParam(defaultValue = "10") int limit) {
+        return skillService.searchSkills(query, limit)
+                .collectList()
+                .map(skills -> ResponseEntity.ok(
+                        ApiResponse.success("Skills retrieved successfully", skills)
+                ));
+    }
 
     @PostMapping("/ai/query")
     @Operation(
@@ -163,4 +238,9 @@ public class RoadmapController {
                 .onErrorResume(e -> Mono.just(ResponseEntity.badRequest()
                         .body(ApiResponse.error(e.getMessage()))));
     }
-}
\ No newline at end of file
+
+    private static FieldSelection listFields(String fields, boolean includeQuestions) {
+        FieldSelection selection = FieldSelection.parse(fields, ROADMAP_FIELDS, ROADMAP_SUMMARY);
+        return includeQuestions ? selection.with("commonQuestions") : selection;
+    }
+}
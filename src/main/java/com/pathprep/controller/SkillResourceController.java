@@ -1,9 +1,17 @@
 package com.pathprep.controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.pathprep.dto.SkillResourceRequest;
 import com.pathprep.dto.ApiResponse;
+import com.pathprep.dto.CursorPage;
+import com.pathprep.dto.ResourceVersion;
 import com.pathprep.dto.response.SkillResourceResponse;
+import com.pathprep.exception.OverloadedException;
+import com.pathprep.model.ViewTarget;
 import com.pathprep.service.SkillResourceService;
+import com.pathprep.service.ViewCounterService;
+import com.pathprep.util.ConditionalRequests;
+import com.pathprep.util.FieldSelection;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -13,18 +21,30 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import reactor.core.publisher.Mono;
 
+import java.util.Set;
+
 @Slf4j
 @RestController
 @RequiredArgsConstructor
 @RequestMapping("/skill-resources")
 @Tag(name = "Skill Resources", description = "APIs for managing skill learning resources")
 public class SkillResourceController {
+
+    private static final Set<String> RESOURCE_FIELDS = Set.of("id", "skillName", "role", "experienceLevel",
+            "learningPaths", "projects", "certifications", "communities", "createdAt", "updatedAt", "contentVersion");
+
+    private static final FieldSelection RESOURCE_SUMMARY = FieldSelection.of("id", "skillName", "role",
+            "experienceLevel", "learningPaths.title", "projects.title", "certifications.title", "communities.title",
+            "createdAt", "updatedAt", "contentVersion");
+
     private final SkillResourceService skillResourceService;
+    private final ViewCounterService viewCounterService;
 
     @Operation(
         summary = "Get or generate skill resources",
@@ -52,6 +72,7 @@ public class SkillResourceController {
             request.getSkillName(), request.getRole(), request.getExperienceLevel());
             
         return skillResourceService.getOrGenerateSkillResources(request)
+            .doOnNext(response -> viewCounterService.recordView(ViewTarget.SKILL_RESOURCE, response.getId()))
             .map(response -> ResponseEntity.ok(
                 ApiResponse.<SkillResourceResponse>builder()
                     .success(true)
@@ -59,6 +80,11 @@ public class SkillResourceController {
                     .message("Successfully retrieved skill resources")
                     .build()
             ))
+            .onErrorResume(OverloadedException.class, e -> Mono.just(ResponseEntity
+                .status(HttpStatus.SERVICE_UNAVAILABLE)
+                .headers(OverloadedException.retryAfterHeaders(e))
+                .body(ApiResponse.<SkillResourceResponse>error(503, e.getMessage()))
+            ))
             .onErrorResume(e -> Mono.just(ResponseEntity
                 .status(HttpStatus.INTERNAL_SERVER_ERROR)
                 .body(ApiResponse.<SkillResourceResponse>builder()
@@ -69,6 +95,51 @@ public class SkillResourceController {
             ));
     }
 
+    @Operation(
+        summary = "List skill resources for a role",
+        description = "Lists stored skill resources for a role and experience level, one page at a time"
+    )
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "200",
+            description = "Successfully listed skill resources"
+        ),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "400",
+            description = "Invalid cursor"
+        )
+    })
+    @GetMapping
+    public Mono<ResponseEntity<ApiResponse<CursorPage<JsonNode>>>> listSkillResources(
+            @Parameter(description = "Job role", example = "Java Developer") @RequestParam String role,
+            @Parameter(description = "Experience level", example = "Mid") @RequestParam String experienceLevel,
+            @Parameter(description = "nextCursor of the previous page; omit for the first page")
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit,
+            @Parameter(description = "Comma separated fields to return, nested with dots; * for all. "
+                    + "Defaults to the resource titles", example = "skillName,learningPaths.title,learningPaths.url")
+            @RequestParam(required = false) String fields) {
+        
+        return Mono.fromSupplier(() -> FieldSelection.parse(fields, RESOURCE_FIELDS, RESOURCE_SUMMARY))
+            .flatMap(selection -> skillResourceService.getSkillResourcesByRole(role, experienceLevel, cursor, limit, selection)
+                .map(page -> page.map(selection::apply)))
+            .map(page -> ResponseEntity.ok(
+                ApiResponse.<CursorPage<JsonNode>>builder()
+                    .success(true)
+                    .data(page)
+                    .message("Successfully listed skill resources")
+                    .build()
+            ))
+            .onErrorResume(e -> Mono.just(ResponseEntity
+                .status(e instanceof IllegalArgumentException ? HttpStatus.BAD_REQUEST : HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(ApiResponse.<CursorPage<JsonNode>>builder()
+                    .success(false)
+                    .message("Failed to list skill resources: " + e.getMessage())
+                    .build()
+                )
+            ));
+    }
+
     @Operation(
         summary = "Get skill resources by ID",
         description = "Retrieves skill resources by their unique identifier"
@@ -87,17 +158,29 @@ public class SkillResourceController {
     @GetMapping("/{id}")
     public Mono<ResponseEntity<ApiResponse<SkillResourceResponse>>> getSkillResourcesById(
             @Parameter(description = "ID of the skill resources to retrieve")
-            @PathVariable String id) {
+            @PathVariable String id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         log.info("Fetching skill resources with ID: {}", id);
         
-        return skillResourceService.getSkillResourcesById(id)
-            .map(response -> ResponseEntity.ok(
-                ApiResponse.<SkillResourceResponse>builder()
-                    .success(true)
-                    .data(response)
-                    .message("Successfully retrieved skill resources")
-                    .build()
-            ))
+        // Revalidation only reads the version, never the resources themselves
+        Mono<ResourceVersion> current = ifNoneMatch == null
+            ? Mono.empty()
+            : skillResourceService.getSkillResourcesVersion(id).onErrorResume(e -> Mono.empty());
+        
+        return current
+            .filter(version -> ConditionalRequests.matches(ifNoneMatch, version.getVersion()))
+            .map(version -> ConditionalRequests.<ApiResponse<SkillResourceResponse>>notModified(
+                version.getVersion(), version.getLastModified()))
+            .switchIfEmpty(Mono.defer(() -> skillResourceService.getSkillResourcesById(id)
+                .doOnNext(response -> viewCounterService.recordView(ViewTarget.SKILL_RESOURCE, response.getId()))
+                .map(response -> ResponseEntity.ok()
+                    .headers(ConditionalRequests.validators(response.getContentVersion(), response.getUpdatedAt()))
+                    .body(ApiResponse.<SkillResourceResponse>builder()
+                        .success(true)
+                        .data(response)
+                        .message("Successfully retrieved skill resources")
+                        .build()
+                    ))))
             .onErrorResume(e -> {
                 if (e instanceof com.pathprep.exception.ResourceNotFoundException) {
                     return Mono.just(ResponseEntity
@@ -207,6 +290,13 @@ public class SkillResourceController {
                         )
                     );
                 }
+                if (e instanceof OverloadedException) {
+                    return Mono.just(ResponseEntity
+                        .status(HttpStatus.SERVICE_UNAVAILABLE)
+                        .headers(OverloadedException.retryAfterHeaders(e))
+                        .body(ApiResponse.<SkillResourceResponse>error(503, e.getMessage()))
+                    );
+                }
                 return Mono.just(ResponseEntity
                     .status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(ApiResponse.<SkillResourceResponse>builder()
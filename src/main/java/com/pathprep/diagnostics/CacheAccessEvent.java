@@ -0,0 +1,26 @@
+package com.pathprep.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A lookup in or a load into one of the application caches.
+ */
+@Name("com.pathprep.CacheAccess")
+@Label("Cache Access")
+@Category({"PathPrep", "Cache"})
+public class CacheAccessEvent extends jdk.jfr.Event {
+
+    public static final String OPERATION_LOOKUP = "lookup";
+    public static final String OPERATION_LOAD = "load";
+
+    @Label("Cache")
+    public String cache;
+
+    @Label("Operation")
+    public String operation;
+
+    @Label("Hit")
+    public boolean hit;
+}
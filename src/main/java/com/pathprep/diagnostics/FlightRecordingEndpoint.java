@@ -0,0 +1,141 @@
+package com.pathprep.diagnostics;
+
+import com.pathprep.config.FlightRecorderProperties;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Starts, stops and downloads a JDK Flight Recorder recording of the running application.
+ *
+ * <ul>
+ *     <li>{@code POST /actuator/flightrecording} starts a recording for the given {@code duration}</li>
+ *     <li>{@code GET /actuator/flightrecording} reports the current recording</li>
+ *     <li>{@code GET /actuator/flightrecording/{id}} downloads it as a {@code .jfr} file, also while running</li>
+ *     <li>{@code DELETE /actuator/flightrecording} stops it early</li>
+ * </ul>
+ *
+ * <p>Only one recording exists at a time and starting a new one discards the previous. Its
+ * length and size are capped by {@link FlightRecorderProperties}, so a forgotten recording
+ * cannot fill the disk. Besides the JDK's CPU and allocation events it captures the
+ * {@link LlmCallEvent}, {@link JsonParseEvent} and {@link CacheAccessEvent} hot paths.</p>
+ */
+@Slf4j
+@Component
+@Endpoint(id = "flightrecording")
+@RequiredArgsConstructor
+public class FlightRecordingEndpoint {
+
+    private final FlightRecorderProperties properties;
+
+    private Recording recording;
+    private Path dump;
+
+    @ReadOperation
+    public synchronized Map<String, Object> status() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        if (recording == null) {
+            status.put("state", "NONE");
+            return status;
+        }
+        status.put("id", recording.getId());
+        status.put("state", recording.getState());
+        status.put("settings", properties.getSettings());
+        status.put("startTime", recording.getStartTime());
+        status.put("stopTime", recording.getStopTime());
+        status.put("duration", recording.getDuration());
+        status.put("sizeBytes", recording.getSize());
+        return status;
+    }
+
+    /**
+     * @param duration How long to record, capped at the configured maximum; required over HTTP,
+     *                 the maximum when a caller passes null
+     */
+    @WriteOperation
+    public synchronized Map<String, Object> start(Duration duration) throws IOException, ParseException {
+        if (recording != null && recording.getState() == RecordingState.RUNNING) {
+            return status();
+        }
+        discard();
+
+        Duration maxDuration = properties.getMaxDuration();
+        if (duration == null) {
+            duration = maxDuration;
+        }
+        Recording started = new Recording(Configuration.getConfiguration(properties.getSettings()));
+        started.setName("pathprep");
+        started.setToDisk(true);
+        started.setMaxSize(properties.getMaxSizeBytes());
+        started.setDuration(duration.compareTo(maxDuration) < 0 ? duration : maxDuration);
+        started.enable(LlmCallEvent.class);
+        started.enable(JsonParseEvent.class);
+        started.enable(CacheAccessEvent.class);
+        started.start();
+        recording = started;
+        log.info("Started flight recording {} for {}", started.getId(), started.getDuration());
+        return status();
+    }
+
+    @DeleteOperation
+    public synchronized Map<String, Object> stop() {
+        if (recording != null && recording.getState() == RecordingState.RUNNING) {
+            recording.stop();
+            log.info("Stopped flight recording {}", recording.getId());
+        }
+        return status();
+    }
+
+    /**
+     * @return The data recorded so far, or null (404) when {@code id} is not the current recording
+     */
+    @ReadOperation(produces = "application/octet-stream")
+    public synchronized Resource download(@Selector long id) throws IOException {
+        if (recording == null || recording.getId() != id || recording.getState() == RecordingState.NEW) {
+            return null;
+        }
+        deleteDump();
+        dump = Files.createTempFile("pathprep-" + id + "-", ".jfr");
+        recording.dump(dump);
+        return new FileSystemResource(dump);
+    }
+
+    @PreDestroy
+    public synchronized void discard() {
+        if (recording != null) {
+            recording.close();
+            recording = null;
+        }
+        deleteDump();
+    }
+
+    private void deleteDump() {
+        if (dump != null) {
+            try {
+                Files.deleteIfExists(dump);
+            } catch (IOException e) {
+                log.warn("Could not delete flight recording dump {}: {}", dump, e.getMessage());
+            }
+            dump = null;
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.pathprep.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Cleaning or deserializing one LLM response.
+ */
+@Name("com.pathprep.JsonParse")
+@Label("JSON Parse")
+@Category({"PathPrep", "LLM"})
+@Description("Repair or deserialization of an LLM response")
+public class JsonParseEvent extends jdk.jfr.Event {
+
+    public static final String PHASE_CLEAN = "clean";
+    public static final String PHASE_DESERIALIZE = "deserialize";
+
+    @Label("Phase")
+    @Description("clean or deserialize")
+    public String phase;
+
+    @Label("Target Type")
+    public String targetType;
+
+    @Label("Input Length")
+    @Description("Input size in characters")
+    @DataAmount(DataAmount.BYTES)
+    public int inputLength;
+
+    @Label("Repairs")
+    @Description("Comma-separated repairs the cleaner applied")
+    public String repairs;
+
+    @Label("Success")
+    public boolean success;
+}
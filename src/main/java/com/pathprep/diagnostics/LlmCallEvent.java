@@ -0,0 +1,41 @@
+package com.pathprep.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * One {@code generateText} call to Groq, spanning all of its attempts.
+ */
+@Name("com.pathprep.LlmCall")
+@Label("LLM Call")
+@Category({"PathPrep", "LLM"})
+@Description("A chat completion request to Groq, including retries")
+public class LlmCallEvent extends jdk.jfr.Event {
+
+    @Label("Endpoint")
+    public String endpoint;
+
+    @Label("Model")
+    public String model;
+
+    @Label("Prompt Length")
+    @Description("Prompt size in characters")
+    @DataAmount(DataAmount.BYTES)
+    public int promptLength;
+
+    @Label("Prompt Tokens")
+    public int promptTokens;
+
+    @Label("Completion Tokens")
+    public int completionTokens;
+
+    @Label("Retries")
+    public int retries;
+
+    @Label("Outcome")
+    @Description("success, error or cancelled")
+    public String outcome;
+}
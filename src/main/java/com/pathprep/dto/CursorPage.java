@@ -0,0 +1,51 @@
+package com.pathprep.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.function.Function;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "One page of a cursor-paginated list")
+public class CursorPage<T> {
+
+    public static final int DEFAULT_LIMIT = 20;
+    public static final int MAX_LIMIT = 100;
+
+    @Schema(description = "Items of this page")
+    private List<T> items;
+
+    @Schema(description = "Pass as cursor to get the next page; absent on the last page",
+            example = "MTcwNDEwMzIwMDAwMAo2NWYxYzJhOWU0YjBhMWIyYzNkNGU1ZjY")
+    private String nextCursor;
+
+    /**
+     * Builds a page from a query that fetched up to {@code limit + 1} items; the extra item
+     * only signals that a next page exists.
+     *
+     * @param cursorOf Cursor token positioned after a given item
+     */
+    public static <T> CursorPage<T> of(List<T> fetched, int limit, Function<T, String> cursorOf) {
+        if (fetched.size() <= limit) {
+            return new CursorPage<>(fetched, null);
+        }
+        List<T> items = fetched.subList(0, limit);
+        return new CursorPage<>(List.copyOf(items), cursorOf.apply(items.get(limit - 1)));
+    }
+
+    public <R> CursorPage<R> map(Function<T, R> mapper) {
+        return new CursorPage<>(items.stream().map(mapper).toList(), nextCursor);
+    }
+
+    /**
+     * @return The limit clamped to {@code [1, MAX_LIMIT]}
+     */
+    public static int clampLimit(int limit) {
+        return Math.max(1, Math.min(limit, MAX_LIMIT));
+    }
+}
@@ -1,5 +1,6 @@
 package com.pathprep.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.AllArgsConstructor;
@@ -35,12 +36,18 @@ public class InterviewQuestionResponse {
     @Schema(description = "Individual interview question with answer")
     public static class QuestionItem {
         
+        @Schema(description = "Stable question id, usable with the answers endpoint. Absent for questions not stored yet",
+               example = "65f1c2a9e4b0a1b2c3d4e5f6")
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        private String id;
+        
         @Schema(description = "The interview question", 
                example = "Explain the difference between @Component, @Service, and @Repository annotations in Spring")
         private String question;
         
-        @Schema(description = "Answer to the question",
+        @Schema(description = "Answer to the question. Omitted when answers were not requested, except for questions without an id",
                example = "@Component is a generic stereotype for any Spring-managed component. @Service indicates that a class contains business logic. @Repository is used for data access layer and provides exception translation from database exceptions to Spring's DataAccessException hierarchy.")
+        @JsonInclude(JsonInclude.Include.NON_NULL)
         private String answer;
         
         @Schema(description = "Category of the question (e.g., 'Spring', 'Java Core', 'System Design')",
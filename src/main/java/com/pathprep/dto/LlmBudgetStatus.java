@@ -0,0 +1,27 @@
+package com.pathprep.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Daily token budget of one endpoint")
+public class LlmBudgetStatus {
+
+    @Schema(description = "Endpoint path", example = "/roadmaps/detailed")
+    private String endpoint;
+
+    @Schema(description = "Tokens the endpoint may use per day; 0 means unlimited", example = "2000000")
+    private long dailyBudget;
+
+    @Schema(description = "Tokens used today", example = "1250000")
+    private long usedToday;
+
+    @Schema(description = "True when the budget is exhausted and the endpoint only serves stored content")
+    private boolean dbOnly;
+}
@@ -0,0 +1,33 @@
+package com.pathprep.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "LLM usage of one endpoint, model, role, experience level or client")
+public class LlmUsageSummary {
+
+    @Schema(description = "Value of the grouping dimension", example = "/roadmaps/detailed")
+    private String key;
+
+    @Schema(description = "Number of LLM calls", example = "42")
+    private long calls;
+
+    @Schema(description = "Prompt tokens used", example = "52000")
+    private long promptTokens;
+
+    @Schema(description = "Completion tokens used", example = "131000")
+    private long completionTokens;
+
+    @Schema(description = "Prompt and completion tokens used", example = "183000")
+    private long totalTokens;
+
+    @Schema(description = "Average latency of a call, in milliseconds", example = "6400")
+    private long averageLatencyMs;
+}
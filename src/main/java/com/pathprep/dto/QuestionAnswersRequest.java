@@ -0,0 +1,18 @@
+package com.pathprep.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Schema(description = "Request object for fetching answers of previously listed questions")
+public class QuestionAnswersRequest {
+
+    @NotEmpty(message = "At least one question id is required")
+    @Size(max = 100, message = "At most 100 question ids can be requested at once")
+    @Schema(description = "Question ids as returned by the question list", example = "[\"65f1c2a9e4b0a1b2c3d4e5f6\"]")
+    private List<String> ids;
+}
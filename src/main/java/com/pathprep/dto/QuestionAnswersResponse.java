@@ -0,0 +1,34 @@
+package com.pathprep.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Answers for the requested questions")
+public class QuestionAnswersResponse {
+
+    @Schema(description = "One entry per requested id that exists, in request order")
+    private List<AnswerItem> answers;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Schema(description = "Answer of a single question")
+    public static class AnswerItem {
+
+        @Schema(description = "Question id", example = "65f1c2a9e4b0a1b2c3d4e5f6")
+        private String id;
+
+        @Schema(description = "Answer to the question")
+        private String answer;
+    }
+}
@@ -0,0 +1,25 @@
+package com.pathprep.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * Criteria for reading stored interview questions. Only role and experience level are required.
+ */
+@Data
+@Builder
+public class QuestionQuery {
+    private String role;
+    private String experienceLevel;
+    private String skill;
+    private String difficulty;
+    private String category;
+    @Builder.Default
+    private int count = 10;
+    private boolean forceRefresh;
+    /**
+     * When false only question ids and metadata are returned; answers are fetched separately
+     */
+    @Builder.Default
+    private boolean includeAnswers = true;
+}
@@ -0,0 +1,45 @@
+package com.pathprep.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Stored interview question matching a text search")
+public class QuestionSearchResult {
+
+    @Schema(description = "Question id, usable with the answers endpoint", example = "65f1c2a9e4b0a1b2c3d4e5f6")
+    private String id;
+
+    @Schema(description = "Job role the question was generated for", example = "Java Developer")
+    private String role;
+
+    @Schema(description = "Experience level the question was generated for", example = "Mid")
+    private String experience;
+
+    @Schema(description = "Skill the question was generated for, if any", example = "Garbage Collection")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String skill;
+
+    @Schema(description = "The interview question", example = "How does the G1 garbage collector decide which regions to collect?")
+    private String question;
+
+    @Schema(description = "Answer to the question. Omitted when answers were not requested")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String answer;
+
+    @Schema(description = "Category of the question", example = "Java Core")
+    private String category;
+
+    @Schema(description = "Difficulty level of the question", example = "Hard")
+    private String difficulty;
+
+    @Schema(description = "Relevance to the search terms; higher is better", example = "1.75")
+    private double score;
+}
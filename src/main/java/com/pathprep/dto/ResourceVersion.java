@@ -0,0 +1,16 @@
+package com.pathprep.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * Version and modification time of a stored document, read without loading its content.
+ */
+@Data
+@AllArgsConstructor
+public class ResourceVersion {
+    private String version;
+    private LocalDateTime lastModified;
+}
@@ -26,4 +26,5 @@ public class DetailedRoadmapResponse {
     private Map<String, Object> metadata;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+    private String contentVersion;
 }
@@ -28,6 +28,7 @@ public class SkillResourceResponse {
     private List<ResourceItem> communities;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+    private String contentVersion;
     
     /**
      * Nested class for resource items
@@ -0,0 +1,21 @@
+package com.pathprep.exception;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Exception thrown when an endpoint has used its daily token budget and the request needs
+ * generation. Budgets reset at midnight, so clients are told to retry then.
+ */
+public class BudgetExhaustedException extends OverloadedException {
+
+    public BudgetExhaustedException(String message) {
+        super(message, untilTomorrow());
+    }
+
+    private static Duration untilTomorrow() {
+        LocalDateTime now = LocalDateTime.now();
+        return Duration.between(now, LocalDate.now().plusDays(1).atStartOfDay());
+    }
+}
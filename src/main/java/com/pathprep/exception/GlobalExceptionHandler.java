@@ -23,6 +23,18 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
         return new ResponseEntity<>(response, HttpStatus.NOT_FOUND);
     }
 
+    @ExceptionHandler(ServiceUnavailableException.class)
+    public ResponseEntity<ApiResponse<?>> handleServiceUnavailableException(
+            ServiceUnavailableException ex, WebRequest request) {
+        
+        ApiResponse<?> response = ApiResponse.error(
+            HttpStatus.SERVICE_UNAVAILABLE.value(),
+            ex.getMessage()
+        );
+        
+        return new ResponseEntity<>(response, OverloadedException.retryAfterHeaders(ex), HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ApiResponse<?>> handleAllExceptions(Exception ex, WebRequest request) {
         ApiResponse<?> response = ApiResponse.error(
@@ -0,0 +1,35 @@
+package com.pathprep.exception;
+
+import org.springframework.http.HttpHeaders;
+
+import java.time.Duration;
+
+/**
+ * Exception thrown when a request is shed because too many requests are already waiting for
+ * the AI service. Clients should retry after {@link #getRetryAfter()}.
+ */
+public class OverloadedException extends ServiceUnavailableException {
+
+    private final Duration retryAfter;
+
+    public OverloadedException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+
+    /**
+     * @return A {@code Retry-After} header if {@code e} is an overload, otherwise no headers
+     */
+    public static HttpHeaders retryAfterHeaders(Throwable e) {
+        HttpHeaders headers = new HttpHeaders();
+        if (e instanceof OverloadedException overloaded) {
+            long seconds = (overloaded.retryAfter.toMillis() + 999) / 1000;
+            headers.set(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, seconds)));
+        }
+        return headers;
+    }
+}
@@ -0,0 +1,15 @@
+package com.pathprep.mapper;
+
+import com.pathprep.dto.response.DetailedRoadmapResponse;
+import com.pathprep.model.DetailedRoadmap;
+import org.mapstruct.Mapper;
+import org.mapstruct.MappingConstants;
+
+/**
+ * Maps detailed roadmaps to their API representation. The implementation is generated at compile time.
+ */
+@Mapper(componentModel = MappingConstants.ComponentModel.SPRING)
+public interface DetailedRoadmapMapper {
+
+    DetailedRoadmapResponse toResponse(DetailedRoadmap roadmap);
+}
@@ -0,0 +1,38 @@
+package com.pathprep.mapper;
+
+import com.pathprep.dto.InterviewQuestionResponse;
+import com.pathprep.dto.QuestionSearchResult;
+import com.pathprep.model.InterviewQuestion;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.MappingConstants;
+
+import java.util.List;
+
+/**
+ * Maps stored interview questions to response items. The implementation is generated at compile time.
+ */
+@Mapper(componentModel = MappingConstants.ComponentModel.SPRING)
+public interface InterviewQuestionMapper {
+
+    InterviewQuestionResponse.QuestionItem toQuestionItem(InterviewQuestion question);
+
+    List<InterviewQuestionResponse.QuestionItem> toQuestionItems(List<InterviewQuestion> questions);
+
+    @Mapping(target = "score", source = "score")
+    QuestionSearchResult toSearchResult(InterviewQuestion question, double score);
+
+    /**
+     * Copies an item without its answer, for list views.
+     */
+    @Mapping(target = "answer", ignore = true)
+    InterviewQuestionResponse.QuestionItem withoutAnswer(InterviewQuestionResponse.QuestionItem item);
+
+    /**
+     * Copies an item for list views. Freshly generated questions have no id to fetch the
+     * answer with later, so they keep it.
+     */
+    default InterviewQuestionResponse.QuestionItem forListView(InterviewQuestionResponse.QuestionItem item) {
+        return item.getId() == null ? item : withoutAnswer(item);
+    }
+}
@@ -0,0 +1,17 @@
+package com.pathprep.mapper;
+
+import com.pathprep.dto.response.SkillResourceResponse;
+import com.pathprep.model.SkillResource;
+import org.mapstruct.Mapper;
+import org.mapstruct.MappingConstants;
+
+/**
+ * Maps skill resources to their API representation. The implementation is generated at compile time.
+ */
+@Mapper(componentModel = MappingConstants.ComponentModel.SPRING)
+public interface SkillResourceMapper {
+
+    SkillResourceResponse toResponse(SkillResource resource);
+
+    SkillResourceResponse.ResourceItem toResponseItem(SkillResource.ResourceItem item);
+}
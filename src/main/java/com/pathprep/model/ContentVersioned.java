@@ -0,0 +1,21 @@
+package com.pathprep.model;
+
+import org.bson.types.ObjectId;
+
+/**
+ * Documents that carry a version which changes on every save. The version backs the
+ * ETag of the endpoints serving the document.
+ */
+public interface ContentVersioned {
+
+    String getContentVersion();
+
+    void setContentVersion(String contentVersion);
+
+    /**
+     * @return A new unique, time-ordered version string
+     */
+    static String newVersion() {
+        return new ObjectId().toHexString();
+    }
+}
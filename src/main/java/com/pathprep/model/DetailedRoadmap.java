@@ -21,7 +21,7 @@ import java.util.Map;
 @Data
 @Document(collection = "detailed_roadmaps")
 @JsonDeserialize(using = DetailedRoadmapDeserializer.class)
-public class DetailedRoadmap {
+public class DetailedRoadmap implements ContentVersioned {
     
     @Id
     private String id;
@@ -79,6 +79,19 @@ public class DetailedRoadmap {
     @LastModifiedDate
     private LocalDateTime updatedAt;
     
+    /**
+     * Changes on every save; used as the ETag of the rendered roadmap
+     */
+    private String contentVersion;
+    
+    /**
+     * Total and time-decayed views, maintained by the view counter, see {@link ViewTarget}
+     */
+    private Long viewCount;
+    @Indexed(sparse = true)
+    private Double trendingScore;
+    private LocalDateTime trendingAt;
+    
     /**
      * Sets the composite key based on role and experience level
      */
@@ -2,14 +2,22 @@ package com.pathprep.model;
 
 import lombok.Data;
 import lombok.EqualsAndHashCode;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.index.TextIndexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Data
 @EqualsAndHashCode(callSuper = false)
 @Document("questions")
+@CompoundIndex(name = "question_fingerprint_idx",
+        def = "{'role': 1, 'experience': 1, 'skill': 1, 'fingerprint': 1}",
+        unique = true,
+        partialFilter = "{'fingerprint': {'$exists': true}}")
+@CompoundIndex(name = "role_page_idx", def = "{'role': 1, 'experience': 1, '_id': 1}")
 public class InterviewQuestion extends BaseEntity {
     @Indexed
     private String role;
@@ -17,12 +25,26 @@ public class InterviewQuestion extends BaseEntity {
     private String experience;
     @Indexed
     private String skill;
+    @TextIndexed(weight = 3)
     private String question;
+    @TextIndexed
     private String answer;
     private String category;
     private String difficulty;
+    @TextIndexed(weight = 2)
     private List<String> tags;
     private String example;
+    /**
+     * Hash of the normalized question text, see {@link com.pathprep.util.QuestionFingerprint}
+     */
+    private String fingerprint;
+    /**
+     * Times the question was served, maintained by the view counter, see {@link ViewTarget}
+     */
+    private Long viewCount;
+    @Indexed(sparse = true)
+    private Double trendingScore;
+    private LocalDateTime trendingAt;
 
     public String getRole() {
         return role;
@@ -95,4 +117,12 @@ public class InterviewQuestion extends BaseEntity {
     public void setExample(String example) {
         this.example = example;
     }
+
+    public String getFingerprint() {
+        return fingerprint;
+    }
+
+    public void setFingerprint(String fingerprint) {
+        this.fingerprint = fingerprint;
+    }
 }
@@ -0,0 +1,54 @@
+package com.pathprep.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+/**
+ * LLM calls of one minute, aggregated by endpoint, model, role, experience level and API client.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "llm_usage")
+public class LlmUsage {
+
+    /**
+     * Minute and attribution joined, so flushing the same aggregate twice adds to one document
+     */
+    @Id
+    private String id;
+
+    /**
+     * Start of the minute; documents expire after 90 days
+     */
+    @Indexed(expireAfter = "90d")
+    private LocalDateTime minute;
+
+    private String endpoint;
+    private String model;
+
+    /**
+     * Canonical (trimmed, lower-cased) role and experience level of the request
+     */
+    private String role;
+    private String experienceLevel;
+
+    private String client;
+
+    private long calls;
+    private long promptTokens;
+    private long completionTokens;
+
+    /**
+     * Sum of the call latencies, in milliseconds
+     */
+    private long latencyMs;
+}
@@ -0,0 +1,25 @@
+package com.pathprep.model;
+
+import java.util.Locale;
+
+/**
+ * Difficulty levels as stored in {@link InterviewQuestion#getDifficulty()}.
+ * Unrecognized labels map to {@link #UNKNOWN} rather than failing.
+ */
+public enum QuestionDifficulty {
+    EASY,
+    MEDIUM,
+    HARD,
+    UNKNOWN;
+
+    public static QuestionDifficulty fromLabel(String label) {
+        if (label == null || label.isBlank()) {
+            return UNKNOWN;
+        }
+        try {
+            return valueOf(label.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return UNKNOWN;
+        }
+    }
+}
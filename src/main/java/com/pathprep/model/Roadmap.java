@@ -7,13 +7,16 @@ import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.mongodb.core.mapping.DocumentReference;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Data
 @EqualsAndHashCode(callSuper = false)
 @Document("roadmaps")
 @CompoundIndex(def = "{'role': 1, 'experience': 1}", unique = true)
-public class Roadmap extends BaseEntity {
+@CompoundIndex(name = "recent_idx", def = "{'createdAt': -1, '_id': -1}")
+@CompoundIndex(name = "trending_idx", def = "{'trendingScore': -1, '_id': -1}")
+public class Roadmap extends BaseEntity implements ContentVersioned {
     @Indexed
     private String role;
     @Indexed
@@ -21,12 +24,32 @@ public class Roadmap extends BaseEntity {
     private List<String> skills;
     private String timeline;
     private List<Section> sections;
+    /**
+     * Total views, incremented in batches by the view counter
+     */
     private int popularity;
+    /**
+     * Views with exponential time decay, see {@link ViewTarget}
+     */
+    private Double trendingScore;
+    private LocalDateTime trendingAt;
 
     private String experienceLevel;
     
     @DocumentReference
     private List<InterviewQuestion> commonQuestions;
+    
+    private String contentVersion;
+
+    @Override
+    public String getContentVersion() {
+        return contentVersion;
+    }
+
+    @Override
+    public void setContentVersion(String contentVersion) {
+        this.contentVersion = contentVersion;
+    }
 
     public String getExperienceLevel() {
         return experienceLevel;
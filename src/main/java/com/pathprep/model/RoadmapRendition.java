@@ -0,0 +1,55 @@
+package com.pathprep.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+/**
+ * Serialized API response for a {@link DetailedRoadmap}, rendered once when the roadmap
+ * is saved so reads can stream the bytes without mapping or JSON serialization.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "roadmap_renditions")
+public class RoadmapRendition {
+
+    /**
+     * Composite key of the rendered roadmap
+     */
+    @Id
+    private String compositeKey;
+
+    @Indexed
+    private String roadmapId;
+
+    /**
+     * UTF-8 JSON of the {@code ApiResponse} envelope
+     */
+    private byte[] json;
+
+    /**
+     * Gzip-compressed copy of {@link #json}
+     */
+    private byte[] gzip;
+
+    /**
+     * SHA-256 of {@link #json}, hex encoded
+     */
+    private String contentHash;
+
+    /**
+     * Version and last update of the roadmap the rendition was built from
+     */
+    private String contentVersion;
+    private LocalDateTime lastModified;
+
+    private LocalDateTime renderedAt;
+}
@@ -2,12 +2,14 @@ package com.pathprep.model;
 
 import lombok.Data;
 import lombok.EqualsAndHashCode;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 @Data
 @EqualsAndHashCode(callSuper = false)
 @Document("roles")
 public class Role extends BaseEntity {
+    @Indexed(unique = true)
     private String name;
     private String description;
 
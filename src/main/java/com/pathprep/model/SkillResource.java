@@ -8,6 +8,7 @@ import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.LocalDateTime;
@@ -22,7 +23,8 @@ import java.util.List;
 @AllArgsConstructor
 @Document(collection = "skill_resources")
 @CompoundIndex(def = "{'skillName': 1, 'role': 1, 'experienceLevel': 1}", unique = true, name = "composite_key_idx")
-public class SkillResource {
+@CompoundIndex(def = "{'role': 1, 'experienceLevel': 1, '_id': 1}", name = "role_page_idx")
+public class SkillResource implements ContentVersioned {
     @Id
     private String id;
     
@@ -44,6 +46,14 @@ public class SkillResource {
     @LastModifiedDate
     private LocalDateTime updatedAt;
     
+    private String contentVersion;
+    
+    // Maintained by the view counter, see ViewTarget
+    private Long viewCount;
+    @Indexed(sparse = true)
+    private Double trendingScore;
+    private LocalDateTime trendingAt;
+    
     public void setResources(List<ResourceItem> resources) {
         this.resources = resources;
     }
@@ -0,0 +1,70 @@
+package com.pathprep.model;
+
+import org.bson.Document;
+
+import java.util.List;
+
+/**
+ * Documents whose views are counted, with the field holding their total view count.
+ *
+ * <p>Besides the total, every counted document carries a trending score: its views with
+ * exponential time decay. On each flush the score is decayed for the time elapsed since
+ * {@link #TRENDING_AT} and the new views are added, so the score always reflects the
+ * configured half-life regardless of how many instances write to it.</p>
+ *
+ * <p>Whole-document writes must not carry these fields: the copy being written may predate
+ * the latest flush. See {@link #replaceKeepingCounters}.</p>
+ */
+public enum ViewTarget {
+    ROADMAP(Roadmap.class, "popularity"),
+    DETAILED_ROADMAP(DetailedRoadmap.class, "viewCount"),
+    SKILL_RESOURCE(SkillResource.class, "viewCount"),
+    QUESTION(InterviewQuestion.class, "viewCount");
+
+    public static final String TRENDING_SCORE = "trendingScore";
+    public static final String TRENDING_AT = "trendingAt";
+
+    private final Class<?> entityClass;
+    private final String countField;
+
+    ViewTarget(Class<?> entityClass, String countField) {
+        this.entityClass = entityClass;
+        this.countField = countField;
+    }
+
+    public Class<?> getEntityClass() {
+        return entityClass;
+    }
+
+    public String getCountField() {
+        return countField;
+    }
+
+    /**
+     * @return The fields maintained by the view counter on documents of the class, or an empty
+     *         list if its views are not counted
+     */
+    public static List<String> counterFields(Class<?> entityClass) {
+        for (ViewTarget target : values()) {
+            if (target.entityClass.equals(entityClass)) {
+                return List.of(target.countField, TRENDING_SCORE, TRENDING_AT);
+            }
+        }
+        return List.of();
+    }
+
+    /**
+     * Pipeline update replacing a document with {@code replacement} while keeping the stored
+     * values of {@code counterFields}. Used with upsert, a new document gets none of them.
+     */
+    public static List<Document> replaceKeepingCounters(Document replacement, List<String> counterFields) {
+        Document content = new Document(replacement);
+        Document counters = new Document();
+        for (String field : counterFields) {
+            content.remove(field);
+            counters.append(field, "$" + field);
+        }
+        return List.of(new Document("$replaceWith",
+                new Document("$mergeObjects", List.of(new Document("$literal", content), counters))));
+    }
+}
@@ -0,0 +1,43 @@
+package com.pathprep.repository;
+
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.UpdateOptions;
+import com.pathprep.model.ContentVersioned;
+import com.pathprep.model.ViewTarget;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import reactor.core.publisher.Mono;
+
+/**
+ * Saves the content of a view-counted document without its counters. Spring Data's
+ * {@code save} replaces the whole document, so a copy read before the latest view flush
+ * would reset them.
+ */
+final class CounterPreservingSave {
+
+    private CounterPreservingSave() {
+    }
+
+    /**
+     * Inserts documents without an id. Existing documents are replaced through
+     * {@link ViewTarget#replaceKeepingCounters}, which bypasses the mapping events, so the
+     * content version is stamped here.
+     */
+    static <T extends ContentVersioned> Mono<T> save(ReactiveMongoTemplate mongoTemplate, T entity) {
+        return Mono.defer(() -> {
+            entity.setContentVersion(ContentVersioned.newVersion());
+            Document document = new Document();
+            mongoTemplate.getConverter().write(entity, document);
+            Object id = document.get("_id");
+            if (id == null) {
+                return mongoTemplate.insert(entity);
+            }
+            String collection = mongoTemplate.getCollectionName(entity.getClass());
+            return mongoTemplate.getCollection(collection)
+                    .flatMap(target -> Mono.from(target.updateOne(Filters.eq("_id", id),
+                            ViewTarget.replaceKeepingCounters(document, ViewTarget.counterFields(entity.getClass())),
+                            new UpdateOptions().upsert(true))))
+                    .thenReturn(entity);
+        });
+    }
+}
@@ -13,7 +13,7 @@ import reactor.core.publisher.Mono;
  * Provides reactive CRUD operations and custom query methods.
  */
 @Repository
-public interface DetailedRoadmapRepository extends ReactiveMongoRepository<DetailedRoadmap, String> {
+public interface DetailedRoadmapRepository extends ReactiveMongoRepository<DetailedRoadmap, String>, DetailedRoadmapRepositoryCustom {
     
     /**
      * Find a roadmap by its composite key (role_experienceLevel).
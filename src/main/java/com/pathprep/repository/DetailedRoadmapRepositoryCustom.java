@@ -0,0 +1,24 @@
+package com.pathprep.repository;
+
+import com.pathprep.model.DetailedRoadmap;
+import com.pathprep.util.FieldSelection;
+import reactor.core.publisher.Mono;
+
+/**
+ * Projected detailed roadmap reads and content saves.
+ */
+public interface DetailedRoadmapRepositoryCustom {
+
+    /**
+     * @param fields Fields to read
+     * @return The most recent roadmap with the composite key, with only the selected fields populated
+     */
+    Mono<DetailedRoadmap> findProjectedByCompositeKey(String compositeKey, FieldSelection fields);
+
+    /**
+     * Saves the roadmap but keeps the view count and trending score stored for it.
+     *
+     * @return The saved roadmap
+     */
+    Mono<DetailedRoadmap> saveContent(DetailedRoadmap roadmap);
+}
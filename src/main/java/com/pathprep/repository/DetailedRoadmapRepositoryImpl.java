@@ -0,0 +1,32 @@
+package com.pathprep.repository;
+
+import com.pathprep.model.DetailedRoadmap;
+import com.pathprep.util.FieldSelection;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+@RequiredArgsConstructor
+public class DetailedRoadmapRepositoryImpl implements DetailedRoadmapRepositoryCustom {
+
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    @Override
+    public Mono<DetailedRoadmap> findProjectedByCompositeKey(String compositeKey, FieldSelection fields) {
+        Query query = new Query(Criteria.where("compositeKey").is(compositeKey))
+                .with(Sort.by(Sort.Direction.DESC, "createdAt"))
+                .limit(1);
+        fields.applyTo(query, List.of(), List.of());
+        return mongoTemplate.findOne(query, DetailedRoadmap.class);
+    }
+
+    @Override
+    public Mono<DetailedRoadmap> saveContent(DetailedRoadmap roadmap) {
+        return CounterPreservingSave.save(mongoTemplate, roadmap);
+    }
+}
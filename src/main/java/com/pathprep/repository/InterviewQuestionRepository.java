@@ -4,15 +4,28 @@ import com.pathprep.model.InterviewQuestion;
 import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
-public interface InterviewQuestionRepository extends BaseRepository<InterviewQuestion, String> {
+public interface InterviewQuestionRepository extends BaseRepository<InterviewQuestion, String>, InterviewQuestionRepositoryCustom {
     List<InterviewQuestion> findByRoleAndExperience(String role, String experience);
     
+    @Query(value = "{ 'role': ?0, 'experience': ?1 }", fields = "{ 'answer': 0 }")
+    List<InterviewQuestion> findSummariesByRoleAndExperience(String role, String experience);
+    
+    @Query(value = "{ '_id': { $in: ?0 } }", fields = "{ 'answer': 0 }")
+    List<InterviewQuestion> findSummariesByIdIn(Collection<String> ids);
+    
+    @Query(value = "{ '_id': { $in: ?0 } }", fields = "{ 'answer': 1 }")
+    List<InterviewQuestion> findAnswersByIdIn(Collection<String> ids);
+    
     @Query("{ 'role': ?0, 'experience': ?1, 'skill': ?2 }")
     List<InterviewQuestion> findByRoleAndExperienceAndSkill(String role, String experience, String skill);
     
+    @Query(value = "{ 'role': ?0, 'experience': ?1, 'skill': ?2 }", fields = "{ 'question': 1 }")
+    List<InterviewQuestion> findQuestionTextsByRoleAndExperienceAndSkill(String role, String experience, String skill);
+    
     List<InterviewQuestion> findByDifficulty(String difficulty);
     
     @Query("{ 'tags': { $in: ?0 } }")
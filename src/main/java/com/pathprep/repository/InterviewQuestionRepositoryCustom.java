@@ -0,0 +1,53 @@
+package com.pathprep.repository;
+
+import com.pathprep.model.InterviewQuestion;
+import com.pathprep.util.FieldSelection;
+import com.pathprep.util.KeysetCursor;
+
+import java.util.List;
+
+/**
+ * Custom bulk operations, keyset-paginated listings and text search for the questions collection.
+ */
+public interface InterviewQuestionRepositoryCustom {
+
+    /**
+     * Inserts the given questions with one unordered bulkWrite of upserts keyed on
+     * (role, experience, skill, fingerprint). Questions that already exist are ignored.
+     *
+     * @param questions Questions with their fingerprint set
+     * @return The number of questions actually inserted
+     */
+    int insertIfAbsent(List<InterviewQuestion> questions);
+
+    /**
+     * Lists stored questions in {@code _id} order, one page at a time.
+     *
+     * @param after Cursor from the previous page, or null for the first page
+     * @param limit Maximum number of questions, pushed down to the query
+     * @param fields Fields to read
+     */
+    List<InterviewQuestion> findPageByRoleAndExperience(String role, String experience, KeysetCursor after,
+                                                        int limit, FieldSelection fields);
+
+    /**
+     * Full-text search over question text, tags and answers through the collection's text index,
+     * best matches first. Filters are exact, except difficulty which ignores case.
+     *
+     * @param role Role filter, or null for any
+     * @param experience Experience filter, or null for any
+     * @param difficulty Difficulty filter, or null for any
+     * @param after Cursor from the previous page, or null for the first page
+     * @param limit Maximum number of questions
+     * @param includeAnswers Whether to read the answer field
+     * @return Matches in (score desc, {@code _id} asc) order
+     */
+    List<ScoredQuestion> search(String text, String role, String experience, String difficulty,
+                                KeysetCursor after, int limit, boolean includeAnswers);
+
+    /**
+     * A question with its text search relevance.
+     */
+    record ScoredQuestion(InterviewQuestion question, double score) {
+    }
+}
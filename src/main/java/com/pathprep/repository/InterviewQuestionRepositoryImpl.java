@@ -0,0 +1,132 @@
+package com.pathprep.repository;
+
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.UpdateOptions;
+import com.mongodb.client.model.WriteModel;
+import com.pathprep.model.InterviewQuestion;
+import com.pathprep.util.FieldSelection;
+import com.pathprep.util.KeysetCursor;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.regex.Pattern;
+
+@Slf4j
+@RequiredArgsConstructor
+public class InterviewQuestionRepositoryImpl implements InterviewQuestionRepositoryCustom {
+
+    public static final String[] FINGERPRINT_KEY = {"role", "experience", "skill", "fingerprint"};
+
+    private static final int DUPLICATE_KEY = 11000;
+
+    private static final String SCORE = "score";
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public int insertIfAbsent(List<InterviewQuestion> questions) {
+        if (questions == null || questions.isEmpty()) {
+            return 0;
+        }
+
+        Date now = new Date();
+        List<WriteModel<Document>> models = new ArrayList<>(questions.size());
+        for (InterviewQuestion question : questions) {
+            Document document = new Document();
+            mongoTemplate.getConverter().write(question, document);
+            document.putIfAbsent("createdAt", now);
+            document.put("updatedAt", now);
+
+            Document filter = new Document();
+            for (String field : FINGERPRINT_KEY) {
+                filter.append(field, document.get(field));
+            }
+            models.add(new UpdateOneModel<>(filter, new Document("$setOnInsert", document),
+                    new UpdateOptions().upsert(true)));
+        }
+
+        try {
+            return mongoTemplate.getCollection(mongoTemplate.getCollectionName(InterviewQuestion.class))
+                    .bulkWrite(models, new BulkWriteOptions().ordered(false))
+                    .getUpserts()
+                    .size();
+        } catch (MongoBulkWriteException e) {
+            // Concurrent upserts of the same fingerprint race on the unique index; the loser is a duplicate
+            for (BulkWriteError error : e.getWriteErrors()) {
+                if (error.getCode() != DUPLICATE_KEY) {
+                    throw e;
+                }
+            }
+            log.debug("Ignored {} duplicate questions during bulk insert", e.getWriteErrors().size());
+            return e.getWriteResult().getUpserts().size();
+        }
+    }
+
+    @Override
+    public List<InterviewQuestion> findPageByRoleAndExperience(String role, String experience, KeysetCursor after,
+                                                               int limit, FieldSelection fields) {
+        Query query = new Query(Criteria.where("role").is(role).and("experience").is(experience))
+                .with(Sort.by(Sort.Direction.ASC, "_id"))
+                .limit(limit);
+        if (after != null) {
+            query.addCriteria(after.afterId());
+        }
+        fields.applyTo(query, List.of(), List.of());
+        return mongoTemplate.find(query, InterviewQuestion.class);
+    }
+
+    @Override
+    public List<ScoredQuestion> search(String text, String role, String experience, String difficulty,
+                                       KeysetCursor after, int limit, boolean includeAnswers) {
+        // $text has to be in the first stage; the filters share it so they narrow the index scan
+        Document match = new Document("$text", new Document("$search", text));
+        if (role != null) {
+            match.append("role", role);
+        }
+        if (experience != null) {
+            match.append("experience", experience);
+        }
+        if (difficulty != null) {
+            match.append("difficulty", new Document("$regex", "^" + Pattern.quote(difficulty) + "$").append("$options", "i"));
+        }
+
+        List<Document> pipeline = new ArrayList<>();
+        pipeline.add(new Document("$match", match));
+        pipeline.add(new Document("$addFields", new Document(SCORE, new Document("$meta", "textScore"))));
+        if (after != null) {
+            Double score = after.doubleValue();
+            Object id = ObjectId.isValid(after.id()) ? new ObjectId(after.id()) : after.id();
+            pipeline.add(new Document("$match", new Document("$or", List.of(
+                    new Document(SCORE, new Document("$lt", score)),
+                    new Document(SCORE, score).append("_id", new Document("$gt", id))))));
+        }
+        pipeline.add(new Document("$sort", new Document(SCORE, -1).append("_id", 1)));
+        pipeline.add(new Document("$limit", limit));
+        Document exclude = new Document("fingerprint", 0);
+        if (!includeAnswers) {
+            exclude.append("answer", 0);
+        }
+        pipeline.add(new Document("$project", exclude));
+
+        List<ScoredQuestion> results = new ArrayList<>(limit);
+        for (Document document : mongoTemplate.getCollection(mongoTemplate.getCollectionName(InterviewQuestion.class))
+                .aggregate(pipeline)) {
+            double score = document.get(SCORE, Number.class).doubleValue();
+            document.remove(SCORE);
+            results.add(new ScoredQuestion(mongoTemplate.getConverter().read(InterviewQuestion.class, document), score));
+        }
+        return results;
+    }
+}
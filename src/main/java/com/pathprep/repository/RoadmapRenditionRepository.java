@@ -0,0 +1,18 @@
+package com.pathprep.repository;
+
+import com.pathprep.model.RoadmapRendition;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+/**
+ * Repository for pre-rendered roadmap payloads, keyed by roadmap composite key.
+ */
+@Repository
+public interface RoadmapRenditionRepository extends ReactiveMongoRepository<RoadmapRendition, String> {
+
+    /**
+     * Find renditions of a roadmap by the roadmap's document id
+     */
+    Flux<RoadmapRendition> findByRoadmapId(String roadmapId);
+}
@@ -4,14 +4,13 @@ import com.pathprep.model.Roadmap;
 import org.springframework.data.mongodb.repository.Query;
 import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
 import org.springframework.stereotype.Repository;
-import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 /**
  * Reactive repository for Roadmap documents.
  */
 @Repository
-public interface RoadmapRepository extends ReactiveMongoRepository<Roadmap, String> {
+public interface RoadmapRepository extends ReactiveMongoRepository<Roadmap, String>, RoadmapRepositoryCustom {
     
     /**
      * Finds a roadmap by role and experience level.
@@ -24,18 +23,14 @@ public interface RoadmapRepository extends ReactiveMongoRepository<Roadmap, Stri
     Mono<Roadmap> findByRoleAndExperience(String role, String experience);
     
     /**
-     * Finds all roadmaps ordered by creation date (newest first).
+     * Finds only the version fields of a roadmap by role and experience level.
      *
-     * @return A Flux of Roadmaps ordered by creation date
-     */
-    Flux<Roadmap> findAllByOrderByCreatedAtDesc();
-    
-    /**
-     * Finds all roadmaps ordered by popularity (highest first).
-     *
-     * @return A Flux of Roadmaps ordered by popularity
+     * @param role The target role
+     * @param experience The experience level
+     * @return A Mono containing a Roadmap with only id, contentVersion and updatedAt set
      */
-    Flux<Roadmap> findAllByOrderByPopularityDesc();
+    @Query(value = "{ 'role': ?0, 'experience': ?1 }", fields = "{ 'contentVersion': 1, 'updatedAt': 1 }")
+    Mono<Roadmap> findVersionByRoleAndExperience(String role, String experience);
     
     /**
      * Checks if a roadmap exists for the given role and experience level.
@@ -0,0 +1,40 @@
+package com.pathprep.repository;
+
+import com.pathprep.model.Roadmap;
+import com.pathprep.util.FieldSelection;
+import com.pathprep.util.KeysetCursor;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Keyset-paginated roadmap listings. Both orderings break ties on {@code _id} and are
+ * backed by a matching descending compound index.
+ *
+ * <p>{@code commonQuestions} is never resolved per roadmap. It is either left out, or
+ * resolved for the whole page with a single {@code $in} query.</p>
+ */
+public interface RoadmapRepositoryCustom {
+
+    /**
+     * @param after Cursor from the previous page, or null for the first page
+     * @param limit Maximum number of roadmaps, pushed down to the query
+     * @param fields Fields to read; {@code commonQuestions} is resolved only if selected
+     * @return Roadmaps ordered by creation date, newest first
+     */
+    Flux<Roadmap> findRecent(KeysetCursor after, int limit, FieldSelection fields);
+
+    /**
+     * @param after Cursor from the previous page, or null for the first page
+     * @param limit Maximum number of roadmaps, pushed down to the query
+     * @param fields Fields to read; {@code commonQuestions} is resolved only if selected
+     * @return Roadmaps ordered by time-decayed trending score, highest first
+     */
+    Flux<Roadmap> findTrending(KeysetCursor after, int limit, FieldSelection fields);
+
+    /**
+     * Saves the roadmap but keeps the popularity and trending score stored for it.
+     *
+     * @return The saved roadmap
+     */
+    Mono<Roadmap> saveContent(Roadmap roadmap);
+}
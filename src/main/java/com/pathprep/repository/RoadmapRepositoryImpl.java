@@ -0,0 +1,132 @@
+package com.pathprep.repository;
+
+import com.pathprep.model.InterviewQuestion;
+import com.pathprep.model.Roadmap;
+import com.pathprep.model.ViewTarget;
+import com.pathprep.util.FieldSelection;
+import com.pathprep.util.KeysetCursor;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.bson.Document;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+public class RoadmapRepositoryImpl implements RoadmapRepositoryCustom {
+
+    private static final String COMMON_QUESTIONS = "commonQuestions";
+
+    private final ReactiveMongoTemplate mongoTemplate;
+    private final MeterRegistry meterRegistry;
+
+    public RoadmapRepositoryImpl(ReactiveMongoTemplate mongoTemplate, MeterRegistry meterRegistry) {
+        this.mongoTemplate = mongoTemplate;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Flux<Roadmap> findRecent(KeysetCursor after, int limit, FieldSelection fields) {
+        Query query = new Query()
+                .with(Sort.by(Sort.Direction.DESC, "createdAt", "_id"))
+                .limit(limit);
+        if (after != null) {
+            query.addCriteria(after.afterDescending("createdAt", after.dateValue()));
+        }
+        return findPage("recent", query, "createdAt", fields);
+    }
+
+    @Override
+    public Flux<Roadmap> findTrending(KeysetCursor after, int limit, FieldSelection fields) {
+        Query query = new Query()
+                .with(Sort.by(Sort.Direction.DESC, ViewTarget.TRENDING_SCORE, "_id"))
+                .limit(limit);
+        if (after != null) {
+            query.addCriteria(after.afterDescending(ViewTarget.TRENDING_SCORE, after.doubleValue()));
+        }
+        return findPage("trending", query, ViewTarget.TRENDING_SCORE, fields);
+    }
+
+    @Override
+    public Mono<Roadmap> saveContent(Roadmap roadmap) {
+        return CounterPreservingSave.save(mongoTemplate, roadmap);
+    }
+
+    /**
+     * Reads the page as raw documents so the references can be collected before mapping;
+     * mapping a {@link Roadmap} directly would resolve {@code commonQuestions} once per roadmap.
+     */
+    private Flux<Roadmap> findPage(String listing, Query query, String sortField, FieldSelection fields) {
+        boolean includeQuestions = fields.includes(COMMON_QUESTIONS);
+        // The sort field is needed for the next cursor even when it is not selected
+        fields.applyTo(query, List.of(sortField), List.of(COMMON_QUESTIONS));
+        String collection = mongoTemplate.getCollectionName(Roadmap.class);
+
+        return mongoTemplate.find(query, Document.class, collection)
+                .collectList()
+                .flatMapMany(documents -> {
+                    List<List<Object>> references = new ArrayList<>(documents.size());
+                    Set<Object> questionIds = new LinkedHashSet<>();
+                    for (Document document : documents) {
+                        List<Object> ids = referencedIds(document.remove(COMMON_QUESTIONS));
+                        references.add(ids);
+                        questionIds.addAll(ids);
+                    }
+                    List<Roadmap> roadmaps = documents.stream()
+                            .map(document -> mongoTemplate.getConverter().read(Roadmap.class, document))
+                            .collect(Collectors.toList());
+
+                    if (!includeQuestions || questionIds.isEmpty()) {
+                        recordRoundTrips(listing, 1);
+                        return Flux.fromIterable(roadmaps);
+                    }
+
+                    Query byIds = new Query(Criteria.where("_id").in(questionIds));
+                    return mongoTemplate.find(byIds, InterviewQuestion.class)
+                            .collectMap(InterviewQuestion::getId, Function.identity())
+                            .doOnNext(questions -> recordRoundTrips(listing, 2))
+                            .flatMapMany(questions -> {
+                                for (int i = 0; i < roadmaps.size(); i++) {
+                                    roadmaps.get(i).setCommonQuestions(resolve(references.get(i), questions));
+                                }
+                                return Flux.fromIterable(roadmaps);
+                            });
+                });
+    }
+
+    private void recordRoundTrips(String listing, int roundTrips) {
+        DistributionSummary.builder("pathprep.roadmaps.page.queries")
+                .description("MongoDB round trips per page of roadmaps")
+                .tag("listing", listing)
+                .register(meterRegistry)
+                .record(roundTrips);
+    }
+
+    private static List<Object> referencedIds(Object stored) {
+        if (!(stored instanceof List<?> list)) {
+            return List.of();
+        }
+        return list.stream().filter(Objects::nonNull).map(Object.class::cast).collect(Collectors.toList());
+    }
+
+    /**
+     * Keeps the stored order and skips references to deleted questions.
+     */
+    private static List<InterviewQuestion> resolve(List<Object> ids, Map<String, InterviewQuestion> questions) {
+        return ids.stream()
+                .map(id -> questions.get(id.toString()))
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+}
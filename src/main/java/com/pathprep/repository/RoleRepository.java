@@ -3,9 +3,13 @@ package com.pathprep.repository;
 import com.pathprep.model.Role;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 @Repository
 public interface RoleRepository extends BaseRepository<Role, String> {
     // Custom queries can be added here
 
     Role findByName(String name);
+
+    List<Role> findByNameContainingIgnoreCase(String name);
 }
@@ -11,7 +11,7 @@ import reactor.core.publisher.Mono;
  * Repository for SkillResource documents
  */
 @Repository
-public interface SkillResourceRepository extends ReactiveMongoRepository<SkillResource, String> {
+public interface SkillResourceRepository extends ReactiveMongoRepository<SkillResource, String>, SkillResourceRepositoryCustom {
     
     /**
      * Find a skill resource by skill name, role, and experience level
@@ -20,9 +20,17 @@ public interface SkillResourceRepository extends ReactiveMongoRepository<SkillRe
     Mono<SkillResource> findBySkillNameAndRoleAndExperienceLevel(
         String skillName, String role, String experienceLevel);
     
+    /**
+     * Find the most recently updated skill resource for a skill, whatever the role and level
+     */
+    Mono<SkillResource> findFirstBySkillNameOrderByUpdatedAtDesc(String skillName);
+    
     /**
      * Find all skill resources for a given role and experience level
      */
+    @Query(value = "{'_id': ?0}", fields = "{'contentVersion': 1, 'updatedAt': 1}")
+    Mono<SkillResource> findVersionById(String id);
+    
     @Query("{'role': ?0, 'experienceLevel': ?1}")
     Flux<SkillResource> findByRoleAndExperienceLevel(String role, String experienceLevel);
     
@@ -0,0 +1,29 @@
+package com.pathprep.repository;
+
+import com.pathprep.model.SkillResource;
+import com.pathprep.util.FieldSelection;
+import com.pathprep.util.KeysetCursor;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Keyset-paginated skill resource listings and content saves.
+ */
+public interface SkillResourceRepositoryCustom {
+
+    /**
+     * @param after Cursor from the previous page, or null for the first page
+     * @param limit Maximum number of resources, pushed down to the query
+     * @param fields Fields to read
+     * @return Resources for the role and experience level in {@code _id} order
+     */
+    Flux<SkillResource> findPageByRoleAndExperienceLevel(String role, String experienceLevel, KeysetCursor after, int limit,
+                                                      FieldSelection fields);
+
+    /**
+     * Saves the resources but keeps the view count and trending score stored for them.
+     *
+     * @return The saved resources
+     */
+    Mono<SkillResource> saveContent(SkillResource resource);
+}
@@ -0,0 +1,39 @@
+package com.pathprep.repository;
+
+import com.pathprep.model.SkillResource;
+import com.pathprep.util.FieldSelection;
+import com.pathprep.util.KeysetCursor;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+@RequiredArgsConstructor
+public class SkillResourceRepositoryImpl implements SkillResourceRepositoryCustom {
+
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    @Override
+    public Flux<SkillResource> findPageByRoleAndExperienceLevel(String role, String experienceLevel,
+                                                                KeysetCursor after, int limit,
+                                                                FieldSelection fields) {
+        Query query = new Query(Criteria.where("role").is(role).and("experienceLevel").is(experienceLevel))
+                .with(Sort.by(Sort.Direction.ASC, "_id"))
+                .limit(limit);
+        if (after != null) {
+            query.addCriteria(after.afterId());
+        }
+        fields.applyTo(query, List.of(), List.of());
+        return mongoTemplate.find(query, SkillResource.class);
+    }
+
+    @Override
+    public Mono<SkillResource> saveContent(SkillResource resource) {
+        return CounterPreservingSave.save(mongoTemplate, resource);
+    }
+}
@@ -0,0 +1,31 @@
+package com.pathprep.service;
+
+import com.pathprep.util.CatalogSnapshot;
+
+import java.util.function.UnaryOperator;
+
+/**
+ * Holds the current role and skill catalog snapshot.
+ */
+public interface CatalogService {
+
+    /**
+     * @return true once a snapshot has been loaded and reads can be served from it
+     */
+    boolean isReady();
+
+    /**
+     * @return The current snapshot; empty until {@link #isReady()}
+     */
+    CatalogSnapshot snapshot();
+
+    /**
+     * Applies a change made by this instance without reloading the catalogs.
+     */
+    void update(UnaryOperator<CatalogSnapshot> change);
+
+    /**
+     * Reloads both catalogs from MongoDB and swaps the snapshot.
+     */
+    void refresh();
+}
@@ -3,6 +3,8 @@ package com.pathprep.service;
 import com.pathprep.dto.DetailedRoadmapRequest;
 import com.pathprep.dto.response.DetailedRoadmapResponse;
 import com.pathprep.model.DetailedRoadmap;
+import com.pathprep.model.RoadmapRendition;
+import com.pathprep.util.FieldSelection;
 import reactor.core.publisher.Mono;
 
 /**
@@ -20,12 +22,22 @@ public interface DetailedRoadmapService {
     Mono<DetailedRoadmapResponse> generateOrGetRoadmap(DetailedRoadmapRequest request);
     
     /**
-     * Get a roadmap by its composite key (role_experienceLevel).
+     * Get a roadmap read through a projection; fields outside the selection are left null.
      * 
      * @param compositeKey The composite key in format "role_experienceLevel"
-     * @return A Mono containing the roadmap if found, or empty if not found
+     * @param fields Fields to read
+     * @return A Mono containing the partially populated roadmap, or empty if not found
      */
-    Mono<DetailedRoadmapResponse> getRoadmapByCompositeKey(String compositeKey);
+    Mono<DetailedRoadmapResponse> getRoadmapByCompositeKey(String compositeKey, FieldSelection fields);
+    
+    /**
+     * Get the pre-serialized response for a roadmap, rendering it first if the roadmap
+     * was saved before renditions existed.
+     * 
+     * @param compositeKey The composite key in format "role_experienceLevel"
+     * @return A Mono containing the rendition if the roadmap exists, or empty if not found
+     */
+    Mono<RoadmapRendition> getRenderedRoadmap(String compositeKey);
     
     /**
      * Save or update a roadmap.
@@ -1,10 +1,17 @@
 package com.pathprep.service;
 
+import com.pathprep.dto.CursorPage;
 import com.pathprep.dto.GenerateQuestionsRequest;
 import com.pathprep.dto.InterviewQuestionResponse;
+import com.pathprep.dto.QuestionAnswersResponse;
+import com.pathprep.dto.QuestionSearchResult;
+import com.pathprep.dto.QuestionQuery;
 import com.pathprep.dto.SkillQuestionsRequest;
+import com.pathprep.util.FieldSelection;
 import reactor.core.publisher.Mono;
 
+import java.util.List;
+
 public interface InterviewQuestionService {
     /**
      * Generate interview questions based on the provided request
@@ -25,6 +32,49 @@ public interface InterviewQuestionService {
      */
     Mono<InterviewQuestionResponse> getQuestions(String role, String experienceLevel, int count, boolean forceRefresh);
     
+    /**
+     * Get interview questions from the database, optionally filtered by difficulty and category
+     * 
+     * @param query The role, experience level, filters and count
+     * @return A Mono emitting the interview questions
+     */
+    Mono<InterviewQuestionResponse> getQuestions(QuestionQuery query);
+    
+    /**
+     * Get the answers of stored questions, typically after listing them without answers
+     * 
+     * @param ids The question ids
+     * @return A Mono emitting the answers of the questions that exist, in request order
+     */
+    Mono<QuestionAnswersResponse> getAnswers(List<String> ids);
+    
+    /**
+     * List stored questions for a role and experience level in a stable order, one page at a time
+     * 
+     * @param cursor Cursor from the previous page, or null for the first page
+     * @param limit Maximum number of questions in the page
+     * @param fields Fields to read and return
+     * @return A Mono emitting the page; fails with IllegalArgumentException for a malformed cursor
+     */
+    Mono<CursorPage<InterviewQuestionResponse.QuestionItem>> listQuestions(String role, String experienceLevel,
+                                                                           String cursor, int limit, FieldSelection fields);
+    
+    /**
+     * Search the text of stored questions, their tags and answers across roles, best matches first
+     * 
+     * @param text Search terms; quoted phrases and -negations follow MongoDB text search syntax
+     * @param role Role filter, or null for any
+     * @param experienceLevel Experience level filter, or null for any
+     * @param difficulty Difficulty filter, or null for any
+     * @param cursor Cursor from the previous page, or null for the first page
+     * @param limit Maximum number of questions in the page
+     * @param includeAnswers Whether to include answers
+     * @return A Mono emitting the page; fails with IllegalArgumentException for blank terms or a malformed cursor
+     */
+    Mono<CursorPage<QuestionSearchResult>> searchQuestions(String text, String role, String experienceLevel,
+                                                           String difficulty, String cursor, int limit,
+                                                           boolean includeAnswers);
+    
     /**
      * Generate skill-specific interview questions
      * 
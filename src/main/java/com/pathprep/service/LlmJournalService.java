@@ -0,0 +1,35 @@
+package com.pathprep.service;
+
+/**
+ * Journal of raw LLM calls, written as rotating gzip-compressed NDJSON files so production
+ * completions can be replayed offline through the parsing pipeline.
+ */
+public interface LlmJournalService {
+
+    /**
+     * One LLM call as sent and received.
+     *
+     * @param timestamp When the call completed, in epoch milliseconds
+     * @param responseType The class the completion was parsed into, or null for plain text
+     * @param completion The completion as returned by the model, before any cleaning
+     */
+    record Entry(long timestamp, String endpoint, String model, Double temperature, Integer maxTokens,
+                 String responseType, String prompt, String completion, long latencyMs,
+                 int promptTokens, int completionTokens) {
+    }
+
+    /**
+     * @return Whether calls are journaled; callers skip building entries when not
+     */
+    boolean isEnabled();
+
+    /**
+     * Queue a call for the next write. Never blocks and never fails.
+     */
+    void record(Entry entry);
+
+    /**
+     * Write queued calls to the current journal file.
+     */
+    void flush();
+}
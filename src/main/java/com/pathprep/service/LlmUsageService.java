@@ -0,0 +1,62 @@
+package com.pathprep.service;
+
+import com.pathprep.dto.LlmBudgetStatus;
+import com.pathprep.dto.LlmUsageSummary;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Ledger of LLM calls. Calls are aggregated per minute in memory and flushed to the
+ * {@code llm_usage} collection in periodic batches; the totals of the current day decide
+ * whether an endpoint is still within its token budget.
+ */
+public interface LlmUsageService {
+
+    /**
+     * Dimensions usage can be grouped by.
+     */
+    Set<String> DIMENSIONS = Set.of("endpoint", "model", "role", "experienceLevel", "client");
+
+    /**
+     * One completed LLM call and who it was made for.
+     *
+     * @param endpoint The endpoint of the request that made the call
+     * @param role The role of the request, if any
+     * @param experienceLevel The experience level of the request, if any
+     * @param client The API client that sent the request
+     */
+    record LlmCall(String endpoint, String model, String role, String experienceLevel, String client,
+                   int promptTokens, int completionTokens, long latencyMs) {
+    }
+
+    /**
+     * Add a call to the current minute. Never blocks and never fails.
+     */
+    void record(LlmCall call);
+
+    /**
+     * @return False when the endpoint has used its daily token budget and should only serve stored content
+     */
+    boolean isWithinBudget(String endpoint);
+
+    /**
+     * @param dimension One of {@link #DIMENSIONS}
+     * @param from Start of the period, inclusive
+     * @param to End of the period, exclusive
+     * @return The largest consumers in the period by total tokens
+     */
+    Mono<List<LlmUsageSummary>> getTopConsumers(String dimension, LocalDateTime from, LocalDateTime to, int limit);
+
+    /**
+     * @return Today's usage of every endpoint that has a budget or used tokens today
+     */
+    Mono<List<LlmBudgetStatus>> getBudgets();
+
+    /**
+     * Write the aggregates of completed minutes and refresh today's totals.
+     */
+    void flush();
+}
@@ -0,0 +1,27 @@
+package com.pathprep.service;
+
+import com.pathprep.model.QuestionDifficulty;
+
+import java.util.List;
+
+/**
+ * In-memory index of stored question ids, used to sample questions without querying MongoDB.
+ */
+public interface QuestionBankIndex {
+
+    /**
+     * @return true once the initial load has finished and samples reflect the database
+     */
+    boolean isReady();
+
+    /**
+     * Picks random question ids matching the filters.
+     *
+     * @param skill Skill partition to sample from, or null to sample across all skills
+     * @param difficulty Difficulty filter, or null for any
+     * @param category Category filter (case-insensitive), or null for any
+     * @return Up to {@code count} ids in random order
+     */
+    List<String> sampleIds(String role, String experience, String skill,
+                           QuestionDifficulty difficulty, String category, int count);
+}
@@ -0,0 +1,32 @@
+package com.pathprep.service;
+
+import com.pathprep.model.InterviewQuestion;
+
+import java.util.List;
+
+/**
+ * Detects questions that are worded slightly differently but ask the same thing.
+ */
+public interface QuestionSimilarityService {
+
+    /**
+     * Drops questions that are near-duplicates of an earlier question in the same list.
+     */
+    List<InterviewQuestion> removeNearDuplicates(List<InterviewQuestion> questions);
+
+    /**
+     * Returns the questions that are not near-duplicates of anything already stored for the
+     * role, experience and skill. May block on MongoDB to load the stored signatures.
+     */
+    List<InterviewQuestion> filterNovel(String role, String experience, String skill, List<InterviewQuestion> questions);
+
+    /**
+     * Remembers questions once they have been written, so later batches are checked against them.
+     */
+    void remember(String role, String experience, String skill, List<InterviewQuestion> questions);
+
+    /**
+     * Picks up to {@code count} random questions, skipping near-duplicates of ones already picked.
+     */
+    List<InterviewQuestion> sampleDistinct(List<InterviewQuestion> questions, int count);
+}
@@ -0,0 +1,35 @@
+package com.pathprep.service;
+
+import com.pathprep.dto.response.DetailedRoadmapResponse;
+import com.pathprep.model.RoadmapRendition;
+import reactor.core.publisher.Mono;
+
+/**
+ * Stores detailed roadmap responses as ready-to-send JSON and gzip bytes.
+ */
+public interface RoadmapRenditionService {
+
+    /**
+     * Find the rendition for a composite key, from memory first and then MongoDB.
+     *
+     * @param compositeKey The roadmap composite key
+     * @return A Mono containing the rendition, or empty if the roadmap has not been rendered
+     */
+    Mono<RoadmapRendition> find(String compositeKey);
+
+    /**
+     * Serialize and compress a roadmap response, replacing any previous rendition for its key.
+     *
+     * @param response The mapped roadmap
+     * @return A Mono containing the new rendition
+     */
+    Mono<RoadmapRendition> render(DetailedRoadmapResponse response);
+
+    /**
+     * Remove the renditions of a deleted roadmap.
+     *
+     * @param roadmapId The roadmap document id
+     * @return A Mono that completes when the renditions are removed
+     */
+    Mono<Void> deleteByRoadmapId(String roadmapId);
+}
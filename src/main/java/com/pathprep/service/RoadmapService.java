@@ -1,6 +1,9 @@
 package com.pathprep.service;
 
+import com.pathprep.dto.CursorPage;
+import com.pathprep.dto.ResourceVersion;
 import com.pathprep.model.Roadmap;
+import com.pathprep.util.FieldSelection;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
@@ -47,6 +50,28 @@ public interface RoadmapService {
      */
     Flux<Roadmap> getTrendingRoadmaps(int limit);
     
+    /**
+     * Retrieves one page of roadmaps ordered by creation date, newest first.
+     *
+     * @param cursor Cursor from the previous page, or null for the first page
+     * @param limit Maximum number of roadmaps in the page
+     * @param fields Fields to read; common questions are resolved only if selected
+     * @return A Mono containing the page
+     * @throws IllegalArgumentException If the cursor is malformed
+     */
+    Mono<CursorPage<Roadmap>> getRecentRoadmaps(String cursor, int limit, FieldSelection fields);
+    
+    /**
+     * Retrieves one page of roadmaps ordered by recent views, highest first.
+     *
+     * @param cursor Cursor from the previous page, or null for the first page
+     * @param limit Maximum number of roadmaps in the page
+     * @param fields Fields to read; common questions are resolved only if selected
+     * @return A Mono containing the page
+     * @throws IllegalArgumentException If the cursor is malformed
+     */
+    Mono<CursorPage<Roadmap>> getTrendingRoadmaps(String cursor, int limit, FieldSelection fields);
+    
     /**
      * Saves a roadmap.
      *
@@ -71,4 +96,13 @@ public interface RoadmapService {
      * @return A Mono containing the found or generated Roadmap
      */
     Mono<Roadmap> getOrGenerateRoadmap(String role, String experience);
+
+    /**
+     * Reads only the version of a stored roadmap, for conditional requests.
+     *
+     * @param role The target role for the roadmap
+     * @param experience The experience level for the roadmap
+     * @return A Mono containing the version, or empty if the roadmap does not exist
+     */
+    Mono<ResourceVersion> getRoadmapVersion(String role, String experience);
 }
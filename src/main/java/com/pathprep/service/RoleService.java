@@ -1,5 +1,6 @@
 package com.pathprep.service;
 
+import com.pathprep.dto.ResourceVersion;
 import com.pathprep.model.Role;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
@@ -8,6 +9,15 @@ import java.util.Optional;
 
 public interface RoleService {
     Flux<Role> findAllRoles();
+    /**
+     * @return The version of the catalog snapshot, or empty if it is not held in memory
+     */
+    Mono<ResourceVersion> getRolesVersion();
+    /**
+     * @param limit Maximum number of suggestions, capped at 50
+     * @return Roles whose name starts with or contains the query, best matches first
+     */
+    Flux<Role> searchRoles(String query, int limit);
     Optional<Role> findRoleById(String id);
     Role findRoleByName(String name);
     Role saveRole(Role role);
@@ -1,7 +1,10 @@
 package com.pathprep.service;
 
+import com.pathprep.dto.CursorPage;
+import com.pathprep.dto.ResourceVersion;
 import com.pathprep.dto.SkillResourceRequest;
 import com.pathprep.dto.response.SkillResourceResponse;
+import com.pathprep.util.FieldSelection;
 import reactor.core.publisher.Mono;
 
 /**
@@ -23,6 +26,23 @@ public interface SkillResourceService {
      */
     Mono<SkillResourceResponse> getSkillResourcesById(String id);
     
+    /**
+     * Get only the version of stored skill resources, for conditional requests
+     * @param id The resource ID
+     * @return A Mono containing the version, or empty if not found
+     */
+    Mono<ResourceVersion> getSkillResourcesVersion(String id);
+    
+    /**
+     * List stored skill resources for a role and experience level, one page at a time
+     * @param cursor Cursor from the previous page, or null for the first page
+     * @param limit Maximum number of resources in the page
+     * @param fields Fields to read and return
+     * @return A Mono containing the page; fails with IllegalArgumentException for a malformed cursor
+     */
+    Mono<CursorPage<SkillResourceResponse>> getSkillResourcesByRole(String role, String experienceLevel, String cursor, int limit,
+                                                                    FieldSelection fields);
+    
     /**
      * Delete skill resources by ID
      * @param id The resource ID
@@ -7,7 +7,11 @@ import reactor.core.publisher.Mono;
 import java.util.Optional;
 
 public interface SkillService {
-    Flux<Skill> searchSkills(String query);
+    /**
+     * @param limit Maximum number of suggestions, capped at 50
+     * @return Skills whose name starts with or contains the query, best matches first
+     */
+    Flux<Skill> searchSkills(String query, int limit);
     Flux<Skill> findAllSkills();
     Optional<Skill> findSkillById(String id);
     Skill findSkillByName(String name);
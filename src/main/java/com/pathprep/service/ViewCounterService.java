@@ -0,0 +1,43 @@
+package com.pathprep.service;
+
+import com.pathprep.model.ViewTarget;
+
+import java.util.Collection;
+
+/**
+ * Counts document views in memory and adds them to the documents in periodic batches,
+ * so reads never wait on a write.
+ */
+public interface ViewCounterService {
+
+    /**
+     * Count one view of a document. Never blocks and never fails.
+     *
+     * @param target The kind of document
+     * @param id The document id; null is ignored
+     */
+    void recordView(ViewTarget target, String id);
+
+    /**
+     * Count one view of each document.
+     *
+     * @param target The kind of document
+     * @param ids The document ids; nulls are ignored
+     */
+    void recordViews(ViewTarget target, Collection<String> ids);
+
+    /**
+     * @return The number of documents with views waiting to be flushed
+     */
+    int pendingCount();
+
+    /**
+     * Add the counted views to the documents with one unordered bulkWrite per collection.
+     */
+    void flush();
+
+    /**
+     * Decay the trending score of documents that have not been viewed recently.
+     */
+    void decayTrendingScores();
+}
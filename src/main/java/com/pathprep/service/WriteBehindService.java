@@ -0,0 +1,49 @@
+package com.pathprep.service;
+
+import java.util.Collection;
+
+/**
+ * Queues entity writes and persists them to MongoDB asynchronously, so that
+ * generated content can be returned without waiting on the database.
+ */
+public interface WriteBehindService {
+
+    /**
+     * Queue an entity for an upsert by id. A later submission for the same
+     * document replaces the earlier one if it has not been flushed yet.
+     *
+     * @param entity The mapped entity to persist
+     * @return true if the write was queued, false if the caller must save it directly
+     */
+    boolean submit(Object entity);
+
+    /**
+     * Queue several entities at once. Either all of them are queued or none is.
+     *
+     * @param entities The mapped entities to persist
+     * @return true if the writes were queued, false if the caller must save them directly
+     */
+    boolean submitAll(Collection<?> entities);
+
+    /**
+     * Queue entities for an insert-if-absent keyed on the given fields instead of the id.
+     * Documents that already exist with the same key are left untouched, which makes
+     * this suitable for deduplicating generated content. Entities without an id keep none;
+     * the id is assigned by MongoDB when the document is inserted.
+     *
+     * @param entities The mapped entities to persist
+     * @param keyFields The document fields identifying a duplicate
+     * @return true if the writes were queued, false if the caller must save them directly
+     */
+    boolean submitAllIfAbsent(Collection<?> entities, String... keyFields);
+
+    /**
+     * @return The number of writes waiting to be flushed
+     */
+    int pendingCount();
+
+    /**
+     * Flush queued writes to MongoDB using unordered bulk upserts.
+     */
+    void flush();
+}
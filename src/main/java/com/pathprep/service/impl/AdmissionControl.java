@@ -0,0 +1,91 @@
+package com.pathprep.service.impl;
+
+import com.pathprep.config.AdmissionProperties;
+import com.pathprep.exception.OverloadedException;
+import com.pathprep.exception.ServiceUnavailableException;
+import com.pathprep.util.AdaptiveConcurrencyLimit;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Admission control for requests that need the LLM, so a slow Groq cannot pile up requests
+ * until the instance runs out of memory and threads.
+ *
+ * <p>Services call {@link #admit} only once the cache and the database could not answer, so
+ * stored content keeps being served while generation is saturated. Each endpoint class has a
+ * fixed number of generating requests and a short bounded queue; requests beyond that fail
+ * fast with an {@link OverloadedException}, answered as 503 with {@code Retry-After}.</p>
+ */
+@Component
+@Slf4j
+public class AdmissionControl {
+
+    public static final String QUESTIONS = "questions";
+    public static final String ROADMAPS = "roadmaps";
+    public static final String RESOURCES = "resources";
+
+    private final AdmissionProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, AdaptiveConcurrencyLimit> limits = new ConcurrentHashMap<>();
+
+    public AdmissionControl(AdmissionProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Subscribes to the generation returned by {@code work} once a slot of {@code endpointClass}
+     * is free, holding the slot until it terminates.
+     */
+    public <T> Mono<T> admit(String endpointClass, Supplier<Mono<T>> work) {
+        if (!properties.isEnabled()) {
+            return Mono.defer(work);
+        }
+        AdmissionProperties.EndpointClass settings = properties.forClass(endpointClass);
+        AdaptiveConcurrencyLimit limit = limits.computeIfAbsent(endpointClass, this::create);
+        return Mono.usingWhen(
+                limit.acquire(settings.getMaxWait())
+                        .onErrorMap(ServiceUnavailableException.class, e -> reject(endpointClass, settings)),
+                permit -> Mono.defer(work),
+                permit -> Mono.fromRunnable(permit::release));
+    }
+
+    private OverloadedException reject(String endpointClass, AdmissionProperties.EndpointClass settings) {
+        log.warn("Shedding {} request, {} are generating and {} waiting", endpointClass,
+                limits.get(endpointClass).inFlight(), limits.get(endpointClass).queued());
+        Counter.builder("pathprep.admission.rejected")
+                .description("Requests needing the LLM rejected by admission control")
+                .tag("class", endpointClass)
+                .register(meterRegistry)
+                .increment();
+        return new OverloadedException("Too many requests are being generated, please retry later",
+                settings.getRetryAfter());
+    }
+
+    /**
+     * The limit is pinned by giving it equal bounds; permits are only ever released, so it never adapts.
+     */
+    private AdaptiveConcurrencyLimit create(String endpointClass) {
+        AdmissionProperties.EndpointClass settings = properties.forClass(endpointClass);
+        int maxConcurrent = settings.getMaxConcurrent();
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(new AdaptiveConcurrencyLimit.Settings(
+                maxConcurrent, maxConcurrent, maxConcurrent, 1.0, 1, settings.getMaxQueued()));
+        Gauge.builder("pathprep.admission.active", limit, AdaptiveConcurrencyLimit::inFlight)
+                .description("Admitted requests currently generating")
+                .tag("class", endpointClass)
+                .register(meterRegistry);
+        Gauge.builder("pathprep.admission.queued", limit, AdaptiveConcurrencyLimit::queued)
+                .description("Requests waiting for admission")
+                .tag("class", endpointClass)
+                .register(meterRegistry);
+        return limit;
+    }
+}
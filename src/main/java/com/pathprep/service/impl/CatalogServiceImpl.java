@@ -0,0 +1,177 @@
+package com.pathprep.service.impl;
+
+import com.pathprep.config.CatalogProperties;
+import com.pathprep.model.Role;
+import com.pathprep.model.Skill;
+import com.pathprep.model.SkillResource;
+import com.pathprep.service.CatalogService;
+import com.pathprep.util.AutocompleteIndex;
+import com.pathprep.util.CatalogSnapshot;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.ChangeStreamOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.stereotype.Service;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.UnaryOperator;
+
+/**
+ * Loads roles and skills once the application is ready and swaps the whole snapshot on change.
+ *
+ * <p>With {@code followChanges}, change streams on both collections trigger a reload. The
+ * catalogs are small, so a reload is cheaper to reason about than applying events; a burst
+ * of events collapses into at most one pending reload. A reload also follows every
+ * reconnect, covering events missed while the stream was down.</p>
+ */
+@Slf4j
+@Service
+public class CatalogServiceImpl implements CatalogService {
+
+    private final MongoTemplate mongoTemplate;
+    private final ReactiveMongoTemplate reactiveMongoTemplate;
+    private final CatalogProperties properties;
+
+    private final AtomicReference<CatalogSnapshot> snapshot = new AtomicReference<>(CatalogSnapshot.EMPTY);
+    private final AtomicLong localChanges = new AtomicLong();
+
+    private volatile boolean ready;
+    private Disposable changeStream;
+
+    public CatalogServiceImpl(MongoTemplate mongoTemplate,
+                              ReactiveMongoTemplate reactiveMongoTemplate,
+                              CatalogProperties properties,
+                              MeterRegistry meterRegistry) {
+        this.mongoTemplate = mongoTemplate;
+        this.reactiveMongoTemplate = reactiveMongoTemplate;
+        this.properties = properties;
+
+        Gauge.builder("pathprep.catalog.roles", snapshot, s -> s.get().getRoles().size())
+                .description("Roles held by the in-memory catalog")
+                .register(meterRegistry);
+        Gauge.builder("pathprep.catalog.skills", snapshot, s -> s.get().getSkills().size())
+                .description("Skills held by the in-memory catalog")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public boolean isReady() {
+        return ready;
+    }
+
+    @Override
+    public CatalogSnapshot snapshot() {
+        return snapshot.get();
+    }
+
+    @Override
+    public void update(UnaryOperator<CatalogSnapshot> change) {
+        localChanges.incrementAndGet();
+        if (ready) {
+            snapshot.updateAndGet(change);
+        }
+    }
+
+    /**
+     * A local change made while loading may be missing from the loaded catalogs, in which
+     * case the load is repeated instead of overwriting the change.
+     */
+    @Override
+    public synchronized void refresh() {
+        long start = System.currentTimeMillis();
+        try {
+            CatalogSnapshot loaded;
+            long changesBefore;
+            do {
+                changesBefore = localChanges.get();
+                loaded = new CatalogSnapshot(mongoTemplate.findAll(Role.class), mongoTemplate.findAll(Skill.class),
+                        skillPopularity());
+            } while (!swap(loaded, changesBefore));
+            ready = true;
+            log.info("Loaded catalog version {} with {} roles and {} skills in {} ms",
+                    loaded.getVersion(), loaded.getRoles().size(), loaded.getSkills().size(),
+                    System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            log.error("Failed to load role and skill catalog, {}", ready
+                    ? "keeping the previous snapshot" : "reads stay on MongoDB", e);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        if (properties.isFollowChanges()) {
+            changeStream = Flux.defer(this::openChangeStreams)
+                    .retryWhen(Retry.backoff(Long.MAX_VALUE, Duration.ofSeconds(1))
+                            .maxBackoff(properties.getChangeStreamMaxBackoff())
+                            .doBeforeRetry(signal -> log.warn("Catalog change stream failed, reconnecting: {}",
+                                    signal.failure().getMessage())))
+                    .onBackpressureLatest()
+                    .concatMap(change -> Mono.fromRunnable(this::refresh).subscribeOn(Schedulers.boundedElastic()), 1)
+                    .subscribe();
+        } else {
+            refresh();
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (changeStream != null) {
+            changeStream.dispose();
+        }
+    }
+
+    /**
+     * Views of the skill resources of each skill, summed over roles and experience levels.
+     */
+    private Map<String, Long> skillPopularity() {
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(Criteria.where("viewCount").gt(0)),
+                Aggregation.group("skillName").sum("viewCount").as("views"));
+        Map<String, Long> popularity = new HashMap<>();
+        for (Document result : mongoTemplate.aggregate(aggregation, SkillResource.class, Document.class)) {
+            Object name = result.get("_id");
+            if (name != null) {
+                popularity.merge(AutocompleteIndex.normalize(name.toString()),
+                        ((Number) result.get("views")).longValue(), Long::sum);
+            }
+        }
+        return popularity;
+    }
+
+    private boolean swap(CatalogSnapshot loaded, long changesBefore) {
+        CatalogSnapshot current = snapshot.get();
+        return localChanges.get() == changesBefore && snapshot.compareAndSet(current, loaded);
+    }
+
+    /**
+     * Emits once on subscription, so the first connect and every reconnect load the catalogs,
+     * then once per change to either collection.
+     */
+    private Flux<Object> openChangeStreams() {
+        ChangeStreamOptions options = ChangeStreamOptions.empty();
+        return Flux.merge(
+                Flux.just((Object) Boolean.TRUE),
+                reactiveMongoTemplate.changeStream(mongoTemplate.getCollectionName(Role.class), options, Document.class),
+                reactiveMongoTemplate.changeStream(mongoTemplate.getCollectionName(Skill.class), options, Document.class));
+    }
+}
@@ -5,16 +5,23 @@ import com.pathprep.config.GroqProperties;
 import com.pathprep.dto.DetailedRoadmapRequest;
 import com.pathprep.dto.response.DetailedRoadmapResponse;
 import com.pathprep.exception.AIServiceException;
+import com.pathprep.exception.BudgetExhaustedException;
+import com.pathprep.mapper.DetailedRoadmapMapper;
 import com.pathprep.model.RoadmapPhase;
 import org.springframework.dao.IncorrectResultSizeDataAccessException;
 import java.time.Duration;
 import java.time.LocalDateTime;
-import com.pathprep.exception.ResourceNotFoundException;
+import com.pathprep.exception.OverloadedException;
+import com.pathprep.exception.ServiceUnavailableException;
 import com.pathprep.model.DetailedRoadmap;
+import com.pathprep.model.RoadmapRendition;
 import com.pathprep.repository.DetailedRoadmapRepository;
 import com.pathprep.service.DetailedRoadmapService;
 import com.pathprep.service.GroqAIService;
-import org.modelmapper.ModelMapper;
+import com.pathprep.service.LlmUsageService;
+import com.pathprep.service.RoadmapRenditionService;
+import com.pathprep.service.WriteBehindService;
+import com.pathprep.util.FieldSelection;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cache.annotation.CacheEvict;
@@ -34,10 +41,18 @@ import java.util.stream.Collectors;
 @Slf4j
 public class DetailedRoadmapServiceImpl implements DetailedRoadmapService {
 
+    private static final String ENDPOINT = "/roadmaps/detailed";
+
     private final DetailedRoadmapRepository roadmapRepository;
     private final GroqAIService groqAIService;
     private final GroqProperties groqProperties;
-    private final ModelMapper modelMapper;
+    private final DetailedRoadmapMapper roadmapMapper;
+    private final WriteBehindService writeBehindService;
+    private final RoadmapRenditionService renditionService;
+    private final GenerationMetrics metrics;
+    private final LlmUsageService usageService;
+    private final AdmissionControl admission;
+    private final ResiliencePipelines resilience;
 
     private int getDefaultTimeline(String experienceLevel) {
         if (experienceLevel == null) {
@@ -53,39 +68,49 @@ public class DetailedRoadmapServiceImpl implements DetailedRoadmapService {
     @Override
     @Cacheable(value = "roadmaps", key = "#request.compositeKey")
     public Mono<DetailedRoadmapResponse> generateOrGetRoadmap(DetailedRoadmapRequest request) {
-        // Set default timeline if not provided
-        if (request.getTimelineWeeks() == null) {
-            request.setTimelineWeeks(getDefaultTimeline(request.getExperienceLevel()));
-        }
+        applyDefaults(request);
         String compositeKey = request.getCompositeKey();
         log.info("Generating or retrieving roadmap for key: {}", compositeKey);
         
         // First try to get from database
         return roadmapRepository.findByCompositeKey(compositeKey)
+            .transform(resilience.mongo())
+            .transform(metrics.stage(GenerationMetrics.STAGE_DB_LOOKUP))
             .onErrorResume(IncorrectResultSizeDataAccessException.class, e -> {
                 log.warn("Multiple roadmaps found for key: {}. Using the most recent one.", compositeKey);
                 // The repository should have already handled getting the most recent one
                 return Mono.empty();
             })
             .switchIfEmpty(Mono.defer(() -> {
+                if (!usageService.isWithinBudget(ENDPOINT)) {
+                    return metrics.fallback("budget", Mono.error(new BudgetExhaustedException(
+                            "Daily generation budget exhausted, only stored roadmaps are available until tomorrow")));
+                }
                 log.info("No existing roadmap found for key: {}. Generating new one...", compositeKey);
-                return generateRoadmapWithAI(request);
+                return admission.admit(AdmissionControl.ROADMAPS, () -> generateRoadmapWithAI(request));
             }))
             .flatMap(dbRoadmap -> {
                 // If we have a DB roadmap, check if we should update it with AI data
-                if (shouldUpdateWithAI(dbRoadmap)) {
+                if (shouldUpdateWithAI(dbRoadmap) && usageService.isWithinBudget(ENDPOINT)) {
                     log.info("Updating existing roadmap with AI data for key: {}", compositeKey);
-                    return generateRoadmapWithAI(request)
-                        .flatMap(aiRoadmap -> combineRoadmaps(dbRoadmap, aiRoadmap));
+                    return admission.admit(AdmissionControl.ROADMAPS, () -> generateRoadmapWithAI(request))
+                        .flatMap(aiRoadmap -> combineRoadmaps(dbRoadmap, aiRoadmap))
+                        // The stored roadmap is still a good answer while generation is saturated
+                        .onErrorResume(OverloadedException.class, e -> Mono.just(dbRoadmap));
                 }
                 log.info("Using existing roadmap from database for key: {}", compositeKey);
                 return Mono.just(dbRoadmap);
             })
-            .map(this::convertToResponse)
+            .flatMap(roadmap -> Mono.fromSupplier(() -> convertToResponse(roadmap))
+                .transform(metrics.stage(GenerationMetrics.STAGE_MAP)))
             .onErrorResume(e -> {
+                if (e instanceof ServiceUnavailableException) {
+                    return Mono.error(e);
+                }
                 log.error("Error generating/retrieving roadmap for key: " + compositeKey, e);
                 return Mono.error(new RuntimeException("Failed to generate or retrieve roadmap", e));
-            });
+            })
+            .transform(metrics.request(ENDPOINT, groqProperties.getDefaultModel(), request.getRole(), request.getExperienceLevel()));
     }
     
     /**
@@ -114,8 +139,9 @@ public class DetailedRoadmapServiceImpl implements DetailedRoadmapService {
                             roadmap.getPhases().size() : 0;
                     roadmap.setEstimatedWeeks(totalWeeks);
                     
-                    return saveRoadmap(roadmap);
-                });
+                    return persistInBackground(roadmap);
+                })
+                .transform(metrics.request(ENDPOINT, model, request.getRole(), request.getExperienceLevel()));
     }
     
     private Mono<DetailedRoadmap> combineRoadmaps(DetailedRoadmap dbRoadmap, DetailedRoadmap aiRoadmap) {
@@ -173,16 +199,53 @@ public class DetailedRoadmapServiceImpl implements DetailedRoadmapService {
         }
         
         // Save the combined roadmap
-        return saveRoadmap(combined);
+        return persistInBackground(combined);
+    }
+
+    /**
+     * Queues a generated roadmap for write-behind persistence and returns it right away.
+     * Falls back to a regular save when the queue does not accept the write.
+     */
+    private Mono<DetailedRoadmap> persistInBackground(DetailedRoadmap roadmap) {
+        return Mono.defer(() -> {
+            roadmap.setUpdatedAt(LocalDateTime.now());
+            if (writeBehindService.submit(roadmap)) {
+                log.info("Queued roadmap with key: {} for background save", roadmap.getCompositeKey());
+                return renderAfterSave(roadmap);
+            }
+            return saveRoadmap(roadmap);
+        }).transform(metrics.stage(GenerationMetrics.STAGE_SAVE));
+    }
+
+    /**
+     * Refreshes the pre-serialized response of a saved roadmap. Rendering problems are logged
+     * and do not fail the save; the rendition is then rebuilt on the next read.
+     */
+    private Mono<DetailedRoadmap> renderAfterSave(DetailedRoadmap roadmap) {
+        return renditionService.render(convertToResponse(roadmap))
+                .onErrorResume(e -> {
+                    log.warn("Failed to render roadmap with key: {}: {}", roadmap.getCompositeKey(), e.getMessage());
+                    return Mono.empty();
+                })
+                .thenReturn(roadmap);
     }
 
     @Override
-    @Cacheable(value = "roadmaps", key = "#compositeKey")
-    public Mono<DetailedRoadmapResponse> getRoadmapByCompositeKey(String compositeKey) {
-        log.debug("Retrieving roadmap with key: {}", compositeKey);
-        return roadmapRepository.findByCompositeKey(compositeKey)
-                .switchIfEmpty(Mono.error(new ResourceNotFoundException("Roadmap not found with key: " + compositeKey)))
-                .map(this::convertToResponse);
+    public Mono<DetailedRoadmapResponse> getRoadmapByCompositeKey(String compositeKey, FieldSelection fields) {
+        return roadmapRepository.findProjectedByCompositeKey(compositeKey, fields)
+                .transform(resilience.mongo())
+                .map(roadmapMapper::toResponse);
+    }
+
+    @Override
+    public Mono<RoadmapRendition> getRenderedRoadmap(String compositeKey) {
+        return renditionService.find(compositeKey)
+                .switchIfEmpty(Mono.defer(() -> roadmapRepository.findByCompositeKey(compositeKey)
+                        .transform(resilience.mongo())
+                        .flatMap(roadmap -> {
+                            log.debug("Rendering roadmap with key: {} on first read", compositeKey);
+                            return renditionService.render(convertToResponse(roadmap));
+                        })));
     }
 
     @Override
@@ -194,16 +257,25 @@ public class DetailedRoadmapServiceImpl implements DetailedRoadmapService {
             roadmap.setCreatedAt(LocalDateTime.now());
         }
         roadmap.setUpdatedAt(LocalDateTime.now());
-        return roadmapRepository.save(roadmap)
+        return roadmapRepository.saveContent(roadmap)
             .doOnSuccess(saved -> log.info("Successfully saved roadmap with key: {}", saved.getCompositeKey()))
-            .doOnError(e -> log.error("Error saving roadmap with key: " + roadmap.getCompositeKey(), e));
+            .doOnError(e -> log.error("Error saving roadmap with key: " + roadmap.getCompositeKey(), e))
+            .flatMap(this::renderAfterSave);
     }
 
     @Override
     @CacheEvict(value = "roadmaps", key = "#compositeKey")
     public Mono<Void> deleteRoadmap(String id) {
         log.debug("Deleting roadmap with id: {}", id);
-        return roadmapRepository.deleteById(id);
+        return roadmapRepository.deleteById(id)
+                .then(renditionService.deleteByRoadmapId(id));
+    }
+
+    private void applyDefaults(DetailedRoadmapRequest request) {
+        // Set default timeline if not provided
+        if (request.getTimelineWeeks() == null) {
+            request.setTimelineWeeks(getDefaultTimeline(request.getExperienceLevel()));
+        }
     }
 
     /**
@@ -301,6 +373,6 @@ public class DetailedRoadmapServiceImpl implements DetailedRoadmapService {
         if (roadmap == null) {
             return null;
         }
-        return modelMapper.map(roadmap, DetailedRoadmapResponse.class);
+        return roadmapMapper.toResponse(roadmap);
     }
 }
@@ -0,0 +1,238 @@
+package com.pathprep.service.impl;
+
+import com.pathprep.config.LlmUsageProperties;
+import com.pathprep.util.Deadline;
+import com.pathprep.util.ServerTimings;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+import reactor.util.context.Context;
+import reactor.util.context.ContextView;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+/**
+ * Meters for the AI generation pipeline.
+ *
+ * <p>{@link #request} times a whole service call and puts its {@link Attribution} into the
+ * Reactor context; {@link #stage}, the Groq meters and the usage ledger read it back from
+ * there, so every stage of a request is tagged with the endpoint that started it without
+ * passing it through each call. Nested requests, such as {@code getQuestions} delegating to
+ * {@code generateQuestions}, are recorded once under the outermost endpoint.</p>
+ *
+ * <p>When the request asked for a {@code Server-Timing} header, {@link #request} also carries
+ * its {@link ServerTimings} in the context and every stage adds its duration there. The
+ * request's {@link Deadline} travels the same way.</p>
+ */
+@Component
+public class GenerationMetrics {
+
+    public static final String STAGE_DB_LOOKUP = "db_lookup";
+    public static final String STAGE_LLM = "llm";
+    public static final String STAGE_JSON_CLEAN = "json_clean";
+    public static final String STAGE_DESERIALIZE = "deserialize";
+    public static final String STAGE_MAP = "map";
+    public static final String STAGE_SAVE = "save";
+    public static final String TIMING_LLM_WAIT = "llm_wait";
+    public static final String TIMING_LLM_GENERATION = "llm_generation";
+
+    static final String UNKNOWN = "unknown";
+    static final String ANONYMOUS = "anonymous";
+    private static final Pattern CLIENT_ID = Pattern.compile("[A-Za-z0-9._:-]{1,64}");
+    private static final String ATTRIBUTION_KEY = GenerationMetrics.class.getName() + ".attribution";
+    private static final String TIMINGS_KEY = GenerationMetrics.class.getName() + ".timings";
+    private static final Attribution UNATTRIBUTED = new Attribution(UNKNOWN, null, null, ANONYMOUS);
+
+    private final MeterRegistry meterRegistry;
+    private final LlmUsageProperties usageProperties;
+
+    public GenerationMetrics(MeterRegistry meterRegistry, LlmUsageProperties usageProperties) {
+        this.meterRegistry = meterRegistry;
+        this.usageProperties = usageProperties;
+    }
+
+    /**
+     * Who a request and the LLM calls it makes are accounted to.
+     *
+     * @param client The API client, read from the configured header when the request was assembled
+     */
+    record Attribution(String endpoint, String role, String experienceLevel, String client) {
+    }
+
+    /**
+     * Times the pipeline as {@code pathprep.generation.requests} and tags its stages with the endpoint.
+     */
+    public <T> Function<Mono<T>, Mono<T>> request(String endpoint, String model) {
+        return request(endpoint, model, null, null);
+    }
+
+    /**
+     * Like {@link #request(String, String)}, also attributing LLM usage to the role and experience level.
+     */
+    public <T> Function<Mono<T>, Mono<T>> request(String endpoint, String model, String role, String experienceLevel) {
+        Attribution attribution = new Attribution(endpoint, role, experienceLevel, currentClient());
+        ServerTimings timings = ServerTimings.current();
+        Deadline deadline = Deadline.current();
+        return mono -> Mono.deferContextual(context -> context.hasKey(ATTRIBUTION_KEY)
+                        ? mono
+                        : mono.transform(timed("pathprep.generation.requests", "End-to-end time of a generating request",
+                                Tags.of("endpoint", endpoint, "model", model != null ? model : UNKNOWN)))
+                                .contextWrite(inner -> {
+                                    Context outer = inner.put(ATTRIBUTION_KEY, attribution);
+                                    if (timings != null) {
+                                        outer = outer.put(TIMINGS_KEY, timings);
+                                    }
+                                    return deadline != null ? outer.put(Deadline.CONTEXT_KEY, deadline) : outer;
+                                }));
+    }
+
+    /**
+     * Times one stage of the current request as {@code pathprep.generation.stage}.
+     */
+    public <T> Function<Mono<T>, Mono<T>> stage(String stage) {
+        return mono -> Mono.deferContextual(context -> {
+            Mono<T> timedStage = mono.transform(timed("pathprep.generation.stage",
+                    "Time spent in one stage of a generating request", Tags.of("endpoint", endpoint(context), "stage", stage)));
+            ServerTimings timings = context.getOrDefault(TIMINGS_KEY, null);
+            if (timings == null) {
+                return timedStage;
+            }
+            return Mono.defer(() -> {
+                long started = System.nanoTime();
+                return timedStage.doFinally(signal -> timings.record(stage, System.nanoTime() - started));
+            });
+        });
+    }
+
+    /**
+     * Adds a duration to the {@code Server-Timing} header of the current request, if it asked for one.
+     */
+    void serverTiming(ContextView context, String name, long nanos) {
+        ServerTimings timings = context.getOrDefault(TIMINGS_KEY, null);
+        if (timings != null) {
+            timings.record(name, nanos);
+        }
+    }
+
+    /**
+     * Counts a response served from a fallback instead of the regular pipeline.
+     */
+    public void fallback(String endpoint, String reason) {
+        Counter.builder("pathprep.generation.fallbacks")
+                .description("Responses served from a fallback")
+                .tag("endpoint", endpoint)
+                .tag("reason", reason)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    /**
+     * Counts a fallback for the endpoint of the current request when {@code fallback} is subscribed.
+     */
+    public <T> Mono<T> fallback(String reason, Mono<T> fallback) {
+        return Mono.deferContextual(context -> {
+            fallback(endpoint(context), reason);
+            return fallback;
+        });
+    }
+
+    /**
+     * Records the prompt and completion tokens reported by one Groq completion.
+     */
+    void tokens(ContextView context, String model, int promptTokens, int completionTokens) {
+        tokenCounter(context, model, "prompt").increment(promptTokens);
+        tokenCounter(context, model, "completion").increment(completionTokens);
+    }
+
+    /**
+     * Counts one Groq attempt by its result: {@code success}, {@code rate_limited} or {@code error}.
+     */
+    void groqCall(ContextView context, String model, String result) {
+        Counter.builder("pathprep.groq.calls")
+                .description("Groq chat completion attempts, including retries")
+                .tag("endpoint", endpoint(context))
+                .tag("model", model)
+                .tag("result", result)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    void groqRetry(ContextView context, String model) {
+        Counter.builder("pathprep.groq.retries")
+                .description("Groq calls retried after a rate limit")
+                .tag("endpoint", endpoint(context))
+                .tag("model", model)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    private Counter tokenCounter(ContextView context, String model, String type) {
+        return Counter.builder("pathprep.groq.tokens")
+                .description("Tokens used by Groq chat completions")
+                .baseUnit("tokens")
+                .tag("endpoint", endpoint(context))
+                .tag("model", model)
+                .tag("type", type)
+                .register(meterRegistry);
+    }
+
+    static Attribution attribution(ContextView context) {
+        return context.getOrDefault(ATTRIBUTION_KEY, UNATTRIBUTED);
+    }
+
+    private static String endpoint(ContextView context) {
+        return attribution(context).endpoint();
+    }
+
+    /**
+     * Reads the client header of the servlet request being handled, if any. Pipelines are
+     * assembled on the request thread, so this runs before any operator switches threads.
+     * The header is chosen by the caller, so anything but a short plain identifier counts
+     * as anonymous.
+     */
+    private String currentClient() {
+        if (RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes) {
+            String client = attributes.getRequest().getHeader(usageProperties.getClientHeader());
+            if (client != null && CLIENT_ID.matcher(client.trim()).matches()) {
+                return client.trim();
+            }
+        }
+        return ANONYMOUS;
+    }
+
+    /**
+     * Records the time from subscription to the terminal signal with an {@code outcome} tag of
+     * {@code success}, {@code empty}, {@code error} or {@code cancelled}. A cancel after the value
+     * was emitted still counts as a success.
+     */
+    private <T> Function<Mono<T>, Mono<T>> timed(String name, String description, Tags tags) {
+        return mono -> Mono.defer(() -> {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            AtomicBoolean emitted = new AtomicBoolean();
+            return mono
+                    .doOnNext(value -> emitted.set(true))
+                    .doFinally(signal -> sample.stop(Timer.builder(name)
+                            .description(description)
+                            .tags(tags)
+                            .tag("outcome", outcome(signal, emitted.get()))
+                            .publishPercentileHistogram()
+                            .register(meterRegistry)));
+        });
+    }
+
+    private static String outcome(SignalType signal, boolean emitted) {
+        return switch (signal) {
+            case ON_ERROR -> "error";
+            case CANCEL -> emitted ? "success" : "cancelled";
+            default -> emitted ? "success" : "empty";
+        };
+    }
+}
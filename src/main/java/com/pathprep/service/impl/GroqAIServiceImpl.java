@@ -4,16 +4,26 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.pathprep.config.GroqProperties;
+import com.pathprep.diagnostics.JsonParseEvent;
+import com.pathprep.diagnostics.LlmCallEvent;
 import com.pathprep.exception.AIServiceException;
+import com.pathprep.exception.ServiceUnavailableException;
 import com.pathprep.model.*;
 import com.pathprep.dto.InterviewQuestionResponse;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 import com.pathprep.service.GroqAIService;
+import com.pathprep.service.LlmJournalService;
+import com.pathprep.service.LlmUsageService;
+import com.pathprep.util.AdaptiveConcurrencyLimit;
+import com.pathprep.util.Deadline;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.MediaType;
@@ -21,8 +31,12 @@ import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
 import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+import reactor.util.context.ContextView;
 import reactor.util.retry.Retry;
 import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
 
 /**
  * Implementation of GroqAIService for interacting with the Groq AI API.
@@ -33,60 +47,240 @@ import java.time.Duration;
 @Slf4j
 public class GroqAIServiceImpl implements GroqAIService {
 
+    private static final String RESPONSE_TYPE_KEY = GroqAIServiceImpl.class.getName() + ".responseType";
+    private static final Duration RETRY_BACKOFF = Duration.ofSeconds(1);
+    private static final Duration MAX_RETRY_BACKOFF = Duration.ofSeconds(10);
+    private static final double RETRY_JITTER = 0.5;
+
     private final WebClient groqWebClient;
     private final GroqProperties groqProperties;
     private final ObjectMapper objectMapper;
+    private final GenerationMetrics metrics;
+    private final LlmUsageService usageService;
+    private final LlmJournalService journal;
+    private final LlmConcurrencyLimits concurrencyLimits;
+    private final ResiliencePipelines resilience;
 
     @Override
     public Mono<String> generateText(String prompt, String model) {
         log.debug("Sending text generation request to Groq AI");
+        String modelToUse = model != null ? model : groqProperties.getDefaultModel();
         
         // Configure retry with exponential backoff
-        return Mono.defer(() -> groqWebClient
+        return Mono.deferContextual(context -> {
+            // Time between attempts is waiting (retry backoff), not generation
+            AtomicLong waitingSince = new AtomicLong(System.nanoTime());
+            LlmCallEvent event = new LlmCallEvent();
+            event.begin();
+            Deadline deadline = Deadline.of(context);
+            // Retries done so far, as counted by the retry signals; the filter does not see them
+            AtomicLong retries = new AtomicLong();
+            return Mono.defer(() -> complete(context, prompt, modelToUse, waitingSince, event))
+                .retryWhen(Retry.backoff(3, RETRY_BACKOFF)
+                    .maxBackoff(MAX_RETRY_BACKOFF)
+                    .jitter(RETRY_JITTER)
+                    .filter(throwable -> {
+                        boolean isRateLimit = throwable instanceof WebClientResponseException.TooManyRequests || 
+                               throwable.getCause() instanceof WebClientResponseException.TooManyRequests;
+                        // No point backing off when the request's deadline leaves no room for another attempt
+                        if (isRateLimit && deadline != null
+                                && !deadline.hasAtLeast(longestBackoff(retries.get()).plus(Deadline.MIN_LLM_BUDGET))) {
+                            log.warn("Rate limited by Groq API, not retrying as the request deadline is too close");
+                            return false;
+                        }
+                        if (isRateLimit) {
+                            log.warn("Rate limited by Groq API, will retry...");
+                        }
+                        return isRateLimit;
+                    })
+                    .doBeforeRetry(retrySignal -> {
+                        metrics.groqRetry(context, modelToUse);
+                        retries.set(retrySignal.totalRetries() + 1);
+                        event.retries = (int) retrySignal.totalRetries() + 1;
+                    })
+                    .onRetryExhaustedThrow((retryBackoffSpec, retrySignal) -> {
+                        log.error("Max retries (3) reached for Groq API call");
+                        return new AIServiceException("API rate limit exceeded after multiple retries. Please try again later.");
+                    }))
+                .doFinally(signal -> commit(event, context, prompt, modelToUse, signal));
+        })
+            .onErrorMap(e -> {
+                // Timeouts stay timeouts, so callers can tell a missed deadline from a failure
+                if (!(e instanceof AIServiceException) && !(e instanceof ServiceUnavailableException)
+                        && !(e instanceof TimeoutException)) {
+                    log.error("Error generating text with Groq AI: {}", e.getMessage(), e);
+                    return new AIServiceException("Failed to generate text: " + e.getMessage(), e);
+                }
+                return e;
+            })
+            .transform(metrics.stage(GenerationMetrics.STAGE_LLM));
+    }
+
+    /**
+     * One chat completion attempt, recording its outcome, latency and token usage. The attempt
+     * first waits for a slot of the model's concurrency limit, which counts as waiting time, and
+     * is skipped when the request's deadline leaves too little time to start it.
+     *
+     * @param waitingSince When the call started waiting for this attempt; reset when the attempt ends
+     * @param event The flight recorder event of the whole call, receiving the token usage
+     */
+    private Mono<String> complete(ContextView context, String prompt, String model, AtomicLong waitingSince,
+                                  LlmCallEvent event) {
+        return Mono.usingWhen(concurrencyLimits.acquire(model),
+                permit -> send(context, prompt, model, waitingSince, event, permit),
+                permit -> Mono.fromRunnable(permit::release))
+            .transform(Deadline.requireAtLeast(Deadline.MIN_LLM_BUDGET));
+    }
+
+    /**
+     * Sends the attempt holding {@code permit} through the Groq resilience pipeline. The call is
+     * bounded by the pipeline's time limit and the request's deadline here rather than around the
+     * wait, so a call that times out counts as dropped by the limit and the time limit and
+     * breaker only measure Groq itself.
+     */
+    private Mono<String> send(ContextView context, String prompt, String model, AtomicLong waitingSince,
+                              LlmCallEvent event, AdaptiveConcurrencyLimit.Permit permit) {
+        long started = System.nanoTime();
+        metrics.serverTiming(context, GenerationMetrics.TIMING_LLM_WAIT, started - waitingSince.get());
+        GroqChatRequest chatRequest = createChatRequest(prompt, model);
+        return groqWebClient
             .post()
             .uri("/chat/completions")
             .contentType(MediaType.APPLICATION_JSON)
-            .bodyValue(createChatRequest(prompt, model))
+            .bodyValue(chatRequest)
             .retrieve()
             .bodyToMono(GroqChatResponse.class)
+            .transform(resilience.groq())
+            .transform(Deadline.within(null))
+            .doOnNext(response -> {
+                long latencyNanos = System.nanoTime() - started;
+                recordUsage(context, model, response, latencyNanos, event);
+                // Latency grows with the completion length, so the limit compares time per token
+                permit.success(latencyNanos / Math.max(1, event.completionTokens));
+                if (journal.isEnabled()) {
+                    journal(context, chatRequest, prompt, response, latencyNanos);
+                }
+            })
+            .doOnError(e -> {
+                metrics.groqCall(context, model,
+                        e instanceof WebClientResponseException.TooManyRequests ? "rate_limited" : "error");
+                if (isOverload(e)) {
+                    permit.dropped();
+                }
+            })
+            .doFinally(signal -> {
+                long finished = System.nanoTime();
+                metrics.serverTiming(context, GenerationMetrics.TIMING_LLM_GENERATION, finished - started);
+                waitingSince.set(finished);
+            })
             .map(response -> {
                 if (response.getChoices() == null || response.getChoices().isEmpty()) {
                     throw new AIServiceException("No response from AI model");
                 }
                 return response.getChoices().get(0).getMessage().getContent();
-            }))
-            .retryWhen(Retry.backoff(3, Duration.ofSeconds(1))
-                .maxBackoff(Duration.ofSeconds(10))
-                .jitter(0.5)
-                .filter(throwable -> {
-                    boolean isRateLimit = throwable instanceof WebClientResponseException.TooManyRequests;
-                    if (isRateLimit) {
-                        log.warn("Rate limited by Groq API, will retry...");
-                    }
-                    return isRateLimit || 
-                           throwable.getCause() instanceof WebClientResponseException.TooManyRequests;
-                })
-                .onRetryExhaustedThrow((retryBackoffSpec, retrySignal) -> {
-                    log.error("Max retries (3) reached for Groq API call");
-                    return new AIServiceException("API rate limit exceeded after multiple retries. Please try again later.");
-                }))
-            .onErrorMap(e -> {
-                if (!(e instanceof AIServiceException)) {
-                    log.error("Error generating text with Groq AI: {}", e.getMessage(), e);
-                    return new AIServiceException("Failed to generate text: " + e.getMessage(), e);
+            });
+    }
+
+    /**
+     * The longest the backoff before the next retry can be after {@code retries} retries: the
+     * base backoff doubled per retry, capped, plus the full jitter.
+     */
+    static Duration longestBackoff(long retries) {
+        Duration backoff = RETRY_BACKOFF.multipliedBy(1L << Math.min(retries, 16));
+        if (backoff.compareTo(MAX_RETRY_BACKOFF) > 0) {
+            backoff = MAX_RETRY_BACKOFF;
+        }
+        return backoff.plusMillis((long) (backoff.toMillis() * RETRY_JITTER));
+    }
+
+    /**
+     * Whether Groq failed in a way that means it has more work than it can take: a 429, a 5xx
+     * or a timeout.
+     */
+    private static boolean isOverload(Throwable e) {
+        if (e instanceof WebClientResponseException response) {
+            return response.getStatusCode().value() == 429 || response.getStatusCode().is5xxServerError();
+        }
+        return e instanceof TimeoutException || e.getCause() instanceof TimeoutException;
+    }
+
+    private void recordUsage(ContextView context, String model, GroqChatResponse response, long latencyNanos,
+                             LlmCallEvent event) {
+        metrics.groqCall(context, model, "success");
+        int promptTokens = response.getUsage() != null ? response.getUsage().getPromptTokens() : 0;
+        int completionTokens = response.getUsage() != null ? response.getUsage().getCompletionTokens() : 0;
+        metrics.tokens(context, model, promptTokens, completionTokens);
+        event.promptTokens = promptTokens;
+        event.completionTokens = completionTokens;
+
+        GenerationMetrics.Attribution attribution = GenerationMetrics.attribution(context);
+        usageService.record(new LlmUsageService.LlmCall(attribution.endpoint(), model, attribution.role(),
+                attribution.experienceLevel(), attribution.client(), promptTokens, completionTokens,
+                TimeUnit.NANOSECONDS.toMillis(latencyNanos)));
+    }
+
+    private void journal(ContextView context, GroqChatRequest chatRequest, String prompt, GroqChatResponse response,
+                         long latencyNanos) {
+        GroqChatResponse.Usage usage = response.getUsage();
+        String completion = response.getChoices() != null && !response.getChoices().isEmpty()
+                && response.getChoices().get(0).getMessage() != null
+                ? response.getChoices().get(0).getMessage().getContent()
+                : null;
+        journal.record(new LlmJournalService.Entry(System.currentTimeMillis(),
+                GenerationMetrics.attribution(context).endpoint(), chatRequest.getModel(), chatRequest.getTemperature(),
+                chatRequest.getMaxTokens(), context.getOrDefault(RESPONSE_TYPE_KEY, null), prompt, completion,
+                TimeUnit.NANOSECONDS.toMillis(latencyNanos),
+                usage != null ? usage.getPromptTokens() : 0, usage != null ? usage.getCompletionTokens() : 0));
+    }
+
+    private static void commit(LlmCallEvent event, ContextView context, String prompt, String model, SignalType signal) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.endpoint = GenerationMetrics.attribution(context).endpoint();
+            event.model = model;
+            event.promptLength = prompt != null ? prompt.length() : 0;
+            event.outcome = switch (signal) {
+                case ON_ERROR -> "error";
+                case CANCEL -> "cancelled";
+                default -> "success";
+            };
+            event.commit();
+        }
+    }
+
+    /**
+     * Records deserializing {@code input} into {@code targetType} as a {@link JsonParseEvent}.
+     */
+    private static <T> Function<Mono<T>, Mono<T>> recordDeserialize(String targetType, String input) {
+        return mono -> Mono.defer(() -> {
+            JsonParseEvent event = new JsonParseEvent();
+            if (!event.isEnabled()) {
+                return mono;
+            }
+            event.begin();
+            return mono.doFinally(signal -> {
+                event.end();
+                if (event.shouldCommit()) {
+                    event.phase = JsonParseEvent.PHASE_DESERIALIZE;
+                    event.targetType = targetType;
+                    event.inputLength = input.length();
+                    event.success = signal != SignalType.ON_ERROR;
+                    event.commit();
                 }
-                return e;
             });
+        });
     }
 
     @Override
     public <T> Mono<T> generateStructuredResponse(String prompt, String model, Class<T> responseType) {
         log.debug("Generating structured response for type: {}", responseType.getSimpleName());
         return generateText(prompt, model)
-                .flatMap(response -> {
+                .contextWrite(context -> context.put(RESPONSE_TYPE_KEY, responseType.getName()))
+                .flatMap(response -> Mono.fromCallable(() -> cleanJsonResponse(response))
+                        .transform(metrics.stage(GenerationMetrics.STAGE_JSON_CLEAN)))
+                .flatMap(cleaned -> Mono.defer(() -> {
                     try {
-                        // Clean the response to ensure it's valid JSON
-                        String jsonResponse = cleanJsonResponse(response);
+                        String jsonResponse = cleaned;
                         log.debug("Attempting to parse JSON: {}", jsonResponse);
                         
                         // First try to parse as is
@@ -176,9 +370,10 @@ public class GroqAIServiceImpl implements GroqAIService {
                         }
                     } catch (Exception e) {
                         log.error("Unexpected error processing AI response", e);
-                        return Mono.error(new AIServiceException("Unexpected error processing AI response: " + e.getMessage(), e));
+                        return Mono.<T>error(new AIServiceException("Unexpected error processing AI response: " + e.getMessage(), e));
                     }
-                });
+                }).transform(recordDeserialize(responseType.getName(), cleaned))
+                        .transform(metrics.stage(GenerationMetrics.STAGE_DESERIALIZE)));
     }
 
     /**
@@ -205,17 +400,19 @@ public class GroqAIServiceImpl implements GroqAIService {
     public <T> Mono<T> generateStructuredResponse(String prompt, String model, TypeReference<T> typeReference) {
         log.debug("Generating structured response for type: {}", typeReference.getType().getTypeName());
         return generateText(prompt, model)
-                .flatMap(response -> {
+                .contextWrite(context -> context.put(RESPONSE_TYPE_KEY, typeReference.getType().getTypeName()))
+                .flatMap(response -> Mono.fromCallable(() -> cleanJsonResponse(response))
+                        .transform(metrics.stage(GenerationMetrics.STAGE_JSON_CLEAN)))
+                .flatMap(jsonResponse -> Mono.defer(() -> {
                     try {
-                        // Clean the response to ensure it's valid JSON
-                        String jsonResponse = cleanJsonResponse(response);
                         T result = objectMapper.readValue(jsonResponse, typeReference);
                         return Mono.just(result);
                     } catch (JsonProcessingException e) {
                         log.error("Error parsing AI response: {}", e.getMessage());
-                        return Mono.error(new AIServiceException("Failed to parse AI response", e));
+                        return Mono.<T>error(new AIServiceException("Failed to parse AI response", e));
                     }
-                });
+                }).transform(recordDeserialize(typeReference.getType().getTypeName(), jsonResponse))
+                        .transform(metrics.stage(GenerationMetrics.STAGE_DESERIALIZE)));
     }
 
     private GroqChatRequest createChatRequest(String prompt, String model) {
@@ -235,12 +432,34 @@ public class GroqAIServiceImpl implements GroqAIService {
     }
 
     /**
-     * Cleans the JSON response from the AI to ensure it's valid JSON.
+     * Cleans the JSON response from the AI to ensure it's valid JSON, recording a
+     * {@link JsonParseEvent} with the repairs that were needed.
+     */
+    private String cleanJsonResponse(String response) {
+        JsonParseEvent event = new JsonParseEvent();
+        event.begin();
+        List<String> repairs = new ArrayList<>(2);
+        String cleaned = repairJson(response, repairs);
+        event.end();
+        if (event.shouldCommit()) {
+            event.phase = JsonParseEvent.PHASE_CLEAN;
+            event.inputLength = response != null ? response.length() : 0;
+            event.repairs = String.join(",", repairs);
+            event.success = true;
+            event.commit();
+        }
+        return cleaned;
+    }
+
+    /**
      * Removes markdown code blocks and trims whitespace.
      * Also fixes common JSON issues including week number ranges.
+     *
+     * @param repairs Receives the name of every fix that changed the response
      */
-    private String cleanJsonResponse(String response) {
+    static String repairJson(String response, List<String> repairs) {
         if (response == null || response.isEmpty()) {
+            repairs.add("empty");
             return "{}";
         }
         
@@ -250,30 +469,36 @@ public class GroqAIServiceImpl implements GroqAIService {
         if (cleaned.startsWith("```json")) {
             cleaned = cleaned.substring(cleaned.indexOf("\n") + 1);
             cleaned = cleaned.substring(0, cleaned.lastIndexOf("```")).trim();
+            repairs.add("code_fence");
         } else if (cleaned.startsWith("```")) {
             cleaned = cleaned.substring(cleaned.indexOf("\n") + 1);
             cleaned = cleaned.substring(0, cleaned.lastIndexOf("```")).trim();
+            repairs.add("code_fence");
         }
         
         // Remove any non-printable characters except newlines and tabs
-        cleaned = cleaned.replaceAll("[\\u0000-\\u0008\\u000B\\u000C\\u000E-\\u001F\\u007F-\\u009F]", "");
+        cleaned = repaired(cleaned, cleaned.replaceAll("[\\u0000-\\u0008\\u000B\\u000C\\u000E-\\u001F\\u007F-\\u009F]", ""),
+                "control_chars", repairs);
         
         // Fix week number ranges (e.g., "weekNumber": 6-7 -> "weekNumber": "6-7")
-        cleaned = cleaned.replaceAll("(\\\"weekNumber\\\"\\s*:\\s*)(\\d+\\s*-\\s*\\d+)([,\\s\\}])?", "$1\\\"$2\\\"$3");
+        cleaned = repaired(cleaned, cleaned.replaceAll("(\\\"weekNumber\\\"\\s*:\\s*)(\\d+\\s*-\\s*\\d+)([,\\s\\}])?", "$1\\\"$2\\\"$3"),
+                "week_range", repairs);
         
         // Fix common JSON issues
         try {
             // Fix missing commas between objects in arrays (escaped properly)
-            cleaned = cleaned.replaceAll("\\}\\s*\\{", "},{")
-                // Fix missing quotes around field names
-                .replaceAll("(?<!\\\")([a-zA-Z0-9_]+)(?=:)", "$1")
-                // Fix single quotes around property names
-                .replaceAll("([{\",]\\s*)'([^']+)'\\s*:", "$1\\\"$2\\\":")
-                // Fix single quotes around string values
-                .replaceAll(":\\s*'([^']+)'([,}])$", ": \\\"$1\\\"$2")
-                .replaceAll(":\\s*'([^']+)'([,}])\\s*", ": \\\"$1\\\"$2\\n");
+            cleaned = repaired(cleaned, cleaned.replaceAll("\\}\\s*\\{", "},{"), "array_commas", repairs);
+            // Fix missing quotes around field names
+            cleaned = repaired(cleaned, cleaned.replaceAll("(?<!\\\")([a-zA-Z0-9_]+)(?=:)", "$1"), "unquoted_keys", repairs);
+            // Fix single quotes around property names
+            cleaned = repaired(cleaned, cleaned.replaceAll("([{\",]\\s*)'([^']+)'\\s*:", "$1\\\"$2\\\":"),
+                    "single_quoted_keys", repairs);
+            // Fix single quotes around string values
+            cleaned = repaired(cleaned, cleaned.replaceAll(":\\s*'([^']+)'([,}])$", ": \\\"$1\\\"$2")
+                    .replaceAll(":\\s*'([^']+)'([,}])\\s*", ": \\\"$1\\\"$2\\n"), "single_quoted_values", repairs);
         } catch (Exception e) {
             log.error("Error cleaning JSON response: {}", e.getMessage(), e);
+            repairs.add("failed");
             // Return a minimal valid JSON object if cleaning fails
             return "{}";
         }
@@ -283,10 +508,22 @@ public class GroqAIServiceImpl implements GroqAIService {
         int jsonEnd = Math.max(cleaned.lastIndexOf('}'), cleaned.lastIndexOf(']'));
         
         if (jsonStart >= 0 && jsonEnd > jsonStart) {
-            cleaned = cleaned.substring(jsonStart, jsonEnd + 1);
+            cleaned = repaired(cleaned, cleaned.substring(jsonStart, jsonEnd + 1), "surrounding_text", repairs);
         }
         
         log.debug("Cleaned JSON response: {}", cleaned);
         return cleaned;
     }
+
+    /**
+     * Notes {@code name} in {@code repairs} when a fix changed the text. {@code replaceAll} and
+     * {@code substring} return the same instance when nothing changed, so content is only
+     * compared when a pattern matched.
+     */
+    private static String repaired(String before, String after, String name, List<String> repairs) {
+        if (after != before && !after.equals(before)) {
+            repairs.add(name);
+        }
+        return after;
+    }
 }
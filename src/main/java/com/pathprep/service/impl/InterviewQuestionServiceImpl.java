@@ -2,15 +2,31 @@ package com.pathprep.service.impl;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.pathprep.config.GroqProperties;
+import com.pathprep.dto.CursorPage;
 import com.pathprep.dto.GenerateQuestionsRequest;
 import com.pathprep.dto.InterviewQuestionResponse;
+import com.pathprep.dto.QuestionAnswersResponse;
+import com.pathprep.dto.QuestionQuery;
+import com.pathprep.dto.QuestionSearchResult;
 import com.pathprep.dto.SkillQuestionsRequest;
 import com.pathprep.exception.AIServiceException;
+import com.pathprep.exception.BudgetExhaustedException;
+import com.pathprep.mapper.InterviewQuestionMapper;
 import com.pathprep.model.InterviewQuestion;
+import com.pathprep.model.QuestionDifficulty;
 import com.pathprep.repository.InterviewQuestionRepository;
+import com.pathprep.repository.InterviewQuestionRepositoryImpl;
+import com.pathprep.service.FallbackService;
 import com.pathprep.service.GroqAIService;
 import com.pathprep.service.InterviewQuestionService;
-import com.pathprep.util.ModelMapperUtil;
+import com.pathprep.service.LlmUsageService;
+import com.pathprep.service.QuestionBankIndex;
+import com.pathprep.service.QuestionSimilarityService;
+import com.pathprep.service.WriteBehindService;
+import com.pathprep.util.Deadline;
+import com.pathprep.util.FieldSelection;
+import com.pathprep.util.KeysetCursor;
+import com.pathprep.util.QuestionFingerprint;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cache.annotation.CacheEvict;
@@ -18,6 +34,7 @@ import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
 import java.time.Duration;
 import java.util.*;
@@ -30,13 +47,23 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 @RequiredArgsConstructor
 public class InterviewQuestionServiceImpl implements InterviewQuestionService {
     
-    private static final Duration DB_TIMEOUT = Duration.ofSeconds(5);
+    private static final int MAX_SEARCH_LENGTH = 200;
     private static final Duration AI_TIMEOUT = Duration.ofSeconds(30);
+    private static final String QUESTIONS_ENDPOINT = "/interview-questions";
+    private static final String SKILL_QUESTIONS_ENDPOINT = "/interview-questions/skill";
     
     private final InterviewQuestionRepository questionRepository;
     private final GroqAIService groqAIService;
     private final GroqProperties groqProperties;
-    private final ModelMapperUtil modelMapper;
+    private final InterviewQuestionMapper questionMapper;
+    private final WriteBehindService writeBehindService;
+    private final QuestionSimilarityService similarityService;
+    private final QuestionBankIndex questionBankIndex;
+    private final GenerationMetrics metrics;
+    private final LlmUsageService usageService;
+    private final AdmissionControl admission;
+    private final ResiliencePipelines resilience;
+    private final FallbackService fallbackService;
     
     @Override
     @Cacheable(
@@ -69,11 +96,11 @@ public class InterviewQuestionServiceImpl implements InterviewQuestionService {
                 request.getTopics() != null ? request.getTopics() : "general");
         
         // First try to get questions from database
-        return getQuestionsFromDb(request.getRole(), request.getExperienceLevel(), count)
+        return getQuestionsFromDb(request.getRole(), request.getExperienceLevel(), count, null, null, true)
                 .switchIfEmpty(Mono.defer(() -> {
                     // If not enough questions in DB, generate with AI
                     log.info("Not enough questions in DB, generating with AI");
-                    return generateQuestionsWithAI(request);
+                    return admission.admit(AdmissionControl.QUESTIONS, () -> generateQuestionsWithAI(request));
                 }))
                 .doOnSuccess(response -> {
                     if (response != null && response.getQuestions() != null) {
@@ -83,12 +110,29 @@ public class InterviewQuestionServiceImpl implements InterviewQuestionService {
                         log.warn("Failed to generate questions for {} ({})", 
                                 request.getRole(), request.getExperienceLevel());
                     }
-                });
+                })
+                .transform(metrics.request(QUESTIONS_ENDPOINT, groqProperties.getDefaultModel(),
+                        request.getRole(), request.getExperienceLevel()));
     }
     
     @Override
     public Mono<InterviewQuestionResponse> getQuestions(String role, String experienceLevel, int count, boolean forceRefresh) {
-        log.info("Getting {} questions for {} ({}), forceRefresh: {}", count, role, experienceLevel, forceRefresh);
+        return getQuestions(QuestionQuery.builder()
+                .role(role)
+                .experienceLevel(experienceLevel)
+                .count(count)
+                .forceRefresh(forceRefresh)
+                .build());
+    }
+    
+    @Override
+    public Mono<InterviewQuestionResponse> getQuestions(QuestionQuery query) {
+        String role = query.getRole();
+        String experienceLevel = query.getExperienceLevel();
+        int count = query.getCount();
+        boolean forceRefresh = query.isForceRefresh();
+        log.info("Getting {} questions for {} ({}), difficulty: {}, category: {}, forceRefresh: {}", 
+                count, role, experienceLevel, query.getDifficulty(), query.getCategory(), forceRefresh);
         
         if (forceRefresh) {
             log.debug("Force refresh requested, bypassing cache");
@@ -97,18 +141,76 @@ public class InterviewQuestionServiceImpl implements InterviewQuestionService {
             request.setExperienceLevel(experienceLevel);
             request.setCount(count);
             request.setForceRefresh(true);
-            return generateQuestions(request);
+            return generateQuestions(request)
+                    .map(response -> query.isIncludeAnswers() ? response : withoutAnswers(response));
         }
         
-        return getQuestionsFromDb(role, experienceLevel, count)
+        return getQuestionsFromDb(role, experienceLevel, count, query.getDifficulty(), query.getCategory(), query.isIncludeAnswers())
                 .switchIfEmpty(Mono.defer(() -> {
                     log.info("No questions found in DB for {} ({}), generating with AI", role, experienceLevel);
                     GenerateQuestionsRequest request = new GenerateQuestionsRequest();
                     request.setRole(role);
                     request.setExperienceLevel(experienceLevel);
                     request.setCount(count);
-                    return generateQuestions(request);
-                }));
+                    return generateQuestions(request)
+                            .map(response -> query.isIncludeAnswers() ? response : withoutAnswers(response));
+                }))
+                .transform(metrics.request(QUESTIONS_ENDPOINT, groqProperties.getDefaultModel(), role, experienceLevel));
+    }
+    
+    @Override
+    public Mono<QuestionAnswersResponse> getAnswers(List<String> ids) {
+        List<String> distinctIds = ids.stream().filter(Objects::nonNull).distinct().collect(Collectors.toList());
+        log.debug("Fetching answers for {} questions", distinctIds.size());
+        
+        return Mono.fromCallable(() -> questionRepository.findAnswersByIdIn(distinctIds))
+                .subscribeOn(Schedulers.boundedElastic())
+                .transform(resilience.mongo())
+                .map(found -> {
+                    Map<String, String> answersById = found.stream()
+                            .collect(Collectors.toMap(InterviewQuestion::getId, q -> Objects.toString(q.getAnswer(), "")));
+                    List<QuestionAnswersResponse.AnswerItem> answers = distinctIds.stream()
+                            .filter(answersById::containsKey)
+                            .map(id -> new QuestionAnswersResponse.AnswerItem(id, answersById.get(id)))
+                            .collect(Collectors.toList());
+                    return QuestionAnswersResponse.builder().answers(answers).build();
+                });
+    }
+    
+    @Override
+    public Mono<CursorPage<InterviewQuestionResponse.QuestionItem>> listQuestions(String role, String experienceLevel,
+                                                                                  String cursor, int limit,
+                                                                                  FieldSelection fields) {
+        int pageSize = CursorPage.clampLimit(limit);
+        return Mono.fromCallable(() -> questionRepository.findPageByRoleAndExperience(
+                        role, experienceLevel, KeysetCursor.decode(cursor), pageSize + 1, fields))
+                .subscribeOn(Schedulers.boundedElastic())
+                .transform(resilience.mongo())
+                .map(questions -> CursorPage.of(questions, pageSize, q -> KeysetCursor.encode(null, q.getId()))
+                        .map(questionMapper::toQuestionItem));
+    }
+    
+    @Override
+    public Mono<CursorPage<QuestionSearchResult>> searchQuestions(String text, String role, String experienceLevel,
+                                                                  String difficulty, String cursor, int limit,
+                                                                  boolean includeAnswers) {
+        if (text == null || text.isBlank() || text.length() > MAX_SEARCH_LENGTH) {
+            return Mono.error(new IllegalArgumentException(
+                    "Search text must be between 1 and " + MAX_SEARCH_LENGTH + " characters"));
+        }
+        int pageSize = CursorPage.clampLimit(limit);
+        return Mono.fromCallable(() -> questionRepository.search(text.trim(), blankToNull(role),
+                        blankToNull(experienceLevel), blankToNull(difficulty), KeysetCursor.decode(cursor),
+                        pageSize + 1, includeAnswers))
+                .subscribeOn(Schedulers.boundedElastic())
+                .transform(resilience.mongo())
+                .map(hits -> CursorPage.of(hits, pageSize,
+                                hit -> KeysetCursor.encode(hit.score(), hit.question().getId()))
+                        .map(hit -> questionMapper.toSearchResult(hit.question(), hit.score())));
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value;
     }
     
     @Override
@@ -118,10 +220,12 @@ public class InterviewQuestionServiceImpl implements InterviewQuestionService {
         unless = "#result == null || #result.questions == null || #result.questions.size() < #request.count"
     )
     public Mono<InterviewQuestionResponse> generateSkillQuestions(SkillQuestionsRequest request) {
-        // If forceRefresh is true, bypass cache and generate new questions
-        if (request.isForceRefresh()) {
+        // If forceRefresh is true, bypass cache and generate new questions, unless only stored ones may be served
+        if (request.isForceRefresh() && usageService.isWithinBudget(SKILL_QUESTIONS_ENDPOINT)) {
             log.info("Force refresh requested for skill questions, bypassing cache");
-            return generateSkillQuestionsWithAI(request);
+            return admission.admit(AdmissionControl.QUESTIONS, () -> generateSkillQuestionsWithAI(request))
+                    .transform(metrics.request(SKILL_QUESTIONS_ENDPOINT, groqProperties.getDefaultModel(),
+                            request.getJobRole(), request.getExperienceLevel()));
         }
         log.info("Generating {} questions for skill: {}, role: {}, experience: {}", 
                 request.getCount(), request.getSkill(), request.getJobRole(), request.getExperienceLevel());
@@ -135,8 +239,10 @@ public class InterviewQuestionServiceImpl implements InterviewQuestionService {
                 )
                 .switchIfEmpty(Mono.defer(() -> {
                     log.info("No questions found in DB for skill: {}, generating with AI", request.getSkill());
-                    return generateSkillQuestionsWithAI(request);
-                }));
+                    return admission.admit(AdmissionControl.QUESTIONS, () -> generateSkillQuestionsWithAI(request));
+                }))
+                .transform(metrics.request(SKILL_QUESTIONS_ENDPOINT, groqProperties.getDefaultModel(),
+                        request.getJobRole(), request.getExperienceLevel()));
     }
     
     private Mono<InterviewQuestionResponse> getSkillQuestionsFromDb(String role, String experienceLevel, String skill, int count) {
@@ -144,6 +250,10 @@ public class InterviewQuestionServiceImpl implements InterviewQuestionService {
                 count, skill, role, experienceLevel);
         
         return Mono.fromCallable(() -> {
+                    if (questionBankIndex.isReady()) {
+                        return sampleFromIndex(role, experienceLevel, skill, null, null, count, true);
+                    }
+                    
                     List<InterviewQuestion> questions = questionRepository.findByRoleAndExperienceAndSkill(
                             role, experienceLevel, skill);
                     
@@ -151,15 +261,12 @@ public class InterviewQuestionServiceImpl implements InterviewQuestionService {
                         return Collections.<InterviewQuestion>emptyList();
                     }
                     
-                    // If we have enough questions, return a random sample of the requested count
-                    if (questions.size() >= count) {
-                        Collections.shuffle(questions);
-                        return questions.subList(0, Math.min(count, questions.size()));
-                    }
-                    
-                    return questions;
+                    // Return a random sample of the requested count without near-duplicates
+                    return similarityService.sampleDistinct(questions, count);
                 })
-                .timeout(DB_TIMEOUT)
+                .subscribeOn(Schedulers.boundedElastic())
+                .transform(resilience.mongo())
+                .transform(metrics.stage(GenerationMetrics.STAGE_DB_LOOKUP))
                 .flatMap(questions -> {
                     if (questions.isEmpty()) {
                         return Mono.empty();
@@ -170,13 +277,15 @@ public class InterviewQuestionServiceImpl implements InterviewQuestionService {
                     
                     return Mono.just(mapToResponse(role, experienceLevel, questions));
                 })
-                .onErrorResume(e -> {
-                    log.error("Error fetching skill questions from database", e);
-                    return Mono.empty();
-                });
+                // Only an empty result falls through to generation; an unavailable database must not
+                // send every request to the AI service
+                .onErrorResume(e -> fallbackService.handleDatabaseError(e, "Failed to fetch skill questions from database"));
     }
     
     private Mono<InterviewQuestionResponse> generateSkillQuestionsWithAI(SkillQuestionsRequest request) {
+        if (!usageService.isWithinBudget(SKILL_QUESTIONS_ENDPOINT)) {
+            return budgetExhausted();
+        }
         String skill = request.getSkill();
         String role = request.getJobRole();
         String experience = request.getExperienceLevel();
@@ -231,8 +340,8 @@ public class InterviewQuestionServiceImpl implements InterviewQuestionService {
         log.debug("Generating questions with prompt: {}", prompt);
         
         return groqAIService.generateText(prompt, groqProperties.getDefaultModel())
-            .timeout(AI_TIMEOUT)
-            .flatMap(aiResponse -> {
+            .transform(Deadline.within(AI_TIMEOUT, Deadline.MIN_LLM_BUDGET))
+            .flatMap(aiResponse -> Mono.defer(() -> {
                 try {
                     log.debug("Raw AI response: {}", aiResponse);
                     
@@ -284,7 +393,7 @@ public class InterviewQuestionServiceImpl implements InterviewQuestionService {
                     }
                     
                     if (questionMaps == null || questionMaps.isEmpty()) {
-                        return Mono.error(new AIServiceException("No questions were generated by the AI"));
+                        return Mono.<List<InterviewQuestion>>error(new AIServiceException("No questions were generated by the AI"));
                     }
                     
                     // Map to our domain model
@@ -299,19 +408,22 @@ public class InterviewQuestionServiceImpl implements InterviewQuestionService {
                                 question.setExperience(experience);
                                 question.setSkill(skill);
                                 question.setTags(List.of(skill, role.toLowerCase()));
+                                question.setFingerprint(QuestionFingerprint.of(question.getQuestion()));
                                 return question;
                             })
                             .collect(Collectors.toList());
-                    
-                    // Save to database for future use
-                    log.info("Saving {} generated questions for skill: {} to database", questions.size(), skill);
-                    return Mono.fromCallable(() -> questionRepository.saveAll(questions))
-                            .thenReturn(mapToResponse(role, experience, questions));
+                    return Mono.just(similarityService.removeNearDuplicates(questions));
                             
                 } catch (Exception e) {
                     log.error("Error parsing AI response for skill questions", e);
-                    return Mono.error(new AIServiceException("Failed to parse AI response: " + e.getMessage(), e));
+                    return Mono.<List<InterviewQuestion>>error(new AIServiceException("Failed to parse AI response: " + e.getMessage(), e));
                 }
+            }).transform(metrics.stage(GenerationMetrics.STAGE_DESERIALIZE)))
+            .flatMap(distinct -> {
+                // Save to database for future use
+                log.info("Saving {} generated questions for skill: {} to database", distinct.size(), skill);
+                return persistQuestions(distinct)
+                        .then(Mono.fromSupplier(() -> mapToResponse(role, experience, distinct)));
             })
             .onErrorResume(e -> {
                 log.error("Error in generateSkillQuestionsWithAI: {}", e.getMessage(), e);
@@ -322,29 +434,45 @@ public class InterviewQuestionServiceImpl implements InterviewQuestionService {
             });
     }
     
-    private Mono<InterviewQuestionResponse> getQuestionsFromDb(String role, String experienceLevel, int count) {
+    private Mono<InterviewQuestionResponse> getQuestionsFromDb(String role, String experienceLevel, int count,
+                                                               String difficulty, String category, boolean includeAnswers) {
         log.debug("Fetching up to {} questions for {} ({}) from database", count, role, experienceLevel);
         
         return Mono.fromCallable(() -> {
-                    // First try to get exact count if possible
-                    List<InterviewQuestion> questions = questionRepository.findByRoleAndExperience(role, experienceLevel);
+                    if (questionBankIndex.isReady()) {
+                        return sampleFromIndex(role, experienceLevel, null, difficulty, category, count, includeAnswers);
+                    }
+                    
+                    // List views skip the answer text, which is most of each document
+                    List<InterviewQuestion> questions = includeAnswers
+                            ? questionRepository.findByRoleAndExperience(role, experienceLevel)
+                            : questionRepository.findSummariesByRoleAndExperience(role, experienceLevel);
                     
                     if (questions == null || questions.isEmpty()) {
                         return Collections.<InterviewQuestion>emptyList();
                     }
                     
-                    // If we have enough questions, return a random sample of the requested count
-                    if (questions.size() >= count) {
-                        Collections.shuffle(questions);
-                        return questions.stream().limit(count).collect(Collectors.toList());
+                    if (difficulty != null || category != null) {
+                        QuestionDifficulty wantedDifficulty = difficulty != null ? QuestionDifficulty.fromLabel(difficulty) : null;
+                        questions = questions.stream()
+                                .filter(q -> wantedDifficulty == null || QuestionDifficulty.fromLabel(q.getDifficulty()) == wantedDifficulty)
+                                .filter(q -> category == null || (q.getCategory() != null && category.equalsIgnoreCase(q.getCategory().trim())))
+                                .collect(Collectors.toList());
                     }
                     
+                    // Return a random sample of the requested count without near-duplicates
+                    List<InterviewQuestion> sample = similarityService.sampleDistinct(questions, count);
+                    
                     // If we don't have enough questions, return all we have
-                    log.info("Only found {} questions in database for {} ({}), which is less than requested {}", 
-                            questions.size(), role, experienceLevel, count);
-                    return questions;
+                    if (sample.size() < count) {
+                        log.info("Only found {} distinct questions in database for {} ({}), which is less than requested {}", 
+                                sample.size(), role, experienceLevel, count);
+                    }
+                    return sample;
                 })
-                .timeout(DB_TIMEOUT)
+                .subscribeOn(Schedulers.boundedElastic())
+                .transform(resilience.mongo())
+                .transform(metrics.stage(GenerationMetrics.STAGE_DB_LOOKUP))
                 .flatMap(questions -> {
                     if (questions.isEmpty()) {
                         log.debug("No questions found in database for {} ({})", role, experienceLevel);
@@ -357,13 +485,35 @@ public class InterviewQuestionServiceImpl implements InterviewQuestionService {
                     // Map to response
                     return Mono.just(mapToResponse(role, experienceLevel, questions));
                 })
-                .onErrorResume(e -> {
-                    log.error("Error fetching questions from database", e);
-                    return Mono.empty();
-                });
+                .onErrorResume(e -> fallbackService.handleDatabaseError(e, "Failed to fetch questions from database"));
+    }
+    
+    /**
+     * Samples ids from the in-memory question bank and loads the questions in a single
+     * {@code $in} query. A few extra ids are drawn so that dropping near-duplicates still
+     * leaves {@code count} questions when the bank has them.
+     */
+    private List<InterviewQuestion> sampleFromIndex(String role, String experienceLevel, String skill,
+                                                    String difficulty, String category, int count,
+                                                    boolean includeAnswers) {
+        QuestionDifficulty wantedDifficulty = difficulty != null ? QuestionDifficulty.fromLabel(difficulty) : null;
+        List<String> ids = questionBankIndex.sampleIds(role, experienceLevel, skill, wantedDifficulty, category, count + count / 2);
+        if (ids.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<InterviewQuestion> questions = new ArrayList<>(ids.size());
+        if (includeAnswers) {
+            questionRepository.findAllById(ids).forEach(questions::add);
+        } else {
+            questions.addAll(questionRepository.findSummariesByIdIn(ids));
+        }
+        return similarityService.sampleDistinct(questions, count);
     }
     
     private Mono<InterviewQuestionResponse> generateQuestionsWithAI(GenerateQuestionsRequest request) {
+        if (!usageService.isWithinBudget(QUESTIONS_ENDPOINT)) {
+            return budgetExhausted();
+        }
         String topics = request.getTopics() != null ? request.getTopics() : "general";
         int questionCount = Math.min(request.getCount(), 100); // Cap at 100 questions max per request
         
@@ -403,7 +553,7 @@ public class InterviewQuestionServiceImpl implements InterviewQuestionService {
         String model = groqProperties.getDefaultModel();
         
         return groqAIService.generateStructuredResponse(prompt, model, InterviewQuestionResponse.class)
-                .timeout(AI_TIMEOUT)
+                .transform(Deadline.within(AI_TIMEOUT, Deadline.MIN_LLM_BUDGET))
                 .flatMap(response -> {
                     if (response == null || response.getQuestions() == null || response.getQuestions().isEmpty()) {
                         log.error("AI returned null or empty questions list");
@@ -424,6 +574,7 @@ public class InterviewQuestionServiceImpl implements InterviewQuestionService {
                                 question.setCategory(q.getCategory() != null ? q.getCategory() : "General");
                                 question.setDifficulty(q.getDifficulty() != null ? q.getDifficulty() : "Medium");
                                 question.setTags(List.of(question.getCategory()));
+                                question.setFingerprint(QuestionFingerprint.of(question.getQuestion()));
                                 return question;
                             })
                             .collect(Collectors.toList());
@@ -433,9 +584,11 @@ public class InterviewQuestionServiceImpl implements InterviewQuestionService {
                         return Mono.error(new AIServiceException("No valid questions could be generated"));
                     }
                     
-                    log.info("Saving {} valid questions to database", questions.size());
-                    return Mono.fromCallable(() -> questionRepository.saveAll(questions))
-                            .thenReturn(response);
+                    List<InterviewQuestion> distinct = similarityService.removeNearDuplicates(questions);
+                    
+                    log.info("Saving {} valid questions to database", distinct.size());
+                    return persistQuestions(distinct)
+                            .then(Mono.fromSupplier(() -> mapToResponse(request.getRole(), request.getExperienceLevel(), distinct)));
                 })
                 .onErrorResume(e -> {
                     log.error("Error in generateQuestionsWithAI: {}", e.getMessage(), e);
@@ -446,15 +599,53 @@ public class InterviewQuestionServiceImpl implements InterviewQuestionService {
                 });
     }
     
+    /**
+     * Hands generated questions to the write-behind queue so the caller does not wait on MongoDB.
+     * Falls back to a direct bulk insert when the queue is disabled or full. Questions that are
+     * near-duplicates of stored ones are dropped first, and questions whose fingerprint already
+     * exists for the same role, experience and skill are skipped by the insert itself. Either way
+     * the questions get no id here, since a duplicate is stored under the id of its earlier copy.
+     *
+     * <p>The batch shares one role, experience and skill, read from its first question so the
+     * near-duplicate check uses the same partition the questions are stored in. Signatures are
+     * remembered once the write was queued, which retries until stored, or inserted directly.</p>
+     */
+    private Mono<Void> persistQuestions(List<InterviewQuestion> questions) {
+        if (questions.isEmpty()) {
+            return Mono.empty();
+        }
+        InterviewQuestion first = questions.get(0);
+        String role = first.getRole();
+        String experience = first.getExperience();
+        String skill = first.getSkill();
+        return Mono.fromCallable(() -> similarityService.filterNovel(role, experience, skill, questions))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMap(novel -> {
+                    if (novel.isEmpty()) {
+                        return Mono.empty();
+                    }
+                    if (writeBehindService.submitAllIfAbsent(novel, InterviewQuestionRepositoryImpl.FINGERPRINT_KEY)) {
+                        similarityService.remember(role, experience, skill, novel);
+                        return Mono.empty();
+                    }
+                    return Mono.fromCallable(() -> questionRepository.insertIfAbsent(novel))
+                            .subscribeOn(Schedulers.boundedElastic())
+                            .doOnNext(inserted -> {
+                                log.info("Inserted {} new questions, {} were duplicates", inserted, novel.size() - inserted);
+                                similarityService.remember(role, experience, skill, novel);
+                            })
+                            .then();
+                })
+                .transform(metrics.stage(GenerationMetrics.STAGE_SAVE));
+    }
+    
+    private Mono<InterviewQuestionResponse> budgetExhausted() {
+        return metrics.fallback("budget", Mono.error(new BudgetExhaustedException(
+                "Daily generation budget exhausted, only stored questions are available until tomorrow")));
+    }
+    
     private InterviewQuestionResponse mapToResponse(String role, String experienceLevel, List<InterviewQuestion> questions) {
-        List<InterviewQuestionResponse.QuestionItem> items = questions.stream()
-                .map(q -> InterviewQuestionResponse.QuestionItem.builder()
-                        .question(q.getQuestion())
-                        .answer(q.getAnswer())
-                        .category(q.getCategory())
-                        .difficulty(q.getDifficulty())
-                        .build())
-                .collect(Collectors.toList());
+        List<InterviewQuestionResponse.QuestionItem> items = questionMapper.toQuestionItems(questions);
         
         return InterviewQuestionResponse.builder()
                 .role(role)
@@ -462,4 +653,20 @@ public class InterviewQuestionServiceImpl implements InterviewQuestionService {
                 .questions(items)
                 .build();
     }
+    
+    /**
+     * Copies the response without the answers that can be fetched by id. Responses may come from the cache,
+     * so they are never modified in place.
+     */
+    private InterviewQuestionResponse withoutAnswers(InterviewQuestionResponse response) {
+        List<InterviewQuestionResponse.QuestionItem> items = response.getQuestions() == null ? null
+                : response.getQuestions().stream()
+                        .map(questionMapper::forListView)
+                        .collect(Collectors.toList());
+        return InterviewQuestionResponse.builder()
+                .role(response.getRole())
+                .experienceLevel(response.getExperienceLevel())
+                .questions(items)
+                .build();
+    }
 }
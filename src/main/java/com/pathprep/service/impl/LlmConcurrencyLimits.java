@@ -0,0 +1,67 @@
+package com.pathprep.service.impl;
+
+import com.pathprep.config.LlmConcurrencyProperties;
+import com.pathprep.exception.ServiceUnavailableException;
+import com.pathprep.util.AdaptiveConcurrencyLimit;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * One {@link AdaptiveConcurrencyLimit} per Groq model, since each model has its own capacity.
+ * The live limit, calls in flight and calls waiting are exposed as
+ * {@code pathprep.groq.concurrency.*} gauges.
+ */
+@Component
+public class LlmConcurrencyLimits {
+
+    private final LlmConcurrencyProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, AdaptiveConcurrencyLimit> limits = new ConcurrentHashMap<>();
+
+    public LlmConcurrencyLimits(LlmConcurrencyProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Waits for a slot for {@code model}, failing with a {@link ServiceUnavailableException}
+     * when too many calls are waiting or the wait is too long.
+     */
+    public Mono<AdaptiveConcurrencyLimit.Permit> acquire(String model) {
+        if (!properties.isEnabled()) {
+            return Mono.just(AdaptiveConcurrencyLimit.Permit.NONE);
+        }
+        return limits.computeIfAbsent(model, this::create)
+                .acquire(properties.getMaxQueueWait())
+                .doOnError(ServiceUnavailableException.class, e -> Counter.builder("pathprep.groq.concurrency.rejected")
+                        .description("Groq calls rejected while waiting for a concurrency slot")
+                        .tag("model", model)
+                        .register(meterRegistry)
+                        .increment());
+    }
+
+    private AdaptiveConcurrencyLimit create(String model) {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(new AdaptiveConcurrencyLimit.Settings(
+                properties.getInitialLimit(), properties.getMinLimit(), properties.getMaxLimit(),
+                properties.getLatencyTolerance(), properties.getWindow(), properties.getMaxQueued()));
+        Gauge.builder("pathprep.groq.concurrency.limit", limit, AdaptiveConcurrencyLimit::limit)
+                .description("Concurrent Groq calls currently allowed")
+                .tag("model", model)
+                .register(meterRegistry);
+        Gauge.builder("pathprep.groq.concurrency.in_flight", limit, AdaptiveConcurrencyLimit::inFlight)
+                .description("Groq calls in flight")
+                .tag("model", model)
+                .register(meterRegistry);
+        Gauge.builder("pathprep.groq.concurrency.queued", limit, AdaptiveConcurrencyLimit::queued)
+                .description("Groq calls waiting for a concurrency slot")
+                .tag("model", model)
+                .register(meterRegistry);
+        return limit;
+    }
+}
@@ -0,0 +1,152 @@
+package com.pathprep.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pathprep.config.LlmJournalProperties;
+import com.pathprep.service.LlmJournalService;
+import com.pathprep.util.Redaction;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes journaled LLM calls from a bounded queue on the scheduler thread, so the request path
+ * only pays for an {@code offer}. Each flush ends with a gzip sync flush, which keeps the
+ * active file readable up to the last complete batch; files are rotated by uncompressed size
+ * and the oldest are deleted beyond {@code maxFiles}.
+ */
+@Slf4j
+@Service
+public class LlmJournalServiceImpl implements LlmJournalService {
+
+    static final String FILE_PREFIX = "llm-journal-";
+    static final String FILE_SUFFIX = ".ndjson.gz";
+    private static final DateTimeFormatter FILE_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS");
+
+    private final LlmJournalProperties properties;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final BlockingQueue<Entry> queue;
+    private final Counter writtenCounter;
+    private final Counter droppedCounter;
+
+    private OutputStream out;
+    private long fileBytes;
+
+    public LlmJournalServiceImpl(LlmJournalProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, properties.getMaxPending()));
+        this.writtenCounter = Counter.builder("pathprep.llm-journal.written")
+                .description("LLM calls written to the journal")
+                .register(meterRegistry);
+        this.droppedCounter = Counter.builder("pathprep.llm-journal.dropped")
+                .description("LLM calls not journaled because the queue was full or the write failed")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    @Override
+    public void record(Entry entry) {
+        if (properties.isEnabled() && !queue.offer(entry)) {
+            droppedCounter.increment();
+        }
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${pathprep.llm-journal.flush-interval-ms:1000}")
+    public synchronized void flush() {
+        if (queue.isEmpty()) {
+            return;
+        }
+        List<Entry> batch = new ArrayList<>(queue.size());
+        queue.drainTo(batch);
+        try {
+            for (Entry entry : batch) {
+                if (out == null || fileBytes >= properties.getMaxFileBytes()) {
+                    rotate();
+                }
+                byte[] line = (objectMapper.writeValueAsString(sanitize(entry)) + "\n").getBytes(StandardCharsets.UTF_8);
+                out.write(line);
+                fileBytes += line.length;
+            }
+            out.flush();
+            writtenCounter.increment(batch.size());
+        } catch (IOException e) {
+            log.error("Failed to write {} LLM calls to the journal", batch.size(), e);
+            droppedCounter.increment(batch.size());
+            closeQuietly();
+        }
+    }
+
+    @PreDestroy
+    public synchronized void close() {
+        flush();
+        closeQuietly();
+    }
+
+    private Entry sanitize(Entry entry) {
+        if (!properties.isRedact()) {
+            return entry;
+        }
+        return new Entry(entry.timestamp(), entry.endpoint(), entry.model(), entry.temperature(), entry.maxTokens(),
+                entry.responseType(), Redaction.redact(entry.prompt()), Redaction.redact(entry.completion()),
+                entry.latencyMs(), entry.promptTokens(), entry.completionTokens());
+    }
+
+    private void rotate() throws IOException {
+        closeQuietly();
+        Path directory = Paths.get(properties.getDirectory());
+        Files.createDirectories(directory);
+        Path file = directory.resolve(FILE_PREFIX + LocalDateTime.now().format(FILE_TIMESTAMP) + FILE_SUFFIX);
+        out = new GZIPOutputStream(new BufferedOutputStream(
+                Files.newOutputStream(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)), 64 * 1024, true);
+        fileBytes = 0;
+        log.info("Journaling LLM calls to {}", file);
+        deleteOldFiles(directory);
+    }
+
+    private void deleteOldFiles(Path directory) throws IOException {
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, FILE_PREFIX + "*" + FILE_SUFFIX)) {
+            stream.forEach(files::add);
+        }
+        // Timestamped names sort oldest first
+        files.sort(null);
+        for (int i = 0; i < files.size() - properties.getMaxFiles(); i++) {
+            Files.deleteIfExists(files.get(i));
+        }
+    }
+
+    private void closeQuietly() {
+        if (out != null) {
+            try {
+                out.close();
+            } catch (IOException e) {
+                log.warn("Failed to close LLM journal file: {}", e.getMessage());
+            }
+            out = null;
+        }
+    }
+}
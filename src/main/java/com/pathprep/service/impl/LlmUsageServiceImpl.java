@@ -0,0 +1,379 @@
+package com.pathprep.service.impl;
+
+import com.pathprep.config.LlmUsageProperties;
+import com.pathprep.dto.LlmBudgetStatus;
+import com.pathprep.dto.LlmUsageSummary;
+import com.pathprep.model.LlmUsage;
+import com.pathprep.service.LlmUsageService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.ArithmeticOperators;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Pattern;
+
+/**
+ * Usage ledger with one set of {@link LongAdder}s per minute and attribution. Recording a
+ * call is a map lookup and a few striped increments. Client ids come from a request header,
+ * so only the first {@code maxClientsPerDay} of a day get their own aggregates and later ones
+ * are recorded as {@value #OTHER_CLIENTS}.
+ *
+ * <p>A flush writes only minutes that ended more than a minute ago, so no call can still be
+ * adding to them, and upserts each aggregate with {@code $inc}. Aggregates stay in memory
+ * until the write succeeded. After a flush today's totals are read back from the collection,
+ * which makes the budgets cover every instance; calls not flushed yet are added on top from
+ * a running total per endpoint, so a budget check does not walk the aggregates.</p>
+ */
+@Slf4j
+@Service
+public class LlmUsageServiceImpl implements LlmUsageService {
+
+    static final String OTHER_CLIENTS = "other";
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final MongoTemplate mongoTemplate;
+    private final LlmUsageProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    private final Map<Key, Bucket> buckets = new ConcurrentHashMap<>();
+    private final Map<DayEndpoint, LongAdder> pendingTokens = new ConcurrentHashMap<>();
+    private final AtomicReference<ClientsOfDay> clients =
+            new AtomicReference<>(new ClientsOfDay(LocalDate.MIN, ConcurrentHashMap.newKeySet()));
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    private volatile DailyTotals dailyTotals = new DailyTotals(LocalDate.MIN, Map.of());
+
+    public LlmUsageServiceImpl(MongoTemplate mongoTemplate,
+                               LlmUsageProperties properties,
+                               MeterRegistry meterRegistry) {
+        this.mongoTemplate = mongoTemplate;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void record(LlmCall call) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        LocalDateTime minute = LocalDateTime.now().truncatedTo(ChronoUnit.MINUTES);
+        Key key = new Key(minute, call.endpoint(), call.model(), canonical(call.role()),
+                canonical(call.experienceLevel()), boundedClient(minute.toLocalDate(), call.client()));
+        Bucket bucket = buckets.computeIfAbsent(key, k -> new Bucket());
+        bucket.calls.increment();
+        bucket.promptTokens.add(call.promptTokens());
+        bucket.completionTokens.add(call.completionTokens());
+        bucket.latencyMs.add(call.latencyMs());
+        if (call.endpoint() != null) {
+            pendingTokens.computeIfAbsent(new DayEndpoint(minute.toLocalDate(), call.endpoint()), k -> new LongAdder())
+                    .add((long) call.promptTokens() + call.completionTokens());
+        }
+    }
+
+    /**
+     * @return The client, or {@value #OTHER_CLIENTS} once the day has seen the maximum number of clients
+     */
+    private String boundedClient(LocalDate day, String client) {
+        ClientsOfDay current = clients.updateAndGet(
+                c -> c.day().equals(day) ? c : new ClientsOfDay(day, ConcurrentHashMap.newKeySet()));
+        if (current.ids().contains(client)) {
+            return client;
+        }
+        if (current.ids().size() < properties.getMaxClientsPerDay()) {
+            current.ids().add(client);
+            return client;
+        }
+        return OTHER_CLIENTS;
+    }
+
+    @Override
+    public boolean isWithinBudget(String endpoint) {
+        if (!properties.isEnabled()) {
+            return true;
+        }
+        long budget = budgetOf(endpoint);
+        return budget <= 0 || usedToday(endpoint) < budget;
+    }
+
+    @Override
+    public Mono<List<LlmUsageSummary>> getTopConsumers(String dimension, LocalDateTime from, LocalDateTime to, int limit) {
+        if (!DIMENSIONS.contains(dimension)) {
+            return Mono.error(new IllegalArgumentException("Unknown dimension: " + dimension + ". Use one of " + DIMENSIONS));
+        }
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(Criteria.where("minute").gte(from).lt(to)),
+                Aggregation.group(dimension)
+                        .sum("calls").as("calls")
+                        .sum("promptTokens").as("promptTokens")
+                        .sum("completionTokens").as("completionTokens")
+                        .sum("latencyMs").as("latencyMs"),
+                Aggregation.addFields().addFieldWithValue("totalTokens",
+                        ArithmeticOperators.Add.valueOf("promptTokens").add("completionTokens")).build(),
+                Aggregation.sort(Sort.Direction.DESC, "totalTokens"),
+                Aggregation.limit(limit));
+        return Mono.fromCallable(() -> mongoTemplate.aggregate(aggregation, LlmUsage.class, Document.class)
+                        .getMappedResults().stream()
+                        .map(LlmUsageServiceImpl::toSummary)
+                        .toList())
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    @Override
+    public Mono<List<LlmBudgetStatus>> getBudgets() {
+        return Mono.fromSupplier(() -> {
+            Map<String, Long> used = new TreeMap<>(pendingToday());
+            currentTotals().forEach((endpoint, tokens) -> used.merge(endpoint, tokens, Long::sum));
+            properties.getDailyTokenBudgets().keySet().forEach(endpoint -> used.putIfAbsent(endpoint, 0L));
+            List<LlmBudgetStatus> statuses = new ArrayList<>(used.size());
+            used.forEach((endpoint, tokens) -> {
+                long budget = budgetOf(endpoint);
+                statuses.add(LlmBudgetStatus.builder()
+                        .endpoint(endpoint)
+                        .dailyBudget(budget)
+                        .usedToday(tokens)
+                        .dbOnly(budget > 0 && tokens >= budget)
+                        .build());
+            });
+            return statuses;
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        try {
+            refreshDailyTotals();
+        } catch (Exception e) {
+            log.warn("Failed to load today's LLM usage, budgets start from zero: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${pathprep.llm-usage.flush-interval-ms:60000}")
+    public void flush() {
+        if (!flushLock.tryLock()) {
+            return;
+        }
+        try {
+            flush(LocalDateTime.now().truncatedTo(ChronoUnit.MINUTES).minusMinutes(1));
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Waits for a running flush rather than skipping, so the open minutes are written once it finishes.
+     */
+    @PreDestroy
+    public void shutdown() {
+        flushLock.lock();
+        try {
+            flush(LocalDateTime.MAX);
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Writes the aggregates of minutes before {@code before}; callers hold {@link #flushLock}.
+     */
+    private void flush(LocalDateTime before) {
+        Map<Key, Bucket> closed = new HashMap<>();
+        buckets.forEach((key, bucket) -> {
+            if (key.minute().isBefore(before)) {
+                closed.put(key, bucket);
+            }
+        });
+        if (closed.isEmpty()) {
+            return;
+        }
+
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "success";
+        try {
+            BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, LlmUsage.class);
+            closed.forEach((key, bucket) -> bulk.upsert(Query.query(Criteria.where("_id").is(key.id())), toUpdate(key, bucket)));
+            bulk.execute();
+            LocalDate today = LocalDate.now();
+            dailyTotals = new DailyTotals(today, loadDailyTotals(today));
+            closed.forEach((key, bucket) -> {
+                buckets.remove(key);
+                LongAdder pending = key.endpoint() == null ? null
+                        : pendingTokens.get(new DayEndpoint(key.minute().toLocalDate(), key.endpoint()));
+                if (pending != null) {
+                    pending.add(-bucket.tokens());
+                }
+            });
+            pendingTokens.keySet().removeIf(key -> key.day().isBefore(today));
+        } catch (Exception e) {
+            outcome = "failure";
+            log.warn("Failed to flush {} LLM usage aggregates, keeping them for the next flush: {}",
+                    closed.size(), e.getMessage());
+        } finally {
+            sample.stop(meterRegistry.timer("pathprep.llm-usage.flush", "outcome", outcome));
+        }
+    }
+
+    private void refreshDailyTotals() {
+        LocalDate today = LocalDate.now();
+        dailyTotals = new DailyTotals(today, loadDailyTotals(today));
+    }
+
+    private Map<String, Long> loadDailyTotals(LocalDate day) {
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(Criteria.where("minute").gte(day.atStartOfDay()).lt(day.plusDays(1).atStartOfDay())),
+                Aggregation.group("endpoint").sum(ArithmeticOperators.Add.valueOf("promptTokens").add("completionTokens")).as("tokens"));
+        Map<String, Long> totals = new HashMap<>();
+        for (Document document : mongoTemplate.aggregate(aggregation, LlmUsage.class, Document.class)) {
+            String endpoint = document.getString("_id");
+            if (endpoint != null) {
+                totals.put(endpoint, ((Number) document.get("tokens")).longValue());
+            }
+        }
+        return totals;
+    }
+
+    private long usedToday(String endpoint) {
+        long used = currentTotals().getOrDefault(endpoint, 0L);
+        LongAdder pending = endpoint == null ? null : pendingTokens.get(new DayEndpoint(LocalDate.now(), endpoint));
+        return pending != null ? used + pending.sum() : used;
+    }
+
+    private Map<String, Long> pendingToday() {
+        Map<String, Long> pending = new HashMap<>();
+        LocalDate today = LocalDate.now();
+        pendingTokens.forEach((key, tokens) -> {
+            if (key.day().equals(today)) {
+                pending.put(key.endpoint(), tokens.sum());
+            }
+        });
+        return pending;
+    }
+
+    /**
+     * @return Today's flushed totals, or nothing once the day they were loaded for has passed
+     */
+    private Map<String, Long> currentTotals() {
+        DailyTotals totals = dailyTotals;
+        return totals.day().equals(LocalDate.now()) ? totals.tokens() : Map.of();
+    }
+
+    private long budgetOf(String endpoint) {
+        Long budget = endpoint == null ? null : properties.getDailyTokenBudgets().get(endpoint);
+        return budget != null ? budget : 0;
+    }
+
+    private static Update toUpdate(Key key, Bucket bucket) {
+        return new Update()
+                .setOnInsert("minute", key.minute())
+                .setOnInsert("endpoint", key.endpoint())
+                .setOnInsert("model", key.model())
+                .setOnInsert("role", key.role())
+                .setOnInsert("experienceLevel", key.experienceLevel())
+                .setOnInsert("client", key.client())
+                .inc("calls", bucket.calls.sum())
+                .inc("promptTokens", bucket.promptTokens.sum())
+                .inc("completionTokens", bucket.completionTokens.sum())
+                .inc("latencyMs", bucket.latencyMs.sum());
+    }
+
+    private static LlmUsageSummary toSummary(Document document) {
+        long calls = number(document, "calls");
+        return LlmUsageSummary.builder()
+                .key(document.get("_id") != null ? document.get("_id").toString() : null)
+                .calls(calls)
+                .promptTokens(number(document, "promptTokens"))
+                .completionTokens(number(document, "completionTokens"))
+                .totalTokens(number(document, "totalTokens"))
+                .averageLatencyMs(calls > 0 ? number(document, "latencyMs") / calls : 0)
+                .build();
+    }
+
+    private static long number(Document document, String field) {
+        Object value = document.get(field);
+        return value instanceof Number number ? number.longValue() : 0;
+    }
+
+    private static String canonical(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        return WHITESPACE.matcher(value.trim()).replaceAll(" ").toLowerCase(Locale.ROOT);
+    }
+
+    private record Key(LocalDateTime minute, String endpoint, String model, String role, String experienceLevel,
+                       String client) {
+
+        /**
+         * The minute followed by a digest of the attribution, which may contain any character.
+         */
+        String id() {
+            MessageDigest digest;
+            try {
+                digest = MessageDigest.getInstance("SHA-256");
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException(e);
+            }
+            for (String value : new String[]{endpoint, model, role, experienceLevel, client}) {
+                digest.update(String.valueOf(value).getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) 0);
+            }
+            return minute + "_" + HexFormat.of().formatHex(digest.digest(), 0, 12);
+        }
+    }
+
+    private static final class Bucket {
+        final LongAdder calls = new LongAdder();
+        final LongAdder promptTokens = new LongAdder();
+        final LongAdder completionTokens = new LongAdder();
+        final LongAdder latencyMs = new LongAdder();
+
+        long tokens() {
+            return promptTokens.sum() + completionTokens.sum();
+        }
+    }
+
+    private record DailyTotals(LocalDate day, Map<String, Long> tokens) {
+    }
+
+    private record DayEndpoint(LocalDate day, String endpoint) {
+    }
+
+    private record ClientsOfDay(LocalDate day, Set<String> ids) {
+    }
+}
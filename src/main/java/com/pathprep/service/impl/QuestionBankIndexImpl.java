@@ -0,0 +1,308 @@
+package com.pathprep.service.impl;
+
+import com.mongodb.client.model.changestream.OperationType;
+import com.pathprep.config.QuestionBankProperties;
+import com.pathprep.model.InterviewQuestion;
+import com.pathprep.model.QuestionDifficulty;
+import com.pathprep.service.QuestionBankIndex;
+import com.pathprep.util.QuestionBankPartition;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.ChangeStreamEvent;
+import org.springframework.data.mongodb.core.ChangeStreamOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Keeps question ids, difficulty and category in memory, partitioned by
+ * (role, experience, skill). Every question is also indexed under a role/experience
+ * partition spanning all skills. Answers and question text are never loaded.
+ *
+ * <p>Keys follow the MongoDB queries the index stands in for: role, experience and skill
+ * match exactly, categories ignore case and surrounding whitespace.</p>
+ *
+ * <p>The index loads in {@code _id} order, one page at a time, once the application is
+ * ready. A change stream opened before the load keeps it current; events that arrive
+ * while loading are buffered and replayed on top of the loaded partitions. Events are
+ * applied in batches collected over {@code changeBatchWindow}, so a partition is copied
+ * once per batch rather than once per changed question.</p>
+ */
+@Slf4j
+@Service
+public class QuestionBankIndexImpl implements QuestionBankIndex {
+
+    private static final String ANY_SKILL = "\u0000any";
+    private static final char SEPARATOR = '\u001f';
+
+    private final MongoTemplate mongoTemplate;
+    private final ReactiveMongoTemplate reactiveMongoTemplate;
+    private final QuestionBankProperties properties;
+    private final String collection;
+
+    private final Map<String, QuestionBankPartition> partitions = new ConcurrentHashMap<>();
+    private final Map<String, String> partitionById = new ConcurrentHashMap<>();
+    private final Map<String, Integer> categoryCodes = new ConcurrentHashMap<>();
+    private final AtomicInteger nextCategoryCode = new AtomicInteger();
+    private final Queue<List<ChangeStreamEvent<Document>>> bufferedEvents = new ArrayDeque<>();
+
+    private volatile boolean ready;
+    private volatile BsonValue resumeToken;
+    private Disposable changeStream;
+
+    public QuestionBankIndexImpl(MongoTemplate mongoTemplate,
+                                 ReactiveMongoTemplate reactiveMongoTemplate,
+                                 QuestionBankProperties properties,
+                                 MeterRegistry meterRegistry) {
+        this.mongoTemplate = mongoTemplate;
+        this.reactiveMongoTemplate = reactiveMongoTemplate;
+        this.properties = properties;
+        this.collection = mongoTemplate.getCollectionName(InterviewQuestion.class);
+
+        Gauge.builder("pathprep.questions.bank.size", partitionById, Map::size)
+                .description("Questions held by the in-memory question bank index")
+                .register(meterRegistry);
+        Gauge.builder("pathprep.questions.bank.partitions", partitions, Map::size)
+                .description("Partitions in the in-memory question bank index")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public boolean isReady() {
+        return ready;
+    }
+
+    @Override
+    public List<String> sampleIds(String role, String experience, String skill,
+                                  QuestionDifficulty difficulty, String category, int count) {
+        String key = skill == null ? partitionKey(role, experience, ANY_SKILL) : partitionKey(role, experience, skill);
+        QuestionBankPartition partition = partitions.get(key);
+        if (partition == null) {
+            return List.of();
+        }
+
+        int categoryCode = QuestionBankPartition.ANY_CATEGORY;
+        if (category != null && !category.isBlank()) {
+            Integer code = categoryCodes.get(canonicalCategory(category));
+            if (code == null) {
+                return List.of();
+            }
+            categoryCode = code;
+        }
+        return partition.sample(difficulty, categoryCode, count, ThreadLocalRandom.current());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        changeStream = Flux.defer(this::openChangeStream)
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, Duration.ofSeconds(1))
+                        .maxBackoff(properties.getChangeStreamMaxBackoff())
+                        .doBeforeRetry(signal -> log.warn("Question change stream failed, reconnecting: {}",
+                                signal.failure().getMessage())))
+                .bufferTimeout(properties.getChangeBatchSize(), properties.getChangeBatchWindow())
+                .subscribe(this::onChanges);
+        Schedulers.boundedElastic().schedule(this::load);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (changeStream != null) {
+            changeStream.dispose();
+        }
+    }
+
+    private Flux<ChangeStreamEvent<Document>> openChangeStream() {
+        ChangeStreamOptions.ChangeStreamOptionsBuilder options = ChangeStreamOptions.builder()
+                .returnFullDocumentOnUpdate();
+        if (resumeToken != null) {
+            options.resumeAfter(resumeToken);
+        }
+        return reactiveMongoTemplate.changeStream(collection, options.build(), Document.class);
+    }
+
+    private void load() {
+        long start = System.currentTimeMillis();
+        Map<String, List<QuestionBankPartition.Entry>> loaded = new HashMap<>();
+        Object lastId = null;
+        int total = 0;
+
+        try {
+            while (true) {
+                Query query = new Query().with(Sort.by(Sort.Direction.ASC, "_id")).limit(properties.getLoadBatchSize());
+                query.fields().include("role", "experience", "skill", "difficulty", "category");
+                if (lastId != null) {
+                    query.addCriteria(Criteria.where("_id").gt(lastId));
+                }
+                List<Document> page = mongoTemplate.find(query, Document.class, collection);
+                for (Document document : page) {
+                    String id = idOf(document.get("_id"));
+                    QuestionBankPartition.Entry entry = toEntry(id, document);
+                    String key = partitionKey(document);
+                    loaded.computeIfAbsent(key, k -> new ArrayList<>()).add(entry);
+                    loaded.computeIfAbsent(aggregateKey(key), k -> new ArrayList<>()).add(entry);
+                    partitionById.put(id, key);
+                }
+                total += page.size();
+                if (page.size() < properties.getLoadBatchSize()) {
+                    break;
+                }
+                lastId = page.get(page.size() - 1).get("_id");
+            }
+        } catch (Exception e) {
+            log.error("Failed to load question bank index after {} questions, sampling stays on MongoDB", total, e);
+            return;
+        }
+
+        loaded.forEach((key, entries) -> partitions.put(key, QuestionBankPartition.EMPTY.with(entries, List.of())));
+        synchronized (bufferedEvents) {
+            List<ChangeStreamEvent<Document>> events;
+            while ((events = bufferedEvents.poll()) != null) {
+                apply(events);
+            }
+            ready = true;
+        }
+        log.info("Loaded {} questions into {} question bank partitions in {} ms",
+                total, partitions.size(), System.currentTimeMillis() - start);
+    }
+
+    private void onChanges(List<ChangeStreamEvent<Document>> events) {
+        BsonValue token = events.get(events.size() - 1).getResumeToken();
+        if (token != null) {
+            resumeToken = token;
+        }
+        if (!ready) {
+            synchronized (bufferedEvents) {
+                if (!ready) {
+                    bufferedEvents.add(events);
+                    return;
+                }
+            }
+        }
+        try {
+            apply(events);
+        } catch (Exception e) {
+            log.warn("Failed to apply {} question changes to index: {}", events.size(), e.getMessage());
+        }
+    }
+
+    /**
+     * Collects the net change per partition, then rebuilds each touched partition once.
+     * A null entry marks a removal; a later change of the same id replaces an earlier one.
+     */
+    void apply(List<ChangeStreamEvent<Document>> events) {
+        Map<String, Map<String, QuestionBankPartition.Entry>> changes = new HashMap<>();
+        for (ChangeStreamEvent<Document> event : events) {
+            OperationType type = event.getOperationType();
+            if (type == null || event.getRaw() == null || event.getRaw().getDocumentKey() == null) {
+                continue;
+            }
+            String id = idOf(event.getRaw().getDocumentKey().get("_id"));
+            switch (type) {
+                case INSERT, UPDATE, REPLACE -> {
+                    Document body = event.getBody();
+                    if (body != null) {
+                        String key = partitionKey(body);
+                        String previous = partitionById.put(id, key);
+                        if (previous != null && !previous.equals(key)) {
+                            change(changes, previous, id, null);
+                        }
+                        change(changes, key, id, toEntry(id, body));
+                    }
+                }
+                case DELETE -> {
+                    String key = partitionById.remove(id);
+                    if (key != null) {
+                        change(changes, key, id, null);
+                    }
+                }
+                default -> log.debug("Ignoring {} event on {}", type, collection);
+            }
+        }
+
+        changes.forEach((key, byId) -> {
+            List<QuestionBankPartition.Entry> upserts = new ArrayList<>();
+            List<String> removals = new ArrayList<>();
+            byId.forEach((id, entry) -> {
+                if (entry != null) {
+                    upserts.add(entry);
+                } else {
+                    removals.add(id);
+                }
+            });
+            partitions.compute(key, (k, p) -> orEmpty(p).with(upserts, removals));
+        });
+    }
+
+    private static void change(Map<String, Map<String, QuestionBankPartition.Entry>> changes, String key,
+                               String id, QuestionBankPartition.Entry entry) {
+        changes.computeIfAbsent(key, k -> new LinkedHashMap<>()).put(id, entry);
+        changes.computeIfAbsent(aggregateKey(key), k -> new LinkedHashMap<>()).put(id, entry);
+    }
+
+    private QuestionBankPartition.Entry toEntry(String id, Document document) {
+        int category = categoryCodes.computeIfAbsent(canonicalCategory(document.getString("category")),
+                c -> nextCategoryCode.getAndIncrement());
+        return new QuestionBankPartition.Entry(id, QuestionDifficulty.fromLabel(document.getString("difficulty")), category);
+    }
+
+    private static QuestionBankPartition orEmpty(QuestionBankPartition partition) {
+        return partition != null ? partition : QuestionBankPartition.EMPTY;
+    }
+
+    private static String partitionKey(Document document) {
+        return partitionKey(document.getString("role"), document.getString("experience"), document.getString("skill"));
+    }
+
+    private static String partitionKey(String role, String experience, String skill) {
+        return Objects.toString(role, "") + SEPARATOR + Objects.toString(experience, "") + SEPARATOR + Objects.toString(skill, "");
+    }
+
+    private static String aggregateKey(String partitionKey) {
+        return partitionKey.substring(0, partitionKey.lastIndexOf(SEPARATOR) + 1) + ANY_SKILL;
+    }
+
+    private static String canonicalCategory(String value) {
+        return value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static String idOf(Object id) {
+        if (id instanceof ObjectId objectId) {
+            return objectId.toHexString();
+        }
+        if (id instanceof BsonValue bson) {
+            return bson.isObjectId() ? bson.asObjectId().getValue().toHexString() : bson.asString().getValue();
+        }
+        return String.valueOf(id);
+    }
+}
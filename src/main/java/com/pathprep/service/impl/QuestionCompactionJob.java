@@ -0,0 +1,114 @@
+package com.pathprep.service.impl;
+
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoCursor;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.Sorts;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.Updates;
+import com.mongodb.client.model.WriteModel;
+import com.pathprep.model.InterviewQuestion;
+import com.pathprep.util.QuestionFingerprint;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * One-off job that backfills question fingerprints and removes duplicates
+ * created before generated questions were deduplicated on insert. For every
+ * (role, experience, skill, fingerprint) the oldest document is kept.
+ *
+ * Enable with {@code pathprep.questions.compaction.enabled=true} for a single
+ * startup, then switch it off again.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "pathprep.questions.compaction", name = "enabled", havingValue = "true")
+public class QuestionCompactionJob implements ApplicationRunner {
+
+    private static final int BATCH_SIZE = 1000;
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        String collectionName = mongoTemplate.getCollectionName(InterviewQuestion.class);
+        MongoCollection<Document> collection = mongoTemplate.getCollection(collectionName);
+
+        long sizeBefore = dataSize(collectionName);
+        long scanned = 0;
+        long backfilled = 0;
+        long removed = 0;
+
+        Set<String> seen = new HashSet<>();
+        List<WriteModel<Document>> updates = new ArrayList<>();
+        List<Object> duplicateIds = new ArrayList<>();
+
+        try (MongoCursor<Document> cursor = collection.find()
+                .projection(Projections.include("role", "experience", "skill", "question", "fingerprint"))
+                .sort(Sorts.ascending("createdAt", "_id"))
+                .batchSize(BATCH_SIZE)
+                .iterator()) {
+            while (cursor.hasNext()) {
+                Document document = cursor.next();
+                scanned++;
+
+                String fingerprint = QuestionFingerprint.of(document.getString("question"));
+                String key = String.join("|",
+                        Objects.toString(document.get("role"), ""),
+                        Objects.toString(document.get("experience"), ""),
+                        Objects.toString(document.get("skill"), ""),
+                        fingerprint);
+
+                if (!seen.add(key)) {
+                    duplicateIds.add(document.get("_id"));
+                    if (duplicateIds.size() >= BATCH_SIZE) {
+                        removed += collection.deleteMany(Filters.in("_id", duplicateIds)).getDeletedCount();
+                        duplicateIds.clear();
+                    }
+                    continue;
+                }
+
+                if (!fingerprint.equals(document.getString("fingerprint"))) {
+                    updates.add(new UpdateOneModel<>(Filters.eq("_id", document.get("_id")),
+                            Updates.set("fingerprint", fingerprint)));
+                }
+            }
+        }
+
+        if (!duplicateIds.isEmpty()) {
+            removed += collection.deleteMany(Filters.in("_id", duplicateIds)).getDeletedCount();
+        }
+
+        // Backfill only after all duplicates are gone so the unique fingerprint index never sees two copies
+        for (int from = 0; from < updates.size(); from += BATCH_SIZE) {
+            List<WriteModel<Document>> batch = updates.subList(from, Math.min(from + BATCH_SIZE, updates.size()));
+            backfilled += collection.bulkWrite(batch, new BulkWriteOptions().ordered(false)).getModifiedCount();
+        }
+
+        long sizeAfter = dataSize(collectionName);
+        log.info("Question compaction finished: scanned {}, removed {} duplicates, backfilled {} fingerprints, "
+                        + "data size {} -> {} bytes ({} bytes reclaimed)",
+                scanned, removed, backfilled, sizeBefore, sizeAfter, sizeBefore - sizeAfter);
+    }
+
+    private long dataSize(String collectionName) {
+        Document stats = mongoTemplate.getDb().runCommand(new Document("collStats", collectionName));
+        Object size = stats.get("size");
+        return size instanceof Number number ? number.longValue() : -1;
+    }
+}
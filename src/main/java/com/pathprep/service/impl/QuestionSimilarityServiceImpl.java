@@ -0,0 +1,193 @@
+package com.pathprep.service.impl;
+
+import com.pathprep.config.QuestionSimilarityProperties;
+import com.pathprep.model.InterviewQuestion;
+import com.pathprep.repository.InterviewQuestionRepository;
+import com.pathprep.service.QuestionSimilarityService;
+import com.pathprep.util.SimHash;
+import com.pathprep.util.SimHashIndex;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * SimHash based near-duplicate detection. Signatures of stored questions are kept in one
+ * {@link SimHashIndex} per (role, experience, skill), loaded lazily from MongoDB the first
+ * time a partition receives generated questions.
+ *
+ * <p>Partitions are keyed by request parameters, so at most {@code maxPartitions} are kept and
+ * the least recently used one is dropped beyond that; it is reloaded when needed again. Loading
+ * blocks on MongoDB and happens outside the map's lock, on the caller's thread.</p>
+ */
+@Slf4j
+@Service
+public class QuestionSimilarityServiceImpl implements QuestionSimilarityService {
+
+    private final InterviewQuestionRepository questionRepository;
+    private final QuestionSimilarityProperties properties;
+    private final Map<String, SimHashIndex> partitions;
+    private final Timer lookupTimer;
+    private final Counter rejectedCounter;
+
+    public QuestionSimilarityServiceImpl(InterviewQuestionRepository questionRepository,
+                                         QuestionSimilarityProperties properties,
+                                         MeterRegistry meterRegistry) {
+        this.questionRepository = questionRepository;
+        this.properties = properties;
+        this.partitions = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, SimHashIndex> eldest) {
+                return size() > properties.getMaxPartitions();
+            }
+        });
+        this.lookupTimer = Timer.builder("pathprep.questions.similarity.lookup")
+                .description("Time to check one question against its partition index")
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("pathprep.questions.similarity.rejected")
+                .description("Generated questions dropped as near-duplicates")
+                .register(meterRegistry);
+        Gauge.builder("pathprep.questions.similarity.index.bytes", this, QuestionSimilarityServiceImpl::estimatedIndexBytes)
+                .description("Estimated heap used by near-duplicate indexes")
+                .register(meterRegistry);
+        Gauge.builder("pathprep.questions.similarity.index.size", this, QuestionSimilarityServiceImpl::indexedCount)
+                .description("Signatures held by near-duplicate indexes")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public List<InterviewQuestion> removeNearDuplicates(List<InterviewQuestion> questions) {
+        if (!properties.isEnabled() || questions.size() < 2) {
+            return questions;
+        }
+        SimHashIndex batch = newIndex();
+        List<InterviewQuestion> distinct = new ArrayList<>(questions.size());
+        for (InterviewQuestion question : questions) {
+            if (batch.addIfAbsent(SimHash.of(question.getQuestion()))) {
+                distinct.add(question);
+            }
+        }
+        int dropped = questions.size() - distinct.size();
+        if (dropped > 0) {
+            rejectedCounter.increment(dropped);
+            log.debug("Dropped {} near-duplicate questions within a batch of {}", dropped, questions.size());
+        }
+        return distinct;
+    }
+
+    @Override
+    public List<InterviewQuestion> filterNovel(String role, String experience, String skill,
+                                               List<InterviewQuestion> questions) {
+        if (!properties.isEnabled() || questions.isEmpty()) {
+            return questions;
+        }
+        SimHashIndex index = partition(role, experience, skill);
+
+        List<InterviewQuestion> novel = new ArrayList<>(questions.size());
+        for (InterviewQuestion question : questions) {
+            long signature = SimHash.of(question.getQuestion());
+            if (Boolean.FALSE.equals(lookupTimer.record(() -> index.containsNear(signature)))) {
+                novel.add(question);
+            }
+        }
+        int dropped = questions.size() - novel.size();
+        if (dropped > 0) {
+            rejectedCounter.increment(dropped);
+            log.info("Skipping {} generated questions for {} ({}, skill: {}) that match stored ones",
+                    dropped, role, experience, skill);
+        }
+        return novel;
+    }
+
+    @Override
+    public void remember(String role, String experience, String skill, List<InterviewQuestion> questions) {
+        if (!properties.isEnabled() || questions.isEmpty()) {
+            return;
+        }
+        SimHashIndex index = partitions.get(partitionKey(role, experience, skill));
+        if (index == null) {
+            // Loaded from MongoDB, stored questions included, when it is needed next
+            return;
+        }
+        for (InterviewQuestion question : questions) {
+            if (index.size() >= properties.getMaxIndexedPerPartition()) {
+                break;
+            }
+            index.addIfAbsent(SimHash.of(question.getQuestion()));
+        }
+    }
+
+    @Override
+    public List<InterviewQuestion> sampleDistinct(List<InterviewQuestion> questions, int count) {
+        List<InterviewQuestion> shuffled = new ArrayList<>(questions);
+        Collections.shuffle(shuffled);
+        if (!properties.isEnabled()) {
+            return shuffled.subList(0, Math.min(count, shuffled.size()));
+        }
+
+        SimHashIndex picked = newIndex();
+        List<InterviewQuestion> sample = new ArrayList<>(Math.min(count, shuffled.size()));
+        for (InterviewQuestion question : shuffled) {
+            if (sample.size() >= count) {
+                break;
+            }
+            if (picked.addIfAbsent(SimHash.of(question.getQuestion()))) {
+                sample.add(question);
+            }
+        }
+        return sample;
+    }
+
+    private SimHashIndex partition(String role, String experience, String skill) {
+        String key = partitionKey(role, experience, skill);
+        SimHashIndex index = partitions.get(key);
+        if (index != null) {
+            return index;
+        }
+        SimHashIndex loaded = loadPartition(role, experience, skill);
+        index = partitions.putIfAbsent(key, loaded);
+        return index != null ? index : loaded;
+    }
+
+    private SimHashIndex loadPartition(String role, String experience, String skill) {
+        SimHashIndex index = newIndex();
+        List<InterviewQuestion> stored = questionRepository.findQuestionTextsByRoleAndExperienceAndSkill(role, experience, skill);
+        for (InterviewQuestion question : stored) {
+            if (index.size() >= properties.getMaxIndexedPerPartition()) {
+                break;
+            }
+            index.addIfAbsent(SimHash.of(question.getQuestion()));
+        }
+        log.debug("Loaded {} question signatures for {} ({}, skill: {})", index.size(), role, experience, skill);
+        return index;
+    }
+
+    private SimHashIndex newIndex() {
+        return new SimHashIndex(properties.getMaxHammingDistance());
+    }
+
+    private static String partitionKey(String role, String experience, String skill) {
+        return Objects.toString(role, "") + '|' + Objects.toString(experience, "") + '|' + Objects.toString(skill, "");
+    }
+
+    private double estimatedIndexBytes() {
+        synchronized (partitions) {
+            return partitions.values().stream().mapToLong(SimHashIndex::estimatedBytes).sum();
+        }
+    }
+
+    private double indexedCount() {
+        synchronized (partitions) {
+            return partitions.values().stream().mapToInt(SimHashIndex::size).sum();
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.pathprep.service.impl;
+
+import com.pathprep.exception.ServiceUnavailableException;
+import com.pathprep.util.Deadline;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.ratelimiter.RateLimiter;
+import io.github.resilience4j.ratelimiter.RateLimiterRegistry;
+import io.github.resilience4j.ratelimiter.RequestNotPermitted;
+import io.github.resilience4j.reactor.bulkhead.operator.BulkheadOperator;
+import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
+import io.github.resilience4j.reactor.ratelimiter.operator.RateLimiterOperator;
+import io.github.resilience4j.reactor.retry.RetryOperator;
+import io.github.resilience4j.reactor.timelimiter.TimeLimiterOperator;
+import io.github.resilience4j.retry.Retry;
+import io.github.resilience4j.retry.RetryRegistry;
+import io.github.resilience4j.timelimiter.TimeLimiter;
+import io.github.resilience4j.timelimiter.TimeLimiterRegistry;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.function.Function;
+
+/**
+ * Resilience4j pipelines per downstream, applied as Reactor operators so they act on the
+ * subscription rather than on the method call that assembles it.
+ *
+ * <p>The instances are named after the downstream and configured under {@code resilience4j.*};
+ * the Spring Boot integration publishes their metrics and breaker health. Rejections by an open
+ * breaker, a full bulkhead or the rate limiter are mapped to the exceptions callers already
+ * handle for that downstream, so they fall back the same way as a failed call.</p>
+ */
+@Component
+public class ResiliencePipelines {
+
+    public static final String MONGO = "mongo";
+    public static final String GROQ = "groq";
+
+    private final Bulkhead mongoBulkhead;
+    private final TimeLimiter mongoTimeLimiter;
+    private final CircuitBreaker mongoCircuitBreaker;
+    private final Retry mongoRetry;
+    private final TimeLimiter groqTimeLimiter;
+    private final RateLimiter groqRateLimiter;
+    private final CircuitBreaker groqCircuitBreaker;
+
+    public ResiliencePipelines(CircuitBreakerRegistry circuitBreakers, BulkheadRegistry bulkheads,
+                               TimeLimiterRegistry timeLimiters, RetryRegistry retries, RateLimiterRegistry rateLimiters) {
+        this.mongoBulkhead = bulkheads.bulkhead(MONGO);
+        this.mongoTimeLimiter = timeLimiters.timeLimiter(MONGO);
+        this.mongoCircuitBreaker = circuitBreakers.circuitBreaker(MONGO);
+        this.mongoRetry = retries.retry(MONGO);
+        this.groqTimeLimiter = timeLimiters.timeLimiter(GROQ);
+        this.groqRateLimiter = rateLimiters.rateLimiter(GROQ);
+        this.groqCircuitBreaker = circuitBreakers.circuitBreaker(GROQ);
+    }
+
+    /**
+     * For one MongoDB query: bulkhead, time limit per attempt, breaker and retry of transient
+     * failures, all within the request's deadline. Rejections surface as
+     * {@link DataAccessResourceFailureException}.
+     */
+    public <T> Function<Mono<T>, Mono<T>> mongo() {
+        Function<Mono<T>, Mono<T>> deadline = Deadline.within(null, Deadline.MIN_DB_BUDGET);
+        return mono -> mono
+                .transform(BulkheadOperator.of(mongoBulkhead))
+                .transform(TimeLimiterOperator.of(mongoTimeLimiter))
+                .transform(CircuitBreakerOperator.of(mongoCircuitBreaker))
+                .transform(RetryOperator.of(mongoRetry))
+                .onErrorMap(e -> e instanceof CallNotPermittedException || e instanceof BulkheadFullException,
+                        e -> new DataAccessResourceFailureException("MongoDB is not accepting queries: " + e.getMessage(), e))
+                .transform(deadline);
+    }
+
+    /**
+     * For one Groq attempt: time limit, rate limit and breaker. Rejections surface as
+     * {@link ServiceUnavailableException}.
+     */
+    public <T> Function<Mono<T>, Mono<T>> groq() {
+        return mono -> mono
+                .transform(TimeLimiterOperator.of(groqTimeLimiter))
+                .transform(RateLimiterOperator.of(groqRateLimiter))
+                .transform(CircuitBreakerOperator.of(groqCircuitBreaker))
+                .onErrorMap(e -> e instanceof CallNotPermittedException || e instanceof RequestNotPermitted,
+                        e -> new ServiceUnavailableException("AI service is temporarily unavailable", e));
+    }
+}
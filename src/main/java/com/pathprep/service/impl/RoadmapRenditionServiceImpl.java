@@ -0,0 +1,124 @@
+package com.pathprep.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pathprep.dto.ApiResponse;
+import com.pathprep.dto.response.DetailedRoadmapResponse;
+import com.pathprep.model.RoadmapRendition;
+import com.pathprep.repository.RoadmapRenditionRepository;
+import com.pathprep.service.RoadmapRenditionService;
+import com.pathprep.service.WriteBehindService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Objects;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Renders roadmap responses once per save. Renditions are kept in the
+ * {@code renderedRoadmaps} cache and in the {@code roadmap_renditions} collection.
+ */
+@Slf4j
+@Service
+public class RoadmapRenditionServiceImpl implements RoadmapRenditionService {
+
+    private static final String CACHE_NAME = "renderedRoadmaps";
+
+    /**
+     * Same settings as the MVC JSON converter, which WebConfig's @EnableWebMvc leaves at its
+     * defaults, so rendered bytes match what the controller used to serialize.
+     */
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    private final RoadmapRenditionRepository renditionRepository;
+    private final WriteBehindService writeBehindService;
+    private final Cache cache;
+
+    public RoadmapRenditionServiceImpl(RoadmapRenditionRepository renditionRepository,
+                                       WriteBehindService writeBehindService,
+                                       CacheManager cacheManager) {
+        this.renditionRepository = renditionRepository;
+        this.writeBehindService = writeBehindService;
+        this.cache = Objects.requireNonNull(cacheManager.getCache(CACHE_NAME), "Cache " + CACHE_NAME + " is not configured");
+    }
+
+    @Override
+    public Mono<RoadmapRendition> find(String compositeKey) {
+        RoadmapRendition cached = cache.get(compositeKey, RoadmapRendition.class);
+        if (cached != null) {
+            return Mono.just(cached);
+        }
+        return renditionRepository.findById(compositeKey)
+                .doOnNext(rendition -> cache.put(compositeKey, rendition));
+    }
+
+    @Override
+    public Mono<RoadmapRendition> render(DetailedRoadmapResponse response) {
+        return Mono.fromCallable(() -> build(response))
+                .doOnNext(rendition -> cache.put(rendition.getCompositeKey(), rendition))
+                .flatMap(rendition -> {
+                    if (writeBehindService.submit(rendition)) {
+                        return Mono.just(rendition);
+                    }
+                    return renditionRepository.save(rendition);
+                })
+                .doOnSuccess(rendition -> log.debug("Rendered roadmap with key: {} ({} bytes, {} gzipped)",
+                        rendition.getCompositeKey(), rendition.getJson().length, rendition.getGzip().length));
+    }
+
+    @Override
+    public Mono<Void> deleteByRoadmapId(String roadmapId) {
+        return renditionRepository.findByRoadmapId(roadmapId)
+                .flatMap(rendition -> {
+                    cache.evict(rendition.getCompositeKey());
+                    return renditionRepository.delete(rendition);
+                })
+                .then();
+    }
+
+    private RoadmapRendition build(DetailedRoadmapResponse response) throws IOException {
+        ApiResponse<DetailedRoadmapResponse> envelope = ApiResponse.<DetailedRoadmapResponse>builder()
+                .success(true)
+                .data(response)
+                .message("Roadmap retrieved successfully")
+                .statusCode(200)
+                .build();
+        byte[] json = objectMapper.writeValueAsBytes(envelope);
+
+        return RoadmapRendition.builder()
+                .compositeKey(response.getCompositeKey())
+                .roadmapId(response.getId())
+                .json(json)
+                .gzip(gzip(json))
+                .contentHash(sha256(json))
+                .contentVersion(response.getContentVersion())
+                .lastModified(response.getUpdatedAt())
+                .renderedAt(LocalDateTime.now())
+                .build();
+    }
+
+    private static byte[] gzip(byte[] data) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(data.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(data);
+        }
+        return out.toByteArray();
+    }
+
+    private static String sha256(byte[] data) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(data));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -1,9 +1,13 @@
 package com.pathprep.service.impl;
 
+import com.pathprep.dto.CursorPage;
+import com.pathprep.dto.ResourceVersion;
 import com.pathprep.model.Roadmap;
 import com.pathprep.repository.RoadmapRepository;
 import com.pathprep.service.GroqService;
 import com.pathprep.service.RoadmapService;
+import com.pathprep.util.FieldSelection;
+import com.pathprep.util.KeysetCursor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
@@ -22,11 +26,14 @@ public class RoadmapServiceImpl implements RoadmapService {
 
     private final RoadmapRepository roadmapRepository;
     private final GroqService groqService;
+    private final ResiliencePipelines resilience;
     public static final Logger log = LoggerFactory.getLogger(RoadmapServiceImpl.class);
 
-    public RoadmapServiceImpl(RoadmapRepository roadmapRepository, GroqService groqService) {
+    public RoadmapServiceImpl(RoadmapRepository roadmapRepository, GroqService groqService,
+                              ResiliencePipelines resilience) {
         this.roadmapRepository = roadmapRepository;
         this.groqService = groqService;
+        this.resilience = resilience;
     }
 
     @Override
@@ -35,6 +42,7 @@ public class RoadmapServiceImpl implements RoadmapService {
         
         // First check if a roadmap already exists
         return roadmapRepository.findByRoleAndExperience(role, experience)
+                .transform(resilience.mongo())
                 .switchIfEmpty(Mono.defer(() -> {
                     // If not found, generate a new one
                     log.debug("No existing roadmap found, generating new one");
@@ -49,7 +57,8 @@ public class RoadmapServiceImpl implements RoadmapService {
     @Override
     public Mono<Roadmap> getRoadmap(String id) {
         log.debug("Fetching roadmap with id: {}", id);
-        return roadmapRepository.findById(id);
+        return roadmapRepository.findById(id)
+                .transform(resilience.mongo());
     }
     
     @Override
@@ -67,21 +76,43 @@ public class RoadmapServiceImpl implements RoadmapService {
     @Override
     public Flux<Roadmap> getRecentRoadmaps(int limit) {
         log.debug("Fetching {} most recent roadmaps", limit);
-        return roadmapRepository.findAllByOrderByCreatedAtDesc()
-                .take(limit);
+        return roadmapRepository.findRecent(null, limit, FieldSelection.ALL)
+                .collectList()
+                .transform(resilience.mongo())
+                .flatMapIterable(roadmaps -> roadmaps);
     }
     
     @Override
     public Flux<Roadmap> getTrendingRoadmaps(int limit) {
         log.debug("Fetching {} most popular roadmaps", limit);
-        return roadmapRepository.findAllByOrderByPopularityDesc()
-                .take(limit);
+        return roadmapRepository.findTrending(null, limit, FieldSelection.ALL)
+                .collectList()
+                .transform(resilience.mongo())
+                .flatMapIterable(roadmaps -> roadmaps);
+    }
+    
+    @Override
+    public Mono<CursorPage<Roadmap>> getRecentRoadmaps(String cursor, int limit, FieldSelection fields) {
+        int pageSize = CursorPage.clampLimit(limit);
+        return Mono.defer(() -> roadmapRepository.findRecent(KeysetCursor.decode(cursor), pageSize + 1, fields).collectList())
+                .transform(resilience.mongo())
+                .map(roadmaps -> CursorPage.of(roadmaps, pageSize,
+                        roadmap -> KeysetCursor.encode(KeysetCursor.epochMillis(roadmap.getCreatedAt()), roadmap.getId())));
+    }
+    
+    @Override
+    public Mono<CursorPage<Roadmap>> getTrendingRoadmaps(String cursor, int limit, FieldSelection fields) {
+        int pageSize = CursorPage.clampLimit(limit);
+        return Mono.defer(() -> roadmapRepository.findTrending(KeysetCursor.decode(cursor), pageSize + 1, fields).collectList())
+                .transform(resilience.mongo())
+                .map(roadmaps -> CursorPage.of(roadmaps, pageSize,
+                        roadmap -> KeysetCursor.encode(roadmap.getTrendingScore(), roadmap.getId())));
     }
     
     @Override
     public Mono<Roadmap> saveRoadmap(Roadmap roadmap) {
         log.debug("Saving roadmap: {}", roadmap);
-        return roadmapRepository.save(roadmap);
+        return roadmapRepository.saveContent(roadmap);
     }
     
     @Override
@@ -135,6 +166,7 @@ public class RoadmapServiceImpl implements RoadmapService {
         
         // First try to find an existing roadmap
         return roadmapRepository.findByRoleAndExperience(role, experience)
+                .transform(resilience.mongo())
                 .switchIfEmpty(Mono.defer(() -> {
                     // If not found, generate a new one with empty skills list
                     log.debug("No existing roadmap found, generating new one for role: {}, experience: {}", role, experience);
@@ -145,4 +177,11 @@ public class RoadmapServiceImpl implements RoadmapService {
                     return Mono.error(new RuntimeException("Failed to get or generate roadmap: " + e.getMessage(), e));
                 });
     }
+
+    @Override
+    public Mono<ResourceVersion> getRoadmapVersion(String role, String experience) {
+        return roadmapRepository.findVersionByRoleAndExperience(role, experience)
+                .transform(resilience.mongo())
+                .map(roadmap -> new ResourceVersion(roadmap.getContentVersion(), roadmap.getUpdatedAt()));
+    }
 }
@@ -1,53 +1,123 @@
 package com.pathprep.service.impl;
 
+import com.pathprep.dto.ResourceVersion;
 import com.pathprep.model.Role;
 import com.pathprep.repository.RoleRepository;
+import com.pathprep.service.CatalogService;
 import com.pathprep.service.RoleService;
+import com.pathprep.util.CatalogSnapshot;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
+/**
+ * Reads come from the catalog snapshot once it is loaded, and from MongoDB before that. The
+ * streaming reads query MongoDB through the resilience pipeline; the lookups returning a
+ * plain value stay synchronous calls.
+ */
 @Service
 public class RoleServiceImpl implements RoleService {
 
+    private static final int MAX_SEARCH_LIMIT = 50;
+
     private final RoleRepository roleRepository;
+    private final MongoTemplate mongoTemplate;
+    private final CatalogService catalogService;
+    private final ResiliencePipelines resilience;
 
-    public RoleServiceImpl(RoleRepository roleRepository) {
+    public RoleServiceImpl(RoleRepository roleRepository, MongoTemplate mongoTemplate, CatalogService catalogService,
+                           ResiliencePipelines resilience) {
         this.roleRepository = roleRepository;
+        this.mongoTemplate = mongoTemplate;
+        this.catalogService = catalogService;
+        this.resilience = resilience;
     }
 
     @Override
     public Flux<Role> findAllRoles() {
-        List<Role> roles = roleRepository.findAll();
-        return Flux.fromIterable(roles);
+        if (catalogService.isReady()) {
+            return Flux.fromIterable(catalogService.snapshot().getRoles());
+        }
+        return Mono.fromCallable(roleRepository::findAll)
+                .subscribeOn(Schedulers.boundedElastic())
+                .transform(resilience.<List<Role>>mongo())
+                .flatMapIterable(roles -> roles);
+    }
+
+    @Override
+    public Mono<ResourceVersion> getRolesVersion() {
+        if (!catalogService.isReady()) {
+            return Mono.empty();
+        }
+        CatalogSnapshot snapshot = catalogService.snapshot();
+        return Mono.just(new ResourceVersion(snapshot.getVersion(), snapshot.getLastModified()));
+    }
+
+    @Override
+    public Flux<Role> searchRoles(String query, int limit) {
+        int size = Math.max(1, Math.min(limit, MAX_SEARCH_LIMIT));
+        if (catalogService.isReady()) {
+            return Flux.fromIterable(catalogService.snapshot().searchRoles(query, size));
+        }
+        return Mono.fromCallable(() -> roleRepository.findByNameContainingIgnoreCase(query))
+                .subscribeOn(Schedulers.boundedElastic())
+                .transform(resilience.<List<Role>>mongo())
+                .flatMapIterable(roles -> roles)
+                .take(size);
     }
 
     @Override
     public Optional<Role> findRoleById(String id) {
+        if (catalogService.isReady()) {
+            return Optional.ofNullable(catalogService.snapshot().findRoleById(id));
+        }
         return roleRepository.findById(id);
     }
 
     @Override
     public Role findRoleByName(String name) {
+        if (catalogService.isReady()) {
+            return catalogService.snapshot().findRoleByName(name);
+        }
         return roleRepository.findByName(name);
     }
 
     @Override
     public Role saveRole(Role role) {
         // Check if role with same name already exists
-        Role existingRole = roleRepository.findByName(role.getName());
+        Role existingRole = catalogService.isReady() ? catalogService.snapshot().findRoleByName(role.getName()) : null;
         if (existingRole != null) {
             return existingRole; // Return existing role instead of creating duplicate
         }
-        return roleRepository.save(role);
+
+        // Insert only if absent, in one round trip; returns the existing role otherwise
+        LocalDateTime now = LocalDateTime.now();
+        Role saved = mongoTemplate.findAndModify(
+                new Query(Criteria.where("name").is(role.getName())),
+                new Update()
+                        .setOnInsert("description", role.getDescription())
+                        .setOnInsert("createdAt", now)
+                        .setOnInsert("updatedAt", now),
+                FindAndModifyOptions.options().upsert(true).returnNew(true),
+                Role.class);
+        catalogService.update(snapshot -> snapshot.withRole(saved));
+        return saved;
     }
 
     @Override
     public Mono<Void> deleteRole(String id) {
         roleRepository.deleteById(id);
+        catalogService.update(snapshot -> snapshot.withoutRole(id));
         return Mono.empty();
     }
 }
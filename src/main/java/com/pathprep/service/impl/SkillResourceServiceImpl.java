@@ -1,28 +1,31 @@
 package com.pathprep.service.impl;
 
 import com.pathprep.config.GroqProperties;
+import com.pathprep.dto.CursorPage;
+import com.pathprep.dto.ResourceVersion;
 import com.pathprep.dto.SkillResourceRequest;
 import com.pathprep.dto.response.SkillResourceResponse;
+import com.pathprep.exception.BudgetExhaustedException;
+import com.pathprep.exception.OverloadedException;
 import com.pathprep.exception.ResourceNotFoundException;
 import com.pathprep.exception.ServiceUnavailableException;
+import com.pathprep.mapper.SkillResourceMapper;
 import com.pathprep.model.SkillResource;
 import com.pathprep.repository.SkillResourceRepository;
 import com.pathprep.service.FallbackService;
 import com.pathprep.service.GroqAIService;
+import com.pathprep.service.LlmUsageService;
 import com.pathprep.service.SkillResourceService;
-import com.pathprep.util.ModelMapperUtil;
-import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
-import io.github.resilience4j.retry.annotation.Retry;
-import io.github.resilience4j.timelimiter.annotation.TimeLimiter;
+import com.pathprep.service.WriteBehindService;
+import com.pathprep.util.Deadline;
+import com.pathprep.util.FieldSelection;
+import com.pathprep.util.KeysetCursor;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.dao.DataAccessException;
 import org.springframework.dao.IncorrectResultSizeDataAccessException;
-import org.springframework.retry.annotation.Backoff;
-import org.springframework.retry.annotation.Recover;
-import org.springframework.retry.annotation.Retryable;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Mono;
 
@@ -47,10 +50,19 @@ public class SkillResourceServiceImpl implements SkillResourceService {
     private final SkillResourceRepository skillResourceRepository;
     private final GroqAIService groqAIService;
     private final GroqProperties groqProperties;
-    private final ModelMapperUtil modelMapper;
+    private final SkillResourceMapper resourceMapper;
     private final FallbackService fallbackService;
+    private final WriteBehindService writeBehindService;
+    private final GenerationMetrics metrics;
+    private final LlmUsageService usageService;
+    private final AdmissionControl admission;
+    private final ResiliencePipelines resilience;
 
-    // Timeout constants
+    // Endpoint tags for generation metrics
+    private static final String ENDPOINT = "/skill-resources";
+    private static final String REFRESH_ENDPOINT = "/skill-resources/{id}/refresh";
+
+    // Timeout constants; reads are bounded by the "mongo" time limiter instead
     private static final Duration DATABASE_TIMEOUT = Duration.ofSeconds(10);
     private static final Duration AI_GENERATION_TIMEOUT = Duration.ofSeconds(30);
 
@@ -60,12 +72,8 @@ public class SkillResourceServiceImpl implements SkillResourceService {
     private static final String TIMEOUT_MSG = "Operation timed out";
 
     @Override
-    @Cacheable(value = "skillResources", key = "#request.skillName + '_' + #request.role + '_' + #request.experienceLevel")
-    @Retryable(retryFor = {DataAccessException.class, TimeoutException.class},
-            maxAttempts = 3,
-            backoff = @Backoff(delay = 1000, multiplier = 2))
-    @TimeLimiter(name = "skillResourcesService")
-    @CircuitBreaker(name = "skillResourcesService", fallbackMethod = "fallbackGetOrGenerateSkillResources")
+    @Cacheable(value = "skillResources", key = "#request.skillName + '_' + #request.role + '_' + #request.experienceLevel",
+            unless = "#result == null || #result.id.startsWith('fallback-') || #result.role != #request.role || #result.experienceLevel != #request.experienceLevel")
     public Mono<SkillResourceResponse> getOrGenerateSkillResources(SkillResourceRequest request) {
         String cacheKey = String.format("%s_%s_%s",
                 request.getSkillName(), request.getRole(), request.getExperienceLevel());
@@ -76,27 +84,29 @@ public class SkillResourceServiceImpl implements SkillResourceService {
                         request.getSkillName(),
                         request.getRole(),
                         request.getExperienceLevel())
-                .timeout(DATABASE_TIMEOUT)
+                .transform(resilience.mongo())
+                .transform(metrics.stage(GenerationMetrics.STAGE_DB_LOOKUP))
                 .switchIfEmpty(Mono.defer(() -> {
+                    if (!usageService.isWithinBudget(ENDPOINT)) {
+                        log.warn("Daily generation budget exhausted, serving fallback for key: {}", cacheKey);
+                        return storedFallback(request, "budget");
+                    }
                     log.info("No existing resources found, generating new ones for key: {}", cacheKey);
-                    return generateSkillResourcesWithAI(request);
+                    return admission.admit(AdmissionControl.RESOURCES, () -> generateSkillResourcesWithAI(request));
                 }))
                 .map(resource -> convertToResponse((SkillResource) resource))
-                .onErrorResume(e -> handleSkillResourceError(e, cacheKey, request));
+                .onErrorResume(e -> handleSkillResourceError(e, cacheKey, request))
+                .transform(metrics.request(ENDPOINT, groqProperties.getDefaultModel(),
+                        request.getRole(), request.getExperienceLevel()));
     }
 
     @Override
     @Cacheable(value = "skillResources", key = "#id")
-    @Retryable(retryFor = {DataAccessException.class, TimeoutException.class},
-            maxAttempts = 2,
-            backoff = @Backoff(delay = 1000))
-    @TimeLimiter(name = "getSkillResourcesByIdService")
-    @CircuitBreaker(name = "getSkillResourcesByIdService", fallbackMethod = "fallbackGetSkillResourcesById")
     public Mono<SkillResourceResponse> getSkillResourcesById(String id) {
         log.debug("Fetching skill resources by ID: {}", id);
 
         return skillResourceRepository.findById(id)
-                .timeout(DATABASE_TIMEOUT)
+                .transform(resilience.mongo())
                 .switchIfEmpty(Mono.error(new ResourceNotFoundException("Skill resources not found with id: " + id)))
                 .map(resource -> convertToResponse((SkillResource) resource))
                 .onErrorResume(e -> {
@@ -105,6 +115,26 @@ public class SkillResourceServiceImpl implements SkillResourceService {
                 });
     }
 
+    @Override
+    public Mono<ResourceVersion> getSkillResourcesVersion(String id) {
+        return skillResourceRepository.findVersionById(id)
+                .transform(resilience.mongo())
+                .map(resource -> new ResourceVersion(resource.getContentVersion(), resource.getUpdatedAt()));
+    }
+
+    @Override
+    public Mono<CursorPage<SkillResourceResponse>> getSkillResourcesByRole(String role, String experienceLevel,
+                                                                           String cursor, int limit,
+                                                                           FieldSelection fields) {
+        int pageSize = CursorPage.clampLimit(limit);
+        return Mono.defer(() -> skillResourceRepository
+                        .findPageByRoleAndExperienceLevel(role, experienceLevel, KeysetCursor.decode(cursor), pageSize + 1, fields)
+                        .collectList())
+                .transform(resilience.mongo())
+                .map(resources -> CursorPage.of(resources, pageSize, resource -> KeysetCursor.encode(null, resource.getId()))
+                        .map(this::convertToResponse));
+    }
+
     @Override
     @CacheEvict(value = "skillResources", key = "#id")
     public Mono<Void> deleteSkillResources(String id) {
@@ -113,74 +143,75 @@ public class SkillResourceServiceImpl implements SkillResourceService {
 
     @Override
     @CacheEvict(value = "skillResources", key = "#id")
-    @Retryable(retryFor = {DataAccessException.class, TimeoutException.class},
-            maxAttempts = 2,
-            backoff = @Backoff(delay = 1000))
-    @TimeLimiter(name = "refreshSkillResourcesService")
     public Mono<SkillResourceResponse> refreshSkillResources(String id) {
         log.info("Refreshing skill resources for ID: {}", id);
 
         return skillResourceRepository.findById(id)
+                .transform(resilience.mongo())
                 .switchIfEmpty(Mono.error(new ResourceNotFoundException("Skill resources not found with id: " + id)))
                 .flatMap(existing -> {
+                    if (!usageService.isWithinBudget(REFRESH_ENDPOINT)) {
+                        metrics.fallback(REFRESH_ENDPOINT, "budget");
+                        return Mono.error(new BudgetExhaustedException(
+                                "Daily generation budget exhausted, resources cannot be refreshed until tomorrow"));
+                    }
                     SkillResourceRequest request = new SkillResourceRequest();
                     request.setSkillName(existing.getSkillName());
                     request.setRole(existing.getRole());
                     request.setExperienceLevel(existing.getExperienceLevel());
 
-                    return generateSkillResourcesWithAI(request)
-                            .timeout(DATABASE_TIMEOUT)
+                    return admission.admit(AdmissionControl.RESOURCES, () -> generateSkillResourcesWithAI(request))
                             .flatMap(updated -> {
                                 updated.setId(existing.getId());
                                 updated.setCreatedAt(existing.getCreatedAt());
-                                return skillResourceRepository.save(updated)
+                                return skillResourceRepository.saveContent(updated)
                                         .timeout(DATABASE_TIMEOUT);
                             });
                 })
                 .map(resource -> convertToResponse((SkillResource) resource))
                 .onErrorResume(e -> {
+                    if (e instanceof OverloadedException) {
+                        return Mono.error(e);
+                    }
                     log.error("Failed to refresh skill resources for ID: {}", id, e);
                     return fallbackService.handleDatabaseError(e, "Failed to refresh skill resources");
-                });
-    }
-
-    /**
-     * Fallback method for getOrGenerateSkillResources when the circuit is open
-     */
-    public Mono<SkillResourceResponse> fallbackGetOrGenerateSkillResources(
-            SkillResourceRequest request, Throwable t) {
-        log.warn("Using fallback for skill resources: {}", t.getMessage());
-        return fallbackService.handleDatabaseError(t,
-                createFallbackResponse(request),
-                "getOrGenerateSkillResources");
+                })
+                .transform(metrics.request(REFRESH_ENDPOINT, groqProperties.getDefaultModel()));
     }
 
     /**
-     * Handles errors during skill resource processing
+     * Handles errors during skill resource processing. MongoDB failures are reported as such,
+     * since stored content cannot be read either; when only generation failed, stored content
+     * is served instead.
      */
     private Mono<SkillResourceResponse> handleSkillResourceError(Throwable e, String cacheKey, SkillResourceRequest request) {
-        log.error("Error processing skill resources for key: {}", cacheKey, e);
-
-        if (e instanceof TimeoutException) {
-            log.warn("Timeout while processing skill resources for key: {}", cacheKey);
-            return fallbackService.handleErrorWithDefault(
-                    e,
-                    createFallbackResponse(request),
-                    "skillResourceTimeout"
-            );
-        } else if (e instanceof DataAccessException) {
+        if (e instanceof OverloadedException) {
+            return Mono.error(e);
+        }
+        if (e instanceof DataAccessException) {
             log.error("Database error while processing skill resources for key: {}", cacheKey, e);
             return fallbackService.handleDatabaseError(e, DB_ERROR_MSG);
         }
 
-        return Mono.error(new ServiceUnavailableException("Service temporarily unavailable. Please try again later.", e));
+        log.warn("Could not generate skill resources for key: {}, serving stored content: {}", cacheKey, e.getMessage());
+        return storedFallback(request, e instanceof TimeoutException ? "timeout" : "ai_error")
+                .map(this::convertToResponse);
     }
 
     /**
-     * Creates a fallback response when primary services are unavailable
+     * What to serve when resources cannot be generated: the most recent stored resources for the
+     * same skill at another role or level, or else an empty placeholder.
      */
-    private SkillResourceResponse createFallbackResponse(SkillResourceRequest request) {
-        // Create a minimal response with basic information
+    private Mono<SkillResource> storedFallback(SkillResourceRequest request, String reason) {
+        metrics.fallback(ENDPOINT, reason);
+        return skillResourceRepository.findFirstBySkillNameOrderByUpdatedAtDesc(request.getSkillName())
+                .transform(resilience.mongo())
+                .onErrorResume(e -> Mono.empty())
+                .defaultIfEmpty(createFallbackResource(request));
+    }
+
+    private SkillResource createFallbackResource(SkillResourceRequest request) {
+        // Create a minimal resource with basic information
         SkillResource fallback = new SkillResource();
         fallback.setId("fallback-" + UUID.randomUUID().toString());
         fallback.setSkillName(request.getSkillName());
@@ -191,16 +222,12 @@ public class SkillResourceServiceImpl implements SkillResourceService {
         fallback.setResources(Collections.emptyList());
         fallback.setFallback(true);
 
-        return convertToResponse(fallback);
+        return fallback;
     }
 
     /**
-     * Generates skill resources using AI with retry and fallback
+     * Generates skill resources using AI; rate limit, breaker and retries apply to each Groq call
      */
-    @Retryable(retryFor = {Exception.class},
-            maxAttempts = 2,
-            backoff = @Backoff(delay = 1000))
-    @TimeLimiter(name = "aiGenerationService")
     private Mono<SkillResource> generateSkillResourcesWithAI(SkillResourceRequest request) {
         log.info("Generating new skill resources with AI for skill: {}, role: {}, level: {}",
                 request.getSkillName(), request.getRole(), request.getExperienceLevel());
@@ -209,7 +236,7 @@ public class SkillResourceServiceImpl implements SkillResourceService {
         String model = groqProperties.getDefaultModel();
 
         return Mono.defer(() -> groqAIService.generateStructuredResponse(prompt, model, SkillResource.class))
-                .timeout(AI_GENERATION_TIMEOUT)
+                .transform(Deadline.within(AI_GENERATION_TIMEOUT, Deadline.MIN_LLM_BUDGET))
                 .flatMap(skillResource -> {
                     // Set additional fields
                     skillResource.setId(UUID.randomUUID().toString());
@@ -220,8 +247,13 @@ public class SkillResourceServiceImpl implements SkillResourceService {
                     skillResource.setUpdatedAt(LocalDateTime.now());
                     skillResource.setFallback(false);
 
+                    // Persist in the background; only save inline if the queue is full
+                    if (writeBehindService.submit(skillResource)) {
+                        return Mono.just(skillResource);
+                    }
                     return skillResourceRepository.save(skillResource)
                             .timeout(DATABASE_TIMEOUT)
+                            .transform(metrics.stage(GenerationMetrics.STAGE_SAVE))
                             .onErrorResume(e -> {
                                 log.error("Failed to save generated resources: {}", e.getMessage());
                                 return Mono.just(skillResource); // Return unsaved resource if save fails
@@ -253,7 +285,7 @@ public class SkillResourceServiceImpl implements SkillResourceService {
         combined.setCommunities(combineResourceLists(
                 existing.getCommunities(), updated.getCommunities()));
 
-        return skillResourceRepository.save(combined);
+        return skillResourceRepository.saveContent(combined);
     }
 
     private <T> List<T> combineResourceLists(List<T> existing, List<T> updated) {
@@ -334,6 +366,6 @@ public class SkillResourceServiceImpl implements SkillResourceService {
     }
 
     private SkillResourceResponse convertToResponse(SkillResource resource) {
-        return modelMapper.map(resource, SkillResourceResponse.class);
+        return resourceMapper.toResponse(resource);
     }
 }
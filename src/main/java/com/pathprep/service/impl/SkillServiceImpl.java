@@ -2,58 +2,113 @@ package com.pathprep.service.impl;
 
 import com.pathprep.model.Skill;
 import com.pathprep.repository.SkillRepository;
+import com.pathprep.service.CatalogService;
 import com.pathprep.service.SkillService;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
+/**
+ * Reads come from the catalog snapshot once it is loaded, and from MongoDB before that. The
+ * streaming reads query MongoDB through the resilience pipeline; the lookups returning a
+ * plain value stay synchronous calls.
+ */
 @Service
 public class SkillServiceImpl implements SkillService {
 
+    private static final int MAX_SEARCH_LIMIT = 50;
+
     private final SkillRepository skillRepository;
+    private final MongoTemplate mongoTemplate;
+    private final CatalogService catalogService;
+    private final ResiliencePipelines resilience;
 
-    public SkillServiceImpl(SkillRepository skillRepository) {
+    public SkillServiceImpl(SkillRepository skillRepository, MongoTemplate mongoTemplate, CatalogService catalogService,
+                           ResiliencePipelines resilience) {
         this.skillRepository = skillRepository;
+        this.mongoTemplate = mongoTemplate;
+        this.catalogService = catalogService;
+        this.resilience = resilience;
     }
 
     @Override
-    public Flux<Skill> searchSkills(String query) {
-        List<Skill> skills = skillRepository.findByNameContainingIgnoreCase(query);
-        return Flux.fromIterable(skills);
+    public Flux<Skill> searchSkills(String query, int limit) {
+        int size = Math.max(1, Math.min(limit, MAX_SEARCH_LIMIT));
+        if (catalogService.isReady()) {
+            return Flux.fromIterable(catalogService.snapshot().searchSkills(query, size));
+        }
+        return Mono.fromCallable(() -> skillRepository.findByNameContainingIgnoreCase(query))
+                .subscribeOn(Schedulers.boundedElastic())
+                .transform(resilience.<List<Skill>>mongo())
+                .flatMapIterable(skills -> skills)
+                .take(size);
     }
 
     @Override
     public Flux<Skill> findAllSkills() {
-        List<Skill> skills = skillRepository.findAll();
-        return Flux.fromIterable(skills);
+        if (catalogService.isReady()) {
+            return Flux.fromIterable(catalogService.snapshot().getSkills());
+        }
+        return Mono.fromCallable(skillRepository::findAll)
+                .subscribeOn(Schedulers.boundedElastic())
+                .transform(resilience.<List<Skill>>mongo())
+                .flatMapIterable(skills -> skills);
     }
 
     @Override
     public Optional<Skill> findSkillById(String id) {
+        if (catalogService.isReady()) {
+            return Optional.ofNullable(catalogService.snapshot().findSkillById(id));
+        }
         return skillRepository.findById(id);
     }
 
     @Override
     public Skill findSkillByName(String name) {
+        if (catalogService.isReady()) {
+            return catalogService.snapshot().findSkillByName(name);
+        }
         return skillRepository.findByName(name);
     }
 
     @Override
     public Skill saveSkill(Skill skill) {
         // Check if skill with same name already exists
-        Skill existingSkill = skillRepository.findByName(skill.getName());
+        Skill existingSkill = catalogService.isReady() ? catalogService.snapshot().findSkillByName(skill.getName()) : null;
         if (existingSkill != null) {
             return existingSkill; // Return existing skill instead of creating duplicate
         }
-        return skillRepository.save(skill);
+
+        // Insert only if absent, in one round trip; the unique name index settles concurrent inserts
+        LocalDateTime now = LocalDateTime.now();
+        Skill saved = mongoTemplate.findAndModify(
+                new Query(Criteria.where("name").is(skill.getName())),
+                new Update()
+                        .setOnInsert("category", skill.getCategory())
+                        .setOnInsert("proficiency", skill.getProficiency())
+                        .setOnInsert("isCore", skill.getCore())
+                        .setOnInsert("createdAt", now)
+                        .setOnInsert("updatedAt", now),
+                FindAndModifyOptions.options().upsert(true).returnNew(true),
+                Skill.class);
+        catalogService.update(snapshot -> snapshot.withSkill(saved));
+        return saved;
     }
 
     @Override
     public Mono<Void> deleteSkill(String id) {
         skillRepository.deleteById(id);
+        catalogService.update(snapshot -> snapshot.withoutSkill(id));
         return Mono.empty();
     }
 }
@@ -0,0 +1,243 @@
+package com.pathprep.service.impl;
+
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.WriteModel;
+import com.pathprep.config.ViewCounterProperties;
+import com.pathprep.model.ViewTarget;
+import com.pathprep.service.ViewCounterService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.bson.types.ObjectId;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * View counter backed by one {@link LongAdder} per viewed document. Recording a view is a
+ * map lookup and a striped increment; the counts are drained on a fixed delay and written
+ * as unordered bulk pipeline updates that add to the total and to the decayed trending score.
+ *
+ * <p>Counters of documents that got no views since the previous flush are dropped. A view
+ * racing that removal can be lost, which is acceptable for popularity data.</p>
+ */
+@Slf4j
+@Service
+public class ViewCounterServiceImpl implements ViewCounterService {
+
+    /**
+     * Scores below this are not decayed any further; they no longer affect the ordering.
+     */
+    private static final double MIN_SCORE = 0.01;
+
+    private final MongoTemplate mongoTemplate;
+    private final ViewCounterProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    private final Map<ViewTarget, Map<String, LongAdder>> counters = new EnumMap<>(ViewTarget.class);
+    private final Map<ViewTarget, Counter> flushedCounters = new EnumMap<>(ViewTarget.class);
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    public ViewCounterServiceImpl(MongoTemplate mongoTemplate,
+                                  ViewCounterProperties properties,
+                                  MeterRegistry meterRegistry) {
+        this.mongoTemplate = mongoTemplate;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+
+        for (ViewTarget target : ViewTarget.values()) {
+            counters.put(target, new ConcurrentHashMap<>());
+            flushedCounters.put(target, Counter.builder("pathprep.views.flushed")
+                    .description("Views written to MongoDB")
+                    .tag("target", target.name().toLowerCase())
+                    .register(meterRegistry));
+        }
+        Gauge.builder("pathprep.views.pending", this, ViewCounterServiceImpl::pendingCount)
+                .description("Documents with views waiting to be flushed")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void recordView(ViewTarget target, String id) {
+        if (id == null || !properties.isEnabled()) {
+            return;
+        }
+        counters.get(target).computeIfAbsent(id, k -> new LongAdder()).increment();
+    }
+
+    @Override
+    public void recordViews(ViewTarget target, Collection<String> ids) {
+        if (ids == null) {
+            return;
+        }
+        ids.forEach(id -> recordView(target, id));
+    }
+
+    @Override
+    public int pendingCount() {
+        return counters.values().stream().mapToInt(Map::size).sum();
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${pathprep.views.flush-interval-ms:5000}")
+    public void flush() {
+        if (!flushLock.tryLock()) {
+            return;
+        }
+        try {
+            flushAll();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${pathprep.views.decay-interval-ms:3600000}",
+            initialDelayString = "${pathprep.views.decay-interval-ms:3600000}")
+    public void decayTrendingScores() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        Date now = new Date();
+        Bson stale = Filters.and(
+                Filters.gt(ViewTarget.TRENDING_SCORE, MIN_SCORE),
+                Filters.lt(ViewTarget.TRENDING_AT, new Date(now.getTime() - properties.getDecayIntervalMs())));
+        List<Document> decay = List.of(new Document("$set", new Document()
+                .append(ViewTarget.TRENDING_SCORE, decayedScore(now))
+                .append(ViewTarget.TRENDING_AT, now)));
+
+        for (ViewTarget target : ViewTarget.values()) {
+            String collection = mongoTemplate.getCollectionName(target.getEntityClass());
+            try {
+                long modified = mongoTemplate.getCollection(collection).updateMany(stale, decay).getModifiedCount();
+                log.debug("Decayed trending score of {} documents in {}", modified, collection);
+            } catch (Exception e) {
+                log.warn("Failed to decay trending scores in {}: {}", collection, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Waits for a running flush instead of skipping the final one, so views it puts back
+     * after a failed write get another attempt.
+     */
+    @PreDestroy
+    public void shutdown() {
+        flushLock.lock();
+        try {
+            flushAll();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void flushAll() {
+        for (ViewTarget target : ViewTarget.values()) {
+            flush(target);
+        }
+    }
+
+    private void flush(ViewTarget target) {
+        Map<String, LongAdder> counts = counters.get(target);
+        if (counts.isEmpty()) {
+            return;
+        }
+
+        Map<String, Long> drained = new LinkedHashMap<>();
+        Iterator<Map.Entry<String, LongAdder>> iterator = counts.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<String, LongAdder> entry = iterator.next();
+            long views = entry.getValue().sumThenReset();
+            if (views > 0) {
+                drained.put(entry.getKey(), views);
+            } else {
+                counts.remove(entry.getKey(), entry.getValue());
+            }
+        }
+
+        List<Map.Entry<String, Long>> batch = new ArrayList<>(properties.getMaxBatchSize());
+        for (Map.Entry<String, Long> entry : drained.entrySet()) {
+            batch.add(entry);
+            if (batch.size() >= properties.getMaxBatchSize()) {
+                writeBatch(target, batch);
+                batch = new ArrayList<>(properties.getMaxBatchSize());
+            }
+        }
+        if (!batch.isEmpty()) {
+            writeBatch(target, batch);
+        }
+    }
+
+    private void writeBatch(ViewTarget target, List<Map.Entry<String, Long>> batch) {
+        String collection = mongoTemplate.getCollectionName(target.getEntityClass());
+        Date now = new Date();
+        List<WriteModel<Document>> models = new ArrayList<>(batch.size());
+        long views = 0;
+        for (Map.Entry<String, Long> entry : batch) {
+            models.add(new UpdateOneModel<>(Filters.eq("_id", toId(entry.getKey())),
+                    addViews(target, entry.getValue(), now)));
+            views += entry.getValue();
+        }
+
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "success";
+        try {
+            mongoTemplate.getCollection(collection).bulkWrite(models, new BulkWriteOptions().ordered(false));
+            flushedCounters.get(target).increment(views);
+        } catch (Exception e) {
+            outcome = "failure";
+            log.warn("Failed to flush {} views to {}, keeping them for the next flush: {}",
+                    views, collection, e.getMessage());
+            Map<String, LongAdder> counts = counters.get(target);
+            batch.forEach(entry -> counts.computeIfAbsent(entry.getKey(), k -> new LongAdder()).add(entry.getValue()));
+        } finally {
+            sample.stop(meterRegistry.timer("pathprep.views.flush", "collection", collection, "outcome", outcome));
+        }
+    }
+
+    /**
+     * Adds the views to the total and to the trending score decayed up to now, in one pipeline update.
+     */
+    private List<Document> addViews(ViewTarget target, long views, Date now) {
+        String count = target.getCountField();
+        return List.of(new Document("$set", new Document()
+                .append(count, new Document("$add", List.of(new Document("$ifNull", List.of("$" + count, 0)), views)))
+                .append(ViewTarget.TRENDING_SCORE, new Document("$add", List.of(decayedScore(now), views)))
+                .append(ViewTarget.TRENDING_AT, now)));
+    }
+
+    /**
+     * {@code trendingScore * e^(-lambda * elapsed)} with lambda derived from the half-life.
+     */
+    private Document decayedScore(Date now) {
+        return new Document("$multiply", List.of(
+                new Document("$ifNull", List.of("$" + ViewTarget.TRENDING_SCORE, 0)),
+                new Document("$exp", new Document("$multiply", List.of(
+                        -Math.log(2) / properties.getTrendingHalfLife().toMillis(),
+                        new Document("$subtract", List.of(now,
+                                new Document("$ifNull", List.of("$" + ViewTarget.TRENDING_AT, now)))))))));
+    }
+
+    private static Object toId(String id) {
+        return ObjectId.isValid(id) ? new ObjectId(id) : id;
+    }
+}
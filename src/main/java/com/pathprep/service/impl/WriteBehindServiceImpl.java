@@ -0,0 +1,432 @@
+package com.pathprep.service.impl;
+
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.ReplaceOneModel;
+import com.mongodb.client.model.ReplaceOptions;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.UpdateOptions;
+import com.mongodb.client.model.WriteModel;
+import com.pathprep.config.WriteBehindProperties;
+import com.pathprep.model.ContentVersioned;
+import com.pathprep.model.ViewTarget;
+import com.pathprep.service.WriteBehindService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mapping.PersistentPropertyAccessor;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Write-behind implementation backed by the synchronous MongoTemplate.
+ * Pending writes are coalesced per document, flushed on a fixed delay as
+ * unordered bulk upserts, and spilled to NDJSON files if they cannot be
+ * flushed before shutdown. Submissions made once shutdown has started are
+ * rejected, so callers save them directly.
+ */
+@Slf4j
+@Service
+public class WriteBehindServiceImpl implements WriteBehindService {
+
+    private static final int DUPLICATE_KEY = 11000;
+    private static final String SPILL_PREFIX = "write-behind-";
+    private static final String DEAD_LETTER_PREFIX = "dead-letter-";
+    private static final String SPILL_SUFFIX = ".ndjson";
+
+    private final MongoTemplate mongoTemplate;
+    private final WriteBehindProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, PendingWrite> pending = new ConcurrentHashMap<>();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+    private final AtomicBoolean closed = new AtomicBoolean();
+    private final Counter rejectedCounter;
+    private final Counter spilledCounter;
+    private final Counter deadLetteredCounter;
+
+    public WriteBehindServiceImpl(MongoTemplate mongoTemplate,
+                                  WriteBehindProperties properties,
+                                  MeterRegistry meterRegistry) {
+        this.mongoTemplate = mongoTemplate;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+
+        Gauge.builder("pathprep.write-behind.pending", pending, Map::size)
+                .description("Writes waiting to be flushed to MongoDB")
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("pathprep.write-behind.rejected")
+                .description("Submissions rejected because the queue was full or disabled")
+                .register(meterRegistry);
+        this.spilledCounter = Counter.builder("pathprep.write-behind.spilled")
+                .description("Writes spilled to disk on shutdown")
+                .register(meterRegistry);
+        this.deadLetteredCounter = Counter.builder("pathprep.write-behind.dead_lettered")
+                .description("Writes MongoDB kept rejecting, moved to a dead-letter file")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public boolean submit(Object entity) {
+        return submitAll(List.of(entity));
+    }
+
+    @Override
+    public boolean submitAll(Collection<?> entities) {
+        return enqueue(entities, null);
+    }
+
+    @Override
+    public boolean submitAllIfAbsent(Collection<?> entities, String... keyFields) {
+        return enqueue(entities, keyFields);
+    }
+
+    private boolean enqueue(Collection<?> entities, String[] keyFields) {
+        if (entities == null || entities.isEmpty()) {
+            return true;
+        }
+        if (!properties.isEnabled() || closed.get() || pending.size() + entities.size() > properties.getMaxPending()) {
+            rejectedCounter.increment(entities.size());
+            return false;
+        }
+
+        for (Object entity : entities) {
+            PendingWrite write = toPendingWrite(entity, keyFields);
+            pending.put(write.key(), write);
+        }
+
+        if (pending.size() >= properties.getMaxBatchSize() && flushScheduled.compareAndSet(false, true)) {
+            Schedulers.boundedElastic().schedule(() -> {
+                flushScheduled.set(false);
+                flush();
+            });
+        }
+        return true;
+    }
+
+    @Override
+    public int pendingCount() {
+        return pending.size();
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${pathprep.write-behind.flush-interval-ms:1000}")
+    public void flush() {
+        if (pending.isEmpty() || !flushLock.tryLock()) {
+            return;
+        }
+        try {
+            flushPending();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Writes batches until the queue is empty or a batch had failures; those wait for the next flush.
+     */
+    private void flushPending() {
+        while (!pending.isEmpty()) {
+            List<PendingWrite> batch = drainBatch();
+            if (batch.isEmpty() || !writeBatch(batch)) {
+                break;
+            }
+        }
+    }
+
+    /**
+     * Replays writes spilled by a previous shutdown. Upserts are idempotent,
+     * so a spill file is only deleted once none of its writes is still queued.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void replaySpilledWrites() {
+        Path directory = Paths.get(properties.getSpillDirectory());
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, SPILL_PREFIX + "*" + SPILL_SUFFIX)) {
+            for (Path file : files) {
+                List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+                List<String> keys = new ArrayList<>(lines.size());
+                for (String line : lines) {
+                    if (!line.isBlank()) {
+                        PendingWrite write = PendingWrite.fromDocument(Document.parse(line));
+                        pending.putIfAbsent(write.key(), write);
+                        keys.add(write.key());
+                    }
+                }
+                flushLock.lock();
+                try {
+                    flushPending();
+                } finally {
+                    flushLock.unlock();
+                }
+                // Live writes may be queued too; only the replayed ones decide about the file
+                boolean flushed = keys.stream().map(pending::get).noneMatch(write -> write != null && write.replayed());
+                if (flushed) {
+                    Files.delete(file);
+                    log.info("Replayed {} spilled writes from {}", lines.size(), file);
+                } else {
+                    log.warn("Could not flush all writes replayed from {}, keeping the file", file);
+                }
+            }
+        } catch (IOException e) {
+            log.error("Failed to replay spilled writes from {}", directory, e);
+        }
+    }
+
+    /**
+     * Waits for a running flush instead of skipping the final one, so writes it re-queues
+     * are flushed or spilled too.
+     */
+    @PreDestroy
+    public void shutdown() {
+        closed.set(true);
+        flushLock.lock();
+        try {
+            flushPending();
+            spillPending();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void spillPending() {
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        List<PendingWrite> remaining = new ArrayList<>(pending.values());
+        try {
+            Path file = writeFile(SPILL_PREFIX, remaining);
+            spilledCounter.increment(remaining.size());
+            log.warn("Spilled {} unflushed writes to {}", remaining.size(), file);
+        } catch (IOException e) {
+            log.error("Failed to spill {} unflushed writes, they will be lost", remaining.size(), e);
+        }
+    }
+
+    /**
+     * Moves writes MongoDB kept rejecting out of the queue, into a file that is not replayed.
+     */
+    private void deadLetter(List<PendingWrite> writes) {
+        try {
+            Path file = writeFile(DEAD_LETTER_PREFIX, writes);
+            log.error("Moved {} writes that failed {} times to {}", writes.size(), properties.getMaxAttempts(), file);
+        } catch (IOException e) {
+            log.error("Failed to dead-letter {} writes, they will be lost", writes.size(), e);
+        }
+        deadLetteredCounter.increment(writes.size());
+    }
+
+    private Path writeFile(String prefix, List<PendingWrite> writes) throws IOException {
+        Path file = Paths.get(properties.getSpillDirectory(), prefix + System.nanoTime() + SPILL_SUFFIX);
+        Files.createDirectories(file.getParent());
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            for (PendingWrite write : writes) {
+                writer.write(write.toDocument().toJson());
+                writer.newLine();
+            }
+        }
+        return file;
+    }
+
+    private List<PendingWrite> drainBatch() {
+        List<PendingWrite> batch = new ArrayList<>();
+        Iterator<Map.Entry<String, PendingWrite>> iterator = pending.entrySet().iterator();
+        while (iterator.hasNext() && batch.size() < properties.getMaxBatchSize()) {
+            Map.Entry<String, PendingWrite> entry = iterator.next();
+            if (pending.remove(entry.getKey(), entry.getValue())) {
+                batch.add(entry.getValue());
+            }
+        }
+        return batch;
+    }
+
+    /**
+     * Writes one batch, grouped per collection.
+     *
+     * @return false if any write of the batch failed and was re-queued or dead-lettered
+     */
+    private boolean writeBatch(List<PendingWrite> batch) {
+        Map<String, List<PendingWrite>> byCollection = new LinkedHashMap<>();
+        for (PendingWrite write : batch) {
+            byCollection.computeIfAbsent(write.collection(), c -> new ArrayList<>()).add(write);
+        }
+
+        boolean success = true;
+        List<PendingWrite> exhausted = new ArrayList<>();
+        for (Map.Entry<String, List<PendingWrite>> entry : byCollection.entrySet()) {
+            String collection = entry.getKey();
+            List<PendingWrite> writes = entry.getValue();
+            List<WriteModel<Document>> models = writes.stream().map(PendingWrite::toModel).toList();
+
+            Timer.Sample sample = Timer.start(meterRegistry);
+            String outcome = "success";
+            try {
+                mongoTemplate.getCollection(collection).bulkWrite(models, new BulkWriteOptions().ordered(false));
+            } catch (MongoBulkWriteException e) {
+                outcome = "partial";
+                for (BulkWriteError error : e.getWriteErrors()) {
+                    if (error.getCode() == DUPLICATE_KEY) {
+                        log.debug("Skipping duplicate write to {}: {}", collection, error.getMessage());
+                    } else {
+                        success = false;
+                        PendingWrite failed = writes.get(error.getIndex()).failed();
+                        if (failed.attempts() >= properties.getMaxAttempts()) {
+                            exhausted.add(failed);
+                        } else {
+                            log.warn("Write to {} failed, re-queueing: {}", collection, error.getMessage());
+                            requeue(failed);
+                        }
+                    }
+                }
+            } catch (Exception e) {
+                outcome = "failure";
+                success = false;
+                log.error("Bulk write of {} documents to {} failed, re-queueing", writes.size(), collection, e);
+                writes.forEach(this::requeue);
+            } finally {
+                sample.stop(meterRegistry.timer("pathprep.write-behind.flush",
+                        "collection", collection, "outcome", outcome));
+            }
+        }
+        if (!exhausted.isEmpty()) {
+            deadLetter(exhausted);
+        }
+        return success;
+    }
+
+    private void requeue(PendingWrite write) {
+        // A newer write for the same document wins over the failed one
+        pending.putIfAbsent(write.key(), write);
+    }
+
+    private PendingWrite toPendingWrite(Object entity, String[] keyFields) {
+        if (entity instanceof ContentVersioned versioned) {
+            versioned.setContentVersion(ContentVersioned.newVersion());
+        }
+        Document document = new Document();
+        mongoTemplate.getConverter().write(entity, document);
+
+        boolean insertOnly = keyFields != null && keyFields.length > 0;
+        Object id = document.get("_id");
+        if (id == null && insertOnly) {
+            // A duplicate keeps the id it was stored with, so none is handed out before the insert
+            document.remove("_id");
+        } else if (id == null) {
+            ObjectId generated = new ObjectId();
+            document.put("_id", generated);
+            assignId(entity, generated);
+            id = generated;
+        }
+
+        Date now = new Date();
+        document.putIfAbsent("createdAt", now);
+        document.put("updatedAt", now);
+
+        String collection = mongoTemplate.getCollectionName(entity.getClass());
+        if (!insertOnly) {
+            return new PendingWrite(collection + ":" + id, collection, new Document("_id", id), document, false,
+                    ViewTarget.counterFields(entity.getClass()), 0, false);
+        }
+
+        Document filter = new Document();
+        for (String field : keyFields) {
+            filter.append(field, document.get(field));
+        }
+        return new PendingWrite(collection + ":" + filter.toJson(), collection, filter, document, true, List.of(),
+                0, false);
+    }
+
+    private void assignId(Object entity, ObjectId id) {
+        MongoPersistentEntity<?> persistentEntity = mongoTemplate.getConverter().getMappingContext()
+                .getPersistentEntity(entity.getClass());
+        if (persistentEntity == null || persistentEntity.getIdProperty() == null) {
+            return;
+        }
+        MongoPersistentProperty idProperty = persistentEntity.getIdProperty();
+        PersistentPropertyAccessor<Object> accessor = persistentEntity.getPropertyAccessor(entity);
+        accessor.setProperty(idProperty, String.class.equals(idProperty.getType()) ? id.toHexString() : id);
+    }
+
+    /**
+     * A queued upsert. Replaces the whole document unless {@code insertOnly}
+     * is set, in which case an existing match is left untouched. Replacements
+     * keep the stored values of {@code counterFields}.
+     *
+     * @param attempts How often MongoDB rejected this write
+     * @param replayed Whether the write was read back from a spill file
+     */
+    private record PendingWrite(String key, String collection, Document filter, Document document, boolean insertOnly,
+                                List<String> counterFields, int attempts, boolean replayed) {
+
+        PendingWrite failed() {
+            return new PendingWrite(key, collection, filter, document, insertOnly, counterFields, attempts + 1, replayed);
+        }
+
+        WriteModel<Document> toModel() {
+            if (insertOnly) {
+                return new UpdateOneModel<>(filter, new Document("$setOnInsert", document),
+                        new UpdateOptions().upsert(true));
+            }
+            if (!counterFields.isEmpty()) {
+                return new UpdateOneModel<>(filter, ViewTarget.replaceKeepingCounters(document, counterFields),
+                        new UpdateOptions().upsert(true));
+            }
+            return new ReplaceOneModel<>(filter, document, new ReplaceOptions().upsert(true));
+        }
+
+        Document toDocument() {
+            return new Document("key", key)
+                    .append("collection", collection)
+                    .append("filter", filter)
+                    .append("document", document)
+                    .append("insertOnly", insertOnly)
+                    .append("counterFields", counterFields);
+        }
+
+        static PendingWrite fromDocument(Document source) {
+            return new PendingWrite(
+                    source.getString("key"),
+                    source.getString("collection"),
+                    source.get("filter", Document.class),
+                    source.get("document", Document.class),
+                    source.getBoolean("insertOnly", false),
+                    source.getList("counterFields", String.class, List.of()),
+                    0,
+                    true);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.pathprep.util;
+
+import java.util.Locale;
+
+/**
+ * Content coding negotiation for responses served from pre-compressed bytes.
+ */
+public final class AcceptEncoding {
+
+    private AcceptEncoding() {
+    }
+
+    /**
+     * True if the Accept-Encoding header allows gzip with a non-zero q-value. An explicit
+     * {@code gzip} entry takes precedence over a {@code *} wildcard.
+     */
+    public static boolean allowsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        Double gzip = null;
+        Double wildcard = null;
+        for (String token : acceptEncoding.split(",")) {
+            String[] parts = token.trim().split(";");
+            String coding = parts[0].trim().toLowerCase(Locale.ROOT);
+            if (coding.equals("gzip")) {
+                gzip = quality(parts);
+            } else if (coding.equals("*")) {
+                wildcard = quality(parts);
+            }
+        }
+        Double q = gzip != null ? gzip : wildcard;
+        return q != null && q > 0;
+    }
+
+    /**
+     * The q-value of a coding, 1 when absent and 0 when malformed.
+     */
+    private static double quality(String[] parts) {
+        for (int i = 1; i < parts.length; i++) {
+            String param = parts[i].trim();
+            if (param.startsWith("q=")) {
+                try {
+                    return Double.parseDouble(param.substring(2));
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+}
@@ -0,0 +1,201 @@
+package com.pathprep.util;
+
+import com.pathprep.exception.ServiceUnavailableException;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A concurrency limit that adapts to how the downstream behaves, with a FIFO queue for callers
+ * over the limit.
+ *
+ * <p>The limit follows AIMD driven by latency, in the spirit of TCP Vegas: every completed call
+ * reports a latency sample, and while samples stay within {@code tolerance} times the lowest
+ * recent sample the limit grows by about one per limit's worth of calls. It only grows while
+ * the limit is actually used. A sample above that band shrinks it by 10%, and an overload
+ * signal such as a 429 halves it. The baseline is the minimum of the previous {@code window}
+ * samples, so it can rise again when the downstream gets slower for good.</p>
+ */
+public final class AdaptiveConcurrencyLimit {
+
+    static final double LATENCY_BACKOFF = 0.9;
+    static final double DROP_BACKOFF = 0.5;
+
+    /**
+     * @param tolerance How far above the baseline a latency sample may be before the limit shrinks
+     * @param window Samples after which the baseline is reset to their minimum
+     * @param maxQueued Callers allowed to wait; more are rejected immediately
+     */
+    public record Settings(int initialLimit, int minLimit, int maxLimit, double tolerance, int window, int maxQueued) {
+    }
+
+    /**
+     * One slot of the limit. Ending it more than once has no further effect.
+     */
+    public static final class Permit {
+
+        /**
+         * A permit of no limit, for when limiting is turned off.
+         */
+        public static final Permit NONE = new Permit(null, 0);
+
+        private final AdaptiveConcurrencyLimit owner;
+        private final int inFlightAtStart;
+        private final AtomicBoolean ended = new AtomicBoolean();
+
+        private Permit(AdaptiveConcurrencyLimit owner, int inFlightAtStart) {
+            this.owner = owner;
+            this.inFlightAtStart = inFlightAtStart;
+        }
+
+        /**
+         * The call succeeded; {@code latencySample} is compared against the baseline.
+         */
+        public void success(long latencySample) {
+            end(latencySample, false);
+        }
+
+        /**
+         * The downstream signalled overload, e.g. with a 429, 5xx or timeout.
+         */
+        public void dropped() {
+            end(0, true);
+        }
+
+        /**
+         * The call ended without telling anything about the downstream.
+         */
+        public void release() {
+            end(0, false);
+        }
+
+        private void end(long sample, boolean dropped) {
+            if (owner != null && ended.compareAndSet(false, true)) {
+                owner.onEnd(this, sample, dropped);
+            }
+        }
+    }
+
+    private static final class Waiter {
+        private final MonoSink<Permit> sink;
+        private Permit permit;
+
+        private Waiter(MonoSink<Permit> sink) {
+            this.sink = sink;
+        }
+    }
+
+    private final Settings settings;
+    private final Deque<Waiter> waiters = new ArrayDeque<>();
+    private double limit;
+    private int inFlight;
+    private long baseline;
+    private long windowMin = Long.MAX_VALUE;
+    private int windowSamples;
+
+    public AdaptiveConcurrencyLimit(Settings settings) {
+        this.settings = settings;
+        this.limit = Math.max(settings.minLimit(), Math.min(settings.maxLimit(), settings.initialLimit()));
+    }
+
+    /**
+     * Takes a slot now or once one frees up, failing with a {@link ServiceUnavailableException}
+     * when the queue is full or no slot frees up within {@code maxWait}.
+     */
+    public Mono<Permit> acquire(Duration maxWait) {
+        return Mono.<Permit>create(sink -> {
+            Waiter waiter;
+            synchronized (this) {
+                if (waiters.isEmpty() && inFlight < (int) limit) {
+                    inFlight++;
+                    waiter = null;
+                    sink.success(new Permit(this, inFlight));
+                } else if (waiters.size() >= settings.maxQueued()) {
+                    waiter = null;
+                    sink.error(new ServiceUnavailableException("Too many requests waiting for the AI service"));
+                } else {
+                    waiter = new Waiter(sink);
+                    waiters.add(waiter);
+                }
+            }
+            if (waiter != null) {
+                sink.onCancel(() -> cancel(waiter));
+            }
+        }).timeout(maxWait, Mono.error(() -> new ServiceUnavailableException("Timed out waiting for the AI service")));
+    }
+
+    public synchronized int limit() {
+        return (int) limit;
+    }
+
+    public synchronized int inFlight() {
+        return inFlight;
+    }
+
+    public synchronized int queued() {
+        return waiters.size();
+    }
+
+    private void cancel(Waiter waiter) {
+        Permit granted;
+        synchronized (this) {
+            granted = waiter.permit;
+            if (granted == null) {
+                waiters.remove(waiter);
+            }
+        }
+        // Granted while being cancelled: the caller will never use it
+        if (granted != null) {
+            granted.release();
+        }
+    }
+
+    private void onEnd(Permit permit, long sample, boolean dropped) {
+        synchronized (this) {
+            inFlight--;
+            if (dropped) {
+                limit = Math.max(settings.minLimit(), limit * DROP_BACKOFF);
+            } else if (sample > 0) {
+                adapt(permit, sample);
+            }
+        }
+        grant();
+    }
+
+    private void adapt(Permit permit, long sample) {
+        windowMin = Math.min(windowMin, sample);
+        if (++windowSamples >= settings.window()) {
+            baseline = windowMin;
+            windowMin = Long.MAX_VALUE;
+            windowSamples = 0;
+        }
+        if (baseline == 0 || sample < baseline) {
+            baseline = sample;
+        }
+
+        if (sample > baseline * settings.tolerance()) {
+            limit = Math.max(settings.minLimit(), limit * LATENCY_BACKOFF);
+        } else if (permit.inFlightAtStart * 2 >= limit) {
+            limit = Math.min(settings.maxLimit(), limit + 1 / limit);
+        }
+    }
+
+    private void grant() {
+        List<Waiter> granted = new ArrayList<>();
+        synchronized (this) {
+            while (!waiters.isEmpty() && inFlight < (int) limit) {
+                Waiter waiter = waiters.poll();
+                inFlight++;
+                waiter.permit = new Permit(this, inFlight);
+                granted.add(waiter);
+            }
+        }
+        granted.forEach(waiter -> waiter.sink.success(waiter.permit));
+    }
+}
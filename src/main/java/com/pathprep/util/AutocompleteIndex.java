@@ -0,0 +1,375 @@
+package com.pathprep.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Immutable name index answering ranked prefix and infix queries without scanning every name.
+ *
+ * <p>Entries are stored in rank order, so a smaller position is a better match. Prefixes are
+ * found by binary search in two sorted arrays, one of whole names and one of the names from
+ * the start of every later word, so {@code "scr"} finds "Java Script" as well as "Scrum".
+ * A range minimum tree over each array yields the best positions of a prefix range one at a
+ * time, so a one-letter query costs O(limit log n) rather than the size of the range.
+ * Infix queries of three or more characters walk the shortest trigram posting list in rank
+ * order and stop once the limit is reached. Shorter queries only match word prefixes.</p>
+ *
+ * <p>Updates go to a small overlay that is scanned on every query and folded into a
+ * rebuilt index once it grows past {@link #MAX_OVERLAY}, so a single change never
+ * rebuilds the whole index.</p>
+ */
+public final class AutocompleteIndex<T> {
+
+    static final int MAX_OVERLAY = 256;
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    /**
+     * @param preferred Ranked ahead of other matches of the same kind, e.g. core skills
+     * @param popularity Ranks matches of the same kind and preference, highest first
+     */
+    public record Entry<T>(String id, String name, boolean preferred, long popularity, T value) {
+    }
+
+    private enum Match {
+        NAME_PREFIX, WORD_PREFIX, INFIX
+    }
+
+    private record Candidate<T>(Entry<T> entry, Match match, String name) {
+    }
+
+    private record WordKey(String key, int position) {
+    }
+
+    /**
+     * Rank within a match kind; base entries are stored in this order.
+     */
+    private static final Comparator<Candidate<?>> RANK = Comparator
+            .<Candidate<?>, Boolean>comparing(candidate -> !candidate.entry().preferred())
+            .thenComparingLong(candidate -> -candidate.entry().popularity())
+            .thenComparingInt(candidate -> candidate.name().length())
+            .thenComparing(Candidate::name);
+
+    private static final Comparator<Candidate<?>> RANKING = Comparator
+            .<Candidate<?>, Match>comparing(Candidate::match)
+            .thenComparing(RANK);
+
+    private final List<Entry<T>> entries;
+    private final String[] names;
+    private final int[] nameOrder;
+    private final RangeMinimum nameMinimum;
+    private final String[] wordKeys;
+    private final int[] wordPositions;
+    private final RangeMinimum wordMinimum;
+    private final Map<Long, int[]> trigrams;
+    private final List<Entry<T>> overlay;
+    private final Set<String> removed;
+
+    private AutocompleteIndex(List<Entry<T>> unordered) {
+        List<Candidate<T>> ranked = new ArrayList<>(unordered.size());
+        for (Entry<T> entry : unordered) {
+            ranked.add(new Candidate<>(entry, Match.NAME_PREFIX, normalize(entry.name())));
+        }
+        ranked.sort(RANK);
+
+        List<Entry<T>> ordered = new ArrayList<>(ranked.size());
+        this.names = new String[ranked.size()];
+        for (int i = 0; i < names.length; i++) {
+            ordered.add(ranked.get(i).entry());
+            names[i] = ranked.get(i).name();
+        }
+        this.entries = List.copyOf(ordered);
+        this.overlay = List.of();
+        this.removed = Set.of();
+
+        this.nameOrder = sortedPositions(names);
+        this.nameMinimum = new RangeMinimum(nameOrder);
+
+        List<WordKey> words = new ArrayList<>();
+        Map<Long, Postings> postings = new HashMap<>();
+        for (int position = 0; position < names.length; position++) {
+            String name = names[position];
+            for (int start = 0; start < name.length(); start++) {
+                if (start > 0 && name.charAt(start - 1) == ' ') {
+                    words.add(new WordKey(name.substring(start), position));
+                }
+                if (start + 3 <= name.length()) {
+                    postings.computeIfAbsent(trigram(name, start), t -> new Postings()).add(position);
+                }
+            }
+        }
+        words.sort(Comparator.comparing(WordKey::key));
+        this.wordKeys = new String[words.size()];
+        this.wordPositions = new int[words.size()];
+        for (int i = 0; i < wordKeys.length; i++) {
+            wordKeys[i] = words.get(i).key();
+            wordPositions[i] = words.get(i).position();
+        }
+        this.wordMinimum = new RangeMinimum(wordPositions);
+
+        this.trigrams = new HashMap<>(postings.size() * 2);
+        postings.forEach((trigram, list) -> trigrams.put(trigram, list.toArray()));
+    }
+
+    private AutocompleteIndex(AutocompleteIndex<T> base, List<Entry<T>> overlay, Set<String> removed) {
+        this.entries = base.entries;
+        this.names = base.names;
+        this.nameOrder = base.nameOrder;
+        this.nameMinimum = base.nameMinimum;
+        this.wordKeys = base.wordKeys;
+        this.wordPositions = base.wordPositions;
+        this.wordMinimum = base.wordMinimum;
+        this.trigrams = base.trigrams;
+        this.overlay = overlay;
+        this.removed = removed;
+    }
+
+    public static <T> AutocompleteIndex<T> of(List<Entry<T>> entries) {
+        return new AutocompleteIndex<>(entries);
+    }
+
+    /**
+     * @return This index with the entry added, or replacing the entry with the same id
+     */
+    public AutocompleteIndex<T> with(Entry<T> entry) {
+        List<Entry<T>> nextOverlay = new ArrayList<>(overlay.size() + 1);
+        for (Entry<T> existing : overlay) {
+            if (!existing.id().equals(entry.id())) {
+                nextOverlay.add(existing);
+            }
+        }
+        nextOverlay.add(entry);
+        Set<String> nextRemoved = new HashSet<>(removed);
+        nextRemoved.add(entry.id());
+        return next(nextOverlay, nextRemoved);
+    }
+
+    public AutocompleteIndex<T> without(String id) {
+        List<Entry<T>> nextOverlay = overlay.stream().filter(entry -> !entry.id().equals(id)).toList();
+        Set<String> nextRemoved = new HashSet<>(removed);
+        nextRemoved.add(id);
+        return next(nextOverlay, nextRemoved);
+    }
+
+    /**
+     * @return Up to {@code limit} values, whole-name prefixes first, then word prefixes, then infixes
+     */
+    public List<T> search(String query, int limit) {
+        String needle = normalize(query);
+        if (needle.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        // Best base matches in (kind, rank) order; overlay entries are merged in afterwards
+        Map<Integer, Match> matches = new LinkedHashMap<>();
+        int from = lowerBound(needle, true);
+        collectPrefix(from, lowerBound(needle + Character.MAX_VALUE, true), nameOrder, nameMinimum,
+                Match.NAME_PREFIX, matches, limit);
+        from = lowerBound(needle, false);
+        collectPrefix(from, lowerBound(needle + Character.MAX_VALUE, false), wordPositions, wordMinimum,
+                Match.WORD_PREFIX, matches, limit);
+        if (needle.length() >= 3) {
+            collectInfix(needle, matches, limit);
+        }
+
+        List<Candidate<T>> candidates = new ArrayList<>(matches.size() + overlay.size());
+        matches.forEach((position, match) -> candidates.add(new Candidate<>(entries.get(position), match, names[position])));
+        for (Entry<T> entry : overlay) {
+            String name = normalize(entry.name());
+            Match match = classify(name, needle);
+            if (match != null) {
+                candidates.add(new Candidate<>(entry, match, name));
+            }
+        }
+        candidates.sort(RANKING);
+        return candidates.stream().limit(limit).map(candidate -> candidate.entry().value()).toList();
+    }
+
+    /**
+     * Adds the best positions of a key range by repeatedly taking the minimum and splitting the range around it.
+     */
+    private void collectPrefix(int from, int to, int[] positions, RangeMinimum minimum,
+                               Match match, Map<Integer, Match> matches, int limit) {
+        if (from >= to || matches.size() >= limit) {
+            return;
+        }
+        PriorityQueue<int[]> ranges = new PriorityQueue<>(Comparator.comparingInt(range -> positions[range[2]]));
+        ranges.add(new int[]{from, to, minimum.argmin(from, to)});
+        while (!ranges.isEmpty() && matches.size() < limit) {
+            int[] range = ranges.poll();
+            int index = range[2];
+            int position = positions[index];
+            if (!removed.contains(entries.get(position).id())) {
+                matches.putIfAbsent(position, match);
+            }
+            if (range[0] < index) {
+                ranges.add(new int[]{range[0], index, minimum.argmin(range[0], index)});
+            }
+            if (index + 1 < range[1]) {
+                ranges.add(new int[]{index + 1, range[1], minimum.argmin(index + 1, range[1])});
+            }
+        }
+    }
+
+    /**
+     * Walks the shortest posting list of the needle's trigrams; postings are in rank order.
+     */
+    private void collectInfix(String needle, Map<Integer, Match> matches, int limit) {
+        int[] shortest = null;
+        for (int start = 0; start + 3 <= needle.length(); start++) {
+            int[] list = trigrams.get(trigram(needle, start));
+            if (list == null) {
+                return;
+            }
+            if (shortest == null || list.length < shortest.length) {
+                shortest = list;
+            }
+        }
+        for (int i = 0; i < shortest.length && matches.size() < limit; i++) {
+            int position = shortest[i];
+            if (!matches.containsKey(position) && names[position].contains(needle)
+                    && !removed.contains(entries.get(position).id())) {
+                matches.put(position, Match.INFIX);
+            }
+        }
+    }
+
+    private AutocompleteIndex<T> next(List<Entry<T>> nextOverlay, Set<String> nextRemoved) {
+        if (nextOverlay.size() <= MAX_OVERLAY && nextRemoved.size() <= MAX_OVERLAY) {
+            return new AutocompleteIndex<>(this, List.copyOf(nextOverlay), Set.copyOf(nextRemoved));
+        }
+        List<Entry<T>> live = new ArrayList<>(entries.size() + nextOverlay.size());
+        for (Entry<T> entry : entries) {
+            if (!nextRemoved.contains(entry.id())) {
+                live.add(entry);
+            }
+        }
+        live.addAll(nextOverlay);
+        return new AutocompleteIndex<>(live);
+    }
+
+    /**
+     * @param byName Search whole names in {@link #nameOrder}, otherwise the word keys
+     */
+    private int lowerBound(String needle, boolean byName) {
+        int low = 0;
+        int high = byName ? nameOrder.length : wordKeys.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            String key = byName ? names[nameOrder[mid]] : wordKeys[mid];
+            if (key.compareTo(needle) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static int[] sortedPositions(String[] names) {
+        Integer[] order = new Integer[names.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.comparing(position -> names[position]));
+        int[] positions = new int[order.length];
+        for (int i = 0; i < order.length; i++) {
+            positions[i] = order[i];
+        }
+        return positions;
+    }
+
+    private static Match classify(String name, String needle) {
+        if (name.startsWith(needle)) {
+            return Match.NAME_PREFIX;
+        }
+        if (name.contains(" " + needle)) {
+            return Match.WORD_PREFIX;
+        }
+        return needle.length() >= 3 && name.contains(needle) ? Match.INFIX : null;
+    }
+
+    private static long trigram(String value, int start) {
+        return ((long) value.charAt(start) << 32) | ((long) value.charAt(start + 1) << 16) | value.charAt(start + 2);
+    }
+
+    /**
+     * @return The form names and queries are compared in: trimmed, single-spaced and lower case
+     */
+    public static String normalize(String value) {
+        return value == null ? "" : WHITESPACE.matcher(value.trim()).replaceAll(" ").toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Segment tree returning the index of the smallest value in a range.
+     */
+    private static final class RangeMinimum {
+        private final int[] values;
+        private final int[] tree;
+        private final int size;
+
+        RangeMinimum(int[] values) {
+            this.values = values;
+            this.size = Math.max(1, values.length);
+            this.tree = new int[2 * size];
+            for (int i = 0; i < values.length; i++) {
+                tree[size + i] = i;
+            }
+            for (int i = size - 1; i > 0; i--) {
+                tree[i] = smaller(tree[2 * i], tree[2 * i + 1]);
+            }
+        }
+
+        /**
+         * @return Index of the minimum in {@code [from, to)}, which must not be empty
+         */
+        int argmin(int from, int to) {
+            int best = from;
+            for (int low = from + size, high = to + size; low < high; low >>= 1, high >>= 1) {
+                if ((low & 1) == 1) {
+                    best = smaller(best, tree[low++]);
+                }
+                if ((high & 1) == 1) {
+                    best = smaller(best, tree[--high]);
+                }
+            }
+            return best;
+        }
+
+        private int smaller(int a, int b) {
+            return values[b] < values[a] ? b : a;
+        }
+    }
+
+    /**
+     * Growable sorted list of entry positions; entries are added in ascending order.
+     */
+    private static final class Postings {
+        private int[] positions = new int[4];
+        private int size;
+
+        void add(int position) {
+            if (size > 0 && positions[size - 1] == position) {
+                return;
+            }
+            if (size == positions.length) {
+                positions = Arrays.copyOf(positions, size * 2);
+            }
+            positions[size++] = position;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(positions, size);
+        }
+    }
+}
@@ -0,0 +1,235 @@
+package com.pathprep.util;
+
+import com.pathprep.model.Role;
+import com.pathprep.model.Skill;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Immutable copy of the role and skill catalogs with lookups by id and name.
+ *
+ * <p>The version is a digest of the content, so every instance serving the same catalog
+ * reports the same version and it can be used as an ETag. Updates return a new snapshot;
+ * the entities themselves are shared and must not be modified.</p>
+ *
+ * <p>Names are searchable through {@link AutocompleteIndex}es that updates extend rather than
+ * rebuild. Skills rank core skills first, then by popularity, which is not part of the version.</p>
+ */
+public final class CatalogSnapshot {
+
+    public static final CatalogSnapshot EMPTY = new CatalogSnapshot(List.of(), List.of());
+
+    private final List<Role> roles;
+    private final List<Skill> skills;
+    private final Map<String, Role> rolesById;
+    private final Map<String, Role> rolesByName;
+    private final Map<String, Skill> skillsById;
+    private final Map<String, Skill> skillsByName;
+    private final Map<String, Long> skillPopularity;
+    private final AutocompleteIndex<Role> roleIndex;
+    private final AutocompleteIndex<Skill> skillIndex;
+    private final String version;
+    private final LocalDateTime lastModified;
+
+    public CatalogSnapshot(Collection<Role> roles, Collection<Skill> skills) {
+        this(roles, skills, Map.of());
+    }
+
+    /**
+     * @param skillPopularity Popularity by lower-cased skill name
+     */
+    public CatalogSnapshot(Collection<Role> roles, Collection<Skill> skills, Map<String, Long> skillPopularity) {
+        this(List.copyOf(roles), List.copyOf(skills), Map.copyOf(skillPopularity), null, null);
+    }
+
+    private CatalogSnapshot(List<Role> roles, List<Skill> skills, Map<String, Long> skillPopularity,
+                            AutocompleteIndex<Role> roleIndex, AutocompleteIndex<Skill> skillIndex) {
+        this.roles = List.copyOf(roles);
+        this.skills = List.copyOf(skills);
+        this.skillPopularity = skillPopularity;
+        this.roleIndex = roleIndex != null ? roleIndex
+                : AutocompleteIndex.of(this.roles.stream().filter(CatalogSnapshot::indexable).map(this::entry).toList());
+        this.skillIndex = skillIndex != null ? skillIndex
+                : AutocompleteIndex.of(this.skills.stream().filter(CatalogSnapshot::indexable).map(this::entry).toList());
+        this.rolesById = index(this.roles, Role::getId);
+        this.rolesByName = index(this.roles, Role::getName);
+        this.skillsById = index(this.skills, Skill::getId);
+        this.skillsByName = index(this.skills, Skill::getName);
+        this.version = digest(this.roles, this.skills);
+        this.lastModified = latest(this.roles, this.skills);
+    }
+
+    public List<Role> getRoles() {
+        return roles;
+    }
+
+    public List<Skill> getSkills() {
+        return skills;
+    }
+
+    public Role findRoleById(String id) {
+        return id == null ? null : rolesById.get(id);
+    }
+
+    public Role findRoleByName(String name) {
+        return name == null ? null : rolesByName.get(name);
+    }
+
+    public Skill findSkillById(String id) {
+        return id == null ? null : skillsById.get(id);
+    }
+
+    public Skill findSkillByName(String name) {
+        return name == null ? null : skillsByName.get(name);
+    }
+
+    /**
+     * @return Up to {@code limit} roles whose name starts with or contains the query, best matches first
+     */
+    public List<Role> searchRoles(String query, int limit) {
+        return roleIndex.search(query, limit);
+    }
+
+    /**
+     * @return Up to {@code limit} skills whose name starts with or contains the query, best matches first
+     */
+    public List<Skill> searchSkills(String query, int limit) {
+        return skillIndex.search(query, limit);
+    }
+
+    public String getVersion() {
+        return version;
+    }
+
+    public LocalDateTime getLastModified() {
+        return lastModified;
+    }
+
+    /**
+     * @return This snapshot with the role added, or replacing the role with the same id
+     */
+    public CatalogSnapshot withRole(Role role) {
+        return new CatalogSnapshot(replace(roles, role, Role::getId), skills, skillPopularity,
+                indexable(role) ? roleIndex.with(entry(role)) : roleIndex, skillIndex);
+    }
+
+    public CatalogSnapshot withoutRole(String id) {
+        return new CatalogSnapshot(roles.stream().filter(role -> !Objects.equals(role.getId(), id)).toList(), skills,
+                skillPopularity, id == null ? roleIndex : roleIndex.without(id), skillIndex);
+    }
+
+    /**
+     * @return This snapshot with the skill added, or replacing the skill with the same id
+     */
+    public CatalogSnapshot withSkill(Skill skill) {
+        return new CatalogSnapshot(roles, replace(skills, skill, Skill::getId), skillPopularity,
+                roleIndex, indexable(skill) ? skillIndex.with(entry(skill)) : skillIndex);
+    }
+
+    public CatalogSnapshot withoutSkill(String id) {
+        return new CatalogSnapshot(roles, skills.stream().filter(skill -> !Objects.equals(skill.getId(), id)).toList(),
+                skillPopularity, roleIndex, id == null ? skillIndex : skillIndex.without(id));
+    }
+
+    private AutocompleteIndex.Entry<Role> entry(Role role) {
+        return new AutocompleteIndex.Entry<>(role.getId(), role.getName(), false, 0, role);
+    }
+
+    private AutocompleteIndex.Entry<Skill> entry(Skill skill) {
+        long popularity = skillPopularity.getOrDefault(AutocompleteIndex.normalize(skill.getName()), 0L);
+        return new AutocompleteIndex.Entry<>(skill.getId(), skill.getName(), Boolean.TRUE.equals(skill.getCore()),
+                popularity, skill);
+    }
+
+    private static boolean indexable(Role role) {
+        return role.getId() != null && role.getName() != null;
+    }
+
+    private static boolean indexable(Skill skill) {
+        return skill.getId() != null && skill.getName() != null;
+    }
+
+    private static <T> List<T> replace(List<T> items, T item, Function<T, String> id) {
+        List<T> updated = new ArrayList<>(items.size() + 1);
+        boolean replaced = false;
+        for (T existing : items) {
+            if (Objects.equals(id.apply(existing), id.apply(item))) {
+                updated.add(item);
+                replaced = true;
+            } else {
+                updated.add(existing);
+            }
+        }
+        if (!replaced) {
+            updated.add(item);
+        }
+        return updated;
+    }
+
+    /**
+     * First entry wins, matching the repository lookups that return the first match.
+     */
+    private static <T> Map<String, T> index(List<T> items, Function<T, String> key) {
+        Map<String, T> index = new LinkedHashMap<>();
+        for (T item : items) {
+            String value = key.apply(item);
+            if (value != null) {
+                index.putIfAbsent(value, item);
+            }
+        }
+        return Map.copyOf(index);
+    }
+
+    private static String digest(List<Role> roles, List<Skill> skills) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        for (Role role : roles) {
+            update(digest, "role", role.getId(), role.getName(), role.getDescription(), role.getUpdatedAt());
+        }
+        for (Skill skill : skills) {
+            update(digest, "skill", skill.getId(), skill.getName(), skill.getCategory(), skill.getProficiency(),
+                    skill.getCore(), skill.getUpdatedAt());
+        }
+        return HexFormat.of().formatHex(digest.digest(), 0, 12);
+    }
+
+    private static void update(MessageDigest digest, Object... values) {
+        for (Object value : values) {
+            digest.update(String.valueOf(value).getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+        }
+    }
+
+    private static LocalDateTime latest(List<Role> roles, List<Skill> skills) {
+        LocalDateTime latest = null;
+        for (Role role : roles) {
+            latest = later(latest, role.getUpdatedAt());
+        }
+        for (Skill skill : skills) {
+            latest = later(latest, skill.getUpdatedAt());
+        }
+        return latest;
+    }
+
+    private static LocalDateTime later(LocalDateTime a, LocalDateTime b) {
+        if (a == null) {
+            return b;
+        }
+        return b == null || a.isAfter(b) ? a : b;
+    }
+}
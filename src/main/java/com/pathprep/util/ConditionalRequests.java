@@ -0,0 +1,77 @@
+package com.pathprep.util;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * Helpers for ETag / Last-Modified validators and {@code If-None-Match} handling.
+ * Clients must revalidate ({@code Cache-Control: no-cache}) since content can be regenerated at any time.
+ */
+public final class ConditionalRequests {
+
+    private ConditionalRequests() {
+    }
+
+    /**
+     * @return The strong ETag for a content version, or null if there is no version
+     */
+    public static String etag(String version) {
+        return version == null ? null : "\"" + version + "\"";
+    }
+
+    /**
+     * Weak comparison as required for {@code If-None-Match}: a list of tags or {@code *}.
+     */
+    public static boolean matches(String ifNoneMatch, String version) {
+        if (ifNoneMatch == null || version == null) {
+            return false;
+        }
+        String etag = etag(version);
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*")) {
+                return true;
+            }
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public static <T> ResponseEntity<T> notModified(String version, LocalDateTime lastModified) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .headers(validators(version, lastModified))
+                .build();
+    }
+
+    /**
+     * Copies a response and adds the validators of its content.
+     */
+    public static <T> ResponseEntity<T> withValidators(ResponseEntity<T> response, String version, LocalDateTime lastModified) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.putAll(response.getHeaders());
+        headers.putAll(validators(version, lastModified));
+        return new ResponseEntity<>(response.getBody(), headers, response.getStatusCode());
+    }
+
+    public static HttpHeaders validators(String version, LocalDateTime lastModified) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setCacheControl(CacheControl.noCache());
+        if (version != null) {
+            headers.setETag(etag(version));
+        }
+        if (lastModified != null) {
+            headers.setLastModified(lastModified.atZone(ZoneId.systemDefault()).toInstant());
+        }
+        return headers;
+    }
+}
@@ -0,0 +1,125 @@
+package com.pathprep.util;
+
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import reactor.core.publisher.Mono;
+import reactor.util.context.ContextView;
+
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+
+/**
+ * The point in time by which the client wants an answer to the current request.
+ *
+ * <p>Bound to the servlet request when it arrives and carried in the Reactor context of the
+ * generating pipelines, so every database query, LLM call and retry can bound itself by the
+ * time left instead of a fixed timeout of its own. Operations that cannot succeed in the time
+ * left fail right away with a {@link TimeoutException}, which callers already degrade on.</p>
+ */
+public final class Deadline {
+
+    /**
+     * Request attribute holding the deadline of the current request.
+     */
+    public static final String ATTRIBUTE = Deadline.class.getName();
+
+    /**
+     * Reactor context key holding the deadline of the request a pipeline serves.
+     */
+    public static final String CONTEXT_KEY = Deadline.class.getName();
+
+    /**
+     * Less time than this left and a database query is not worth starting.
+     */
+    public static final Duration MIN_DB_BUDGET = Duration.ofMillis(50);
+
+    /**
+     * Less time than this left and an LLM completion is not worth starting.
+     */
+    public static final Duration MIN_LLM_BUDGET = Duration.ofSeconds(3);
+
+    private final long expiresAtNanos;
+
+    private Deadline(long expiresAtNanos) {
+        this.expiresAtNanos = expiresAtNanos;
+    }
+
+    public static Deadline after(Duration timeout) {
+        return new Deadline(System.nanoTime() + timeout.toNanos());
+    }
+
+    /**
+     * @return The deadline of the request bound to the current thread, or null when there is none
+     */
+    public static Deadline current() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        return attributes != null
+                ? (Deadline) attributes.getAttribute(ATTRIBUTE, RequestAttributes.SCOPE_REQUEST)
+                : null;
+    }
+
+    /**
+     * @return The deadline carried by {@code context}, or null when there is none
+     */
+    public static Deadline of(ContextView context) {
+        return context.getOrDefault(CONTEXT_KEY, null);
+    }
+
+    /**
+     * @return The time left, zero once the deadline has passed
+     */
+    public Duration remaining() {
+        return Duration.ofNanos(Math.max(0, expiresAtNanos - System.nanoTime()));
+    }
+
+    public boolean hasAtLeast(Duration budget) {
+        return expiresAtNanos - System.nanoTime() >= budget.toNanos();
+    }
+
+    /**
+     * Fails without subscribing when less than {@code minimum} is left, like
+     * {@link #within(Duration, Duration)} but without timing out. For operations that wait
+     * before the part worth bounding starts.
+     */
+    public static <T> Function<Mono<T>, Mono<T>> requireAtLeast(Duration minimum) {
+        Deadline assembledOn = current();
+        return mono -> Mono.deferContextual(context -> {
+            Deadline deadline = context.getOrDefault(CONTEXT_KEY, assembledOn);
+            if (deadline != null && !deadline.hasAtLeast(minimum)) {
+                return Mono.error(new TimeoutException("Request deadline leaves too little time, skipped"));
+            }
+            return mono;
+        });
+    }
+
+    /**
+     * Same as {@link #within(Duration, Duration)} without a minimum budget.
+     */
+    public static <T> Function<Mono<T>, Mono<T>> within(Duration cap) {
+        return within(cap, Duration.ZERO);
+    }
+
+    /**
+     * Times out after {@code cap} or when the deadline passes, whichever comes first, and fails
+     * without subscribing when less than {@code minimum} is left. The deadline is taken from the
+     * Reactor context, or else from the request the pipeline is assembled on; without either
+     * this is a plain timeout of {@code cap}.
+     *
+     * @param cap The longest the operation may take regardless of the deadline; null for no cap
+     */
+    public static <T> Function<Mono<T>, Mono<T>> within(Duration cap, Duration minimum) {
+        Deadline assembledOn = current();
+        return mono -> Mono.deferContextual(context -> {
+            Deadline deadline = context.getOrDefault(CONTEXT_KEY, assembledOn);
+            if (deadline == null) {
+                return cap != null ? mono.timeout(cap) : mono;
+            }
+            Duration remaining = deadline.remaining();
+            if (remaining.isZero() || remaining.compareTo(minimum) < 0) {
+                return Mono.error(new TimeoutException("Request deadline leaves too little time, skipped"));
+            }
+            return mono.timeout(cap == null || remaining.compareTo(cap) < 0 ? remaining : cap);
+        });
+    }
+}
@@ -0,0 +1,190 @@
+package com.pathprep.util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Sparse fieldset from a {@code fields} query parameter, e.g. {@code role,estimatedWeeks,phases.phaseName}.
+ *
+ * <p>The same selection drives the MongoDB projection, so unselected fields are never read, and
+ * the serialization, so they are never sent. Field names are the JSON names, which match the
+ * document field names except for {@code id}.</p>
+ */
+public final class FieldSelection {
+
+    /**
+     * Every field; nothing is projected or pruned.
+     */
+    public static final FieldSelection ALL = new FieldSelection(null);
+
+    private static final String WILDCARD = "*";
+
+    /**
+     * Same settings as the MVC JSON converter, so selected fields serialize as they would unfiltered.
+     */
+    private static final ObjectMapper OBJECT_MAPPER = Jackson2ObjectMapperBuilder.json().build();
+
+    private final Set<String> paths;
+
+    private FieldSelection(Set<String> paths) {
+        this.paths = paths;
+    }
+
+    public static FieldSelection of(String... paths) {
+        return new FieldSelection(normalize(List.of(paths)));
+    }
+
+    /**
+     * @param fields Comma separated paths, {@code *} for all fields, or blank for the defaults
+     * @param allowedRoots Top-level fields that may be selected
+     * @param defaults Selection used when no fields are given
+     * @throws IllegalArgumentException If a path starts with a field that is not allowed
+     */
+    public static FieldSelection parse(String fields, Set<String> allowedRoots, FieldSelection defaults) {
+        if (fields == null || fields.isBlank()) {
+            return defaults;
+        }
+        List<String> requested = new ArrayList<>();
+        for (String field : fields.split(",")) {
+            String path = field.trim();
+            if (path.isEmpty()) {
+                continue;
+            }
+            if (path.equals(WILDCARD)) {
+                return ALL;
+            }
+            if (!allowedRoots.contains(root(path))) {
+                throw new IllegalArgumentException("Unknown field: " + path);
+            }
+            requested.add(path);
+        }
+        return requested.isEmpty() ? defaults : new FieldSelection(normalize(requested));
+    }
+
+    public boolean isAll() {
+        return paths == null;
+    }
+
+    /**
+     * @return true if the field itself, or any part of it, is selected
+     */
+    public boolean includes(String field) {
+        if (paths == null) {
+            return true;
+        }
+        for (String path : paths) {
+            if (path.equals(field) || path.startsWith(field + ".") || field.startsWith(path + ".")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return This selection plus the given paths
+     */
+    public FieldSelection with(String... extra) {
+        if (paths == null) {
+            return this;
+        }
+        List<String> merged = new ArrayList<>(paths);
+        merged.addAll(List.of(extra));
+        return new FieldSelection(normalize(merged));
+    }
+
+    /**
+     * Adds the selection as an inclusion projection. Fields in {@code whole} are projected
+     * entirely when any part of them is selected, for references that are resolved afterwards.
+     *
+     * @param required Fields read regardless of the selection, such as sort keys
+     */
+    public void applyTo(Query query, Collection<String> required, Collection<String> whole) {
+        if (paths == null) {
+            return;
+        }
+        Set<String> projected = new LinkedHashSet<>(required);
+        for (String path : paths) {
+            String root = root(path);
+            projected.add(whole.contains(root) ? root : path);
+        }
+        projected.remove("id");
+        normalize(projected).forEach(path -> query.fields().include(path));
+    }
+
+    /**
+     * @return The value serialized as JSON with only the selected fields
+     */
+    public JsonNode apply(Object value) {
+        JsonNode node = OBJECT_MAPPER.valueToTree(value);
+        if (paths != null) {
+            prune(node, paths);
+        }
+        return node;
+    }
+
+    private static void prune(JsonNode node, Set<String> selected) {
+        if (node instanceof ArrayNode array) {
+            array.forEach(element -> prune(element, selected));
+            return;
+        }
+        if (!(node instanceof ObjectNode object)) {
+            return;
+        }
+        Iterator<Map.Entry<String, JsonNode>> fields = object.fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            String name = field.getKey();
+            if (selected.contains(name)) {
+                continue;
+            }
+            Set<String> nested = new LinkedHashSet<>();
+            for (String path : selected) {
+                if (path.startsWith(name + ".")) {
+                    nested.add(path.substring(name.length() + 1));
+                }
+            }
+            if (nested.isEmpty()) {
+                fields.remove();
+            } else {
+                prune(field.getValue(), nested);
+            }
+        }
+    }
+
+    private static String root(String path) {
+        int dot = path.indexOf('.');
+        return dot < 0 ? path : path.substring(0, dot);
+    }
+
+    /**
+     * Drops paths covered by a selected parent; MongoDB rejects projections of both.
+     */
+    private static Set<String> normalize(Collection<String> requested) {
+        Set<String> normalized = new LinkedHashSet<>();
+        for (String path : requested) {
+            boolean covered = false;
+            for (String other : requested) {
+                if (!other.equals(path) && path.startsWith(other + ".")) {
+                    covered = true;
+                    break;
+                }
+            }
+            if (!covered) {
+                normalized.add(path);
+            }
+        }
+        return normalized;
+    }
+}
@@ -0,0 +1,119 @@
+package com.pathprep.util;
+
+import org.springframework.data.mongodb.core.query.Criteria;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Base64;
+import java.util.Date;
+
+/**
+ * Opaque search-after cursor: the sort value and {@code _id} of the last document of a page.
+ *
+ * <p>Pages are read with a range predicate on (sort value, {@code _id}) instead of a skip,
+ * so with a matching index every page costs the same regardless of its position.</p>
+ *
+ * @param value Sort value of the last document, or null when pages are ordered by {@code _id} only
+ * @param id {@code _id} of the last document
+ */
+public record KeysetCursor(String value, String id) {
+
+    private static final char SEPARATOR = '\n';
+
+    /**
+     * @return The token for a cursor positioned after the given document, or null if there is no id
+     */
+    public static String encode(Object value, String id) {
+        if (id == null) {
+            return null;
+        }
+        String raw = (value == null ? "" : String.valueOf(value)) + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @return The cursor, or null for a blank token (first page)
+     * @throws IllegalArgumentException If the token was not produced by {@link #encode}
+     */
+    public static KeysetCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        String raw;
+        try {
+            raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        int separator = raw.indexOf(SEPARATOR);
+        if (separator < 0 || separator == raw.length() - 1) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        String value = raw.substring(0, separator);
+        return new KeysetCursor(value.isEmpty() ? null : value, raw.substring(separator + 1));
+    }
+
+    /**
+     * @return The sort value as a number
+     * @throws IllegalArgumentException If the cursor does not hold a numeric sort value
+     */
+    public long longValue() {
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    /**
+     * @return The sort value as a date, for cursors built with {@link #epochMillis}, or null if unset
+     */
+    public Date dateValue() {
+        return value == null ? null : new Date(longValue());
+    }
+
+    /**
+     * @return The sort value as a floating point number, or null if unset
+     */
+    public Double doubleValue() {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Double.valueOf(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    /**
+     * Cursor value for a date field. Uses the system zone, like Spring Data's {@code LocalDateTime} conversion.
+     */
+    public static Long epochMillis(LocalDateTime dateTime) {
+        return dateTime == null ? null : dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    /**
+     * Documents after this cursor in {@code (field desc, _id desc)} order. Documents without
+     * the field sort last, as MongoDB orders missing values below any number or date.
+     *
+     * @param fieldValue Sort value of the cursor, or null if the last document had none
+     */
+    public Criteria afterDescending(String field, Object fieldValue) {
+        if (fieldValue == null) {
+            return Criteria.where(field).is(null).and("_id").lt(id);
+        }
+        return new Criteria().orOperator(
+                Criteria.where(field).lt(fieldValue),
+                Criteria.where(field).is(fieldValue).and("_id").lt(id),
+                Criteria.where(field).is(null));
+    }
+
+    /**
+     * Documents after this cursor in {@code _id asc} order.
+     */
+    public Criteria afterId() {
+        return Criteria.where("_id").gt(id);
+    }
+}
@@ -0,0 +1,158 @@
+package com.pathprep.util;
+
+import com.pathprep.model.QuestionDifficulty;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Immutable set of question ids with their difficulty and category codes.
+ *
+ * <p>Each facet value has a bitmap over entry positions plus the same positions as a
+ * dense array, so picking k random matches is O(k) once the position array is known.
+ * Positions for a difficulty/category pair are derived on first use from the smaller
+ * of the two facets and the other facet's bitmap, then memoized.</p>
+ *
+ * <p>Updates return a new partition, so readers never see a half-applied change.</p>
+ */
+public final class QuestionBankPartition {
+
+    public static final int ANY_CATEGORY = -1;
+
+    private static final QuestionDifficulty[] DIFFICULTIES = QuestionDifficulty.values();
+
+    public static final QuestionBankPartition EMPTY = new QuestionBankPartition(new String[0], new byte[0], new int[0]);
+
+    private final String[] ids;
+    private final byte[] difficulties;
+    private final int[] categories;
+    private final BitSet[] difficultyBits;
+    private final int[][] difficultyPositions;
+    private final Map<Integer, BitSet> categoryBits = new HashMap<>();
+    private final Map<Integer, int[]> categoryPositions = new HashMap<>();
+    private final Map<Long, int[]> combinedPositions = new ConcurrentHashMap<>();
+    private final int[] allPositions;
+
+    private QuestionBankPartition(String[] ids, byte[] difficulties, int[] categories) {
+        this.ids = ids;
+        this.difficulties = difficulties;
+        this.categories = categories;
+        this.difficultyBits = new BitSet[DIFFICULTIES.length];
+        this.difficultyPositions = new int[DIFFICULTIES.length][];
+        this.allPositions = new int[ids.length];
+
+        for (int d = 0; d < DIFFICULTIES.length; d++) {
+            difficultyBits[d] = new BitSet(ids.length);
+        }
+        for (int i = 0; i < ids.length; i++) {
+            allPositions[i] = i;
+            difficultyBits[difficulties[i]].set(i);
+            categoryBits.computeIfAbsent(categories[i], c -> new BitSet(ids.length)).set(i);
+        }
+        for (int d = 0; d < DIFFICULTIES.length; d++) {
+            difficultyPositions[d] = difficultyBits[d].stream().toArray();
+        }
+        categoryBits.forEach((category, bits) -> categoryPositions.put(category, bits.stream().toArray()));
+    }
+
+    public record Entry(String id, QuestionDifficulty difficulty, int category) {
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    /**
+     * @return A partition with the given entries added or replaced (matched by id) and the
+     * given ids removed
+     */
+    public QuestionBankPartition with(Collection<Entry> upserts, Collection<String> removals) {
+        Map<String, Entry> merged = new LinkedHashMap<>(ids.length + upserts.size());
+        for (int i = 0; i < ids.length; i++) {
+            merged.put(ids[i], new Entry(ids[i], DIFFICULTIES[difficulties[i]], categories[i]));
+        }
+        removals.forEach(merged::remove);
+        upserts.forEach(entry -> merged.put(entry.id(), entry));
+
+        int size = merged.size();
+        String[] newIds = new String[size];
+        byte[] newDifficulties = new byte[size];
+        int[] newCategories = new int[size];
+        int i = 0;
+        for (Entry entry : merged.values()) {
+            newIds[i] = entry.id();
+            newDifficulties[i] = (byte) entry.difficulty().ordinal();
+            newCategories[i] = entry.category();
+            i++;
+        }
+        return new QuestionBankPartition(newIds, newDifficulties, newCategories);
+    }
+
+    /**
+     * Picks up to {@code count} distinct ids at random among entries matching the filters.
+     *
+     * @param difficulty Required difficulty, or null for any
+     * @param category Required category code, or {@link #ANY_CATEGORY}
+     */
+    public List<String> sample(QuestionDifficulty difficulty, int category, int count, Random random) {
+        int[] positions = positionsFor(difficulty, category);
+        int n = positions.length;
+        int k = Math.min(count, n);
+        if (k <= 0) {
+            return List.of();
+        }
+
+        // Floyd's algorithm: k distinct picks from n with k random draws
+        Set<Integer> picked = new HashSet<>(k * 2);
+        List<String> sample = new ArrayList<>(k);
+        for (int j = n - k; j < n; j++) {
+            int t = random.nextInt(j + 1);
+            int choice = picked.contains(t) ? j : t;
+            picked.add(choice);
+            sample.add(ids[positions[choice]]);
+        }
+        // Floyd's picks are uniform as a set but not in order
+        for (int i = sample.size() - 1; i > 0; i--) {
+            int swap = random.nextInt(i + 1);
+            String tmp = sample.get(i);
+            sample.set(i, sample.get(swap));
+            sample.set(swap, tmp);
+        }
+        return sample;
+    }
+
+    private int[] positionsFor(QuestionDifficulty difficulty, int category) {
+        if (difficulty == null && category == ANY_CATEGORY) {
+            return allPositions;
+        }
+        if (category == ANY_CATEGORY) {
+            return difficultyPositions[difficulty.ordinal()];
+        }
+        int[] byCategory = categoryPositions.get(category);
+        if (byCategory == null) {
+            return new int[0];
+        }
+        if (difficulty == null) {
+            return byCategory;
+        }
+
+        long key = ((long) difficulty.ordinal() << 32) | (category & 0xffffffffL);
+        return combinedPositions.computeIfAbsent(key, k -> {
+            int[] byDifficulty = difficultyPositions[difficulty.ordinal()];
+            boolean scanDifficulty = byDifficulty.length <= byCategory.length;
+            int[] scan = scanDifficulty ? byDifficulty : byCategory;
+            BitSet other = scanDifficulty ? categoryBits.get(category) : difficultyBits[difficulty.ordinal()];
+            return Arrays.stream(scan).filter(other::get).toArray();
+        });
+    }
+}
@@ -0,0 +1,50 @@
+package com.pathprep.util;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.Normalizer;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Computes a stable fingerprint for interview question text so that the same
+ * question generated twice maps to the same key regardless of case,
+ * punctuation or whitespace.
+ */
+public final class QuestionFingerprint {
+
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}@#+]+");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private QuestionFingerprint() {
+    }
+
+    /**
+     * Normalizes question text: Unicode NFKC, lower case, punctuation removed
+     * (except characters that carry meaning in tech terms such as @, # and +)
+     * and whitespace collapsed.
+     */
+    public static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String normalized = Normalizer.normalize(text, Normalizer.Form.NFKC).toLowerCase(Locale.ROOT);
+        normalized = NON_WORD.matcher(normalized).replaceAll(" ");
+        return WHITESPACE.matcher(normalized).replaceAll(" ").trim();
+    }
+
+    /**
+     * @return The hex-encoded SHA-256 of the normalized text, truncated to 128 bits
+     */
+    public static String of(String text) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] hash = digest.digest(normalize(text).getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash, 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.pathprep.util;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Masks personal data and credentials in free text before it is stored outside the request.
+ */
+public final class Redaction {
+
+    private static final Pattern BEARER = Pattern.compile("(?i)\\bBearer\\s+[A-Za-z0-9._~+/-]+=*");
+    private static final Pattern API_KEY = Pattern.compile("\\b(?:gsk|sk|pk|rk)[-_][A-Za-z0-9_-]{16,}");
+    private static final Pattern EMAIL = Pattern.compile("[A-Za-z0-9._%+-]+@[A-Za-z0-9.-]+\\.[A-Za-z]{2,}");
+    private static final Pattern PHONE = Pattern.compile("(?<![\\w.])\\+?\\d[\\d ().-]{8,}\\d(?![\\w.])");
+    private static final int MIN_PHONE_DIGITS = 10;
+
+    private Redaction() {
+    }
+
+    /**
+     * @return {@code text} with bearer tokens and API keys replaced by {@code <secret>}, e-mail
+     * addresses by {@code <email>} and the digits of phone-number-like runs by {@code 1}. Keeping
+     * the shape, and no leading zero, means a redacted JSON document still parses the same way.
+     */
+    public static String redact(String text) {
+        if (text == null || text.isEmpty()) {
+            return text;
+        }
+        String redacted = BEARER.matcher(text).replaceAll("Bearer <secret>");
+        redacted = API_KEY.matcher(redacted).replaceAll("<secret>");
+        redacted = EMAIL.matcher(redacted).replaceAll("<email>");
+        // Dates and version numbers match the shape too; phone numbers have more digits
+        return PHONE.matcher(redacted).replaceAll(match -> digits(match.group()) >= MIN_PHONE_DIGITS
+                ? Matcher.quoteReplacement(match.group().replaceAll("\\d", "1"))
+                : Matcher.quoteReplacement(match.group()));
+    }
+
+    private static int digits(String text) {
+        int digits = 0;
+        for (int i = 0; i < text.length(); i++) {
+            if (Character.isDigit(text.charAt(i))) {
+                digits++;
+            }
+        }
+        return digits;
+    }
+}
@@ -0,0 +1,68 @@
+package com.pathprep.util;
+
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Time spent per stage of one request, rendered as a {@code Server-Timing} header value.
+ *
+ * <p>Only created for requests that ask for it; code recording a stage looks the instance up
+ * and does nothing when there is none. Stages recorded more than once, such as two Mongo
+ * queries, add up and report how often they ran.</p>
+ */
+public final class ServerTimings {
+
+    /**
+     * Request attribute holding the instance of the current request.
+     */
+    public static final String ATTRIBUTE = ServerTimings.class.getName();
+
+    private final long startedNanos;
+    private final Map<String, long[]> stages = new LinkedHashMap<>();
+
+    public ServerTimings(long startedNanos) {
+        this.startedNanos = startedNanos;
+    }
+
+    /**
+     * @return The timings of the request bound to the current thread, or null when it did not ask for them
+     */
+    public static ServerTimings current() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        return attributes != null
+                ? (ServerTimings) attributes.getAttribute(ATTRIBUTE, RequestAttributes.SCOPE_REQUEST)
+                : null;
+    }
+
+    /**
+     * @param name Metric name; a token, so no spaces, commas or semicolons
+     */
+    public synchronized void record(String name, long nanos) {
+        long[] stage = stages.computeIfAbsent(name, n -> new long[2]);
+        stage[0] += nanos;
+        stage[1]++;
+    }
+
+    /**
+     * @return The recorded stages followed by {@code total}, the time since the request started
+     */
+    public synchronized String toHeaderValue(long nowNanos) {
+        StringBuilder value = new StringBuilder();
+        stages.forEach((name, stage) -> {
+            value.append(name).append(";dur=").append(millis(stage[0]));
+            if (stage[1] > 1) {
+                value.append(";desc=\"").append(stage[1]).append(" calls\"");
+            }
+            value.append(", ");
+        });
+        return value.append("total;dur=").append(millis(nowNanos - startedNanos)).toString();
+    }
+
+    private static String millis(long nanos) {
+        return String.format(Locale.ROOT, "%.1f", nanos / 1_000_000.0);
+    }
+}
@@ -0,0 +1,87 @@
+package com.pathprep.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Set;
+
+/**
+ * 64-bit SimHash over word unigrams and bigrams of normalized text.
+ * Texts that share most of their words end up with signatures that differ
+ * in only a few bits, so near-duplicates can be found by Hamming distance.
+ * Common function words are ignored so that "What's X?" and "What is X?"
+ * produce the same features.
+ */
+public final class SimHash {
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "an", "the", "is", "are", "was", "were", "be", "s", "do", "does", "did",
+            "what", "how", "why", "when", "which", "who", "can", "you", "your", "we",
+            "of", "in", "on", "to", "for", "and", "or", "with", "between", "it", "its",
+            "this", "that", "explain", "describe");
+
+    private SimHash() {
+    }
+
+    /**
+     * @return The SimHash signature of the text, or 0 for blank text
+     */
+    public static long of(String text) {
+        String normalized = QuestionFingerprint.normalize(text);
+        if (normalized.isEmpty()) {
+            return 0L;
+        }
+
+        String[] tokens = Arrays.stream(normalized.split(" "))
+                .filter(token -> !STOP_WORDS.contains(token))
+                .toArray(String[]::new);
+        if (tokens.length == 0) {
+            tokens = normalized.split(" ");
+        }
+
+        int[] weights = new int[64];
+        for (int i = 0; i < tokens.length; i++) {
+            accumulate(weights, hash64(tokens[i]));
+            if (i + 1 < tokens.length) {
+                accumulate(weights, hash64(tokens[i] + ' ' + tokens[i + 1]));
+            }
+        }
+
+        long signature = 0L;
+        for (int bit = 0; bit < 64; bit++) {
+            if (weights[bit] > 0) {
+                signature |= 1L << bit;
+            }
+        }
+        return signature;
+    }
+
+    /**
+     * @return The number of differing bits between two signatures
+     */
+    public static int distance(long a, long b) {
+        return Long.bitCount(a ^ b);
+    }
+
+    private static void accumulate(int[] weights, long hash) {
+        for (int bit = 0; bit < 64; bit++) {
+            weights[bit] += ((hash >>> bit) & 1L) != 0 ? 1 : -1;
+        }
+    }
+
+    /**
+     * FNV-1a over the UTF-8 bytes followed by a SplitMix64 finalizer to spread the bits.
+     */
+    static long hash64(String feature) {
+        long hash = FNV_OFFSET;
+        for (byte b : feature.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= FNV_PRIME;
+        }
+        hash = (hash ^ (hash >>> 30)) * 0xbf58476d1ce4e5b9L;
+        hash = (hash ^ (hash >>> 27)) * 0x94d049bb133111ebL;
+        return hash ^ (hash >>> 31);
+    }
+}
@@ -0,0 +1,105 @@
+package com.pathprep.util;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Locality-sensitive index over SimHash signatures.
+ *
+ * <p>The 64 bits are split into {@code maxDistance + 1} disjoint bands. Two
+ * signatures within {@code maxDistance} bits of each other must agree on at
+ * least one whole band (pigeonhole), so a lookup only compares against the
+ * signatures sharing a band value instead of the whole partition.</p>
+ *
+ * <p>Instances are thread-safe.</p>
+ */
+public class SimHashIndex {
+
+    private static final int MAX_SUPPORTED_DISTANCE = 15;
+
+    private final int maxDistance;
+    private final int[] bandOffsets;
+    private final int[] bandWidths;
+    private final Map<Long, long[]> buckets = new HashMap<>();
+    private int size;
+
+    public SimHashIndex(int maxDistance) {
+        if (maxDistance < 1 || maxDistance > MAX_SUPPORTED_DISTANCE) {
+            throw new IllegalArgumentException("maxDistance must be between 1 and " + MAX_SUPPORTED_DISTANCE);
+        }
+        this.maxDistance = maxDistance;
+
+        int bands = maxDistance + 1;
+        this.bandOffsets = new int[bands];
+        this.bandWidths = new int[bands];
+        int offset = 0;
+        for (int band = 0; band < bands; band++) {
+            int width = 64 / bands + (band < 64 % bands ? 1 : 0);
+            bandOffsets[band] = offset;
+            bandWidths[band] = width;
+            offset += width;
+        }
+    }
+
+    /**
+     * @return true if a signature within {@code maxDistance} bits is already indexed
+     */
+    public synchronized boolean containsNear(long signature) {
+        for (int band = 0; band < bandOffsets.length; band++) {
+            long[] candidates = buckets.get(bucketKey(band, signature));
+            if (candidates == null) {
+                continue;
+            }
+            for (long candidate : candidates) {
+                if (SimHash.distance(candidate, signature) <= maxDistance) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Adds the signature unless a near-duplicate is already indexed.
+     *
+     * @return true if the signature was added
+     */
+    public synchronized boolean addIfAbsent(long signature) {
+        if (containsNear(signature)) {
+            return false;
+        }
+        for (int band = 0; band < bandOffsets.length; band++) {
+            buckets.merge(bucketKey(band, signature), new long[]{signature}, (existing, added) -> {
+                long[] grown = Arrays.copyOf(existing, existing.length + 1);
+                grown[existing.length] = signature;
+                return grown;
+            });
+        }
+        size++;
+        return true;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Rough heap usage: bucket arrays plus HashMap entry and boxed key overhead.
+     */
+    public synchronized long estimatedBytes() {
+        long bytes = 0;
+        for (long[] bucket : buckets.values()) {
+            bytes += 16 + 8L * bucket.length   // long[] header and payload
+                    + 32                       // HashMap.Node
+                    + 16                       // boxed Long key
+                    + 8;                       // table slot
+        }
+        return bytes;
+    }
+
+    private long bucketKey(int band, long signature) {
+        long value = (signature >>> bandOffsets[band]) & ((1L << bandWidths[band]) - 1);
+        return ((long) band << 32) | value;
+    }
+}
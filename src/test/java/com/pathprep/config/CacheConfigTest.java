@@ -0,0 +1,50 @@
+package com.pathprep.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CacheConfigTest {
+
+    @Test
+    void put_BeyondMaxEntries_ShouldEvictOldestFirst() {
+        CacheConfig.MeteredConcurrentMapCache cache =
+                new CacheConfig.MeteredConcurrentMapCache("renderedRoadmaps", 2, new SimpleMeterRegistry());
+
+        cache.put("a", 1);
+        cache.put("b", 2);
+        cache.put("a", 3);
+        cache.put("c", 4);
+
+        assertNull(cache.get("a"));
+        assertEquals(2, cache.get("b").get());
+        assertEquals(4, cache.get("c").get());
+    }
+
+    @Test
+    void put_AfterEvict_ShouldNotCountTheEvictedEntry() {
+        CacheConfig.MeteredConcurrentMapCache cache =
+                new CacheConfig.MeteredConcurrentMapCache("renderedRoadmaps", 2, new SimpleMeterRegistry());
+
+        cache.put("a", 1);
+        cache.put("b", 2);
+        cache.evict("a");
+        cache.put("c", 3);
+
+        assertEquals(2, cache.get("b").get());
+        assertEquals(3, cache.get("c").get());
+    }
+
+    @Test
+    void put_WithoutMaxEntries_ShouldKeepEverything() {
+        CacheConfig.MeteredConcurrentMapCache cache =
+                new CacheConfig.MeteredConcurrentMapCache("roadmaps", new SimpleMeterRegistry());
+
+        for (int i = 0; i < 100; i++) {
+            cache.put(i, i);
+        }
+
+        assertEquals(100, cache.getNativeCache().size());
+    }
+}
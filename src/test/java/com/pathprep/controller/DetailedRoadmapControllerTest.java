@@ -0,0 +1,74 @@
+package com.pathprep.controller;
+
+import com.pathprep.model.RoadmapRendition;
+import com.pathprep.model.ViewTarget;
+import com.pathprep.service.DetailedRoadmapService;
+import com.pathprep.service.ViewCounterService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class DetailedRoadmapControllerTest {
+
+    private static final String KEY = "backend_mid";
+
+    private DetailedRoadmapService roadmapService;
+    private ViewCounterService viewCounterService;
+    private DetailedRoadmapController controller;
+
+    @BeforeEach
+    void setUp() {
+        roadmapService = mock(DetailedRoadmapService.class);
+        viewCounterService = mock(ViewCounterService.class);
+        controller = new DetailedRoadmapController(roadmapService, viewCounterService);
+        // The stored roadmap has moved on to v3 while the rendition still carries v2
+        when(roadmapService.getRenderedRoadmap(KEY)).thenReturn(Mono.just(RoadmapRendition.builder()
+                .compositeKey(KEY)
+                .roadmapId("r1")
+                .json("{}".getBytes(StandardCharsets.UTF_8))
+                .gzip(new byte[] {1})
+                .contentVersion("v2")
+                .lastModified(LocalDateTime.of(2026, 1, 1, 0, 0))
+                .build()));
+    }
+
+    @Test
+    void getRoadmapByCompositeKey_WithRenditionVersion_ShouldReturnNotModified() {
+        ResponseEntity<Object> response = controller.getRoadmapByCompositeKey(KEY, null, "\"v2\"", null).block();
+
+        assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+        assertEquals("\"v2\"", response.getHeaders().getETag());
+        verify(viewCounterService, never()).recordView(any(), any());
+    }
+
+    @Test
+    void getRoadmapByCompositeKey_WithStaleVersion_ShouldReturnRenditionWithItsETag() {
+        ResponseEntity<Object> response = controller.getRoadmapByCompositeKey(KEY, null, "\"v3\"", null).block();
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("\"v2\"", response.getHeaders().getETag());
+        assertArrayEquals("{}".getBytes(StandardCharsets.UTF_8), (byte[]) response.getBody());
+        verify(viewCounterService).recordView(ViewTarget.DETAILED_ROADMAP, "r1");
+    }
+
+    @Test
+    void getRoadmapByCompositeKey_WithGzip_ShouldMatchOnlyTheGzipTag() {
+        ResponseEntity<Object> plainTag = controller.getRoadmapByCompositeKey(KEY, "gzip", "\"v2\"", null).block();
+        ResponseEntity<Object> gzipTag = controller.getRoadmapByCompositeKey(KEY, "gzip", "\"v2-gzip\"", null).block();
+
+        assertEquals(HttpStatus.OK, plainTag.getStatusCode());
+        assertEquals("\"v2-gzip\"", plainTag.getHeaders().getETag());
+        assertEquals("gzip", plainTag.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(HttpStatus.NOT_MODIFIED, gzipTag.getStatusCode());
+        assertEquals("\"v2-gzip\"", gzipTag.getHeaders().getETag());
+    }
+}
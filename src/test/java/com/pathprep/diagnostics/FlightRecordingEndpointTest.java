@@ -0,0 +1,84 @@
+package com.pathprep.diagnostics;
+
+import com.pathprep.config.FlightRecorderProperties;
+import jdk.jfr.RecordingState;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.Resource;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FlightRecordingEndpointTest {
+
+    private final FlightRecorderProperties properties = new FlightRecorderProperties();
+    private final FlightRecordingEndpoint endpoint = newEndpoint();
+
+    @AfterEach
+    void tearDown() {
+        endpoint.discard();
+    }
+
+    @Test
+    void status_WithoutRecording_ShouldReportNone() throws Exception {
+        assertEquals("NONE", endpoint.status().get("state"));
+        assertNull(endpoint.download(1));
+    }
+
+    @Test
+    void start_WhileRunning_ShouldKeepTheRunningRecording() throws Exception {
+        Map<String, Object> started = endpoint.start(Duration.ofHours(1));
+
+        assertEquals(RecordingState.RUNNING, started.get("state"));
+        assertEquals(properties.getMaxDuration(), started.get("duration"));
+        assertEquals(started.get("id"), endpoint.start(null).get("id"));
+    }
+
+    @Test
+    void start_WithoutDuration_ShouldRecordForTheMaximum() throws Exception {
+        assertEquals(properties.getMaxDuration(), endpoint.start(null).get("duration"));
+    }
+
+    @Test
+    void stop_ShouldKeepRecordingDownloadable() throws Exception {
+        long id = (Long) endpoint.start(Duration.ofSeconds(30)).get("id");
+
+        assertEquals(RecordingState.STOPPED, endpoint.stop().get("state"));
+        Resource dump = endpoint.download(id);
+
+        assertNotNull(dump);
+        assertTrue(dump.contentLength() > 0);
+        assertNull(endpoint.download(id + 1));
+    }
+
+    @Test
+    void start_AfterStop_ShouldReplaceRecordingAndDeleteItsDump() throws Exception {
+        long first = (Long) endpoint.start(null).get("id");
+        endpoint.stop();
+        Resource dump = endpoint.download(first);
+
+        long second = (Long) endpoint.start(null).get("id");
+
+        assertNotEquals(first, second);
+        assertFalse(dump.exists());
+        assertNull(endpoint.download(first));
+    }
+
+    @Test
+    void discard_ShouldForgetRecordingAndDeleteDump() throws Exception {
+        long id = (Long) endpoint.start(null).get("id");
+        Resource dump = endpoint.download(id);
+
+        endpoint.discard();
+
+        assertFalse(dump.exists());
+        assertEquals("NONE", endpoint.status().get("state"));
+    }
+
+    private FlightRecordingEndpoint newEndpoint() {
+        properties.setSettings("default");
+        return new FlightRecordingEndpoint(properties);
+    }
+}
@@ -0,0 +1,245 @@
+package com.pathprep.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pathprep.config.GroqProperties;
+import com.pathprep.config.LlmConcurrencyProperties;
+import com.pathprep.config.LlmJournalProperties;
+import com.pathprep.config.LlmUsageProperties;
+import com.pathprep.service.LlmJournalService;
+import com.pathprep.service.impl.GenerationMetrics;
+import com.pathprep.service.impl.GroqAIServiceImpl;
+import com.pathprep.service.impl.LlmConcurrencyLimits;
+import com.pathprep.service.impl.LlmJournalServiceImpl;
+import com.pathprep.service.impl.LlmUsageServiceImpl;
+import com.pathprep.service.impl.ResiliencePipelines;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.ratelimiter.RateLimiterConfig;
+import io.github.resilience4j.ratelimiter.RateLimiterRegistry;
+import io.github.resilience4j.retry.RetryRegistry;
+import io.github.resilience4j.timelimiter.TimeLimiterConfig;
+import io.github.resilience4j.timelimiter.TimeLimiterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.BufferedReader;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Replays an LLM journal through the real parsing pipeline of {@link GroqAIServiceImpl},
+ * with {@link MockGroqServer#replay} standing in for Groq.
+ *
+ * <p>Each call is parsed into the type it was journaled with, so parser changes can be
+ * benchmarked against real completions and production parse failures reproduced. Calls either
+ * keep their original pacing, scaled by {@code speed}, or run one after another in journal order
+ * when {@code speed} is 0, which makes failures deterministic. Cleaning and deserialization
+ * times come from the pipeline's own {@code pathprep.generation.stage} timers.</p>
+ */
+public final class JournalReplay implements AutoCloseable {
+
+    /**
+     * A journaled call that did not parse.
+     */
+    public record Failure(LlmJournalService.Entry entry, String error) {
+    }
+
+    /**
+     * Times of one pipeline stage over all replayed calls.
+     */
+    public record StageStats(long count, double meanMs, double maxMs) {
+    }
+
+    public record Report(int calls, int parsed, int textOnly, List<Failure> failures, StageStats clean,
+                         StageStats deserialize) {
+
+        public void print(PrintStream out) {
+            out.printf("Replayed %d calls: %d parsed, %d text only, %d failed%n",
+                    calls, parsed, textOnly, failures.size());
+            print(out, "json_clean", clean);
+            print(out, "deserialize", deserialize);
+            Map<String, Integer> byError = new TreeMap<>();
+            failures.forEach(failure -> byError.merge(failure.entry().endpoint() + ": " + failure.error(), 1, Integer::sum));
+            byError.forEach((error, count) -> out.printf("%5d x %s%n", count, error));
+        }
+
+        private static void print(PrintStream out, String stage, StageStats stats) {
+            out.printf("%-12s %6d runs, mean %8.3f ms, max %8.3f ms%n", stage, stats.count(), stats.meanMs(), stats.maxMs());
+        }
+    }
+
+    private final List<LlmJournalService.Entry> journal;
+    private final MockGroqServer groq;
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final GenerationMetrics metrics;
+    private final GroqAIServiceImpl groqAIService;
+
+    public JournalReplay(List<LlmJournalService.Entry> journal) {
+        this.journal = journal.stream()
+                .sorted(Comparator.comparingLong(JournalReplay::startedAt))
+                .toList();
+        this.groq = MockGroqServer.replay(journal);
+
+        GroqProperties groqProperties = new GroqProperties();
+        groqProperties.setBaseUrl(groq.baseUrl());
+        LlmUsageProperties usageProperties = new LlmUsageProperties();
+        usageProperties.setEnabled(false);
+        LlmJournalProperties journalProperties = new LlmJournalProperties();
+        journalProperties.setEnabled(false);
+        LlmConcurrencyProperties concurrencyProperties = new LlmConcurrencyProperties();
+        concurrencyProperties.setEnabled(false);
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+        this.metrics = new GenerationMetrics(meterRegistry, usageProperties);
+        this.groqAIService = new GroqAIServiceImpl(
+                WebClient.builder().baseUrl(groq.baseUrl()).build(),
+                groqProperties,
+                objectMapper,
+                metrics,
+                new LlmUsageServiceImpl(null, usageProperties, meterRegistry),
+                new LlmJournalServiceImpl(journalProperties, meterRegistry),
+                new LlmConcurrencyLimits(concurrencyProperties, meterRegistry),
+                new ResiliencePipelines(CircuitBreakerRegistry.ofDefaults(), BulkheadRegistry.ofDefaults(),
+                        TimeLimiterRegistry.of(TimeLimiterConfig.custom().timeoutDuration(Duration.ofSeconds(60)).build()),
+                        RetryRegistry.ofDefaults(),
+                        RateLimiterRegistry.of(RateLimiterConfig.custom().limitForPeriod(Integer.MAX_VALUE).build())));
+    }
+
+    /**
+     * Reads a journal file, or every journal file of a directory in name order.
+     */
+    public static List<LlmJournalService.Entry> read(Path path) throws IOException {
+        List<Path> files = new ArrayList<>();
+        if (Files.isDirectory(path)) {
+            try (DirectoryStream<Path> stream = Files.newDirectoryStream(path, "*.ndjson.gz")) {
+                stream.forEach(files::add);
+            }
+            files.sort(null);
+        } else {
+            files.add(path);
+        }
+
+        ObjectMapper objectMapper = new ObjectMapper();
+        List<LlmJournalService.Entry> entries = new ArrayList<>();
+        for (Path file : files) {
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                    new GZIPInputStream(Files.newInputStream(file)), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (!line.isBlank()) {
+                        entries.add(objectMapper.readValue(line, LlmJournalService.Entry.class));
+                    }
+                }
+            } catch (EOFException e) {
+                // The active file ends mid-block; everything before the last sync flush was read
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * @param speed Multiple of the original pacing, or 0 to replay one call at a time in journal order
+     */
+    public Report run(double speed) {
+        Flux<Outcome> outcomes;
+        if (speed > 0) {
+            long first = journal.isEmpty() ? 0 : startedAt(journal.get(0));
+            outcomes = Flux.fromIterable(journal).flatMap(entry -> Mono.delay(
+                            Duration.ofMillis((long) ((startedAt(entry) - first) / speed)))
+                    .then(replay(entry)), Integer.MAX_VALUE);
+        } else {
+            outcomes = Flux.fromIterable(journal).concatMap(this::replay);
+        }
+
+        int parsed = 0;
+        int textOnly = 0;
+        List<Failure> failures = new ArrayList<>();
+        for (Outcome outcome : outcomes.collectList().block()) {
+            if (outcome.failure() != null) {
+                failures.add(outcome.failure());
+            } else if (outcome.structured()) {
+                parsed++;
+            } else {
+                textOnly++;
+            }
+        }
+        return new Report(journal.size(), parsed, textOnly, failures,
+                stageStats(GenerationMetrics.STAGE_JSON_CLEAN), stageStats(GenerationMetrics.STAGE_DESERIALIZE));
+    }
+
+    @Override
+    public void close() {
+        groq.close();
+    }
+
+    private record Outcome(boolean structured, Failure failure) {
+    }
+
+    private Mono<Outcome> replay(LlmJournalService.Entry entry) {
+        Class<?> responseType = responseType(entry.responseType());
+        Mono<?> call = responseType != null
+                ? groqAIService.generateStructuredResponse(entry.prompt(), entry.model(), responseType)
+                : groqAIService.generateText(entry.prompt(), entry.model());
+        return call.transform(metrics.request(entry.endpoint(), entry.model()))
+                .map(result -> new Outcome(responseType != null, null))
+                .defaultIfEmpty(new Outcome(responseType != null, null))
+                .onErrorResume(e -> Mono.just(new Outcome(responseType != null,
+                        new Failure(entry, e.getClass().getSimpleName() + ": " + firstLine(e.getMessage())))));
+    }
+
+    private StageStats stageStats(String stage) {
+        long count = 0;
+        double totalMs = 0;
+        double maxMs = 0;
+        for (Timer timer : meterRegistry.find("pathprep.generation.stage").tag("stage", stage).timers()) {
+            count += timer.count();
+            totalMs += timer.totalTime(TimeUnit.MILLISECONDS);
+            maxMs = Math.max(maxMs, timer.max(TimeUnit.MILLISECONDS));
+        }
+        return new StageStats(count, count > 0 ? totalMs / count : 0, maxMs);
+    }
+
+    /**
+     * @return The class to parse into, or null for plain text and generic types
+     */
+    private static Class<?> responseType(String name) {
+        if (name == null) {
+            return null;
+        }
+        try {
+            return Class.forName(name);
+        } catch (ClassNotFoundException e) {
+            return null;
+        }
+    }
+
+    private static long startedAt(LlmJournalService.Entry entry) {
+        return entry.timestamp() - entry.latencyMs();
+    }
+
+    private static String firstLine(String message) {
+        if (message == null) {
+            return "";
+        }
+        int newline = message.indexOf('\n');
+        return newline >= 0 ? message.substring(0, newline) : message;
+    }
+}
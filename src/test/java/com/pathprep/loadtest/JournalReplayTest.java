@@ -0,0 +1,68 @@
+package com.pathprep.loadtest;
+
+import com.pathprep.config.LlmJournalProperties;
+import com.pathprep.dto.InterviewQuestionResponse;
+import com.pathprep.model.DetailedRoadmap;
+import com.pathprep.service.LlmJournalService;
+import com.pathprep.service.impl.LlmJournalServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JournalReplayTest {
+
+    @Test
+    void replay_WithJournaledCompletions_ShouldReproduceParseFailures() throws Exception {
+        String roadmap = MockGroqServer.loadCorpus("/loadtest/completions.jsonl").get(0).content();
+        String questions = "{\"questions\": [{\"question\": \"What is a thread?\", \"answer\": \"A unit of exec";
+        Path directory = Files.createTempDirectory("llm-journal");
+        LlmJournalProperties properties = new LlmJournalProperties();
+        properties.setEnabled(true);
+        properties.setDirectory(directory.toString());
+        LlmJournalServiceImpl journal = new LlmJournalServiceImpl(properties, new SimpleMeterRegistry());
+        journal.record(entry(1_000, "/roadmaps/detailed", DetailedRoadmap.class.getName(), "roadmap for jane@example.com", roadmap));
+        journal.record(entry(2_000, "/interview-questions", InterviewQuestionResponse.class.getName(), "questions", questions));
+        journal.record(entry(3_000, "/interview-questions/skill", null, "skill questions", questions));
+        journal.close();
+
+        List<LlmJournalService.Entry> entries = JournalReplay.read(directory);
+        JournalReplay.Report report;
+        try (JournalReplay replay = new JournalReplay(entries)) {
+            report = replay.run(0);
+        }
+
+        assertEquals("roadmap for <email>", entries.get(0).prompt());
+        assertEquals(3, report.calls());
+        assertEquals(1, report.parsed());
+        assertEquals(1, report.textOnly());
+        assertEquals(1, report.failures().size());
+        assertEquals("/interview-questions", report.failures().get(0).entry().endpoint());
+        assertEquals(2, report.deserialize().count());
+    }
+
+    /**
+     * Run with {@code -Djournal=<file or directory>} and optionally {@code -Djournal.speed=1} to
+     * keep the original pacing; by default calls are replayed one at a time.
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "journal", matches = ".+")
+    void replay_JournalFromSystemProperty() throws Exception {
+        List<LlmJournalService.Entry> entries = JournalReplay.read(Paths.get(System.getProperty("journal")));
+        try (JournalReplay replay = new JournalReplay(entries)) {
+            replay.run(Double.parseDouble(System.getProperty("journal.speed", "0"))).print(System.out);
+        }
+    }
+
+    private static LlmJournalService.Entry entry(long timestamp, String endpoint, String responseType, String prompt,
+                                                 String completion) {
+        return new LlmJournalService.Entry(timestamp, endpoint, "llama3-8b-8192", 0.7, 4000, responseType,
+                prompt, completion, 5, 10, 100);
+    }
+}
@@ -0,0 +1,176 @@
+package com.pathprep.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+
+/**
+ * Open-loop HTTP load generator reporting latency percentiles per scenario.
+ *
+ * <p>Requests are started on a fixed schedule at the target rate whether or not earlier ones
+ * have finished, and latency is measured from the scheduled start. A stalled server therefore
+ * shows up in the percentiles instead of silently lowering the offered load (coordinated
+ * omission). Responses other than 2xx and transport failures are counted as errors.</p>
+ */
+public final class LoadDriver {
+
+    /**
+     * One kind of request, chosen in proportion to its {@code weight}.
+     *
+     * @param request Builds the request for a path and query relative to the base URL
+     */
+    public record Scenario(String name, int weight, Function<Random, Request> request) {
+    }
+
+    /**
+     * @param body JSON body, or null for a GET
+     */
+    public record Request(String pathAndQuery, String body) {
+
+        public static Request get(String pathAndQuery) {
+            return new Request(pathAndQuery, null);
+        }
+
+        public static Request post(String pathAndQuery, String body) {
+            return new Request(pathAndQuery, body);
+        }
+    }
+
+    /**
+     * Latencies in microseconds of the requests started after the warm-up.
+     */
+    public record ScenarioResult(String name, Histogram latencies, long errors) {
+    }
+
+    public record Report(Duration duration, List<ScenarioResult> scenarios) {
+
+        public long requests() {
+            return scenarios.stream().mapToLong(result -> result.latencies().getTotalCount()).sum();
+        }
+
+        public long errors() {
+            return scenarios.stream().mapToLong(ScenarioResult::errors).sum();
+        }
+
+        public void print(PrintStream out) {
+            out.printf("%-22s %8s %7s %8s %9s %9s %9s %9s %9s%n",
+                    "scenario", "requests", "errors", "rps", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+            for (ScenarioResult result : scenarios) {
+                Histogram latencies = result.latencies();
+                out.printf("%-22s %8d %7d %8.1f %9.1f %9.1f %9.1f %9.1f %9.1f%n",
+                        result.name(), latencies.getTotalCount(), result.errors(),
+                        latencies.getTotalCount() / (duration.toMillis() / 1000.0),
+                        millis(latencies.getValueAtPercentile(50)), millis(latencies.getValueAtPercentile(90)),
+                        millis(latencies.getValueAtPercentile(99)), millis(latencies.getValueAtPercentile(99.9)),
+                        millis(latencies.getMaxValue()));
+            }
+        }
+
+        private static double millis(long micros) {
+            return micros / 1000.0;
+        }
+    }
+
+    private static final long MAX_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(5);
+
+    private final URI baseUrl;
+    private final List<Scenario> scenarios;
+    private final int totalWeight;
+    private final Random random;
+    private final HttpClient client;
+
+    public LoadDriver(URI baseUrl, List<Scenario> scenarios, long seed) {
+        this.baseUrl = baseUrl;
+        this.scenarios = List.copyOf(scenarios);
+        this.totalWeight = scenarios.stream().mapToInt(Scenario::weight).sum();
+        this.random = new Random(seed);
+        this.client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+    }
+
+    /**
+     * Offers {@code targetRps} for {@code warmup} plus {@code duration}, then waits up to
+     * {@code drainTimeout} for outstanding responses. Only the part after the warm-up is reported.
+     */
+    public Report run(double targetRps, Duration warmup, Duration duration, Duration drainTimeout) {
+        Map<String, Histogram> latencies = new LinkedHashMap<>();
+        Map<String, LongAdder> errors = new LinkedHashMap<>();
+        for (Scenario scenario : scenarios) {
+            latencies.put(scenario.name(), new ConcurrentHistogram(MAX_LATENCY_MICROS, 3));
+            errors.put(scenario.name(), new LongAdder());
+        }
+
+        AtomicInteger inFlight = new AtomicInteger();
+        long intervalNanos = (long) (1_000_000_000L / targetRps);
+        long start = System.nanoTime();
+        long measureFrom = start + warmup.toNanos();
+        long end = measureFrom + duration.toNanos();
+        for (long scheduled = start; scheduled < end; scheduled += intervalNanos) {
+            long wait = scheduled - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            Scenario scenario = pick();
+            boolean measured = scheduled >= measureFrom;
+            long intendedStart = scheduled;
+            inFlight.incrementAndGet();
+            client.sendAsync(httpRequest(scenario.request().apply(random)), HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, failure) -> {
+                        if (measured) {
+                            long micros = (System.nanoTime() - intendedStart) / 1000;
+                            latencies.get(scenario.name()).recordValue(Math.min(micros, MAX_LATENCY_MICROS));
+                            if (failure != null || response.statusCode() / 100 != 2) {
+                                errors.get(scenario.name()).increment();
+                            }
+                        }
+                        inFlight.decrementAndGet();
+                    });
+        }
+
+        long drainUntil = System.nanoTime() + drainTimeout.toNanos();
+        while (inFlight.get() > 0 && System.nanoTime() < drainUntil) {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(50));
+        }
+        return new Report(duration, scenarios.stream()
+                .map(scenario -> new ScenarioResult(scenario.name(), latencies.get(scenario.name()),
+                        errors.get(scenario.name()).sum()))
+                .toList());
+    }
+
+    private Scenario pick() {
+        int ticket = random.nextInt(totalWeight);
+        for (Scenario scenario : scenarios) {
+            ticket -= scenario.weight();
+            if (ticket < 0) {
+                return scenario;
+            }
+        }
+        return scenarios.get(scenarios.size() - 1);
+    }
+
+    private HttpRequest httpRequest(Request request) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(baseUrl.resolve(request.pathAndQuery()))
+                .timeout(Duration.ofMinutes(2))
+                .header("Accept", "application/json")
+                .header("X-Client-Id", "load-driver");
+        return request.body() == null
+                ? builder.GET().build()
+                : builder.header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(request.body()))
+                        .build();
+    }
+}
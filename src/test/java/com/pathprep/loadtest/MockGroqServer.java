@@ -0,0 +1,352 @@
+package com.pathprep.loadtest;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.pathprep.service.LlmJournalService;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.http.server.HttpServerRequest;
+import reactor.netty.http.server.HttpServerResponse;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.StringJoiner;
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * An OpenAI/Groq-compatible {@code POST /chat/completions} stub for load tests.
+ *
+ * <p>Answers from a corpus of recorded completions, picking one whose {@code match} occurs in
+ * the prompt. Time to first token follows a log-normal distribution fitted to the configured
+ * median and p99, after which the completion is produced at {@code tokensPerSecond}, either in
+ * one body or as server-sent events when the request sets {@code "stream": true}. A share of
+ * calls can be answered with 429s, and a share of completions can be damaged the way models
+ * damage JSON: wrapped in a markdown fence, or cut off mid-document.</p>
+ *
+ * <p>{@link #replay} serves a journal of production calls instead: each prompt gets the completion,
+ * latency and usage it was journaled with, with no injected failures.</p>
+ *
+ * <p>Run {@link #main} to point a deployed instance at it through {@code GROQ_BASE_URL}.</p>
+ */
+public final class MockGroqServer implements AutoCloseable {
+
+    /**
+     * Behaviour of the stub.
+     *
+     * @param rateLimitRate Share of calls answered with {@code 429 Too Many Requests}
+     * @param malformedRate Share of completions damaged before they are sent
+     */
+    public record Settings(Duration medianLatency, Duration p99Latency, int tokensPerSecond,
+                           double rateLimitRate, double malformedRate, long seed) {
+
+        /**
+         * Reads {@code mockgroq.*} system properties, e.g. {@code -Dmockgroq.p99-latency=PT4S}.
+         */
+        public static Settings fromSystemProperties() {
+            return new Settings(
+                    Duration.parse(System.getProperty("mockgroq.median-latency", "PT0.4S")),
+                    Duration.parse(System.getProperty("mockgroq.p99-latency", "PT2S")),
+                    Integer.getInteger("mockgroq.tokens-per-second", 500),
+                    Double.parseDouble(System.getProperty("mockgroq.rate-limit-rate", "0.02")),
+                    Double.parseDouble(System.getProperty("mockgroq.malformed-rate", "0.02")),
+                    Long.getLong("mockgroq.seed", 42L));
+        }
+    }
+
+    /**
+     * A recorded completion served for prompts containing {@code match}, case-insensitively.
+     */
+    public record Completion(String match, String content) {
+    }
+
+    /**
+     * What to answer one call with.
+     */
+    private record Reply(String content, int promptTokens, int completionTokens, Duration firstToken,
+                         Duration generation) {
+    }
+
+    private static final double Z_99 = 2.3263;
+    private static final int CHARS_PER_TOKEN = 4;
+    private static final int CHUNK_CHARS = 16;
+    private static final String RATE_LIMITED_BODY =
+            "{\"error\":{\"message\":\"Rate limit reached\",\"type\":\"rate_limit_exceeded\"}}";
+
+    private final Settings settings;
+    private final List<Completion> corpus;
+    private final Function<String, Reply> replies;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Random random;
+    private final double sigma;
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder rateLimited = new LongAdder();
+    private final LongAdder malformed = new LongAdder();
+    private final DisposableServer server;
+
+    private MockGroqServer(Settings settings, List<Completion> corpus, Function<String, Reply> replies, int port) {
+        this.settings = settings;
+        this.corpus = List.copyOf(corpus);
+        this.replies = replies != null ? replies : this::synthesize;
+        this.random = new Random(settings.seed());
+        double spread = (double) settings.p99Latency().toNanos() / Math.max(1, settings.medianLatency().toNanos());
+        this.sigma = spread > 1 ? Math.log(spread) / Z_99 : 0;
+        this.server = HttpServer.create()
+                .host("127.0.0.1")
+                .port(port)
+                .route(routes -> routes
+                        .post("/chat/completions", this::complete)
+                        .post("/openai/v1/chat/completions", this::complete))
+                .bindNow();
+    }
+
+    /**
+     * Starts the stub on a free port.
+     */
+    public static MockGroqServer start(Settings settings, List<Completion> corpus) {
+        return start(settings, corpus, 0);
+    }
+
+    private static MockGroqServer start(Settings settings, List<Completion> corpus, int port) {
+        if (corpus.isEmpty()) {
+            throw new IllegalArgumentException("Corpus is empty");
+        }
+        return new MockGroqServer(settings, corpus, null, port);
+    }
+
+    /**
+     * Starts the stub on a free port, answering prompts from {@code journal}. A prompt journaled
+     * more than once gets its completions in turn; unknown prompts get a 404.
+     */
+    public static MockGroqServer replay(List<LlmJournalService.Entry> journal) {
+        Map<String, Deque<LlmJournalService.Entry>> byPrompt = new HashMap<>();
+        for (LlmJournalService.Entry entry : journal) {
+            byPrompt.computeIfAbsent(entry.prompt(), prompt -> new ArrayDeque<>()).add(entry);
+        }
+        Function<String, Reply> replies = prompt -> {
+            Deque<LlmJournalService.Entry> entries = byPrompt.get(prompt);
+            if (entries == null) {
+                return null;
+            }
+            LlmJournalService.Entry entry;
+            synchronized (entries) {
+                entry = entries.poll();
+                entries.add(entry);
+            }
+            return new Reply(entry.completion() != null ? entry.completion() : "", entry.promptTokens(),
+                    entry.completionTokens(), Duration.ofMillis(entry.latencyMs()), Duration.ZERO);
+        };
+        Settings settings = new Settings(Duration.ZERO, Duration.ZERO, Integer.MAX_VALUE, 0, 0, 0);
+        return new MockGroqServer(settings, List.of(), replies, 0);
+    }
+
+    /**
+     * Loads a corpus of {@code {"match": ..., "content": ...}} lines from the classpath.
+     */
+    public static List<Completion> loadCorpus(String resource) {
+        ObjectMapper mapper = new ObjectMapper();
+        List<Completion> corpus = new ArrayList<>();
+        try (InputStream in = MockGroqServer.class.getResourceAsStream(resource)) {
+            if (in == null) {
+                throw new IllegalArgumentException("No corpus at " + resource);
+            }
+            BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.isBlank()) {
+                    corpus.add(mapper.readValue(line, Completion.class));
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return corpus;
+    }
+
+    /**
+     * @return The URL to use as {@code groq.base-url}
+     */
+    public String baseUrl() {
+        return "http://127.0.0.1:" + server.port();
+    }
+
+    public long requests() {
+        return requests.sum();
+    }
+
+    public long rateLimited() {
+        return rateLimited.sum();
+    }
+
+    public long malformed() {
+        return malformed.sum();
+    }
+
+    @Override
+    public void close() {
+        server.disposeNow();
+    }
+
+    private Publisher<Void> complete(HttpServerRequest request, HttpServerResponse response) {
+        return request.receive().aggregate().asString(StandardCharsets.UTF_8).flatMap(body -> {
+            requests.increment();
+            JsonNode chatRequest;
+            try {
+                chatRequest = objectMapper.readTree(body);
+            } catch (JsonProcessingException e) {
+                return response.status(400).sendString(Mono.just("{\"error\":{\"message\":\"Invalid JSON\"}}")).then();
+            }
+            if (random.nextDouble() < settings.rateLimitRate()) {
+                rateLimited.increment();
+                return response.status(429)
+                        .header("content-type", "application/json")
+                        .header("retry-after", "1")
+                        .sendString(Mono.just(RATE_LIMITED_BODY))
+                        .then();
+            }
+
+            String model = chatRequest.path("model").asText("mock");
+            Reply reply = replies.apply(prompt(chatRequest));
+            if (reply == null) {
+                return response.status(404).sendString(Mono.just("{\"error\":{\"message\":\"Unknown prompt\"}}")).then();
+            }
+
+            if (chatRequest.path("stream").asBoolean(false)) {
+                return stream(response, model, reply);
+            }
+            String completion = completion(model, reply.content(), reply.promptTokens(), reply.completionTokens());
+            return Mono.delay(reply.firstToken().plus(reply.generation()))
+                    .then(response.header("content-type", "application/json")
+                            .sendString(Mono.just(completion))
+                            .then());
+        });
+    }
+
+    private Reply synthesize(String prompt) {
+        String content = pick(prompt);
+        if (random.nextDouble() < settings.malformedRate()) {
+            malformed.increment();
+            content = damage(content);
+        }
+        int completionTokens = tokens(content);
+        return new Reply(content, tokens(prompt), completionTokens, firstTokenLatency(),
+                Duration.ofNanos(completionTokens * 1_000_000_000L / Math.max(1, settings.tokensPerSecond())));
+    }
+
+    private Mono<Void> stream(HttpServerResponse response, String model, Reply reply) {
+        String content = reply.content();
+        String id = "chatcmpl-" + UUID.randomUUID();
+        List<String> pieces = new ArrayList<>();
+        for (int i = 0; i < content.length(); i += CHUNK_CHARS) {
+            pieces.add(content.substring(i, Math.min(content.length(), i + CHUNK_CHARS)));
+        }
+        Duration perChunk = reply.generation().dividedBy(Math.max(1, pieces.size()));
+        Flux<String> events = Flux.concat(
+                Mono.delay(reply.firstToken()).thenMany(Flux.fromIterable(pieces).delayElements(perChunk))
+                        .map(piece -> chunk(id, model, piece, null, null)),
+                Mono.fromSupplier(() -> chunk(id, model, null, "stop", usage(reply.promptTokens(), reply.completionTokens()))),
+                Mono.just("[DONE]"));
+        return response.header("content-type", "text/event-stream")
+                .sendString(events.map(data -> "data: " + data + "\n\n"))
+                .then();
+    }
+
+    private String completion(String model, String content, int promptTokens, int completionTokens) {
+        ObjectNode completion = objectMapper.createObjectNode()
+                .put("id", "chatcmpl-" + UUID.randomUUID())
+                .put("object", "chat.completion")
+                .put("created", System.currentTimeMillis() / 1000)
+                .put("model", model);
+        ObjectNode choice = completion.putArray("choices").addObject().put("index", 0).put("finish_reason", "stop");
+        choice.putObject("message").put("role", "assistant").put("content", content);
+        completion.set("usage", usage(promptTokens, completionTokens));
+        return completion.toString();
+    }
+
+    private String chunk(String id, String model, String piece, String finishReason, ObjectNode usage) {
+        ObjectNode chunk = objectMapper.createObjectNode()
+                .put("id", id)
+                .put("object", "chat.completion.chunk")
+                .put("created", System.currentTimeMillis() / 1000)
+                .put("model", model);
+        ObjectNode choice = chunk.putArray("choices").addObject().put("index", 0);
+        ObjectNode delta = choice.putObject("delta");
+        if (piece != null) {
+            delta.put("content", piece);
+        }
+        choice.put("finish_reason", finishReason);
+        if (usage != null) {
+            // Groq reports usage of a stream on its last chunk
+            chunk.putObject("x_groq").set("usage", usage);
+        }
+        return chunk.toString();
+    }
+
+    private ObjectNode usage(int promptTokens, int completionTokens) {
+        return objectMapper.createObjectNode()
+                .put("prompt_tokens", promptTokens)
+                .put("completion_tokens", completionTokens)
+                .put("total_tokens", promptTokens + completionTokens);
+    }
+
+    private static String prompt(JsonNode chatRequest) {
+        StringJoiner prompt = new StringJoiner("\n");
+        chatRequest.path("messages").forEach(message -> prompt.add(message.path("content").asText()));
+        return prompt.toString();
+    }
+
+    private String pick(String prompt) {
+        String lower = prompt.toLowerCase(Locale.ROOT);
+        List<Completion> matching = corpus.stream()
+                .filter(completion -> lower.contains(completion.match().toLowerCase(Locale.ROOT)))
+                .toList();
+        List<Completion> candidates = matching.isEmpty() ? corpus : matching;
+        return candidates.get(random.nextInt(candidates.size())).content();
+    }
+
+    /**
+     * Damages a completion either recoverably, by fencing it as markdown, or not, by cutting it off.
+     */
+    private String damage(String content) {
+        return random.nextInt(2) == 0
+                ? "```json\n" + content + "\n```"
+                : content.substring(0, content.length() * 3 / 4);
+    }
+
+    private Duration firstTokenLatency() {
+        return Duration.ofNanos((long) (settings.medianLatency().toNanos() * Math.exp(sigma * random.nextGaussian())));
+    }
+
+    private static int tokens(String text) {
+        return Math.max(1, text.length() / CHARS_PER_TOKEN);
+    }
+
+    /**
+     * Serves the bundled corpus on {@code -Dmockgroq.port} (default 8090) until killed.
+     */
+    public static void main(String[] args) throws InterruptedException {
+        MockGroqServer server = start(Settings.fromSystemProperties(),
+                loadCorpus("/loadtest/completions.jsonl"), Integer.getInteger("mockgroq.port", 8090));
+        System.out.println("Mock Groq listening on " + server.baseUrl());
+        server.server.onDispose().block();
+    }
+}
@@ -0,0 +1,134 @@
+package com.pathprep.loadtest;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * End-to-end load test of every controller against {@link MockGroqServer} and a local Mongo.
+ *
+ * <p>Run with {@code -Dloadtest=true}; tune with {@code -Dloadtest.rps}, {@code -Dloadtest.duration},
+ * {@code -Dloadtest.warmup}, {@code -Dloadtest.mongodb-uri} and the {@code mockgroq.*} properties
+ * of {@link MockGroqServer.Settings}. The Mongo database is not cleaned up, so repeated runs
+ * measure a warm store. {@link #main} drives an already running instance instead.</p>
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@EnabledIfSystemProperty(named = "loadtest", matches = "true")
+class PathPrepLoadTest {
+
+    private static final String[] ROLES = {"Java Developer", "Frontend Developer", "Data Engineer", "DevOps Engineer"};
+    private static final String[] LEVELS = {"Beginner", "Intermediate", "Advanced"};
+    private static final String[] SKILLS = {"Spring Boot", "React", "Kubernetes", "SQL", "Kafka"};
+    private static final String[] QUERIES = {"garbage collection", "dependency injection", "index", "container", "state"};
+
+    private static MockGroqServer groq;
+
+    @LocalServerPort
+    private int port;
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        groq = MockGroqServer.start(MockGroqServer.Settings.fromSystemProperties(),
+                MockGroqServer.loadCorpus("/loadtest/completions.jsonl"));
+        registry.add("groq.base-url", groq::baseUrl);
+        registry.add("groq.api-key", () -> "mock");
+        registry.add("spring.data.mongodb.uri",
+                () -> System.getProperty("loadtest.mongodb-uri", "mongodb://localhost:27017/pathprep-loadtest"));
+        registry.add("spring.data.mongodb.database", () -> "pathprep-loadtest");
+        registry.add("resilience4j.ratelimiter.instances.groq.limit-for-period", () -> Integer.MAX_VALUE);
+    }
+
+    @AfterAll
+    static void stopGroq() {
+        if (groq != null) {
+            groq.close();
+        }
+    }
+
+    @Test
+    void allControllers_AtTargetRps_ShouldReportLatencyPercentiles() {
+        LoadDriver.Report report = run(URI.create("http://localhost:" + port));
+
+        System.out.printf("Mock Groq: %d calls, %d rate limited, %d malformed%n",
+                groq.requests(), groq.rateLimited(), groq.malformed());
+        assertTrue(report.requests() > 0);
+    }
+
+    /**
+     * Drives the instance at {@code -Dloadtest.base-url} (default {@code http://localhost:8080}).
+     */
+    public static void main(String[] args) {
+        run(URI.create(System.getProperty("loadtest.base-url", "http://localhost:8080")));
+    }
+
+    private static LoadDriver.Report run(URI baseUrl) {
+        LoadDriver driver = new LoadDriver(baseUrl, scenarios(), Long.getLong("loadtest.seed", 7L));
+        LoadDriver.Report report = driver.run(
+                Double.parseDouble(System.getProperty("loadtest.rps", "20")),
+                Duration.parse(System.getProperty("loadtest.warmup", "PT10S")),
+                Duration.parse(System.getProperty("loadtest.duration", "PT60S")),
+                Duration.ofSeconds(30));
+        report.print(System.out);
+        return report;
+    }
+
+    /**
+     * A read-heavy mix over a small key space, so most generating calls hit stored content once warm.
+     */
+    static List<LoadDriver.Scenario> scenarios() {
+        return List.of(
+                new LoadDriver.Scenario("roadmap_get", 15, random -> LoadDriver.Request.get(
+                        "/roadmaps/detailed?role=" + encode(pick(random, ROLES)) + "&experienceLevel=" + pick(random, LEVELS))),
+                new LoadDriver.Scenario("roadmap_post", 3, random -> LoadDriver.Request.post("/roadmaps/detailed",
+                        "{\"role\":\"" + pick(random, ROLES) + "\",\"experienceLevel\":\"" + pick(random, LEVELS) + "\"}")),
+                new LoadDriver.Scenario("roadmap_recent", 5, random -> LoadDriver.Request.get("/roadmaps/recent?limit=20")),
+                new LoadDriver.Scenario("roadmap_trending", 5, random -> LoadDriver.Request.get("/roadmaps/trending")),
+                new LoadDriver.Scenario("roadmap_legacy", 3, random -> LoadDriver.Request.get(
+                        "/roadmap/" + encode(pick(random, ROLES)) + "/" + pick(random, LEVELS))),
+                new LoadDriver.Scenario("questions_get", 12, random -> LoadDriver.Request.get(
+                        "/interview-questions?role=" + encode(pick(random, ROLES)) + "&experienceLevel=" + pick(random, LEVELS)
+                                + "&count=10")),
+                new LoadDriver.Scenario("questions_post", 3, random -> LoadDriver.Request.post("/interview-questions",
+                        "{\"role\":\"" + pick(random, ROLES) + "\",\"experienceLevel\":\"" + pick(random, LEVELS)
+                                + "\",\"count\":10}")),
+                new LoadDriver.Scenario("questions_page", 8, random -> LoadDriver.Request.get(
+                        "/interview-questions/page?role=" + encode(pick(random, ROLES)) + "&experienceLevel="
+                                + pick(random, LEVELS) + "&limit=20")),
+                new LoadDriver.Scenario("questions_search", 8, random -> LoadDriver.Request.get(
+                        "/interview-questions/search?q=" + encode(pick(random, QUERIES)))),
+                new LoadDriver.Scenario("skill_questions", 3, random -> LoadDriver.Request.post("/interview-questions/skill",
+                        "{\"skill\":\"" + pick(random, SKILLS) + "\",\"jobRole\":\"" + pick(random, ROLES)
+                                + "\",\"experienceLevel\":\"1-3\",\"count\":5}")),
+                new LoadDriver.Scenario("skill_resources_post", 4, random -> LoadDriver.Request.post("/skill-resources",
+                        "{\"skillName\":\"" + pick(random, SKILLS) + "\",\"role\":\"" + pick(random, ROLES)
+                                + "\",\"experienceLevel\":\"" + pick(random, LEVELS) + "\"}")),
+                new LoadDriver.Scenario("skill_resources_get", 6, random -> LoadDriver.Request.get(
+                        "/skill-resources?role=" + encode(pick(random, ROLES)) + "&experienceLevel=" + pick(random, LEVELS))),
+                new LoadDriver.Scenario("roles", 8, random -> LoadDriver.Request.get("/roles")),
+                new LoadDriver.Scenario("roles_search", 6, random -> LoadDriver.Request.get("/roles/search?query=dev")),
+                new LoadDriver.Scenario("skills_search", 6, random -> LoadDriver.Request.get(
+                        "/skills/search?query=" + encode(pick(random, SKILLS).substring(0, 3)))),
+                new LoadDriver.Scenario("llm_usage_top", 1, random -> LoadDriver.Request.get("/llm-usage/top")));
+    }
+
+    private static String pick(Random random, String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8).replace("+", "%20");
+    }
+}
@@ -0,0 +1,205 @@
+package com.pathprep.mapper;
+
+import com.pathprep.dto.InterviewQuestionResponse;
+import com.pathprep.dto.response.DetailedRoadmapResponse;
+import com.pathprep.dto.response.SkillResourceResponse;
+import com.pathprep.model.DetailedRoadmap;
+import com.pathprep.model.InterviewQuestion;
+import com.pathprep.model.RoadmapPhase;
+import com.pathprep.model.SkillResource;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.mapstruct.factory.Mappers;
+import org.modelmapper.ModelMapper;
+import org.modelmapper.convention.MatchingStrategies;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks the generated mappers against the ModelMapper configuration they replaced.
+ */
+class MapperEquivalenceTest {
+
+    private final DetailedRoadmapMapper roadmapMapper = Mappers.getMapper(DetailedRoadmapMapper.class);
+    private final SkillResourceMapper resourceMapper = Mappers.getMapper(SkillResourceMapper.class);
+    private final InterviewQuestionMapper questionMapper = Mappers.getMapper(InterviewQuestionMapper.class);
+
+    private final ModelMapper modelMapper = new ModelMapper();
+    private final ModelMapper strictModelMapper = strictModelMapper();
+
+    @Test
+    void toResponse_WithDetailedRoadmap_ShouldMatchModelMapper() {
+        DetailedRoadmap roadmap = detailedRoadmap();
+
+        assertEquals(modelMapper.map(roadmap, DetailedRoadmapResponse.class), roadmapMapper.toResponse(roadmap));
+    }
+
+    @Test
+    void toResponse_WithSkillResource_ShouldMatchModelMapper() {
+        SkillResource resource = skillResource();
+
+        assertEquals(strictModelMapper.map(resource, SkillResourceResponse.class), resourceMapper.toResponse(resource));
+    }
+
+    @Test
+    void toResponse_WithNullLists_ShouldLeaveThemNull() {
+        SkillResource resource = SkillResource.builder().skillName("Docker").build();
+
+        SkillResourceResponse response = resourceMapper.toResponse(resource);
+
+        assertEquals("Docker", response.getSkillName());
+        assertNull(response.getLearningPaths());
+        assertNull(resourceMapper.toResponse(null));
+    }
+
+    @Test
+    void toQuestionItem_WithStoredQuestion_ShouldCopyAllFields() {
+        InterviewQuestion question = interviewQuestion();
+
+        InterviewQuestionResponse.QuestionItem item = questionMapper.toQuestionItem(question);
+
+        assertEquals(question.getId(), item.getId());
+        assertEquals(question.getQuestion(), item.getQuestion());
+        assertEquals(question.getAnswer(), item.getAnswer());
+        assertEquals(question.getCategory(), item.getCategory());
+        assertEquals(question.getDifficulty(), item.getDifficulty());
+    }
+
+    @Test
+    void withoutAnswer_WithItem_ShouldDropOnlyTheAnswer() {
+        InterviewQuestionResponse.QuestionItem item = questionMapper.toQuestionItem(interviewQuestion());
+
+        InterviewQuestionResponse.QuestionItem copy = questionMapper.withoutAnswer(item);
+
+        assertNull(copy.getAnswer());
+        assertNotNull(item.getAnswer());
+        assertEquals(item.getId(), copy.getId());
+        assertEquals(item.getQuestion(), copy.getQuestion());
+    }
+
+    @Test
+    void forListView_WithoutId_ShouldKeepTheAnswer() {
+        InterviewQuestion generated = interviewQuestion();
+        generated.setId(null);
+        InterviewQuestionResponse.QuestionItem stored = questionMapper.toQuestionItem(interviewQuestion());
+        InterviewQuestionResponse.QuestionItem fresh = questionMapper.toQuestionItem(generated);
+
+        assertNull(questionMapper.forListView(stored).getAnswer());
+        assertEquals(fresh.getAnswer(), questionMapper.forListView(fresh).getAnswer());
+        assertNotNull(fresh.getAnswer());
+    }
+
+    /**
+     * Run with {@code -Dbenchmarks=true}. Prints per-call mapping cost for both mappers.
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+    void benchmark_MappingThroughput() {
+        SkillResource resource = skillResource();
+        DetailedRoadmap roadmap = detailedRoadmap();
+        int iterations = 200_000;
+
+        for (int i = 0; i < 20_000; i++) {
+            strictModelMapper.map(resource, SkillResourceResponse.class);
+            resourceMapper.toResponse(resource);
+            modelMapper.map(roadmap, DetailedRoadmapResponse.class);
+            roadmapMapper.toResponse(roadmap);
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            strictModelMapper.map(resource, SkillResourceResponse.class);
+        }
+        long reflective = System.nanoTime() - start;
+        start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            resourceMapper.toResponse(resource);
+        }
+        long generated = System.nanoTime() - start;
+        System.out.printf("SkillResource: ModelMapper %.2f us/op, MapStruct %.2f us/op%n",
+                reflective / 1_000.0 / iterations, generated / 1_000.0 / iterations);
+
+        start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            modelMapper.map(roadmap, DetailedRoadmapResponse.class);
+        }
+        reflective = System.nanoTime() - start;
+        start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            roadmapMapper.toResponse(roadmap);
+        }
+        generated = System.nanoTime() - start;
+        System.out.printf("DetailedRoadmap: ModelMapper %.2f us/op, MapStruct %.2f us/op%n",
+                reflective / 1_000.0 / iterations, generated / 1_000.0 / iterations);
+    }
+
+    private static ModelMapper strictModelMapper() {
+        ModelMapper mapper = new ModelMapper();
+        mapper.getConfiguration()
+                .setMatchingStrategy(MatchingStrategies.STRICT)
+                .setSkipNullEnabled(true);
+        return mapper;
+    }
+
+    private static DetailedRoadmap detailedRoadmap() {
+        RoadmapPhase phase = new RoadmapPhase();
+        phase.setPhaseName("Foundations");
+        phase.setWeekNumber(1);
+        phase.setObjective("Core language features");
+        phase.setDeliverables(List.of("CLI tool"));
+
+        DetailedRoadmap roadmap = new DetailedRoadmap();
+        roadmap.setId("65f1c2a9e4b0a1b2c3d4e5f6");
+        roadmap.setRole("Backend Developer");
+        roadmap.setExperienceLevel("Junior");
+        roadmap.setCompositeKey("backend developer_junior");
+        roadmap.setEstimatedWeeks(12);
+        roadmap.setPhases(List.of(phase));
+        roadmap.setRequiredSkills(List.of("Java", "SQL"));
+        roadmap.setPrerequisites(List.of("Git"));
+        roadmap.setMetadata(Map.of("source", "test"));
+        roadmap.setCreatedAt(LocalDateTime.of(2024, 1, 1, 10, 0));
+        roadmap.setUpdatedAt(LocalDateTime.of(2024, 1, 2, 10, 0));
+        roadmap.setContentVersion("65f1c2a9e4b0a1b2c3d4e5f7");
+        return roadmap;
+    }
+
+    private static SkillResource skillResource() {
+        SkillResource.ResourceItem item = SkillResource.ResourceItem.builder()
+                .title("Official docs")
+                .url("https://docs.docker.com")
+                .description("Reference documentation")
+                .type("FREE")
+                .level("BEGINNER")
+                .rating(4.5)
+                .estimatedHours(10)
+                .build();
+        return SkillResource.builder()
+                .id("65f1c2a9e4b0a1b2c3d4e5f8")
+                .skillName("Docker")
+                .role("DevOps Engineer")
+                .experienceLevel("Mid")
+                .learningPaths(List.of(item))
+                .projects(List.of(item, item))
+                .certifications(List.of())
+                .communities(List.of(item))
+                .createdAt(LocalDateTime.of(2024, 1, 1, 10, 0))
+                .updatedAt(LocalDateTime.of(2024, 1, 2, 10, 0))
+                .contentVersion("65f1c2a9e4b0a1b2c3d4e5f9")
+                .build();
+    }
+
+    private static InterviewQuestion interviewQuestion() {
+        InterviewQuestion question = new InterviewQuestion();
+        question.setId("65f1c2a9e4b0a1b2c3d4e5fa");
+        question.setQuestion("What is a Spring bean?");
+        question.setAnswer("An object managed by the Spring container.");
+        question.setCategory("Spring");
+        question.setDifficulty("Easy");
+        return question;
+    }
+}
@@ -0,0 +1,88 @@
+package com.pathprep.repository;
+
+import com.mongodb.client.AggregateIterable;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoCursor;
+import com.pathprep.model.InterviewQuestion;
+import com.pathprep.util.KeysetCursor;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.util.List;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class InterviewQuestionRepositoryImplTest {
+
+    private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+    @SuppressWarnings("unchecked")
+    private final MongoCollection<Document> collection = mock(MongoCollection.class);
+    private final InterviewQuestionRepositoryImpl repository = new InterviewQuestionRepositoryImpl(mongoTemplate);
+    private List<Document> pipeline;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        AggregateIterable<Document> results = mock(AggregateIterable.class);
+        MongoCursor<Document> cursor = mock(MongoCursor.class);
+        when(results.iterator()).thenReturn(cursor);
+        when(mongoTemplate.getCollectionName(InterviewQuestion.class)).thenReturn("interview_questions");
+        when(mongoTemplate.getCollection("interview_questions")).thenReturn(collection);
+        when(collection.aggregate(anyList())).thenAnswer(invocation -> {
+            pipeline = invocation.getArgument(0);
+            return results;
+        });
+    }
+
+    @Test
+    void search_WithDifficulty_ShouldMatchWholeLabelIgnoringCase() {
+        repository.search("spring beans", null, null, "Medium", null, 10, false);
+
+        Document difficulty = stage(0, "$match").get("difficulty", Document.class);
+        Pattern pattern = Pattern.compile(difficulty.getString("$regex"), Pattern.CASE_INSENSITIVE);
+        assertEquals("i", difficulty.getString("$options"));
+        assertTrue(pattern.matcher("medium").find());
+        assertFalse(pattern.matcher("Medium-Hard").find());
+        assertFalse(pattern.matcher("Not Medium").find());
+    }
+
+    @Test
+    void search_WithRegexCharactersInDifficulty_ShouldMatchThemLiterally() {
+        repository.search("spring beans", null, null, "E.sy", null, 10, false);
+
+        Pattern pattern = Pattern.compile(stage(0, "$match").get("difficulty", Document.class).getString("$regex"));
+        assertTrue(pattern.matcher("E.sy").find());
+        assertFalse(pattern.matcher("Easy").find());
+    }
+
+    @Test
+    void search_WithScoreCursor_ShouldSeekPastScoreAndId() {
+        String id = "65f1c2a9e4b0a1b2c3d4e5f6";
+        repository.search("spring beans", null, null, null, KeysetCursor.decode(KeysetCursor.encode(1.5, id)), 10, true);
+
+        List<Document> or = stage(2, "$match").getList("$or", Document.class);
+        assertEquals(new Document("score", new Document("$lt", 1.5)), or.get(0));
+        assertEquals(new Document("score", 1.5).append("_id", new Document("$gt", new ObjectId(id))), or.get(1));
+        assertEquals(new Document("score", -1).append("_id", 1), stage(3, "$sort"));
+    }
+
+    @Test
+    void search_WithoutCursor_ShouldNotSeek() {
+        repository.search("spring beans", "Java Developer", null, null, null, 10, false);
+
+        assertEquals("Java Developer", stage(0, "$match").getString("role"));
+        assertTrue(pipeline.get(2).containsKey("$sort"));
+        assertEquals(new Document("fingerprint", 0).append("answer", 0), stage(4, "$project"));
+    }
+
+    private Document stage(int index, String operator) {
+        return pipeline.get(index).get(operator, Document.class);
+    }
+}
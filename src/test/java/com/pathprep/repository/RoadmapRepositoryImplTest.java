@@ -0,0 +1,106 @@
+package com.pathprep.repository;
+
+import com.pathprep.model.InterviewQuestion;
+import com.pathprep.model.Roadmap;
+import com.pathprep.util.FieldSelection;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.query.Query;
+import reactor.core.publisher.Flux;
+
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RoadmapRepositoryImplTest {
+
+    private static final String COLLECTION = "roadmaps";
+
+    private final ReactiveMongoTemplate mongoTemplate = mock(ReactiveMongoTemplate.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final RoadmapRepositoryImpl repository = new RoadmapRepositoryImpl(mongoTemplate, meterRegistry);
+
+    @BeforeEach
+    void setUp() {
+        MongoCustomConversions conversions = new MongoCustomConversions(List.of());
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        MappingMongoConverter converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+        converter.setCustomConversions(conversions);
+        converter.afterPropertiesSet();
+        when(mongoTemplate.getConverter()).thenReturn(converter);
+        when(mongoTemplate.getCollectionName(Roadmap.class)).thenReturn(COLLECTION);
+        when(mongoTemplate.find(any(Query.class), eq(Document.class), eq(COLLECTION))).thenReturn(Flux.just(
+                roadmap("r1", "q1", "q2"),
+                roadmap("r2", "q2", "q3")));
+    }
+
+    @Test
+    void findRecent_WithQuestionsSelected_ShouldResolveThemWithOneQueryPerPage() {
+        when(mongoTemplate.find(any(Query.class), eq(InterviewQuestion.class)))
+                .thenReturn(Flux.just(question("q1"), question("q2")));
+
+        List<Roadmap> page = repository.findRecent(null, 10, FieldSelection.ALL).collectList().block();
+
+        ArgumentCaptor<Query> byIds = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate, times(1)).find(byIds.capture(), eq(InterviewQuestion.class));
+        assertEquals(List.of("q1", "q2", "q3"),
+                List.copyOf((Collection<?>) byIds.getValue().getQueryObject().get("_id", Document.class).get("$in")));
+        assertEquals(List.of("q1", "q2"), ids(page.get(0).getCommonQuestions()));
+        // q3 no longer exists and is skipped
+        assertEquals(List.of("q2"), ids(page.get(1).getCommonQuestions()));
+        assertEquals(2.0, roundTrips().max());
+    }
+
+    @Test
+    void findRecent_WithoutQuestionsSelected_ShouldStripThemWithoutFollowUpQuery() {
+        List<Roadmap> page = repository.findRecent(null, 10, FieldSelection.of("role")).collectList().block();
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).find(query.capture(), eq(Document.class), eq(COLLECTION));
+        assertFalse(query.getValue().getFieldsObject().containsKey("commonQuestions"));
+        assertTrue(query.getValue().getFieldsObject().containsKey("createdAt"));
+        verify(mongoTemplate, never()).find(any(Query.class), eq(InterviewQuestion.class));
+        assertEquals(2, page.size());
+        assertNull(page.get(0).getCommonQuestions());
+        assertEquals(1.0, roundTrips().max());
+    }
+
+    private DistributionSummary roundTrips() {
+        return meterRegistry.get("pathprep.roadmaps.page.queries").tag("listing", "recent").summary();
+    }
+
+    private static Document roadmap(String id, String... questionIds) {
+        return new Document("_id", id)
+                .append("role", "Java Developer")
+                .append("experience", "Beginner")
+                .append("commonQuestions", List.of(questionIds));
+    }
+
+    private static InterviewQuestion question(String id) {
+        InterviewQuestion question = new InterviewQuestion();
+        question.setId(id);
+        return question;
+    }
+
+    private static List<String> ids(List<InterviewQuestion> questions) {
+        return questions.stream().map(InterviewQuestion::getId).toList();
+    }
+}
@@ -0,0 +1,69 @@
+package com.pathprep.service.impl;
+
+import com.pathprep.config.AdmissionProperties;
+import com.pathprep.exception.OverloadedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdmissionControlTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    void admit_WithSlotsAndQueueTaken_ShouldRejectWithRetryAfter() {
+        AdmissionControl admission = new AdmissionControl(properties(true), registry);
+        Sinks.One<String> generating = Sinks.one();
+        admission.admit(AdmissionControl.ROADMAPS, generating::asMono).subscribe();
+
+        OverloadedException rejected = assertThrows(OverloadedException.class,
+                () -> admission.admit(AdmissionControl.ROADMAPS, () -> Mono.just("roadmap")).block());
+
+        assertEquals("15", OverloadedException.retryAfterHeaders(rejected).getFirst(HttpHeaders.RETRY_AFTER));
+        assertEquals(1.0, registry.get("pathprep.admission.rejected")
+                .tag("class", AdmissionControl.ROADMAPS).counter().count());
+        assertEquals(1.0, registry.get("pathprep.admission.active").gauge().value());
+    }
+
+    @Test
+    void admit_AfterGenerationEnds_ShouldFreeSlot() {
+        AdmissionControl admission = new AdmissionControl(properties(true), registry);
+        admission.admit(AdmissionControl.ROADMAPS, () -> Mono.error(new IllegalStateException())).onErrorComplete().block();
+
+        assertEquals("roadmap", admission.admit(AdmissionControl.ROADMAPS, () -> Mono.just("roadmap")).block());
+        assertEquals(0.0, registry.get("pathprep.admission.active").gauge().value());
+    }
+
+    @Test
+    void admit_WithOtherClassSaturated_ShouldAdmit() {
+        AdmissionControl admission = new AdmissionControl(properties(true), registry);
+        admission.admit(AdmissionControl.ROADMAPS, () -> Sinks.<String>one().asMono()).subscribe();
+
+        assertEquals("questions", admission.admit(AdmissionControl.QUESTIONS, () -> Mono.just("questions")).block());
+    }
+
+    @Test
+    void admit_WhenDisabled_ShouldNotLimit() {
+        AdmissionControl admission = new AdmissionControl(properties(false), registry);
+        admission.admit(AdmissionControl.ROADMAPS, () -> Sinks.<String>one().asMono()).subscribe();
+
+        assertEquals("roadmap", admission.admit(AdmissionControl.ROADMAPS, () -> Mono.just("roadmap")).block());
+    }
+
+    private static AdmissionProperties properties(boolean enabled) {
+        AdmissionProperties.EndpointClass roadmaps = new AdmissionProperties.EndpointClass();
+        roadmaps.setMaxConcurrent(1);
+        roadmaps.setMaxQueued(0);
+        roadmaps.setRetryAfter(Duration.ofMillis(14_500));
+        AdmissionProperties properties = new AdmissionProperties();
+        properties.setEnabled(enabled);
+        properties.getClasses().put(AdmissionControl.ROADMAPS, roadmaps);
+        return properties;
+    }
+}
@@ -0,0 +1,59 @@
+package com.pathprep.service.impl;
+
+import com.pathprep.config.LlmUsageProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GenerationMetricsTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final GenerationMetrics metrics = new GenerationMetrics(registry, new LlmUsageProperties());
+
+    @Test
+    void request_WithStages_ShouldTagStagesWithEndpoint() {
+        Mono.just("roadmap")
+                .transform(metrics.stage(GenerationMetrics.STAGE_DB_LOOKUP))
+                .transform(metrics.request("/roadmaps/detailed", "llama"))
+                .block();
+
+        assertEquals(1, registry.get("pathprep.generation.requests")
+                .tags("endpoint", "/roadmaps/detailed", "model", "llama", "outcome", "success").timer().count());
+        assertEquals(1, registry.get("pathprep.generation.stage")
+                .tags("endpoint", "/roadmaps/detailed", "stage", GenerationMetrics.STAGE_DB_LOOKUP).timer().count());
+    }
+
+    @Test
+    void request_WhenNested_ShouldRecordOnceUnderOuterEndpoint() {
+        Mono.empty()
+                .transform(metrics.request("/interview-questions/generate", "llama"))
+                .transform(metrics.request("/interview-questions", "llama"))
+                .block();
+
+        assertEquals(1, registry.get("pathprep.generation.requests").timers().size());
+        assertEquals(1, registry.get("pathprep.generation.requests")
+                .tags("endpoint", "/interview-questions", "outcome", "empty").timer().count());
+    }
+
+    @Test
+    void stage_WithError_ShouldRecordErrorOutcome() {
+        Mono<Object> failing = Mono.error(new IllegalStateException("boom"))
+                .transform(metrics.stage(GenerationMetrics.STAGE_SAVE));
+
+        assertThrows(IllegalStateException.class, failing::block);
+        assertEquals(1, registry.get("pathprep.generation.stage")
+                .tags("endpoint", "unknown", "stage", GenerationMetrics.STAGE_SAVE, "outcome", "error").timer().count());
+    }
+
+    @Test
+    void fallback_WhenSubscribed_ShouldCountForCurrentEndpoint() {
+        metrics.fallback("db_error", Mono.empty())
+                .transform(metrics.request("/interview-questions", null))
+                .block();
+
+        assertEquals(1.0, registry.get("pathprep.generation.fallbacks")
+                .tags("endpoint", "/interview-questions", "reason", "db_error").counter().count());
+    }
+}
@@ -0,0 +1,131 @@
+package com.pathprep.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pathprep.config.GroqProperties;
+import com.pathprep.config.LlmConcurrencyProperties;
+import com.pathprep.config.LlmUsageProperties;
+import com.pathprep.exception.AIServiceException;
+import com.pathprep.exception.ServiceUnavailableException;
+import com.pathprep.service.LlmJournalService;
+import com.pathprep.service.LlmUsageService;
+import com.pathprep.util.Deadline;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.ratelimiter.RateLimiterRegistry;
+import io.github.resilience4j.retry.RetryRegistry;
+import io.github.resilience4j.timelimiter.TimeLimiterConfig;
+import io.github.resilience4j.timelimiter.TimeLimiterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class GroqAIServiceImplTest {
+
+    private static final String MODEL = "llama";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final LlmConcurrencyProperties concurrencyProperties = new LlmConcurrencyProperties();
+    private final CircuitBreakerRegistry circuitBreakers = CircuitBreakerRegistry.ofDefaults();
+    private Duration groqTimeout = Duration.ofSeconds(30);
+
+    @Test
+    void generateText_WhenCallTimesOut_ShouldShrinkConcurrencyLimit() {
+        concurrencyProperties.setInitialLimit(8);
+        GroqAIServiceImpl groq = newService(WebClient.builder().exchangeFunction(request -> Mono.never()).build());
+
+        // Just over the minimum LLM budget, so the attempt starts and then runs into the deadline
+        assertThrows(RuntimeException.class, () -> groq.generateText("prompt", MODEL)
+                .contextWrite(context -> context.put(Deadline.CONTEXT_KEY,
+                        Deadline.after(Deadline.MIN_LLM_BUDGET.plusMillis(200))))
+                .block());
+
+        assertEquals(4, limit());
+    }
+
+    @Test
+    void generateText_WhenTimeLimiterFires_ShouldShrinkConcurrencyLimit() {
+        concurrencyProperties.setInitialLimit(8);
+        groqTimeout = Duration.ofMillis(100);
+        GroqAIServiceImpl groq = newService(WebClient.builder().exchangeFunction(request -> Mono.never()).build());
+
+        assertThrows(RuntimeException.class, () -> groq.generateText("prompt", MODEL).block());
+
+        assertEquals(4, limit());
+    }
+
+    @Test
+    void generateText_WithOpenBreaker_ShouldRejectWithoutShrinkingLimit() {
+        concurrencyProperties.setInitialLimit(8);
+        circuitBreakers.circuitBreaker(ResiliencePipelines.GROQ).transitionToOpenState();
+        GroqAIServiceImpl groq = newService(WebClient.builder().exchangeFunction(request -> Mono.never()).build());
+
+        assertThrows(ServiceUnavailableException.class, () -> groq.generateText("prompt", MODEL).block());
+
+        assertEquals(8, limit());
+    }
+
+    @Test
+    void generateText_WhenDeadlineLeavesTooLittleTime_ShouldFailWithTimeout() {
+        AtomicInteger calls = new AtomicInteger();
+        GroqAIServiceImpl groq = newService(WebClient.builder().exchangeFunction(request -> {
+            calls.incrementAndGet();
+            return Mono.never();
+        }).build());
+
+        Exception e = assertThrows(RuntimeException.class, () -> groq.generateText("prompt", MODEL)
+                .contextWrite(context -> context.put(Deadline.CONTEXT_KEY, Deadline.after(Duration.ofSeconds(1))))
+                .block());
+
+        assertTrue(e.getCause() instanceof TimeoutException);
+        assertEquals(0, calls.get());
+    }
+
+    @Test
+    void generateText_WhenRateLimited_ShouldStopRetryingOnceBackoffWouldPassDeadline() {
+        AtomicInteger calls = new AtomicInteger();
+        GroqAIServiceImpl groq = newService(WebClient.builder().exchangeFunction(request -> {
+            calls.incrementAndGet();
+            return Mono.just(ClientResponse.create(HttpStatus.TOO_MANY_REQUESTS).build());
+        }).build());
+
+        // Room for the first backoff of at most 1.5s, not for the second of at most 3s
+        assertThrows(AIServiceException.class, () -> groq.generateText("prompt", MODEL)
+                .contextWrite(context -> context.put(Deadline.CONTEXT_KEY,
+                        Deadline.after(Deadline.MIN_LLM_BUDGET.plusSeconds(2))))
+                .block());
+
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void longestBackoff_ShouldDoublePerRetryUpToTheCap() {
+        assertEquals(Duration.ofMillis(1500), GroqAIServiceImpl.longestBackoff(0));
+        assertEquals(Duration.ofSeconds(3), GroqAIServiceImpl.longestBackoff(1));
+        assertEquals(Duration.ofSeconds(6), GroqAIServiceImpl.longestBackoff(2));
+        assertEquals(Duration.ofSeconds(15), GroqAIServiceImpl.longestBackoff(5));
+    }
+
+    private GroqAIServiceImpl newService(WebClient webClient) {
+        ResiliencePipelines resilience = new ResiliencePipelines(circuitBreakers, BulkheadRegistry.ofDefaults(),
+                TimeLimiterRegistry.of(TimeLimiterConfig.custom().timeoutDuration(groqTimeout).build()),
+                RetryRegistry.ofDefaults(), RateLimiterRegistry.ofDefaults());
+        return new GroqAIServiceImpl(webClient, new GroqProperties(), new ObjectMapper(),
+                new GenerationMetrics(meterRegistry, new LlmUsageProperties()), mock(LlmUsageService.class),
+                mock(LlmJournalService.class), new LlmConcurrencyLimits(concurrencyProperties, meterRegistry),
+                resilience);
+    }
+
+    private double limit() {
+        return meterRegistry.get("pathprep.groq.concurrency.limit").tag("model", MODEL).gauge().value();
+    }
+}
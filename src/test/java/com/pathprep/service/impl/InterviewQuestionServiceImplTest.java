@@ -0,0 +1,74 @@
+package com.pathprep.service.impl;
+
+import com.pathprep.config.AdmissionProperties;
+import com.pathprep.config.GroqProperties;
+import com.pathprep.config.LlmUsageProperties;
+import com.pathprep.dto.GenerateQuestionsRequest;
+import com.pathprep.dto.SkillQuestionsRequest;
+import com.pathprep.exception.ServiceUnavailableException;
+import com.pathprep.mapper.InterviewQuestionMapper;
+import com.pathprep.repository.InterviewQuestionRepository;
+import com.pathprep.service.GroqAIService;
+import com.pathprep.service.LlmUsageService;
+import com.pathprep.service.QuestionBankIndex;
+import com.pathprep.service.QuestionSimilarityService;
+import com.pathprep.service.WriteBehindService;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.ratelimiter.RateLimiterRegistry;
+import io.github.resilience4j.retry.RetryRegistry;
+import io.github.resilience4j.timelimiter.TimeLimiterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class InterviewQuestionServiceImplTest {
+
+    private final InterviewQuestionRepository questionRepository = mock(InterviewQuestionRepository.class);
+    private final GroqAIService groqAIService = mock(GroqAIService.class);
+    private final LlmUsageService usageService = mock(LlmUsageService.class);
+    private final CircuitBreakerRegistry circuitBreakers = CircuitBreakerRegistry.ofDefaults();
+    private InterviewQuestionServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        AdmissionProperties admissionProperties = new AdmissionProperties();
+        admissionProperties.setEnabled(false);
+        ResiliencePipelines resilience = new ResiliencePipelines(circuitBreakers, BulkheadRegistry.ofDefaults(),
+                TimeLimiterRegistry.ofDefaults(), RetryRegistry.ofDefaults(), RateLimiterRegistry.ofDefaults());
+        QuestionBankIndex questionBankIndex = mock(QuestionBankIndex.class);
+        when(usageService.isWithinBudget(anyString())).thenReturn(true);
+        service = new InterviewQuestionServiceImpl(questionRepository, groqAIService, new GroqProperties(),
+                mock(InterviewQuestionMapper.class), mock(WriteBehindService.class),
+                mock(QuestionSimilarityService.class), questionBankIndex,
+                new GenerationMetrics(meterRegistry, new LlmUsageProperties()), usageService,
+                new AdmissionControl(admissionProperties, meterRegistry), resilience, new FallbackServiceImpl());
+    }
+
+    @Test
+    void generateQuestions_WithMongoBreakerOpen_ShouldFailWithoutCallingGroq() {
+        circuitBreakers.circuitBreaker(ResiliencePipelines.MONGO).transitionToOpenState();
+        GenerateQuestionsRequest request = new GenerateQuestionsRequest();
+        request.setRole("Java Developer");
+        request.setExperienceLevel("Beginner");
+        request.setCount(5);
+
+        assertThrows(ServiceUnavailableException.class, () -> service.generateQuestions(request).block());
+        verifyNoInteractions(questionRepository, groqAIService);
+    }
+
+    @Test
+    void generateSkillQuestions_WithMongoBreakerOpen_ShouldFailWithoutCallingGroq() {
+        circuitBreakers.circuitBreaker(ResiliencePipelines.MONGO).transitionToOpenState();
+        SkillQuestionsRequest request = new SkillQuestionsRequest();
+        request.setSkill("Spring");
+        request.setJobRole("Java Developer");
+
+        assertThrows(ServiceUnavailableException.class, () -> service.generateSkillQuestions(request).block());
+        verifyNoInteractions(questionRepository, groqAIService);
+    }
+}
@@ -0,0 +1,99 @@
+package com.pathprep.service.impl;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that {@link GroqAIServiceImpl#repairJson} still cleans responses exactly like the
+ * cleaner did before it started naming its repairs.
+ */
+class JsonRepairEquivalenceTest {
+
+    private static final List<String> RESPONSES = List.of(
+            "",
+            "{\"title\": \"Plan\"}",
+            "```json\n{\"title\": \"Plan\"}\n```",
+            "```\n[{\"week\": 1}]\n```",
+            "Here you go:\n{\"weeks\": [{\"weekNumber\": 6-7, \"topic\": \"Streams\"}]}\nGood luck!",
+            "{\"weeks\": [{\"weekNumber\": 1 - 2}{\"weekNumber\": 3}]}",
+            "{'title': 'Plan', 'level': 'Beginner'}",
+            "{\"title\": 'Plan',\n\"level\": 'Beginner'}",
+            "{\"title\": \"Tab\u0007 bell\"}");
+
+    @Test
+    void repairJson_ShouldMatchPreviousCleaner() {
+        for (String response : RESPONSES) {
+            assertEquals(previousClean(response), GroqAIServiceImpl.repairJson(response, new ArrayList<>()), response);
+        }
+    }
+
+    @Test
+    void repairJson_WithFence_ShouldNameOnlyTheFence() {
+        List<String> repairs = new ArrayList<>();
+
+        assertEquals("{\"title\": \"Plan\"}", GroqAIServiceImpl.repairJson("```json\n{\"title\": \"Plan\"}\n```", repairs));
+        assertEquals(List.of("code_fence"), repairs);
+    }
+
+    @Test
+    void repairJson_WithWeekRange_ShouldQuoteTheRange() {
+        List<String> repairs = new ArrayList<>();
+
+        assertEquals("{\"weekNumber\": \"6-7\", \"topic\": \"Streams\"}",
+                GroqAIServiceImpl.repairJson("{\"weekNumber\": 6-7, \"topic\": \"Streams\"}", repairs));
+        assertEquals(List.of("week_range"), repairs);
+    }
+
+    @Test
+    void repairJson_WithSingleQuotes_ShouldNameKeyAndValueRepairs() {
+        List<String> repairs = new ArrayList<>();
+
+        GroqAIServiceImpl.repairJson("{'title': 'Plan', 'level': 'Beginner'}", repairs);
+
+        assertTrue(repairs.contains("single_quoted_keys"));
+        assertTrue(repairs.contains("single_quoted_values"));
+    }
+
+    @Test
+    void repairJson_WithValidJson_ShouldNameNoRepairs() {
+        List<String> repairs = new ArrayList<>();
+
+        GroqAIServiceImpl.repairJson("{\"title\": \"Plan\"}", repairs);
+
+        assertTrue(repairs.isEmpty());
+    }
+
+    /**
+     * The cleaner as it was, kept as the reference.
+     */
+    private static String previousClean(String response) {
+        if (response == null || response.isEmpty()) {
+            return "{}";
+        }
+        String cleaned = response.trim();
+        if (cleaned.startsWith("```json")) {
+            cleaned = cleaned.substring(cleaned.indexOf("\n") + 1);
+            cleaned = cleaned.substring(0, cleaned.lastIndexOf("```")).trim();
+        } else if (cleaned.startsWith("```")) {
+            cleaned = cleaned.substring(cleaned.indexOf("\n") + 1);
+            cleaned = cleaned.substring(0, cleaned.lastIndexOf("```")).trim();
+        }
+        cleaned = cleaned.replaceAll("[\\u0000-\\u0008\\u000B\\u000C\\u000E-\\u001F\\u007F-\\u009F]", "");
+        cleaned = cleaned.replaceAll("(\\\"weekNumber\\\"\\s*:\\s*)(\\d+\\s*-\\s*\\d+)([,\\s\\}])?", "$1\\\"$2\\\"$3");
+        cleaned = cleaned.replaceAll("\\}\\s*\\{", "},{")
+                .replaceAll("(?<!\\\")([a-zA-Z0-9_]+)(?=:)", "$1")
+                .replaceAll("([{\",]\\s*)'([^']+)'\\s*:", "$1\\\"$2\\\":")
+                .replaceAll(":\\s*'([^']+)'([,}])$", ": \\\"$1\\\"$2")
+                .replaceAll(":\\s*'([^']+)'([,}])\\s*", ": \\\"$1\\\"$2\\n");
+        int jsonStart = Math.max(cleaned.indexOf('{'), cleaned.indexOf('['));
+        int jsonEnd = Math.max(cleaned.lastIndexOf('}'), cleaned.lastIndexOf(']'));
+        if (jsonStart >= 0 && jsonEnd > jsonStart) {
+            cleaned = cleaned.substring(jsonStart, jsonEnd + 1);
+        }
+        return cleaned;
+    }
+}
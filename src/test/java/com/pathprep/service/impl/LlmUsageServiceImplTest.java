@@ -0,0 +1,136 @@
+package com.pathprep.service.impl;
+
+import com.pathprep.config.LlmUsageProperties;
+import com.pathprep.dto.LlmBudgetStatus;
+import com.pathprep.model.LlmUsage;
+import com.pathprep.service.LlmUsageService.LlmCall;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationResults;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class LlmUsageServiceImplTest {
+
+    private static final String ENDPOINT = "/interview-questions";
+
+    private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+    private final BulkOperations bulk = mock(BulkOperations.class);
+    private final LlmUsageProperties properties = new LlmUsageProperties();
+
+    @Test
+    void isWithinBudget_ShouldCountPendingTokensOnceAcrossFlush() {
+        properties.getDailyTokenBudgets().put(ENDPOINT, 100L);
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, LlmUsage.class)).thenReturn(bulk);
+        when(mongoTemplate.aggregate(any(Aggregation.class), eq(LlmUsage.class), eq(Document.class)))
+                .thenReturn(new AggregationResults<>(List.of(new Document("_id", ENDPOINT).append("tokens", 90L)), new Document()));
+        LlmUsageServiceImpl usage = newService();
+
+        usage.record(call("client-a", 40, 20));
+        assertTrue(usage.isWithinBudget(ENDPOINT));
+        usage.record(call("client-a", 20, 10));
+        assertEquals(90, usedToday(usage));
+
+        usage.shutdown();
+
+        assertEquals(90, usedToday(usage));
+        assertTrue(usage.isWithinBudget(ENDPOINT));
+        usage.record(call("client-a", 10, 0));
+        assertFalse(usage.isWithinBudget(ENDPOINT));
+    }
+
+    @Test
+    void record_BeyondMaxClientsPerDay_ShouldAttributeToOther() {
+        properties.setMaxClientsPerDay(2);
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, LlmUsage.class)).thenReturn(bulk);
+        when(mongoTemplate.aggregate(any(Aggregation.class), eq(LlmUsage.class), eq(Document.class)))
+                .thenReturn(new AggregationResults<>(List.of(), new Document()));
+        LlmUsageServiceImpl usage = newService();
+
+        for (String client : List.of("client-a", "client-b", "client-c", "client-d", "client-a")) {
+            usage.record(call(client, 1, 1));
+        }
+        usage.shutdown();
+
+        ArgumentCaptor<Update> updates = ArgumentCaptor.forClass(Update.class);
+        verify(bulk, atLeastOnce()).upsert(any(Query.class), updates.capture());
+        Set<String> clients = updates.getAllValues().stream()
+                .map(update -> update.getUpdateObject().get("$setOnInsert", Document.class).getString("client"))
+                .collect(Collectors.toSet());
+        assertEquals(Set.of("client-a", "client-b", LlmUsageServiceImpl.OTHER_CLIENTS), clients);
+    }
+
+    @Test
+    void shutdown_DuringRunningFlush_ShouldWaitAndWriteLaterCalls() throws Exception {
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, LlmUsage.class)).thenReturn(bulk);
+        when(mongoTemplate.aggregate(any(Aggregation.class), eq(LlmUsage.class), eq(Document.class)))
+                .thenReturn(new AggregationResults<>(List.of(), new Document()));
+        CountDownLatch flushing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            if (flushing.getCount() > 0) {
+                flushing.countDown();
+                assertTrue(release.await(5, TimeUnit.SECONDS));
+            }
+            return null;
+        }).when(bulk).execute();
+        LlmUsageServiceImpl usage = newService();
+
+        usage.record(call("client-a", 1, 1));
+        Thread running = new Thread(usage::shutdown);
+        running.start();
+        assertTrue(flushing.await(5, TimeUnit.SECONDS));
+        usage.record(call("client-b", 1, 1));
+        Thread shutdown = new Thread(usage::shutdown);
+        shutdown.start();
+        shutdown.join(200);
+        assertTrue(shutdown.isAlive());
+
+        release.countDown();
+        running.join(5000);
+        shutdown.join(5000);
+
+        ArgumentCaptor<Update> updates = ArgumentCaptor.forClass(Update.class);
+        verify(bulk, atLeastOnce()).upsert(any(Query.class), updates.capture());
+        Set<String> clients = updates.getAllValues().stream()
+                .map(update -> update.getUpdateObject().get("$setOnInsert", Document.class).getString("client"))
+                .collect(Collectors.toSet());
+        assertEquals(Set.of("client-a", "client-b"), clients);
+    }
+
+    private LlmUsageServiceImpl newService() {
+        return new LlmUsageServiceImpl(mongoTemplate, properties, new SimpleMeterRegistry());
+    }
+
+    private static long usedToday(LlmUsageServiceImpl usage) {
+        return usage.getBudgets().block().stream()
+                .filter(status -> ENDPOINT.equals(status.getEndpoint()))
+                .mapToLong(LlmBudgetStatus::getUsedToday)
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private static LlmCall call(String client, int promptTokens, int completionTokens) {
+        return new LlmCall(ENDPOINT, "llama", "Java Developer", "Beginner", client, promptTokens, completionTokens, 100);
+    }
+}
@@ -0,0 +1,84 @@
+package com.pathprep.service.impl;
+
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.OperationType;
+import com.pathprep.config.QuestionBankProperties;
+import com.pathprep.model.InterviewQuestion;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.ChangeStreamEvent;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class QuestionBankIndexImplTest {
+
+    private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+
+    @Test
+    void apply_WithUpsertThenDeleteInOneBatch_ShouldKeepLastChange() {
+        QuestionBankIndexImpl index = newIndex();
+
+        index.apply(List.of(
+                event(OperationType.INSERT, "q1", question("Java Developer", "Beginner", "Spring")),
+                event(OperationType.INSERT, "q2", question("Java Developer", "Beginner", "Spring")),
+                event(OperationType.DELETE, "q1", null)));
+
+        assertEquals(List.of("q2"), index.sampleIds("Java Developer", "Beginner", "Spring", null, null, 10));
+        assertEquals(List.of("q2"), index.sampleIds("Java Developer", "Beginner", null, null, null, 10));
+    }
+
+    @Test
+    void apply_WithMovedQuestion_ShouldLeaveOldPartition() {
+        QuestionBankIndexImpl index = newIndex();
+        index.apply(List.of(event(OperationType.INSERT, "q1", question("Java Developer", "Beginner", "Spring"))));
+
+        index.apply(List.of(event(OperationType.REPLACE, "q1", question("Java Developer", "Beginner", "Hibernate"))));
+
+        assertTrue(index.sampleIds("Java Developer", "Beginner", "Spring", null, null, 10).isEmpty());
+        assertEquals(List.of("q1"), index.sampleIds("Java Developer", "Beginner", "Hibernate", null, null, 10));
+        assertEquals(List.of("q1"), index.sampleIds("Java Developer", "Beginner", null, null, null, 10));
+    }
+
+    @Test
+    void sampleIds_ShouldMatchRoleExactlyAndCategoryIgnoringCase() {
+        QuestionBankIndexImpl index = newIndex();
+        index.apply(List.of(event(OperationType.INSERT, "q1", question("Java Developer", "Beginner", "Spring"))));
+
+        assertTrue(index.sampleIds("java developer", "Beginner", "Spring", null, null, 10).isEmpty());
+        assertEquals(List.of("q1"), index.sampleIds("Java Developer", "Beginner", "Spring", null, " TECHNICAL ", 10));
+    }
+
+    private QuestionBankIndexImpl newIndex() {
+        when(mongoTemplate.getCollectionName(InterviewQuestion.class)).thenReturn("interview_questions");
+        return new QuestionBankIndexImpl(mongoTemplate, mock(ReactiveMongoTemplate.class),
+                new QuestionBankProperties(), new SimpleMeterRegistry());
+    }
+
+    private static Document question(String role, String experience, String skill) {
+        return new Document("role", role)
+                .append("experience", experience)
+                .append("skill", skill)
+                .append("difficulty", "Easy")
+                .append("category", "Technical");
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ChangeStreamEvent<Document> event(OperationType type, String id, Document body) {
+        ChangeStreamDocument<Document> raw = mock(ChangeStreamDocument.class);
+        when(raw.getDocumentKey()).thenReturn(new BsonDocument("_id", new BsonString(id)));
+        ChangeStreamEvent<Document> event = mock(ChangeStreamEvent.class);
+        when(event.getOperationType()).thenReturn(type);
+        when(event.getRaw()).thenReturn(raw);
+        when(event.getBody()).thenReturn(body);
+        return event;
+    }
+}
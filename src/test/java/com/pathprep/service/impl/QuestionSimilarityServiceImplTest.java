@@ -0,0 +1,59 @@
+package com.pathprep.service.impl;
+
+import com.pathprep.config.QuestionSimilarityProperties;
+import com.pathprep.model.InterviewQuestion;
+import com.pathprep.repository.InterviewQuestionRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class QuestionSimilarityServiceImplTest {
+
+    private final InterviewQuestionRepository repository = mock(InterviewQuestionRepository.class);
+    private final QuestionSimilarityProperties properties = new QuestionSimilarityProperties();
+
+    @Test
+    void filterNovel_WithoutRemember_ShouldNotIndexQuestions() {
+        QuestionSimilarityServiceImpl similarity = newService();
+        List<InterviewQuestion> batch = List.of(question("What is dependency injection in Spring?"));
+
+        assertEquals(1, similarity.filterNovel("Java Developer", "Beginner", null, batch).size());
+        assertEquals(1, similarity.filterNovel("Java Developer", "Beginner", null, batch).size());
+
+        similarity.remember("Java Developer", "Beginner", null, batch);
+
+        assertTrue(similarity.filterNovel("Java Developer", "Beginner", null, batch).isEmpty());
+    }
+
+    @Test
+    void filterNovel_BeyondMaxPartitions_ShouldEvictLeastRecentlyUsed() {
+        properties.setMaxPartitions(1);
+        when(repository.findQuestionTextsByRoleAndExperienceAndSkill("Java Developer", "Beginner", null))
+                .thenReturn(List.of(question("What is dependency injection in Spring?")));
+        QuestionSimilarityServiceImpl similarity = newService();
+        List<InterviewQuestion> batch = List.of(question("What is dependency injection in Spring?"));
+
+        assertTrue(similarity.filterNovel("Java Developer", "Beginner", null, batch).isEmpty());
+        similarity.filterNovel("Data Engineer", "Beginner", null, batch);
+        assertTrue(similarity.filterNovel("Java Developer", "Beginner", null, batch).isEmpty());
+
+        verify(repository, times(2)).findQuestionTextsByRoleAndExperienceAndSkill("Java Developer", "Beginner", null);
+    }
+
+    private QuestionSimilarityServiceImpl newService() {
+        return new QuestionSimilarityServiceImpl(repository, properties, new SimpleMeterRegistry());
+    }
+
+    private static InterviewQuestion question(String text) {
+        InterviewQuestion question = new InterviewQuestion();
+        question.setQuestion(text);
+        return question;
+    }
+}
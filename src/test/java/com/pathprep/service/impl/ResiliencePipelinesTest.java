@@ -0,0 +1,56 @@
+package com.pathprep.service.impl;
+
+import com.pathprep.exception.ServiceUnavailableException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.ratelimiter.RateLimiterRegistry;
+import io.github.resilience4j.retry.RetryConfig;
+import io.github.resilience4j.retry.RetryRegistry;
+import io.github.resilience4j.timelimiter.TimeLimiterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResiliencePipelinesTest {
+
+    private final CircuitBreakerRegistry circuitBreakers = CircuitBreakerRegistry.ofDefaults();
+    private final ResiliencePipelines pipelines = new ResiliencePipelines(circuitBreakers, BulkheadRegistry.ofDefaults(),
+            TimeLimiterRegistry.ofDefaults(),
+            RetryRegistry.of(RetryConfig.custom().maxAttempts(2).waitDuration(Duration.ofMillis(10)).build()),
+            RateLimiterRegistry.ofDefaults());
+
+    @Test
+    void mongo_WithTransientFailure_ShouldResubscribe() {
+        AtomicInteger attempts = new AtomicInteger();
+        Mono<String> query = Mono.defer(() -> attempts.incrementAndGet() == 1
+                ? Mono.error(new DataAccessResourceFailureException("connection reset"))
+                : Mono.just("resource"));
+
+        assertEquals("resource", query.transform(pipelines.<String>mongo()).block());
+        assertEquals(2, attempts.get());
+    }
+
+    @Test
+    void mongo_WithOpenBreaker_ShouldFailAsDataAccessWithoutQuerying() {
+        circuitBreakers.circuitBreaker(ResiliencePipelines.MONGO).transitionToOpenState();
+        AtomicInteger attempts = new AtomicInteger();
+
+        Mono<String> query = Mono.fromSupplier(() -> "resource" + attempts.incrementAndGet());
+
+        assertThrows(DataAccessResourceFailureException.class, () -> query.transform(pipelines.<String>mongo()).block());
+        assertEquals(0, attempts.get());
+    }
+
+    @Test
+    void groq_WithOpenBreaker_ShouldFailAsServiceUnavailable() {
+        circuitBreakers.circuitBreaker(ResiliencePipelines.GROQ).transitionToOpenState();
+
+        assertThrows(ServiceUnavailableException.class,
+                () -> Mono.just("completion").transform(pipelines.<String>groq()).block());
+    }
+}
@@ -0,0 +1,86 @@
+package com.pathprep.service.impl;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pathprep.dto.response.DetailedRoadmapResponse;
+import com.pathprep.model.RoadmapRendition;
+import com.pathprep.repository.RoadmapRenditionRepository;
+import com.pathprep.service.WriteBehindService;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.cache.support.SimpleCacheManager;
+import reactor.core.publisher.Mono;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RoadmapRenditionServiceImplTest {
+
+    private final RoadmapRenditionRepository repository = mock(RoadmapRenditionRepository.class);
+    private final WriteBehindService writeBehind = mock(WriteBehindService.class);
+
+    @Test
+    void render_ShouldStoreEnvelopeJsonAndMatchingGzip() throws IOException {
+        when(writeBehind.submit(any())).thenReturn(true);
+        RoadmapRenditionServiceImpl renditions = newService();
+
+        RoadmapRendition rendition = renditions.render(roadmap("java-developer_beginner")).block();
+
+        JsonNode envelope = new ObjectMapper().readTree(rendition.getJson());
+        assertTrue(envelope.get("success").asBoolean());
+        assertEquals("java-developer_beginner", envelope.get("data").get("compositeKey").asText());
+        assertEquals("v1", rendition.getContentVersion());
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(rendition.getGzip()))) {
+            assertArrayEquals(rendition.getJson(), gzip.readAllBytes());
+        }
+        verify(repository, never()).save(any());
+    }
+
+    @Test
+    void render_WhenWriteBehindRejects_ShouldSaveDirectly() {
+        when(repository.save(any())).thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+        RoadmapRenditionServiceImpl renditions = newService();
+
+        renditions.render(roadmap("java-developer_beginner")).block();
+
+        verify(repository).save(any());
+    }
+
+    @Test
+    void find_AfterRender_ShouldServeFromMemory() {
+        when(writeBehind.submit(any())).thenReturn(true);
+        RoadmapRenditionServiceImpl renditions = newService();
+        RoadmapRendition rendered = renditions.render(roadmap("java-developer_beginner")).block();
+
+        assertSame(rendered, renditions.find("java-developer_beginner").block());
+        verify(repository, never()).findById(any(String.class));
+    }
+
+    private RoadmapRenditionServiceImpl newService() {
+        SimpleCacheManager cacheManager = new SimpleCacheManager();
+        cacheManager.setCaches(List.of(new ConcurrentMapCache("renderedRoadmaps")));
+        cacheManager.afterPropertiesSet();
+        return new RoadmapRenditionServiceImpl(repository, writeBehind, cacheManager);
+    }
+
+    private static DetailedRoadmapResponse roadmap(String compositeKey) {
+        DetailedRoadmapResponse response = new DetailedRoadmapResponse();
+        response.setId("roadmap-" + compositeKey);
+        response.setCompositeKey(compositeKey);
+        response.setRole("Java Developer");
+        response.setEstimatedWeeks(12);
+        response.setContentVersion("v1");
+        response.setUpdatedAt(LocalDateTime.of(2024, 5, 1, 10, 0));
+        return response;
+    }
+}
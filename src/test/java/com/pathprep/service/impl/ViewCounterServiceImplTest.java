@@ -0,0 +1,160 @@
+package com.pathprep.service.impl;
+
+import com.mongodb.MongoSocketException;
+import com.mongodb.ServerAddress;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.WriteModel;
+import com.mongodb.client.result.UpdateResult;
+import com.pathprep.config.ViewCounterProperties;
+import com.pathprep.model.ViewTarget;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ViewCounterServiceImplTest {
+
+    private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+    @SuppressWarnings("unchecked")
+    private final MongoCollection<Document> collection = mock(MongoCollection.class);
+    private final ViewCounterProperties properties = new ViewCounterProperties();
+    private final Map<String, Long> flushedViews = new ConcurrentHashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        for (ViewTarget target : ViewTarget.values()) {
+            when(mongoTemplate.getCollectionName(target.getEntityClass())).thenReturn(target.name());
+            when(mongoTemplate.getCollection(target.name())).thenReturn(collection);
+        }
+    }
+
+    @Test
+    void flush_WithRepeatedViews_ShouldWriteOneIncrementPerDocument() {
+        when(collection.bulkWrite(anyList(), any(BulkWriteOptions.class))).thenAnswer(invocation -> {
+            recordViews(invocation.getArgument(0));
+            return null;
+        });
+        ViewCounterServiceImpl views = newService();
+
+        views.recordView(ViewTarget.SKILL_RESOURCE, "r1");
+        views.recordView(ViewTarget.SKILL_RESOURCE, "r1");
+        views.recordViews(ViewTarget.SKILL_RESOURCE, List.of("r1", "r2"));
+        views.flush();
+
+        assertEquals(Map.of("r1", 3L, "r2", 1L), flushedViews);
+        verify(collection, times(1)).bulkWrite(anyList(), any(BulkWriteOptions.class));
+
+        views.flush();
+        assertEquals(0, views.pendingCount());
+    }
+
+    @Test
+    void flush_WhenBulkWriteFails_ShouldKeepViewsForNextFlush() {
+        when(collection.bulkWrite(anyList(), any(BulkWriteOptions.class)))
+                .thenThrow(new MongoSocketException("connection reset", new ServerAddress()))
+                .thenAnswer(invocation -> {
+                    recordViews(invocation.getArgument(0));
+                    return null;
+                });
+        ViewCounterServiceImpl views = newService();
+        views.recordView(ViewTarget.QUESTION, "q1");
+        views.recordView(ViewTarget.QUESTION, "q1");
+
+        views.flush();
+        views.recordView(ViewTarget.QUESTION, "q1");
+        views.flush();
+
+        assertEquals(Map.of("q1", 3L), flushedViews);
+    }
+
+    @Test
+    void recordView_WhenDisabled_ShouldNotCount() {
+        properties.setEnabled(false);
+        ViewCounterServiceImpl views = newService();
+
+        views.recordView(ViewTarget.ROADMAP, "r1");
+        views.flush();
+
+        assertEquals(0, views.pendingCount());
+        verify(collection, never()).bulkWrite(anyList(), any(BulkWriteOptions.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void decayTrendingScores_ShouldDecayStaleScoresOfEveryTarget() {
+        when(collection.updateMany(any(Bson.class), anyList())).thenReturn(UpdateResult.acknowledged(0, 0L, null));
+        ViewCounterServiceImpl views = newService();
+
+        views.decayTrendingScores();
+
+        verify(collection, times(ViewTarget.values().length)).updateMany(any(Bson.class), anyList());
+    }
+
+    @Test
+    void shutdown_DuringFailingFlush_ShouldWaitAndFlushAgain() throws Exception {
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(collection.bulkWrite(anyList(), any(BulkWriteOptions.class)))
+                .thenAnswer(invocation -> {
+                    writing.countDown();
+                    release.await();
+                    throw new MongoSocketException("connection reset", new ServerAddress());
+                })
+                .thenAnswer(invocation -> {
+                    recordViews(invocation.getArgument(0));
+                    return null;
+                });
+        ViewCounterServiceImpl views = newService();
+        views.recordView(ViewTarget.DETAILED_ROADMAP, "d1");
+
+        Thread flusher = new Thread(views::flush);
+        flusher.start();
+        writing.await();
+        Thread stopper = new Thread(views::shutdown);
+        stopper.start();
+        stopper.join(200);
+        assertTrue(stopper.isAlive());
+
+        release.countDown();
+        flusher.join();
+        stopper.join();
+
+        assertEquals(Map.of("d1", 1L), flushedViews);
+    }
+
+    private ViewCounterServiceImpl newService() {
+        return new ViewCounterServiceImpl(mongoTemplate, properties, new SimpleMeterRegistry());
+    }
+
+    /**
+     * Reads the added views back out of the {@code $add} of each pipeline update.
+     */
+    @SuppressWarnings("unchecked")
+    private void recordViews(List<WriteModel<Document>> models) {
+        for (WriteModel<Document> model : models) {
+            UpdateOneModel<Document> update = (UpdateOneModel<Document>) model;
+            String id = update.getFilter().toBsonDocument().getString("_id").getValue();
+            Document set = ((Document) update.getUpdatePipeline().get(0)).get("$set", Document.class);
+            List<Object> score = set.get(ViewTarget.TRENDING_SCORE, Document.class).getList("$add", Object.class);
+            flushedViews.merge(id, (Long) score.get(1), Long::sum);
+        }
+    }
+}
@@ -0,0 +1,317 @@
+package com.pathprep.service.impl;
+
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.MongoSocketException;
+import com.mongodb.ServerAddress;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.ReplaceOneModel;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.WriteModel;
+import com.pathprep.config.WriteBehindProperties;
+import com.pathprep.model.SkillResource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.stubbing.Answer;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class WriteBehindServiceImplTest {
+
+    private static final String COLLECTION = "skill_resources";
+
+    @TempDir
+    Path spillDirectory;
+
+    private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+    @SuppressWarnings("unchecked")
+    private final MongoCollection<Document> collection = mock(MongoCollection.class);
+    private final WriteBehindProperties properties = new WriteBehindProperties();
+    private final List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        MongoCustomConversions conversions = new MongoCustomConversions(List.of());
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        MappingMongoConverter converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+        converter.setCustomConversions(conversions);
+        converter.afterPropertiesSet();
+        when(mongoTemplate.getConverter()).thenReturn(converter);
+        when(mongoTemplate.getCollectionName(SkillResource.class)).thenReturn(COLLECTION);
+        when(mongoTemplate.getCollection(COLLECTION)).thenReturn(collection);
+        properties.setSpillDirectory(spillDirectory.toString());
+    }
+
+    @Test
+    void flush_WithMoreWritesThanBatchSize_ShouldWriteInBatches() {
+        when(collection.bulkWrite(anyList(), any(BulkWriteOptions.class))).thenAnswer(recordBatch());
+        WriteBehindServiceImpl writeBehind = newService();
+
+        assertTrue(writeBehind.submitAll(resources(5)));
+        properties.setMaxBatchSize(2);
+        writeBehind.flush();
+
+        assertEquals(List.of(2, 2, 1), batchSizes);
+        assertEquals(0, writeBehind.pendingCount());
+    }
+
+    @Test
+    void flush_WhenBulkWriteFails_ShouldRequeueForNextFlush() {
+        when(collection.bulkWrite(anyList(), any(BulkWriteOptions.class)))
+                .thenThrow(new MongoSocketException("connection reset", new ServerAddress()))
+                .thenAnswer(recordBatch());
+        WriteBehindServiceImpl writeBehind = newService();
+        writeBehind.submitAll(resources(3));
+
+        writeBehind.flush();
+        assertEquals(3, writeBehind.pendingCount());
+
+        writeBehind.flush();
+        assertEquals(List.of(3), batchSizes);
+        assertEquals(0, writeBehind.pendingCount());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void submitAllIfAbsent_WithoutId_ShouldLeaveIdToMongo() {
+        List<WriteModel<Document>> written = new CopyOnWriteArrayList<>();
+        when(collection.bulkWrite(anyList(), any(BulkWriteOptions.class))).thenAnswer(invocation -> {
+            written.addAll(invocation.getArgument(0));
+            return null;
+        });
+        WriteBehindServiceImpl writeBehind = newService();
+        List<SkillResource> resources = resources(1);
+
+        writeBehind.submitAllIfAbsent(resources, "skillName");
+        writeBehind.flush();
+
+        assertNull(resources.get(0).getId());
+        Document update = (Document) ((UpdateOneModel<Document>) written.get(0)).getUpdate();
+        assertFalse(update.get("$setOnInsert", Document.class).containsKey("_id"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void submit_WithViewCountedEntity_ShouldKeepStoredCounters() {
+        List<WriteModel<Document>> written = new CopyOnWriteArrayList<>();
+        when(collection.bulkWrite(anyList(), any(BulkWriteOptions.class))).thenAnswer(invocation -> {
+            written.addAll(invocation.getArgument(0));
+            return null;
+        });
+        WriteBehindServiceImpl writeBehind = newService();
+        SkillResource stale = resources(1).get(0);
+        stale.setViewCount(3L);
+        stale.setTrendingScore(1.5);
+
+        writeBehind.submit(stale);
+        writeBehind.flush();
+
+        List<? extends Bson> pipeline = ((UpdateOneModel<Document>) written.get(0)).getUpdatePipeline();
+        List<Object> merged = ((Document) pipeline.get(0)).get("$replaceWith", Document.class)
+                .getList("$mergeObjects", Object.class);
+        Document content = ((Document) merged.get(0)).get("$literal", Document.class);
+        assertEquals("Skill 0", content.getString("skillName"));
+        assertFalse(content.containsKey("viewCount"));
+        assertFalse(content.containsKey("trendingScore"));
+        assertEquals("$viewCount", ((Document) merged.get(1)).getString("viewCount"));
+    }
+
+    @Test
+    void shutdown_WhenWritesCannotBeFlushed_ShouldSpillAndReplayOnStartup() throws IOException {
+        when(collection.bulkWrite(anyList(), any(BulkWriteOptions.class)))
+                .thenThrow(new MongoSocketException("connection reset", new ServerAddress()));
+        WriteBehindServiceImpl writeBehind = newService();
+        writeBehind.submitAll(resources(3));
+
+        writeBehind.shutdown();
+
+        assertFalse(writeBehind.submit(resources(1).get(0)));
+        List<Path> spilled = spillFiles();
+        assertEquals(1, spilled.size());
+        assertEquals(3, Files.readAllLines(spilled.get(0)).size());
+
+        @SuppressWarnings("unchecked")
+        MongoCollection<Document> recovered = mock(MongoCollection.class);
+        when(mongoTemplate.getCollection(COLLECTION)).thenReturn(recovered);
+        when(recovered.bulkWrite(anyList(), any(BulkWriteOptions.class))).thenAnswer(recordBatch());
+
+        newService().replaySpilledWrites();
+
+        assertEquals(List.of(3), batchSizes);
+        assertTrue(spillFiles().isEmpty());
+    }
+
+    @Test
+    void shutdown_DuringFailingFlush_ShouldWaitAndSpillRequeuedWrites() throws Exception {
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(collection.bulkWrite(anyList(), any(BulkWriteOptions.class))).thenAnswer(invocation -> {
+            writing.countDown();
+            release.await();
+            throw new MongoSocketException("connection reset", new ServerAddress());
+        });
+        WriteBehindServiceImpl writeBehind = newService();
+        writeBehind.submitAll(resources(3));
+
+        Thread flusher = new Thread(writeBehind::flush);
+        flusher.start();
+        writing.await();
+        Thread stopper = new Thread(writeBehind::shutdown);
+        stopper.start();
+        stopper.join(200);
+        assertTrue(stopper.isAlive());
+
+        release.countDown();
+        flusher.join();
+        stopper.join();
+
+        List<Path> spilled = spillFiles();
+        assertEquals(1, spilled.size());
+        assertEquals(3, Files.readAllLines(spilled.get(0)).size());
+    }
+
+    @Test
+    void flush_WithPermanentlyFailingWrite_ShouldDeadLetterAfterMaxAttempts() throws IOException {
+        properties.setMaxAttempts(3);
+        when(collection.bulkWrite(anyList(), any(BulkWriteOptions.class))).thenAnswer(rejecting(id -> true));
+        WriteBehindServiceImpl writeBehind = newService();
+        writeBehind.submitAll(resources(1));
+
+        for (int i = 0; i < 2; i++) {
+            assertTimeoutPreemptively(Duration.ofSeconds(5), writeBehind::flush);
+            assertEquals(1, writeBehind.pendingCount());
+        }
+        assertTimeoutPreemptively(Duration.ofSeconds(5), writeBehind::flush);
+
+        assertEquals(0, writeBehind.pendingCount());
+        assertTrue(spillFiles().isEmpty());
+        List<Path> deadLetters = files("dead-letter-");
+        assertEquals(1, deadLetters.size());
+        assertEquals(1, Files.readAllLines(deadLetters.get(0)).size());
+    }
+
+    @Test
+    void shutdown_WithPermanentlyFailingWrite_ShouldSpill() throws IOException {
+        when(collection.bulkWrite(anyList(), any(BulkWriteOptions.class))).thenAnswer(rejecting(id -> true));
+        WriteBehindServiceImpl writeBehind = newService();
+        writeBehind.submitAll(resources(1));
+
+        assertTimeoutPreemptively(Duration.ofSeconds(5), writeBehind::shutdown);
+
+        List<Path> spilled = spillFiles();
+        assertEquals(1, spilled.size());
+        assertEquals(1, Files.readAllLines(spilled.get(0)).size());
+    }
+
+    @Test
+    void replaySpilledWrites_WithLiveWriteStillQueued_ShouldDeleteFlushedSpillFile() throws IOException {
+        when(collection.bulkWrite(anyList(), any(BulkWriteOptions.class)))
+                .thenThrow(new MongoSocketException("connection reset", new ServerAddress()));
+        WriteBehindServiceImpl stopped = newService();
+        stopped.submitAll(resources(1));
+        stopped.shutdown();
+        assertEquals(1, spillFiles().size());
+
+        @SuppressWarnings("unchecked")
+        MongoCollection<Document> recovered = mock(MongoCollection.class);
+        when(mongoTemplate.getCollection(COLLECTION)).thenReturn(recovered);
+        when(recovered.bulkWrite(anyList(), any(BulkWriteOptions.class))).thenAnswer(rejecting("live"::equals));
+        WriteBehindServiceImpl writeBehind = newService();
+        SkillResource live = resources(1).get(0);
+        live.setId("live");
+        writeBehind.submit(live);
+
+        writeBehind.replaySpilledWrites();
+
+        assertEquals(1, writeBehind.pendingCount());
+        assertTrue(spillFiles().isEmpty());
+    }
+
+    private WriteBehindServiceImpl newService() {
+        return new WriteBehindServiceImpl(mongoTemplate, properties, new SimpleMeterRegistry());
+    }
+
+    private Answer<Object> recordBatch() {
+        return invocation -> {
+            batchSizes.add(invocation.<List<?>>getArgument(0).size());
+            return null;
+        };
+    }
+
+    /**
+     * Fails the writes whose {@code _id} matches {@code rejected} the way a schema validation
+     * error would, and records the size of the batch.
+     */
+    @SuppressWarnings("unchecked")
+    private Answer<Object> rejecting(Predicate<String> rejected) {
+        return invocation -> {
+            List<WriteModel<Document>> models = invocation.getArgument(0);
+            batchSizes.add(models.size());
+            List<BulkWriteError> errors = new ArrayList<>();
+            for (int i = 0; i < models.size(); i++) {
+                Bson filter = models.get(i) instanceof UpdateOneModel<Document> update
+                        ? update.getFilter() : ((ReplaceOneModel<Document>) models.get(i)).getFilter();
+                BsonValue id = filter.toBsonDocument().get("_id");
+                if (rejected.test(id.isString() ? id.asString().getValue() : id.toString())) {
+                    errors.add(new BulkWriteError(121, "Document failed validation", new BsonDocument(), i));
+                }
+            }
+            if (errors.isEmpty()) {
+                return null;
+            }
+            throw new MongoBulkWriteException(BulkWriteResult.unacknowledged(), errors, null, new ServerAddress(), Set.of());
+        };
+    }
+
+    private List<Path> spillFiles() throws IOException {
+        return files("write-behind-");
+    }
+
+    private List<Path> files(String prefix) throws IOException {
+        try (Stream<Path> files = Files.list(spillDirectory)) {
+            return files.filter(file -> file.getFileName().toString().startsWith(prefix)).toList();
+        }
+    }
+
+    private static List<SkillResource> resources(int count) {
+        List<SkillResource> resources = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            SkillResource resource = new SkillResource();
+            resource.setSkillName("Skill " + i);
+            resource.setRole("Java Developer");
+            resource.setExperienceLevel("Beginner");
+            resources.add(resource);
+        }
+        return resources;
+    }
+}
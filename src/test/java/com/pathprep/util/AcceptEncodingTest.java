@@ -0,0 +1,35 @@
+package com.pathprep.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AcceptEncodingTest {
+
+    @Test
+    void allowsGzip_WithGzipInList_ShouldAllow() {
+        assertTrue(AcceptEncoding.allowsGzip("deflate, GZIP;q=0.5, br"));
+    }
+
+    @Test
+    void allowsGzip_WithWildcard_ShouldAllow() {
+        assertTrue(AcceptEncoding.allowsGzip("*"));
+    }
+
+    @Test
+    void allowsGzip_WithZeroOrMalformedQuality_ShouldReject() {
+        assertFalse(AcceptEncoding.allowsGzip("gzip;q=0"));
+        assertFalse(AcceptEncoding.allowsGzip("gzip;q=zero"));
+    }
+
+    @Test
+    void allowsGzip_WithGzipRejectedBeforeWildcard_ShouldReject() {
+        assertFalse(AcceptEncoding.allowsGzip("gzip;q=0, *"));
+    }
+
+    @Test
+    void allowsGzip_WithoutGzip_ShouldReject() {
+        assertFalse(AcceptEncoding.allowsGzip(null));
+        assertFalse(AcceptEncoding.allowsGzip("identity, br"));
+    }
+}
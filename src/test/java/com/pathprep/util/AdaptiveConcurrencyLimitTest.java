@@ -0,0 +1,130 @@
+package com.pathprep.util;
+
+import com.pathprep.exception.ServiceUnavailableException;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveConcurrencyLimitTest {
+
+    private static final Duration WAIT = Duration.ofSeconds(5);
+
+    @Test
+    void acquire_OverLimit_ShouldQueueUntilPermitReleased() {
+        AdaptiveConcurrencyLimit limit = limit(1, 10);
+        AdaptiveConcurrencyLimit.Permit first = limit.acquire(WAIT).block();
+
+        AtomicReference<AdaptiveConcurrencyLimit.Permit> second = new AtomicReference<>();
+        limit.acquire(WAIT).subscribe(second::set);
+
+        assertNull(second.get());
+        assertEquals(1, limit.queued());
+        first.release();
+        assertNotNull(second.get());
+        assertEquals(0, limit.queued());
+        assertEquals(1, limit.inFlight());
+    }
+
+    @Test
+    void acquire_WithFullQueue_ShouldRejectImmediately() {
+        AdaptiveConcurrencyLimit limit = limit(1, 1);
+        limit.acquire(WAIT).block();
+        limit.acquire(WAIT).subscribe();
+
+        Mono<AdaptiveConcurrencyLimit.Permit> rejected = limit.acquire(WAIT);
+
+        assertThrows(ServiceUnavailableException.class, rejected::block);
+    }
+
+    @Test
+    void acquire_PastMaxWait_ShouldFailAndLeaveQueue() {
+        AdaptiveConcurrencyLimit limit = limit(1, 10);
+        limit.acquire(WAIT).block();
+
+        Mono<AdaptiveConcurrencyLimit.Permit> timedOut = limit.acquire(Duration.ofMillis(20));
+
+        assertThrows(ServiceUnavailableException.class, timedOut::block);
+        assertEquals(0, limit.queued());
+    }
+
+    @Test
+    void acquire_WhenCancelled_ShouldNotHoldSlot() {
+        AdaptiveConcurrencyLimit limit = limit(1, 10);
+        AdaptiveConcurrencyLimit.Permit first = limit.acquire(WAIT).block();
+        Disposable waiting = limit.acquire(WAIT).subscribe();
+
+        waiting.dispose();
+        first.release();
+
+        assertEquals(0, limit.queued());
+        assertEquals(0, limit.inFlight());
+    }
+
+    @Test
+    void dropped_ShouldHalveLimitDownToMinimum() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(
+                new AdaptiveConcurrencyLimit.Settings(8, 3, 16, 2.0, 100, 10));
+
+        limit.acquire(WAIT).block().dropped();
+        assertEquals(4, limit.limit());
+        limit.acquire(WAIT).block().dropped();
+        assertEquals(3, limit.limit());
+    }
+
+    @Test
+    void success_WithSlowSample_ShouldShrinkLimit() {
+        AdaptiveConcurrencyLimit limit = limit(10, 10);
+        limit.acquire(WAIT).block().success(100);
+
+        limit.acquire(WAIT).block().success(300);
+
+        assertEquals(9, limit.limit());
+    }
+
+    @Test
+    void success_WithFastSamplesAtFullUse_ShouldGrowLimit() {
+        AdaptiveConcurrencyLimit limit = limit(2, 10);
+
+        for (int i = 0; i < 20; i++) {
+            AdaptiveConcurrencyLimit.Permit a = limit.acquire(WAIT).block();
+            AdaptiveConcurrencyLimit.Permit b = limit.acquire(WAIT).block();
+            a.success(100);
+            b.success(110);
+        }
+
+        assertTrue(limit.limit() > 2);
+    }
+
+    @Test
+    void success_WhileLimitUnused_ShouldNotGrowLimit() {
+        AdaptiveConcurrencyLimit limit = limit(4, 10);
+
+        for (int i = 0; i < 50; i++) {
+            limit.acquire(WAIT).block().success(100);
+        }
+
+        assertEquals(4, limit.limit());
+    }
+
+    @Test
+    void release_Twice_ShouldFreeOneSlot() {
+        AdaptiveConcurrencyLimit limit = limit(2, 10);
+        AdaptiveConcurrencyLimit.Permit first = limit.acquire(WAIT).block();
+        limit.acquire(WAIT).block();
+
+        first.dropped();
+        first.release();
+
+        assertEquals(1, limit.inFlight());
+    }
+
+    private static AdaptiveConcurrencyLimit limit(int initialLimit, int maxQueued) {
+        return new AdaptiveConcurrencyLimit(new AdaptiveConcurrencyLimit.Settings(
+                initialLimit, 1, 32, 2.0, 100, maxQueued));
+    }
+}
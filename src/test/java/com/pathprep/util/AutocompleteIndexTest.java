@@ -0,0 +1,135 @@
+package com.pathprep.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AutocompleteIndexTest {
+
+    @Test
+    void search_WithPrefix_ShouldRankWholeNameBeforeWordBeforeInfix() {
+        AutocompleteIndex<String> index = index("Scripting", "Java Script", "JavaScript", "Go");
+
+        assertEquals(List.of("Scripting", "Java Script", "JavaScript"), index.search("script", 10));
+    }
+
+    @Test
+    void search_WithShortQuery_ShouldOnlyMatchWordPrefixes() {
+        AutocompleteIndex<String> index = index("Go", "Django", "Google Cloud");
+
+        assertEquals(List.of("Go", "Google Cloud"), index.search("go", 10));
+    }
+
+    @Test
+    void search_WithPreferenceAndPopularity_ShouldRankWithinMatchKind() {
+        AutocompleteIndex<String> index = AutocompleteIndex.of(List.of(
+                entry("1", "React", false, 5),
+                entry("2", "React Native", false, 50),
+                entry("3", "Redux", true, 0)));
+
+        assertEquals(List.of("Redux", "React Native", "React"), index.search("re", 10));
+        assertEquals(List.of("Redux"), index.search("re", 1));
+    }
+
+    @Test
+    void search_WithBlankQueryOrZeroLimit_ShouldReturnNothing() {
+        AutocompleteIndex<String> index = index("Java");
+
+        assertTrue(index.search("  ", 10).isEmpty());
+        assertTrue(index.search("java", 0).isEmpty());
+    }
+
+    @Test
+    void with_WithExistingId_ShouldReplaceEntry() {
+        AutocompleteIndex<String> index = index("Java", "Kotlin");
+
+        AutocompleteIndex<String> updated = index.with(entry("0", "Scala", false, 0));
+
+        assertTrue(updated.search("java", 10).isEmpty());
+        assertEquals(List.of("Scala"), updated.search("cal", 10));
+        assertEquals(List.of("Java"), index.search("java", 10));
+    }
+
+    @Test
+    void without_PastOverlayLimit_ShouldCompactAndKeepResults() {
+        List<AutocompleteIndex.Entry<String>> entries = new ArrayList<>();
+        for (int i = 0; i < AutocompleteIndex.MAX_OVERLAY * 2; i++) {
+            entries.add(entry(String.valueOf(i), "Skill " + i, false, 0));
+        }
+        AutocompleteIndex<String> index = AutocompleteIndex.of(entries);
+
+        for (int i = 0; i < AutocompleteIndex.MAX_OVERLAY + 10; i++) {
+            index = index.without(String.valueOf(i));
+        }
+
+        assertTrue(index.search("skill 1", 1000).stream().allMatch(name ->
+                Integer.parseInt(name.substring(6)) >= AutocompleteIndex.MAX_OVERLAY + 10));
+        assertEquals(List.of("Skill 511"), index.search("ill 511", 10));
+    }
+
+    /**
+     * Run with {@code -Dbenchmarks=true}. Builds an index of 100k generated names and reports
+     * per-query latency against the linear case-insensitive scan that ranking all matches needs.
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+    void benchmark_SearchAt100kSkills() {
+        Random random = new Random(42);
+        String[] words = {"java", "script", "spring", "cloud", "data", "react", "native", "kube", "flow", "net",
+                "graph", "rust", "query", "stream", "test", "secure", "mobile", "design", "ops", "ml"};
+        List<AutocompleteIndex.Entry<String>> entries = new ArrayList<>();
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < 100_000; i++) {
+            String name = words[random.nextInt(words.length)] + words[random.nextInt(words.length)]
+                    + " " + words[random.nextInt(words.length)] + " " + i;
+            names.add(name);
+            entries.add(entry(String.valueOf(i), name, random.nextInt(10) == 0, random.nextInt(1000)));
+        }
+
+        AutocompleteIndex<String> index = AutocompleteIndex.of(entries);
+        long start = System.nanoTime();
+        index = AutocompleteIndex.of(entries);
+        System.out.printf("Build: %d ms%n", (System.nanoTime() - start) / 1_000_000);
+
+        String[] queries = {"j", "ja", "jav", "spr", "ream", "cloud n", "kubeflow", "graphql", "12345", "zzz"};
+        int iterations = 200;
+        for (int i = 0; i < 20; i++) {
+            for (String query : queries) {
+                index.search(query, 10);
+            }
+        }
+        for (String query : queries) {
+            start = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                index.search(query, 10);
+            }
+            long indexed = System.nanoTime() - start;
+            start = System.nanoTime();
+            for (int i = 0; i < iterations / 10; i++) {
+                String needle = query.toLowerCase(Locale.ROOT);
+                names.stream().filter(name -> name.toLowerCase(Locale.ROOT).contains(needle)).toList();
+            }
+            long scanned = (System.nanoTime() - start) * 10;
+            System.out.printf("%-10s index %8.1f us/op, scan %8.1f us/op%n", query,
+                    indexed / 1_000.0 / iterations, scanned / 1_000.0 / iterations);
+        }
+    }
+
+    private static AutocompleteIndex<String> index(String... names) {
+        List<AutocompleteIndex.Entry<String>> entries = new ArrayList<>();
+        for (int i = 0; i < names.length; i++) {
+            entries.add(entry(String.valueOf(i), names[i], false, 0));
+        }
+        return AutocompleteIndex.of(entries);
+    }
+
+    private static AutocompleteIndex.Entry<String> entry(String id, String name, boolean preferred, long popularity) {
+        return new AutocompleteIndex.Entry<>(id, name, preferred, popularity, name);
+    }
+}
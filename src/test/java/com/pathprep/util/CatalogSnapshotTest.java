@@ -0,0 +1,95 @@
+package com.pathprep.util;
+
+import com.pathprep.model.Role;
+import com.pathprep.model.Skill;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CatalogSnapshotTest {
+
+    @Test
+    void getVersion_WithSameContent_ShouldMatch() {
+        CatalogSnapshot first = new CatalogSnapshot(List.of(role("1", "Backend Developer")), List.of(skill("2", "Java")));
+        CatalogSnapshot second = new CatalogSnapshot(List.of(role("1", "Backend Developer")), List.of(skill("2", "Java")));
+
+        assertEquals(first.getVersion(), second.getVersion());
+        assertNotEquals(CatalogSnapshot.EMPTY.getVersion(), first.getVersion());
+    }
+
+    @Test
+    void withRole_WithExistingId_ShouldReplaceAndChangeVersion() {
+        CatalogSnapshot snapshot = new CatalogSnapshot(List.of(role("1", "Backend Developer")), List.of());
+
+        CatalogSnapshot updated = snapshot.withRole(role("1", "Backend Engineer"));
+
+        assertEquals(1, updated.getRoles().size());
+        assertNull(updated.findRoleByName("Backend Developer"));
+        assertEquals("1", updated.findRoleByName("Backend Engineer").getId());
+        assertNotEquals(snapshot.getVersion(), updated.getVersion());
+        assertNotNull(snapshot.findRoleByName("Backend Developer"));
+    }
+
+    @Test
+    void withoutSkill_WithId_ShouldRemoveFromAllLookups() {
+        CatalogSnapshot snapshot = new CatalogSnapshot(List.of(), List.of(skill("1", "Java"), skill("2", "Kotlin")));
+
+        CatalogSnapshot updated = snapshot.withoutSkill("1");
+
+        assertNull(updated.findSkillById("1"));
+        assertNull(updated.findSkillByName("Java"));
+        assertEquals(List.of("Kotlin"), updated.getSkills().stream().map(Skill::getName).toList());
+    }
+
+    @Test
+    void searchSkills_WithPopularity_ShouldRankCoreThenPopularSkillsFirst() {
+        Skill core = skill("3", "Java EE");
+        core.setCore(true);
+        CatalogSnapshot snapshot = new CatalogSnapshot(List.of(),
+                List.of(skill("1", "Java"), skill("2", "JavaScript"), core, skill("4", "Go")),
+                Map.of("javascript", 50L, "java", 10L));
+
+        assertEquals(List.of("Java EE", "JavaScript", "Java"),
+                snapshot.searchSkills("jAVa", 10).stream().map(Skill::getName).toList());
+    }
+
+    @Test
+    void withSkill_WithNewSkill_ShouldBeSearchable() {
+        CatalogSnapshot snapshot = new CatalogSnapshot(List.of(), List.of(skill("1", "Java")));
+
+        CatalogSnapshot updated = snapshot.withSkill(skill("2", "Kotlin")).withoutSkill("1");
+
+        assertEquals(List.of("Kotlin"), updated.searchSkills("kot", 10).stream().map(Skill::getName).toList());
+        assertTrue(updated.searchSkills("java", 10).isEmpty());
+        assertEquals(1, snapshot.searchSkills("java", 10).size());
+    }
+
+    @Test
+    void getLastModified_WithEntities_ShouldReturnLatestUpdate() {
+        Role role = role("1", "Backend Developer");
+        role.setUpdatedAt(LocalDateTime.of(2024, 1, 1, 10, 0));
+        Skill skill = skill("2", "Java");
+        skill.setUpdatedAt(LocalDateTime.of(2024, 3, 1, 10, 0));
+
+        assertEquals(LocalDateTime.of(2024, 3, 1, 10, 0),
+                new CatalogSnapshot(List.of(role), List.of(skill)).getLastModified());
+    }
+
+    private static Role role(String id, String name) {
+        Role role = new Role();
+        role.setId(id);
+        role.setName(name);
+        return role;
+    }
+
+    private static Skill skill(String id, String name) {
+        Skill skill = new Skill();
+        skill.setId(id);
+        skill.setName(name);
+        return skill;
+    }
+}
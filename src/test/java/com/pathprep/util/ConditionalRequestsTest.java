@@ -0,0 +1,29 @@
+package com.pathprep.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConditionalRequestsTest {
+
+    @Test
+    void matches_WithTagInList_ShouldMatch() {
+        assertTrue(ConditionalRequests.matches("\"a1\", \"b2\"", "b2"));
+    }
+
+    @Test
+    void matches_WithWeakTag_ShouldMatch() {
+        assertTrue(ConditionalRequests.matches("W/\"b2\"", "b2"));
+    }
+
+    @Test
+    void matches_WithWildcard_ShouldMatchAnyVersion() {
+        assertTrue(ConditionalRequests.matches("*", "b2"));
+    }
+
+    @Test
+    void matches_WithOtherTagOrNoVersion_ShouldNotMatch() {
+        assertFalse(ConditionalRequests.matches("\"a1\"", "b2"));
+        assertFalse(ConditionalRequests.matches("\"a1\"", null));
+    }
+}
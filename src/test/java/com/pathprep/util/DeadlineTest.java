@@ -0,0 +1,60 @@
+package com.pathprep.util;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DeadlineTest {
+
+    @Test
+    void within_WithTooLittleTimeLeft_ShouldFailWithoutSubscribing() {
+        AtomicBoolean subscribed = new AtomicBoolean();
+        Mono<String> query = Mono.fromCallable(() -> {
+            subscribed.set(true);
+            return "result";
+        });
+
+        Exception e = assertThrows(Exception.class, () -> query
+                .transform(Deadline.within(Duration.ofSeconds(5), Duration.ofSeconds(1)))
+                .contextWrite(context -> context.put(Deadline.CONTEXT_KEY, Deadline.after(Duration.ofMillis(500))))
+                .block());
+
+        assertTrue(e.getCause() instanceof TimeoutException);
+        assertFalse(subscribed.get());
+    }
+
+    @Test
+    void within_WithDeadlineBeforeCap_ShouldTimeOutAtDeadline() {
+        long started = System.nanoTime();
+
+        Exception e = assertThrows(Exception.class, () -> Mono.never()
+                .transform(Deadline.within(Duration.ofSeconds(10)))
+                .contextWrite(context -> context.put(Deadline.CONTEXT_KEY, Deadline.after(Duration.ofMillis(100))))
+                .block());
+
+        assertTrue(e.getCause() instanceof TimeoutException);
+        assertTrue(System.nanoTime() - started < Duration.ofSeconds(5).toNanos());
+    }
+
+    @Test
+    void within_WithoutDeadline_ShouldApplyCap() {
+        assertEquals("result", Mono.just("result").transform(Deadline.within(Duration.ofSeconds(1))).block());
+        assertThrows(Exception.class, () -> Mono.never()
+                .transform(Deadline.within(Duration.ofMillis(50)))
+                .block());
+    }
+
+    @Test
+    void remaining_AfterDeadline_ShouldBeZero() {
+        Deadline deadline = Deadline.after(Duration.ofMillis(-1));
+
+        assertEquals(Duration.ZERO, deadline.remaining());
+        assertFalse(deadline.hasAtLeast(Duration.ofMillis(1)));
+        assertTrue(Deadline.after(Duration.ofSeconds(10)).hasAtLeast(Duration.ofSeconds(5)));
+    }
+}
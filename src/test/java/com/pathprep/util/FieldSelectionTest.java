@@ -0,0 +1,96 @@
+package com.pathprep.util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.pathprep.model.SkillResource;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FieldSelectionTest {
+
+    private static final Set<String> ALLOWED = Set.of("id", "skillName", "learningPaths", "projects");
+    private static final FieldSelection DEFAULTS = FieldSelection.of("id", "skillName");
+
+    @Test
+    void parse_WithBlankOrWildcard_ShouldReturnDefaultsOrAll() {
+        assertSame(DEFAULTS, FieldSelection.parse(null, ALLOWED, DEFAULTS));
+        assertSame(DEFAULTS, FieldSelection.parse(" , ", ALLOWED, DEFAULTS));
+        assertTrue(FieldSelection.parse("skillName,*", ALLOWED, DEFAULTS).isAll());
+    }
+
+    @Test
+    void parse_WithUnknownField_ShouldThrowIllegalArgument() {
+        assertThrows(IllegalArgumentException.class, () -> FieldSelection.parse("skillName,secret", ALLOWED, DEFAULTS));
+    }
+
+    @Test
+    void applyTo_WithNestedPaths_ShouldProjectOnlyTheOutermost() {
+        Query query = new Query();
+
+        FieldSelection.parse("id,learningPaths.title,learningPaths,projects.url", ALLOWED, DEFAULTS)
+                .applyTo(query, List.of("createdAt"), List.of());
+
+        assertEquals(new Document("createdAt", 1).append("learningPaths", 1).append("projects.url", 1),
+                query.getFieldsObject());
+    }
+
+    @Test
+    void applyTo_WithWholeField_ShouldProjectTheRoot() {
+        Query query = new Query();
+
+        FieldSelection.of("projects.title").applyTo(query, List.of(), List.of("projects"));
+
+        assertEquals(new Document("projects", 1), query.getFieldsObject());
+    }
+
+    @Test
+    void applyTo_WithAll_ShouldNotProject() {
+        Query query = new Query();
+
+        FieldSelection.ALL.applyTo(query, List.of("createdAt"), List.of());
+
+        assertTrue(query.getFieldsObject().isEmpty());
+    }
+
+    @Test
+    void apply_WithNestedPath_ShouldPruneInsideArrays() {
+        SkillResource.ResourceItem item = SkillResource.ResourceItem.builder()
+                .title("Official docs")
+                .url("https://docs.docker.com")
+                .build();
+        SkillResource resource = SkillResource.builder()
+                .id("65f1c2a9e4b0a1b2c3d4e5f8")
+                .skillName("Docker")
+                .role("DevOps Engineer")
+                .learningPaths(List.of(item, item))
+                .build();
+
+        JsonNode node = FieldSelection.of("skillName", "learningPaths.title").apply(resource);
+
+        assertEquals(Set.of("skillName", "learningPaths"), fieldNames(node));
+        assertEquals(2, node.get("learningPaths").size());
+        assertEquals(Set.of("title"), fieldNames(node.get("learningPaths").get(0)));
+    }
+
+    @Test
+    void includes_WithParentOrChildPath_ShouldMatch() {
+        FieldSelection selection = FieldSelection.of("learningPaths.title");
+
+        assertTrue(selection.includes("learningPaths"));
+        assertTrue(selection.includes("learningPaths.title.text"));
+        assertFalse(selection.includes("projects"));
+        assertFalse(selection.includes("learning"));
+    }
+
+    private static Set<String> fieldNames(JsonNode node) {
+        Set<String> names = new HashSet<>();
+        node.fieldNames().forEachRemaining(names::add);
+        return names;
+    }
+}
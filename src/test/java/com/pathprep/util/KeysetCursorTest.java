@@ -0,0 +1,80 @@
+package com.pathprep.util;
+
+import com.pathprep.dto.CursorPage;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KeysetCursorTest {
+
+    @Test
+    void decode_WithEncodedCursor_ShouldRoundTrip() {
+        KeysetCursor cursor = KeysetCursor.decode(KeysetCursor.encode(42, "65f1c2a9e4b0a1b2c3d4e5f6"));
+
+        assertEquals(42, cursor.longValue());
+        assertEquals("65f1c2a9e4b0a1b2c3d4e5f6", cursor.id());
+    }
+
+    @Test
+    void decode_WithIdOnlyCursor_ShouldHaveNoValue() {
+        KeysetCursor cursor = KeysetCursor.decode(KeysetCursor.encode(null, "65f1c2a9e4b0a1b2c3d4e5f6"));
+
+        assertNull(cursor.value());
+        assertEquals("65f1c2a9e4b0a1b2c3d4e5f6", cursor.id());
+    }
+
+    @Test
+    void decode_WithBlankToken_ShouldReturnNull() {
+        assertNull(KeysetCursor.decode(null));
+        assertNull(KeysetCursor.decode(" "));
+    }
+
+    @Test
+    void decode_WithGarbage_ShouldThrowIllegalArgument() {
+        assertThrows(IllegalArgumentException.class, () -> KeysetCursor.decode("not a cursor!"));
+        assertThrows(IllegalArgumentException.class, () -> KeysetCursor.decode("bm8tc2VwYXJhdG9y"));
+    }
+
+    @Test
+    void dateValue_WithEpochMillisCursor_ShouldMatchOriginalInstant() {
+        LocalDateTime createdAt = LocalDateTime.of(2024, 3, 1, 12, 30, 15);
+        KeysetCursor cursor = KeysetCursor.decode(KeysetCursor.encode(KeysetCursor.epochMillis(createdAt), "id"));
+
+        assertEquals(KeysetCursor.epochMillis(createdAt).longValue(), cursor.dateValue().getTime());
+    }
+
+    @Test
+    void doubleValue_WithScoreCursor_ShouldRoundTripExactly() {
+        double score = 1.2345678901234567;
+        KeysetCursor cursor = KeysetCursor.decode(KeysetCursor.encode(score, "65f1c2a9e4b0a1b2c3d4e5f6"));
+
+        assertEquals(Double.doubleToLongBits(score), Double.doubleToLongBits(cursor.doubleValue()));
+        assertEquals("65f1c2a9e4b0a1b2c3d4e5f6", cursor.id());
+    }
+
+    @Test
+    void doubleValue_WithNonNumericValue_ShouldThrowIllegalArgument() {
+        KeysetCursor cursor = KeysetCursor.decode(KeysetCursor.encode("high", "id"));
+
+        assertThrows(IllegalArgumentException.class, cursor::doubleValue);
+    }
+
+    @Test
+    void of_WithExtraItem_ShouldTrimAndSetNextCursor() {
+        CursorPage<String> page = CursorPage.of(List.of("a", "b", "c"), 2, item -> "after-" + item);
+
+        assertEquals(List.of("a", "b"), page.getItems());
+        assertEquals("after-b", page.getNextCursor());
+    }
+
+    @Test
+    void of_WithoutExtraItem_ShouldBeLastPage() {
+        CursorPage<String> page = CursorPage.of(List.of("a", "b"), 2, item -> "after-" + item);
+
+        assertEquals(List.of("a", "b"), page.getItems());
+        assertNull(page.getNextCursor());
+    }
+}
@@ -0,0 +1,49 @@
+package com.pathprep.util;
+
+import com.pathprep.model.QuestionDifficulty;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QuestionBankPartitionTest {
+
+    private static final int SPRING = 0;
+    private static final int JAVA = 1;
+
+    private final QuestionBankPartition partition = QuestionBankPartition.EMPTY.with(List.of(
+            new QuestionBankPartition.Entry("q1", QuestionDifficulty.EASY, SPRING),
+            new QuestionBankPartition.Entry("q2", QuestionDifficulty.HARD, SPRING),
+            new QuestionBankPartition.Entry("q3", QuestionDifficulty.EASY, JAVA),
+            new QuestionBankPartition.Entry("q4", QuestionDifficulty.EASY, SPRING),
+            new QuestionBankPartition.Entry("q5", QuestionDifficulty.MEDIUM, JAVA)), List.of());
+
+    @Test
+    void sample_WithoutFilters_ShouldReturnDistinctIds() {
+        List<String> sample = partition.sample(null, QuestionBankPartition.ANY_CATEGORY, 4, new Random(1));
+
+        assertEquals(4, sample.size());
+        assertEquals(4, new HashSet<>(sample).size());
+    }
+
+    @Test
+    void sample_WithDifficultyAndCategory_ShouldOnlyReturnMatches() {
+        List<String> sample = partition.sample(QuestionDifficulty.EASY, SPRING, 10, new Random(1));
+
+        assertEquals(new HashSet<>(List.of("q1", "q4")), new HashSet<>(sample));
+    }
+
+    @Test
+    void with_WhenRemovingAndReplacing_ShouldLeaveOriginalUntouched() {
+        QuestionBankPartition updated = partition.with(
+                List.of(new QuestionBankPartition.Entry("q3", QuestionDifficulty.HARD, JAVA)), List.of("q2"));
+
+        assertEquals(5, partition.size());
+        assertEquals(4, updated.size());
+        assertEquals(List.of("q3"), updated.sample(QuestionDifficulty.HARD, QuestionBankPartition.ANY_CATEGORY, 10, new Random(1)));
+        assertTrue(updated.sample(QuestionDifficulty.EASY, JAVA, 10, new Random(1)).isEmpty());
+    }
+}
@@ -0,0 +1,29 @@
+package com.pathprep.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QuestionFingerprintTest {
+
+    @Test
+    void of_WithCaseAndPunctuationVariants_ShouldMatch() {
+        String original = "What is the difference between @Component and @Service?";
+        String variant = "  what is the DIFFERENCE between @Component, and @Service  ";
+
+        assertEquals(QuestionFingerprint.of(original), QuestionFingerprint.of(variant));
+    }
+
+    @Test
+    void of_WithDifferentQuestions_ShouldDiffer() {
+        assertNotEquals(
+                QuestionFingerprint.of("What is C++?"),
+                QuestionFingerprint.of("What is C?"));
+    }
+
+    @Test
+    void normalize_WithNull_ShouldReturnEmpty() {
+        assertEquals("", QuestionFingerprint.normalize(null));
+        assertEquals(32, QuestionFingerprint.of(null).length());
+    }
+}
@@ -0,0 +1,32 @@
+package com.pathprep.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RedactionTest {
+
+    @Test
+    void redact_WithCredentials_ShouldMaskThem() {
+        assertEquals("Authorization: Bearer <secret> key <secret>",
+                Redaction.redact("Authorization: Bearer abc.def-ghi key gsk_0123456789abcdefABCDEF"));
+    }
+
+    @Test
+    void redact_WithContactDetails_ShouldMaskThem() {
+        assertEquals("mail <email> or call +1 (111) 111-1111",
+                Redaction.redact("mail jane.doe@example.com or call +1 (555) 123-4567"));
+    }
+
+    @Test
+    void redact_WithDatesAndRanges_ShouldKeepThem() {
+        String text = "{\"weekNumber\": 6-7, \"published\": \"2024-01-15\", \"version\": \"1.2.3\"}";
+
+        assertEquals(text, Redaction.redact(text));
+    }
+
+    @Test
+    void redact_WithNumberInJson_ShouldKeepItANumber() {
+        assertEquals("{\"id\": 11111111111}", Redaction.redact("{\"id\": 12345678901}"));
+    }
+}
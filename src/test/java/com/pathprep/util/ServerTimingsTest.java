@@ -0,0 +1,25 @@
+package com.pathprep.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ServerTimingsTest {
+
+    @Test
+    void toHeaderValue_WithRepeatedStage_ShouldSumDurationsAndCountCalls() {
+        ServerTimings timings = new ServerTimings(0);
+
+        timings.record("db_lookup", 1_500_000);
+        timings.record("llm", 250_000_000);
+        timings.record("db_lookup", 2_000_000);
+
+        assertEquals("db_lookup;dur=3.5;desc=\"2 calls\", llm;dur=250.0, total;dur=300.0",
+                timings.toHeaderValue(300_000_000));
+    }
+
+    @Test
+    void toHeaderValue_WithoutStages_ShouldOnlyReportTotal() {
+        assertEquals("total;dur=1.2", new ServerTimings(1_000_000).toHeaderValue(2_200_000));
+    }
+}
@@ -0,0 +1,82 @@
+package com.pathprep.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SimHashIndexTest {
+
+    @Test
+    void simHash_WithRewordedPunctuation_ShouldBeClose() {
+        long a = SimHash.of("What is the difference between an abstract class and an interface in Java?");
+        long b = SimHash.of("What's the difference between an abstract class and an interface in Java");
+
+        assertTrue(SimHash.distance(a, b) <= 6);
+    }
+
+    @Test
+    void simHash_WithUnrelatedQuestions_ShouldBeFar() {
+        long a = SimHash.of("What is the difference between an abstract class and an interface in Java?");
+        long b = SimHash.of("How does garbage collection work in the JVM and what are the main collectors?");
+
+        assertTrue(SimHash.distance(a, b) > 6);
+    }
+
+    @Test
+    void addIfAbsent_WithSignatureWithinDistance_ShouldReject() {
+        SimHashIndex index = new SimHashIndex(3);
+        long signature = 0x0123456789abcdefL;
+
+        assertTrue(index.addIfAbsent(signature));
+        assertFalse(index.addIfAbsent(signature ^ 0b10101L));
+        assertTrue(index.addIfAbsent(signature ^ 0b1111L));
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    void containsNear_WithRandomFlipsUpToMaxDistance_ShouldAlwaysMatch() {
+        SimHashIndex index = new SimHashIndex(6);
+        Random random = new Random(42);
+        long signature = random.nextLong();
+        index.addIfAbsent(signature);
+
+        for (int i = 0; i < 1_000; i++) {
+            long flipped = signature;
+            for (int f = 0; f < 6; f++) {
+                flipped ^= 1L << random.nextInt(64);
+            }
+            assertTrue(index.containsNear(flipped));
+        }
+    }
+
+    /**
+     * Run with {@code -Dbenchmarks=true}. Prints memory footprint and per-lookup latency
+     * for a partition far larger than any real (role, experience, skill) combination.
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+    void benchmark_LookupLatencyAndMemory() {
+        int entries = 100_000;
+        int lookups = 200_000;
+        SimHashIndex index = new SimHashIndex(6);
+        Random random = new Random(7);
+        for (int i = 0; i < entries; i++) {
+            index.addIfAbsent(random.nextLong());
+        }
+
+        long hits = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < lookups; i++) {
+            if (index.containsNear(random.nextLong())) {
+                hits++;
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+
+        System.out.printf("SimHashIndex: %d entries, ~%d KiB, %.2f us/lookup, %d hits%n",
+                index.size(), index.estimatedBytes() / 1024, elapsed / 1_000.0 / lookups, hits);
+    }
+}